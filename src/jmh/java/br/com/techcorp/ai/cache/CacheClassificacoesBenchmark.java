@@ -0,0 +1,81 @@
+package br.com.techcorp.ai.cache;
+
+import br.com.techcorp.benchmark.CorpusEmails;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dos caminhos de acerto e falha do cache de classificações
+ *
+ * Ambos incluem o cálculo da chave do texto, como em classificarTexto.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheClassificacoesBenchmark {
+
+    @Param({ "CURTO", "MEDIO", "LONGO" })
+    public CorpusEmails.Tamanho tamanho;
+
+    @Param({ "false", "true" })
+    public boolean verificarColisoes;
+
+    private CacheClassificacoes cache;
+    private String[] textosArmazenados;
+    private String[] textosAusentes;
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        PropriedadesModelo.CacheClassificacoes configuracao = new PropriedadesModelo.CacheClassificacoes();
+        configuracao.setVerificarColisoes(verificarColisoes);
+        cache = new CacheClassificacoes(configuracao);
+
+        textosArmazenados = CorpusEmails.textos(tamanho);
+        textosAusentes = new String[textosArmazenados.length];
+        for (int i = 0; i < textosArmazenados.length; i++) {
+            cache.armazenar(cache.chave(textosArmazenados[i]),
+                    new ResultadoClassificacao(SetorEmail.ATENDIMENTO, 0.5, "benchmark"));
+            // Mesmo tamanho, conteúdo diferente: nunca está no cache
+            textosAusentes[i] = "#" + textosArmazenados[i].substring(1);
+        }
+    }
+
+    private int proximo() {
+        indice = (indice + 1) % CorpusEmails.QUANTIDADE;
+        return indice;
+    }
+
+    @Benchmark
+    public ChaveConteudo chave() {
+        return cache.chave(textosArmazenados[proximo()]);
+    }
+
+    @Benchmark
+    public ResultadoClassificacao acerto() {
+        return cache.obter(cache.chave(textosArmazenados[proximo()]));
+    }
+
+    @Benchmark
+    public ResultadoClassificacao falha() {
+        return cache.obter(cache.chave(textosAusentes[proximo()]));
+    }
+}
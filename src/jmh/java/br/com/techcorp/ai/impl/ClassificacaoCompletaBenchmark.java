@@ -0,0 +1,109 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferencia;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferenciaDjl;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.benchmark.CorpusEmails;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de classificarTexto de ponta a ponta
+ *
+ * O classificador Hugging Face é medido sem cache (todas as chamadas
+ * percorrem o pipeline) e com cache já preenchido (todas as chamadas
+ * são acertos). Sem o modelo exportado em ai.modelo.diretorio, o caminho
+ * medido é o da pontuação semântica.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassificacaoCompletaBenchmark {
+
+    // Registro em memória: o custo de registrar as métricas entra na medição, como em produção
+    private static final MetricasClassificacao METRICAS = new MetricasClassificacao(new SimpleMeterRegistry());
+    private static final List<FornecedorMotorInferencia> MOTORES = List.of(new FornecedorMotorInferenciaDjl());
+
+    @Param({ "CURTO", "MEDIO", "LONGO" })
+    public CorpusEmails.Tamanho tamanho;
+
+    private ClassificadorBaseadoEmRegras regras;
+    private ClassificadorHuggingFaceReal huggingFaceSemCache;
+    private ClassificadorHuggingFaceReal huggingFaceComCache;
+    private String[] textos;
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        textos = CorpusEmails.textos(tamanho);
+        regras = new ClassificadorBaseadoEmRegras();
+
+        PropriedadesModelo semCache = new PropriedadesModelo();
+        semCache.setCache(false);
+        huggingFaceSemCache = new ClassificadorHuggingFaceReal(semCache, METRICAS, MOTORES);
+        huggingFaceComCache = new ClassificadorHuggingFaceReal(new PropriedadesModelo(), METRICAS, MOTORES);
+
+        carregar(huggingFaceSemCache);
+        carregar(huggingFaceComCache);
+
+        for (String texto : textos) {
+            huggingFaceComCache.classificarTexto(texto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        huggingFaceSemCache.encerrar();
+        huggingFaceComCache.encerrar();
+    }
+
+    /**
+     * Carga síncrona, feita na aplicação pelo CicloVidaModelo (o aquecimento fica com o JMH)
+     */
+    private static void carregar(ClassificadorHuggingFaceReal classificador) {
+        classificador.carregarModelo();
+        if (!classificador.isModeloCarregado()) {
+            throw new IllegalStateException("Modelo não carregou: " + classificador.getEstado());
+        }
+    }
+
+    private String proximoTexto() {
+        indice = (indice + 1) % CorpusEmails.QUANTIDADE;
+        return textos[indice];
+    }
+
+    @Benchmark
+    public ResultadoClassificacao regras() {
+        return regras.classificarTexto(proximoTexto());
+    }
+
+    @Benchmark
+    public ResultadoClassificacao huggingFaceSemCache() {
+        return huggingFaceSemCache.classificarTexto(proximoTexto());
+    }
+
+    @Benchmark
+    public ResultadoClassificacao huggingFaceAcertoCache() {
+        return huggingFaceComCache.classificarTexto(proximoTexto());
+    }
+}
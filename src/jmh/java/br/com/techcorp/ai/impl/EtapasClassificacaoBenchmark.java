@@ -0,0 +1,172 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferencia;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferenciaDjl;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.ai.texto.AutomatoPalavrasChave;
+import br.com.techcorp.ai.texto.NormalizadorTexto;
+import br.com.techcorp.benchmark.CorpusEmails;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.SetorEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de cada etapa da classificação, isoladas
+ *
+ * Cada etapa recebe como entrada a saída já calculada da etapa anterior,
+ * de modo que o número medido corresponde apenas à etapa em questão.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EtapasClassificacaoBenchmark {
+
+    // Registro em memória: o custo de registrar as métricas entra na medição, como em produção
+    private static final MetricasClassificacao METRICAS = new MetricasClassificacao(new SimpleMeterRegistry());
+    private static final List<FornecedorMotorInferencia> MOTORES = List.of(new FornecedorMotorInferenciaDjl());
+
+    @Param({ "CURTO", "MEDIO", "LONGO" })
+    public CorpusEmails.Tamanho tamanho;
+
+    private ClassificadorBaseadoEmRegras regras;
+    private ClassificadorHuggingFaceReal huggingFace;
+
+    private String[] textos;
+    private String[] normalizadosRegras;
+    private String[] preparadosModelo;
+    private AutomatoPalavrasChave.Correspondencias[] correspondenciasRegras;
+    private AutomatoPalavrasChave.Correspondencias[] correspondenciasModelo;
+    private double[][] scoresRegras;
+    private double[][] scoresModelo;
+    private SetorEmail[] setoresRegras;
+    private SetorEmail[] setoresModelo;
+
+    private int indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        regras = new ClassificadorBaseadoEmRegras();
+        huggingFace = new ClassificadorHuggingFaceReal(new PropriedadesModelo(), METRICAS, MOTORES);
+
+        textos = CorpusEmails.textos(tamanho);
+        int quantidade = textos.length;
+        normalizadosRegras = new String[quantidade];
+        preparadosModelo = new String[quantidade];
+        correspondenciasRegras = new AutomatoPalavrasChave.Correspondencias[quantidade];
+        correspondenciasModelo = new AutomatoPalavrasChave.Correspondencias[quantidade];
+        scoresRegras = new double[quantidade][];
+        scoresModelo = new double[quantidade][];
+        setoresRegras = new SetorEmail[quantidade];
+        setoresModelo = new SetorEmail[quantidade];
+
+        for (int i = 0; i < quantidade; i++) {
+            normalizadosRegras[i] = regras.normalizarTexto(textos[i]);
+            correspondenciasRegras[i] = regras.buscarPalavrasChave(normalizadosRegras[i]);
+            scoresRegras[i] = regras.calcularScores(normalizadosRegras[i], correspondenciasRegras[i]);
+            setoresRegras[i] = ScoresSetores.melhorSetor(scoresRegras[i]);
+
+            preparadosModelo[i] = huggingFace.prepararTextoParaClassificacao(textos[i]);
+            correspondenciasModelo[i] = huggingFace.buscarPalavrasChave(preparadosModelo[i]);
+            scoresModelo[i] = huggingFace.calcularScoresSemanticosAvancados(correspondenciasModelo[i]);
+            setoresModelo[i] = ScoresSetores.melhorSetor(scoresModelo[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        huggingFace.encerrar();
+    }
+
+    private int proximo() {
+        indice = (indice + 1) % CorpusEmails.QUANTIDADE;
+        return indice;
+    }
+
+    // Normalização
+
+    @Benchmark
+    public String normalizacaoRegras() {
+        return NormalizadorTexto.normalizarParaRegras(textos[proximo()]);
+    }
+
+    @Benchmark
+    public String normalizacaoModelo() {
+        return NormalizadorTexto.prepararParaModelo(textos[proximo()], 500);
+    }
+
+    // Busca de palavras-chave (autômato)
+
+    @Benchmark
+    public AutomatoPalavrasChave.Correspondencias buscaPalavrasChaveRegras() {
+        return regras.buscarPalavrasChave(normalizadosRegras[proximo()]);
+    }
+
+    @Benchmark
+    public AutomatoPalavrasChave.Correspondencias buscaPalavrasChaveModelo() {
+        return huggingFace.buscarPalavrasChave(preparadosModelo[proximo()]);
+    }
+
+    // Pontuação por setor (as regras incluem padrões regex e regras de contexto)
+
+    @Benchmark
+    public double[] pontuacaoRegras() {
+        int i = proximo();
+        return regras.calcularScores(normalizadosRegras[i], correspondenciasRegras[i]);
+    }
+
+    @Benchmark
+    public double[] pontuacaoSemantica() {
+        return huggingFace.calcularScoresSemanticosAvancados(correspondenciasModelo[proximo()]);
+    }
+
+    // Regras de contexto
+
+    @Benchmark
+    public double[] regrasContexto() {
+        double[] scores = ScoresSetores.novoVetor();
+        regras.aplicarRegrasContexto(correspondenciasRegras[proximo()], scores);
+        return scores;
+    }
+
+    @Benchmark
+    public double[] regrasContextoAvancadas() {
+        double[] scores = ScoresSetores.novoVetor();
+        huggingFace.aplicarRegrasContextoAvancadas(correspondenciasModelo[proximo()], scores);
+        return scores;
+    }
+
+    // Geração do motivo
+
+    @Benchmark
+    public String motivoRegras() {
+        int i = proximo();
+        return regras.gerarMotivo(setoresRegras[i], correspondenciasRegras[i], scoresRegras[i][setoresRegras[i].ordinal()]);
+    }
+
+    @Benchmark
+    public String motivoHuggingFace() {
+        int i = proximo();
+        return huggingFace.gerarMotivoHuggingFace(setoresModelo[i], preparadosModelo[i],
+                scoresModelo[i][setoresModelo[i].ordinal()]);
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.techcorp.benchmark;
+
+import java.util.Random;
+
+/**
+ * Corpus sintético de e-mails para os benchmarks
+ *
+ * Os textos misturam palavras-chave dos setores (com acentos, maiúsculas
+ * e pontuação, como em e-mails reais) com vocabulário neutro, em três
+ * tamanhos. A geração usa semente fixa para que as execuções sejam
+ * comparáveis entre si.
+ */
+public final class CorpusEmails {
+
+    /**
+     * Tamanhos de e-mail medidos
+     */
+    public enum Tamanho {
+        CURTO(120),
+        MEDIO(2 * 1024),
+        LONGO(50 * 1024);
+
+        private final int caracteres;
+
+        Tamanho(int caracteres) {
+            this.caracteres = caracteres;
+        }
+
+        public int getCaracteres() {
+            return caracteres;
+        }
+    }
+
+    // Quantidade de textos distintos por tamanho, percorridos em rodízio
+    public static final int QUANTIDADE = 64;
+
+    private static final String[] PALAVRAS_SETORES = {
+            "Problema", "sistema", "erro", "login", "senha", "ajuda", "suporte", "reclamação",
+            "Fatura", "pagamento", "boleto", "cobrança", "nota fiscal", "reembolso",
+            "Currículo", "vaga", "salário", "férias", "funcionário", "admissão",
+            "Cotação", "fornecedor", "pedido de compra", "orçamento", "preço",
+            "Proposta", "cliente", "venda", "contrato", "comercial", "desconto",
+            "Processo", "jurídico", "legal", "advogado", "cláusula", "litígio",
+            "Campanha", "marketing", "publicidade", "redes sociais", "marca",
+            "Servidor", "rede", "backup", "software", "hardware", "banco de dados",
+            "Produção", "estoque", "logística", "entrega", "manutenção", "qualidade"
+    };
+
+    private static final String[] PALAVRAS_NEUTRAS = {
+            "olá", "bom", "dia", "prezados", "conforme", "conversamos", "segue", "em", "anexo",
+            "para", "análise", "aguardo", "retorno", "obrigado", "atenciosamente", "por", "favor",
+            "verificar", "a", "o", "de", "da", "do", "que", "com", "uma", "semana", "próxima",
+            "reunião", "equipe", "informação", "urgente", "hoje", "amanhã", "time", "projeto"
+    };
+
+    private static final String[] PONTUACAO = { " ", " ", " ", " ", ", ", ". ", "! ", "? ", "\n", " - " };
+
+    private CorpusEmails() {
+    }
+
+    /**
+     * Gera QUANTIDADE textos do tamanho pedido
+     */
+    public static String[] textos(Tamanho tamanho) {
+        Random aleatorio = new Random(42L + tamanho.ordinal());
+        String[] textos = new String[QUANTIDADE];
+        for (int i = 0; i < textos.length; i++) {
+            textos[i] = gerar(aleatorio, tamanho.getCaracteres());
+        }
+        return textos;
+    }
+
+    private static String gerar(Random aleatorio, int caracteres) {
+        StringBuilder texto = new StringBuilder(caracteres + 32);
+        while (texto.length() < caracteres) {
+            // Cerca de uma palavra de setor a cada cinco palavras
+            String palavra = aleatorio.nextInt(5) == 0
+                    ? PALAVRAS_SETORES[aleatorio.nextInt(PALAVRAS_SETORES.length)]
+                    : PALAVRAS_NEUTRAS[aleatorio.nextInt(PALAVRAS_NEUTRAS.length)];
+            texto.append(palavra).append(PONTUACAO[aleatorio.nextInt(PONTUACAO.length)]);
+        }
+        texto.setLength(caracteres);
+        return texto.toString();
+    }
+}
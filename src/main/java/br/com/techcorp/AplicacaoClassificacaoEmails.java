@@ -1,7 +1,14 @@
 package br.com.techcorp;
 
+import br.com.techcorp.cli.ClassificacaoArquivo;
+import br.com.techcorp.cli.ComparacaoPrecisao;
+import br.com.techcorp.cli.TreinamentoLinear;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 
 /**
  * Aplicação principal da API de Classificação de E-mails com IA Real
@@ -10,13 +17,27 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * A aplicação fornece uma API REST para classificar automaticamente
  * o conteúdo de e-mails usando modelos reais de IA da HuggingFace.
  *
+ * Com --classificar-arquivo=caminho a aplicação roda no modo offline,
+ * sem servidor web, classificando um arquivo JSONL ou mbox inteiro; com
+ * --comparar-precisao compara os modelos FP32 e INT8 em um conjunto rotulado;
+ * com --treinar-linear treina os pesos do classificador linear.
+ *
  * @author TechCorp Solutions
  * @version 1.0.0
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class AplicacaoClassificacaoEmails {
 
     public static void main(String[] args) {
+        if (ClassificacaoArquivo.solicitada(args) || ComparacaoPrecisao.solicitada(args)
+                || TreinamentoLinear.solicitada(args)) {
+            ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AplicacaoClassificacaoEmails.class)
+                    .web(WebApplicationType.NONE)
+                    .run(args);
+            System.exit(SpringApplication.exit(contexto));
+        }
+
         SpringApplication.run(AplicacaoClassificacaoEmails.class, args);
         System.out.println("🚀 API de Classificação de E-mails com IA REAL iniciada com sucesso!");
         System.out.println("📧 Endpoint principal: http://localhost:8080/api");
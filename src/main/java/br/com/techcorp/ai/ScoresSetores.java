@@ -0,0 +1,49 @@
+package br.com.techcorp.ai;
+
+import br.com.techcorp.models.SetorEmail;
+
+/**
+ * Operações sobre vetores de scores indexados por SetorEmail.ordinal()
+ *
+ * Os classificadores acumulam os scores em um double[] com uma posição
+ * por setor, evitando mapas e valores encaixotados por requisição.
+ */
+public final class ScoresSetores {
+
+    private static final SetorEmail[] SETORES = SetorEmail.values();
+
+    private ScoresSetores() {
+    }
+
+    /**
+     * Cria um vetor de scores zerado, uma posição por setor
+     */
+    public static double[] novoVetor() {
+        return new double[SETORES.length];
+    }
+
+    /**
+     * Setor com o maior score; em caso de empate vence o de menor ordinal
+     * (ATENDIMENTO quando todos os scores são zero)
+     */
+    public static SetorEmail melhorSetor(double[] scores) {
+        int melhor = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[melhor]) {
+                melhor = i;
+            }
+        }
+        return SETORES[melhor];
+    }
+
+    /**
+     * Soma de todos os scores do vetor
+     */
+    public static double soma(double[] scores) {
+        double total = 0.0;
+        for (double score : scores) {
+            total += score;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,238 @@
+package br.com.techcorp.ai.admissao;
+
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.config.PropriedadesAdmissao;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Controle de admissão das classificações que vão ao modelo
+ *
+ * Com o modelo saturado, requisições a mais só aumentam a fila dentro do
+ * motor e a latência de todas. Aqui no máximo "limite" classificações
+ * passam ao mesmo tempo; as seguintes esperam em uma fila limitada
+ * (ai.admissao.tamanhoFila) por até esperaMaximaMs e, se a fila estiver
+ * cheia ou a espera vencer, não são admitidas, e quem chamou aplica a
+ * reação configurada (429 ou classificador por regras). Assim a
+ * aplicação continua atendendo na capacidade do modelo sob sobrecarga.
+ *
+ * O limite acompanha a capacidade real pelo LimiteAdaptativo (AIMD sobre
+ * a latência de cada classificação admitida).
+ */
+@Component
+public class ControleAdmissao {
+
+    private final PropriedadesAdmissao propriedades;
+    private final LimiteAdaptativo limite;
+    private final long esperaMaximaNanos;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition vagaLiberada = trava.newCondition();
+
+    // Protegidos pela trava
+    private int emUso;
+    private int esperando;
+    private double latenciaMediaNanos;
+
+    private final LongAdder admitidas = new LongAdder();
+    private final LongAdder enfileiradas = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+
+    public ControleAdmissao(PropriedadesAdmissao propriedades, MetricasClassificacao metricas) {
+        this.propriedades = propriedades;
+        this.limite = new LimiteAdaptativo(propriedades.getLimiteInicial(), propriedades.getLimiteMinimo(),
+                propriedades.getLimiteMaximo(), TimeUnit.MILLISECONDS.toNanos(propriedades.getLatenciaAlvoMs()),
+                propriedades.getFatorReducao());
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, propriedades.getEsperaMaximaMs()));
+        metricas.monitorarAdmissao(this::getLimite, this::getEmUso, this::getEsperando);
+    }
+
+    /**
+     * Vaga de uma classificação admitida; close() a devolve
+     */
+    public static final class Admissao implements AutoCloseable {
+
+        private static final Admissao SEM_CONTROLE = new Admissao(null, 0L, 0);
+
+        private final ControleAdmissao controle;
+        private final long inicioNanos;
+        private final int emUso;
+        private boolean devolvida;
+
+        private Admissao(ControleAdmissao controle, long inicioNanos, int emUso) {
+            this.controle = controle;
+            this.inicioNanos = inicioNanos;
+            this.emUso = emUso;
+        }
+
+        @Override
+        public void close() {
+            if (controle != null && !devolvida) {
+                devolvida = true;
+                controle.liberar(this);
+            }
+        }
+    }
+
+    /**
+     * Pede uma vaga no modelo, esperando na fila se necessário
+     *
+     * @return a vaga, ou null se a fila estiver cheia ou a espera vencer
+     */
+    public Admissao admitir() {
+        return admitir(esperaMaximaNanos);
+    }
+
+    /**
+     * Pede uma vaga no modelo, esperando na fila por no máximo
+     * esperaMaximaNanos (limitado a ai.admissao.esperaMaximaMs), por
+     * exemplo o que resta do prazo da requisição
+     *
+     * @return a vaga, ou null se a fila estiver cheia ou a espera vencer
+     */
+    public Admissao admitir(long esperaMaximaNanos) {
+        if (!propriedades.isHabilitada()) {
+            return Admissao.SEM_CONTROLE;
+        }
+
+        trava.lock();
+        try {
+            if (emUso < limite.getVagas()) {
+                return conceder();
+            }
+            if (esperando >= propriedades.getTamanhoFila()) {
+                recusadas.increment();
+                return null;
+            }
+
+            esperando++;
+            enfileiradas.increment();
+            try {
+                long restante = Math.min(esperaMaximaNanos, this.esperaMaximaNanos);
+                while (emUso >= limite.getVagas()) {
+                    if (restante <= 0L) {
+                        recusadas.increment();
+                        return null;
+                    }
+                    restante = vagaLiberada.awaitNanos(restante);
+                }
+                return conceder();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recusadas.increment();
+                return null;
+            } finally {
+                esperando--;
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Chamado com a trava
+    private Admissao conceder() {
+        emUso++;
+        admitidas.increment();
+        return new Admissao(this, System.nanoTime(), emUso);
+    }
+
+    private void liberar(Admissao admissao) {
+        long agora = System.nanoTime();
+        long latencia = agora - admissao.inicioNanos;
+
+        trava.lock();
+        try {
+            emUso--;
+            latenciaMediaNanos = latenciaMediaNanos == 0.0
+                    ? latencia
+                    : 0.9 * latenciaMediaNanos + 0.1 * latencia;
+
+            int vagasAntes = limite.getVagas();
+            if (propriedades.isAdaptativo()) {
+                limite.concluida(latencia, admissao.emUso, agora);
+            }
+            if (limite.getVagas() > vagasAntes) {
+                vagaLiberada.signalAll();
+            } else {
+                vagaLiberada.signal();
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Segundos sugeridos no Retry-After: tempo estimado para a fila atual escoar
+     */
+    public long getRetryAfterSegundos() {
+        trava.lock();
+        try {
+            double escoamentoNanos = latenciaMediaNanos * (esperando + 1) / Math.max(1, limite.getVagas());
+            return Math.max(1L, (long) Math.ceil(escoamentoNanos / 1_000_000_000.0));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public PropriedadesAdmissao.Reacao getReacao() {
+        return propriedades.getReacao();
+    }
+
+    double getLimite() {
+        trava.lock();
+        try {
+            return limite.getLimite();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    int getEmUso() {
+        trava.lock();
+        try {
+            return emUso;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    int getEsperando() {
+        trava.lock();
+        try {
+            return esperando;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Estado do controle para os endpoints de informação
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitada", propriedades.isHabilitada());
+        estatisticas.put("adaptativo", propriedades.isAdaptativo());
+        estatisticas.put("reacao", propriedades.getReacao());
+        trava.lock();
+        try {
+            estatisticas.put("limite", limite.getVagas());
+            estatisticas.put("emUso", emUso);
+            estatisticas.put("esperando", esperando);
+            estatisticas.put("latenciaMediaMs", latenciaMediaNanos / 1_000_000.0);
+            estatisticas.put("reducoesLimite", limite.getReducoes());
+        } finally {
+            trava.unlock();
+        }
+        estatisticas.put("tamanhoFila", propriedades.getTamanhoFila());
+        estatisticas.put("admitidas", admitidas.sum());
+        estatisticas.put("enfileiradas", enfileiradas.sum());
+        estatisticas.put("recusadas", recusadas.sum());
+        return estatisticas;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.techcorp.ai.admissao;
+
+import br.com.techcorp.config.PropriedadesPrazo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disjuntor do modelo: desvia para as regras depois de timeouts seguidos
+ *
+ * FECHADO: tudo passa pelo modelo; ai.prazo.disjuntor.timeoutsParaAbrir
+ * timeouts seguidos o abrem. ABERTO: nada passa pelo modelo durante
+ * tempoAbertoMs. SEMIABERTO: uma única classificação de teste passa; se
+ * ela terminar no prazo o disjuntor fecha, se estourar ele abre de novo.
+ * Um teste sem resposta do modelo (recusado na admissão, por exemplo)
+ * deve chamar registrarSemResposta() para liberar o teste à próxima
+ * classificação; um teste que nunca informa o resultado é substituído
+ * por outro depois de tempoAbertoMs.
+ */
+@Component
+public class DisjuntorModelo {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisjuntorModelo.class);
+
+    public enum Estado {
+        FECHADO,
+        ABERTO,
+        SEMIABERTO
+    }
+
+    private final PropriedadesPrazo.Disjuntor configuracao;
+    private final long tempoAbertoNanos;
+
+    // Protegidos pelo monitor do disjuntor
+    private Estado estado = Estado.FECHADO;
+    private int timeoutsSeguidos;
+    private long abertoEmNanos;
+    private boolean testeEmAndamento;
+    private long testeIniciadoEmNanos;
+    private long aberturas;
+
+    public DisjuntorModelo(PropriedadesPrazo propriedades) {
+        this.configuracao = propriedades.getDisjuntor();
+        this.tempoAbertoNanos = TimeUnit.MILLISECONDS.toNanos(configuracao.getTempoAbertoMs());
+    }
+
+    /**
+     * Indica se a classificação pode ir ao modelo; no estado SEMIABERTO
+     * só a primeira chamada recebe true, como teste
+     */
+    public synchronized boolean permite() {
+        if (!configuracao.isHabilitado() || estado == Estado.FECHADO) {
+            return true;
+        }
+        long agora = System.nanoTime();
+        if (estado == Estado.ABERTO) {
+            if (agora - abertoEmNanos < tempoAbertoNanos) {
+                return false;
+            }
+            estado = Estado.SEMIABERTO;
+            testeEmAndamento = false;
+        }
+        if (testeEmAndamento && agora - testeIniciadoEmNanos < tempoAbertoNanos) {
+            return false;
+        }
+        testeEmAndamento = true;
+        testeIniciadoEmNanos = agora;
+        return true;
+    }
+
+    /**
+     * Classificação do modelo concluída dentro do prazo
+     */
+    public synchronized void registrarSucesso() {
+        timeoutsSeguidos = 0;
+        if (estado == Estado.SEMIABERTO) {
+            estado = Estado.FECHADO;
+            testeEmAndamento = false;
+            logger.info("✅ Disjuntor do modelo fechado: a classificação de teste terminou no prazo");
+        }
+    }
+
+    /**
+     * Classificação que terminou no prazo sem resposta do modelo (fallback
+     * por erro, por exemplo): não conta como sucesso nem como timeout, e no
+     * estado SEMIABERTO libera o teste para a próxima classificação
+     */
+    public synchronized void registrarSemResposta() {
+        if (estado == Estado.SEMIABERTO) {
+            testeEmAndamento = false;
+        }
+    }
+
+    /**
+     * Classificação do modelo abandonada por prazo esgotado
+     */
+    public synchronized void registrarTimeout() {
+        if (!configuracao.isHabilitado()) {
+            return;
+        }
+        timeoutsSeguidos++;
+        if (estado == Estado.SEMIABERTO
+                || (estado == Estado.FECHADO && timeoutsSeguidos >= configuracao.getTimeoutsParaAbrir())) {
+            estado = Estado.ABERTO;
+            abertoEmNanos = System.nanoTime();
+            testeEmAndamento = false;
+            aberturas++;
+            logger.warn("⚡ Disjuntor do modelo aberto após {} timeouts seguidos: usando as regras por {} ms",
+                    timeoutsSeguidos, configuracao.getTempoAbertoMs());
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Estado do disjuntor para os endpoints de informação
+     */
+    public synchronized Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", configuracao.isHabilitado());
+        estatisticas.put("estado", estado);
+        estatisticas.put("timeoutsSeguidos", timeoutsSeguidos);
+        estatisticas.put("timeoutsParaAbrir", configuracao.getTimeoutsParaAbrir());
+        estatisticas.put("tempoAbertoMs", configuracao.getTempoAbertoMs());
+        estatisticas.put("aberturas", aberturas);
+        return estatisticas;
+    }
+}
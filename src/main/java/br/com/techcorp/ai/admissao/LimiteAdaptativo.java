@@ -0,0 +1,74 @@
+package br.com.techcorp.ai.admissao;
+
+/**
+ * Limite de concorrência ajustado por AIMD (aumento aditivo, redução multiplicativa)
+ *
+ * Cada classificação concluída abaixo da latência alvo soma 1/limite ao
+ * limite (cerca de +1 a cada limite conclusões), desde que o limite
+ * esteja de fato em uso; uma acima do alvo o multiplica por fatorReducao.
+ * Como várias classificações lentas terminam juntas quando o modelo
+ * satura, a redução acontece no máximo uma vez por intervalo de latência
+ * alvo, para uma única rajada não derrubar o limite ao mínimo.
+ *
+ * Não é thread-safe: o ControleAdmissao chama sob a sua trava.
+ */
+final class LimiteAdaptativo {
+
+    private final double minimo;
+    private final double maximo;
+    private final long latenciaAlvoNanos;
+    private final double fatorReducao;
+
+    private double limite;
+    private long ultimaReducaoNanos;
+    private long reducoes;
+
+    LimiteAdaptativo(int inicial, int minimo, int maximo, long latenciaAlvoNanos, double fatorReducao) {
+        if (minimo < 1 || maximo < minimo) {
+            throw new IllegalArgumentException("Limites de admissão inválidos: mínimo " + minimo
+                    + ", máximo " + maximo);
+        }
+        if (fatorReducao <= 0.0 || fatorReducao >= 1.0) {
+            throw new IllegalArgumentException("fatorReducao deve estar em (0, 1): " + fatorReducao);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaAlvoNanos = latenciaAlvoNanos;
+        this.fatorReducao = fatorReducao;
+        this.limite = Math.max(minimo, Math.min(maximo, inicial));
+        this.ultimaReducaoNanos = System.nanoTime() - latenciaAlvoNanos;
+    }
+
+    /**
+     * Ajusta o limite com a latência de uma classificação concluída
+     *
+     * @param emUso Classificações em andamento quando esta foi admitida
+     */
+    void concluida(long latenciaNanos, int emUso, long agoraNanos) {
+        if (latenciaNanos > latenciaAlvoNanos) {
+            if (agoraNanos - ultimaReducaoNanos >= latenciaAlvoNanos) {
+                limite = Math.max(minimo, limite * fatorReducao);
+                ultimaReducaoNanos = agoraNanos;
+                reducoes++;
+            }
+        } else if (emUso * 2 >= limite) {
+            // Só cresce se a demanda chega perto do limite atual
+            limite = Math.min(maximo, limite + 1.0 / limite);
+        }
+    }
+
+    /**
+     * Vagas atuais (parte inteira do limite)
+     */
+    int getVagas() {
+        return (int) limite;
+    }
+
+    double getLimite() {
+        return limite;
+    }
+
+    long getReducoes() {
+        return reducoes;
+    }
+}
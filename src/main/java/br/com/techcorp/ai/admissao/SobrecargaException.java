@@ -0,0 +1,23 @@
+package br.com.techcorp.ai.admissao;
+
+/**
+ * Classificação recusada pelo controle de admissão (ai.admissao.reacao = REJEITAR)
+ *
+ * Os endpoints respondem 429 com o cabeçalho Retry-After.
+ */
+public class SobrecargaException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public SobrecargaException(long retryAfterSegundos) {
+        super("Modelo sobrecarregado, tente novamente em " + retryAfterSegundos + " s");
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    /**
+     * Segundos sugeridos até uma nova tentativa
+     */
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
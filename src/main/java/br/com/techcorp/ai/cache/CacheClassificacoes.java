@@ -0,0 +1,152 @@
+package br.com.techcorp.ai.cache;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache limitado de resultados de classificação
+ *
+ * Usa o Caffeine, cujo despejo W-TinyLFU mantém os textos mais
+ * frequentes mesmo sob um fluxo contínuo de e-mails únicos. As entradas
+ * expiram após o TTL configurado e todo o cache é invalidado quando a
+ * versão do modelo muda, já que os resultados antigos deixam de valer.
+ *
+ * Com ai.modelo.cacheClassificacoes.persistente habilitado, este cache é o
+ * primeiro nível (L1) à frente do CachePersistente (L2, em disco): uma falha
+ * no L1 consulta o L2 e o acerto volta para o L1.
+ */
+public class CacheClassificacoes implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheClassificacoes.class);
+
+    // Tamanho aproximado de um ResultadoClassificacao sem o texto do motivo
+    private static final int PESO_BASE_RESULTADO = 1024;
+
+    private final Cache<ChaveConteudo, ResultadoClassificacao> cache;
+    private final boolean verificarColisoes;
+    private volatile String versaoModelo;
+
+    // Segundo nível em disco (null se desabilitado ou indisponível)
+    private final CachePersistente persistente;
+
+    public CacheClassificacoes(PropriedadesModelo.CacheClassificacoes configuracao) {
+        this.verificarColisoes = configuracao.isVerificarColisoes();
+
+        Caffeine<Object, Object> construtor = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(configuracao.getTtlMinutos()))
+                .recordStats();
+
+        if (configuracao.getPesoMaximoBytes() > 0) {
+            construtor.maximumWeight(configuracao.getPesoMaximoBytes())
+                    .weigher((ChaveConteudo chave, ResultadoClassificacao resultado) -> estimarPeso(chave, resultado));
+        } else {
+            construtor.maximumSize(configuracao.getMaximoEntradas());
+        }
+
+        this.cache = construtor.build();
+        this.persistente = abrirPersistente(configuracao.getPersistente());
+    }
+
+    private static CachePersistente abrirPersistente(PropriedadesModelo.CacheClassificacoes.Persistente configuracao) {
+        if (!configuracao.isHabilitado()) {
+            return null;
+        }
+        try {
+            return new CachePersistente(configuracao);
+        } catch (IOException e) {
+            logger.warn("⚠️ Cache persistente desabilitado: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Calcula a chave de cache de um texto
+     */
+    public ChaveConteudo chave(CharSequence texto) {
+        return ChaveConteudo.de(texto, verificarColisoes);
+    }
+
+    /**
+     * Busca um resultado no cache (uma consulta ao L1 e, se faltar, uma ao L2)
+     *
+     * @return Resultado armazenado ou null se ausente/expirado
+     */
+    public ResultadoClassificacao obter(ChaveConteudo chave) {
+        ResultadoClassificacao resultado = cache.getIfPresent(chave);
+        if (resultado == null && persistente != null) {
+            resultado = persistente.obter(chave);
+            if (resultado != null) {
+                cache.put(chave, resultado);
+            }
+        }
+        return resultado;
+    }
+
+    public void armazenar(ChaveConteudo chave, ResultadoClassificacao resultado) {
+        cache.put(chave, resultado);
+        if (persistente != null) {
+            persistente.armazenar(chave, resultado);
+        }
+    }
+
+    /**
+     * Registra a versão do modelo em uso, invalidando o cache se ela mudou
+     */
+    public void atualizarVersaoModelo(String novaVersao) {
+        if (!Objects.equals(versaoModelo, novaVersao)) {
+            versaoModelo = novaVersao;
+            cache.invalidateAll();
+        }
+        if (persistente != null) {
+            // Abre os segmentos na primeira chamada (carga do modelo, fora da inicialização)
+            persistente.atualizarVersaoModelo(novaVersao);
+        }
+    }
+
+    public long getTamanho() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Contadores de acerto, falha e despejo para os endpoints de informação
+     */
+    public Map<String, Object> getEstatisticas() {
+        CacheStats estatisticas = cache.stats();
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("tamanho", cache.estimatedSize());
+        resumo.put("acertos", estatisticas.hitCount());
+        resumo.put("falhas", estatisticas.missCount());
+        resumo.put("taxaAcerto", estatisticas.hitRate());
+        resumo.put("despejos", estatisticas.evictionCount());
+        resumo.put("verificarColisoes", verificarColisoes);
+        resumo.put("versaoModelo", versaoModelo);
+        if (persistente != null) {
+            resumo.put("persistente", persistente.getEstatisticas());
+        }
+        return resumo;
+    }
+
+    @Override
+    public void close() {
+        if (persistente != null) {
+            persistente.close();
+        }
+    }
+
+    private static int estimarPeso(ChaveConteudo chave, ResultadoClassificacao resultado) {
+        int pesoMotivo = resultado.getMotivo() != null ? resultado.getMotivo().length() * 2 : 0;
+        return chave.getPesoEstimado() + PESO_BASE_RESULTADO + pesoMotivo;
+    }
+}
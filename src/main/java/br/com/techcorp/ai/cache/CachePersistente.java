@@ -0,0 +1,762 @@
+package br.com.techcorp.ai.cache;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segundo nível (L2) do cache de classificações, em disco
+ *
+ * Os resultados são gravados em arquivos de segmento de tamanho fixo,
+ * mapeados em memória, apenas por acréscimo. Na abertura só os cabeçalhos
+ * dos registros são percorridos para reconstruir o índice (impressão de
+ * 128 bits → posição no segmento); os resultados ficam no arquivo e só
+ * são decodificados, a partir do mapeamento, quando há um acerto.
+ *
+ * Cada registro carrega a versão do modelo: ao trocar de versão, os
+ * registros antigos deixam de estar no índice e a compactação em segundo
+ * plano copia os registros vivos dos segmentos com pouco conteúdo útil
+ * para o segmento ativo e apaga o arquivo antigo. Acima do tamanho máximo,
+ * o segmento mais antigo é descartado.
+ *
+ * O diretório é de uso exclusivo de um processo (trava em cache.lock);
+ * para que uma nova réplica comece aquecida, basta copiar os segmentos.
+ */
+public class CachePersistente implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachePersistente.class);
+
+    private static final String PREFIXO_SEGMENTO = "segmento-";
+    private static final String EXTENSAO_SEGMENTO = ".dat";
+
+    // Cabeçalho: tamanho total, CRC32 do conteúdo, versão, impressão (alto, baixo) e comprimento do texto
+    private static final int POS_TAMANHO = 0;
+    private static final int POS_CRC = 4;
+    private static final int POS_VERSAO = 8;
+    private static final int POS_ALTO = 16;
+    private static final int POS_BAIXO = 24;
+    private static final int POS_COMPRIMENTO = 32;
+    private static final int TAMANHO_CABECALHO = 36;
+
+    private static final SetorEmail[] SETORES = SetorEmail.values();
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final long tamanhoMaximo;
+    private final double limiarCompactacao;
+
+    private final FileChannel canalTrava;
+    private final FileLock trava;
+
+    // Segmentos por id, do mais antigo para o mais novo; o último é o ativo
+    private final ConcurrentSkipListMap<Integer, Segmento> segmentos = new ConcurrentSkipListMap<>();
+    private final AtomicInteger proximoIdSegmento = new AtomicInteger(1);
+
+    private final ReentrantReadWriteLock travaIndice = new ReentrantReadWriteLock();
+    private IndiceEnderecos indice = new IndiceEnderecos(1024);
+
+    private final ScheduledExecutorService manutencao;
+
+    private volatile long versaoAtual;
+    private volatile boolean aberto;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder compactacoes = new LongAdder();
+
+    public CachePersistente(PropriedadesModelo.CacheClassificacoes.Persistente configuracao) throws IOException {
+        this.diretorio = Paths.get(configuracao.getDiretorio());
+        this.tamanhoSegmento = (int) Math.min(Integer.MAX_VALUE, configuracao.getTamanhoSegmentoMb() * 1024L * 1024L);
+        this.tamanhoMaximo = configuracao.getTamanhoMaximoMb() * 1024L * 1024L;
+        this.limiarCompactacao = configuracao.getLimiarCompactacao();
+
+        Files.createDirectories(diretorio);
+        this.canalTrava = FileChannel.open(diretorio.resolve("cache.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.trava = travar(canalTrava);
+        if (trava == null) {
+            canalTrava.close();
+            throw new IOException("Diretório do cache em uso por outro processo: " + diretorio.toAbsolutePath());
+        }
+
+        this.manutencao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-persistente-compactacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = Math.max(1, configuracao.getIntervaloCompactacaoSegundos());
+        manutencao.scheduleWithFixedDelay(this::manter, intervalo, intervalo, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Trava exclusiva do diretório, ou null se outro processo (ou outra
+     * instância nesta JVM, que o tryLock relata com exceção) já a tem
+     */
+    private static FileLock travar(FileChannel canal) throws IOException {
+        try {
+            return canal.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Abre os segmentos existentes para a versão do modelo informada
+     *
+     * Só os cabeçalhos são lidos; registros de outras versões ficam fora do
+     * índice e são removidos pela compactação.
+     */
+    public void abrir(String versaoModelo) throws IOException {
+        long versao = impressaoVersao(versaoModelo);
+        travaIndice.writeLock().lock();
+        try {
+            versaoAtual = versao;
+            if (segmentos.isEmpty()) {
+                carregarSegmentos();
+            }
+
+            segmentos.values().forEach(segmento -> segmento.bytesVivos.set(0));
+            IndiceEnderecos novoIndice = new IndiceEnderecos(1024);
+            for (Segmento segmento : segmentos.values()) {
+                novoIndice = indexar(segmento, novoIndice, versao);
+            }
+            indice = novoIndice;
+            aberto = true;
+
+            logger.info("💾 Cache persistente aberto: {} segmentos, {} resultados da versão atual em {}",
+                    segmentos.size(), novoIndice.quantidade, diretorio.toAbsolutePath());
+        } finally {
+            travaIndice.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adiciona ao índice os registros do segmento que pertencem à versão informada
+     */
+    private IndiceEnderecos indexar(Segmento segmento, IndiceEnderecos destino, long versao) {
+        ByteBuffer buffer = segmento.buffer;
+        for (int posicao = 0; posicao < segmento.posicaoEscrita; ) {
+            int tamanhoRegistro = buffer.getInt(posicao + POS_TAMANHO);
+            if (buffer.getLong(posicao + POS_VERSAO) == versao) {
+                long alto = buffer.getLong(posicao + POS_ALTO);
+                long baixo = buffer.getLong(posicao + POS_BAIXO);
+
+                // Registro repetido: vale o mais recente, o anterior deixa de contar como vivo
+                long anterior = destino.buscar(alto, baixo);
+                Segmento segmentoAnterior = anterior != 0 ? segmentos.get(idSegmento(anterior)) : null;
+                if (segmentoAnterior != null) {
+                    segmentoAnterior.bytesVivos.addAndGet(
+                            -segmentoAnterior.buffer.getInt(deslocamento(anterior) + POS_TAMANHO));
+                }
+
+                destino = destino.inserir(alto, baixo, endereco(segmento.id, posicao));
+                segmento.bytesVivos.addAndGet(tamanhoRegistro);
+            }
+            posicao += tamanhoRegistro;
+        }
+        return destino;
+    }
+
+    private void carregarSegmentos() throws IOException {
+        List<Path> arquivos = new ArrayList<>();
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            listagem.filter(arquivo -> {
+                String nome = arquivo.getFileName().toString();
+                return nome.startsWith(PREFIXO_SEGMENTO) && nome.endsWith(EXTENSAO_SEGMENTO);
+            }).forEach(arquivos::add);
+        }
+
+        for (Path arquivo : arquivos) {
+            String nome = arquivo.getFileName().toString();
+            int id = Integer.parseInt(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - EXTENSAO_SEGMENTO.length()));
+            segmentos.put(id, Segmento.abrir(arquivo, id, tamanhoSegmento));
+            proximoIdSegmento.accumulateAndGet(id + 1, Math::max);
+        }
+    }
+
+    /**
+     * Busca um resultado da versão atual do modelo
+     *
+     * @return Resultado decodificado do mapeamento ou null se ausente
+     */
+    public ResultadoClassificacao obter(ChaveConteudo chave) {
+        if (!aberto) {
+            return null;
+        }
+
+        long endereco;
+        travaIndice.readLock().lock();
+        try {
+            endereco = indice.buscar(chave.getAlto(), chave.getBaixo());
+        } finally {
+            travaIndice.readLock().unlock();
+        }
+
+        Segmento segmento = endereco != 0 ? segmentos.get(idSegmento(endereco)) : null;
+        ResultadoClassificacao resultado = segmento != null
+                ? segmento.ler(deslocamento(endereco), chave, versaoAtual)
+                : null;
+        (resultado != null ? acertos : falhas).increment();
+        return resultado;
+    }
+
+    /**
+     * Acrescenta o resultado ao segmento ativo, se ainda não estiver gravado
+     */
+    public void armazenar(ChaveConteudo chave, ResultadoClassificacao resultado) {
+        if (!aberto) {
+            return;
+        }
+
+        travaIndice.readLock().lock();
+        try {
+            if (indice.buscar(chave.getAlto(), chave.getBaixo()) != 0) {
+                return;
+            }
+        } finally {
+            travaIndice.readLock().unlock();
+        }
+
+        try {
+            acrescentar(chave.getAlto(), chave.getBaixo(), chave.getComprimento(), codificar(resultado));
+        } catch (IOException e) {
+            logger.warn("⚠️ Falha ao gravar no cache persistente: {}", e.getMessage());
+        }
+    }
+
+    private void acrescentar(long alto, long baixo, int comprimento, byte[] conteudo) throws IOException {
+        int tamanhoRegistro = TAMANHO_CABECALHO + conteudo.length;
+        if (tamanhoRegistro > tamanhoSegmento) {
+            return;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+
+        travaIndice.writeLock().lock();
+        try {
+            if (indice.buscar(alto, baixo) != 0) {
+                return;
+            }
+
+            Segmento ativo = segmentos.isEmpty() ? null : segmentos.lastEntry().getValue();
+            if (ativo == null || ativo.livre() < tamanhoRegistro) {
+                if (ativo != null) {
+                    ativo.buffer.force();
+                }
+                int id = proximoIdSegmento.getAndIncrement();
+                ativo = Segmento.abrir(arquivoSegmento(id), id, tamanhoSegmento);
+                segmentos.put(id, ativo);
+            }
+
+            int posicao = ativo.posicaoEscrita;
+            ByteBuffer buffer = ativo.buffer;
+            buffer.putInt(posicao + POS_CRC, (int) crc.getValue());
+            buffer.putLong(posicao + POS_VERSAO, versaoAtual);
+            buffer.putLong(posicao + POS_ALTO, alto);
+            buffer.putLong(posicao + POS_BAIXO, baixo);
+            buffer.putInt(posicao + POS_COMPRIMENTO, comprimento);
+            buffer.put(posicao + TAMANHO_CABECALHO, conteudo);
+            // O tamanho é escrito por último: um registro incompleto termina a leitura do segmento
+            buffer.putInt(posicao + POS_TAMANHO, tamanhoRegistro);
+
+            ativo.posicaoEscrita = posicao + tamanhoRegistro;
+            ativo.bytesVivos.addAndGet(tamanhoRegistro);
+            indice = indice.inserir(alto, baixo, endereco(ativo.id, posicao));
+        } finally {
+            travaIndice.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Troca a versão do modelo: os resultados da versão anterior deixam de valer
+     */
+    public void atualizarVersaoModelo(String versaoModelo) {
+        long versao = impressaoVersao(versaoModelo);
+        if (aberto && versao == versaoAtual) {
+            return;
+        }
+        try {
+            abrir(versaoModelo);
+        } catch (IOException e) {
+            logger.warn("⚠️ Cache persistente indisponível: {}", e.getMessage());
+            aberto = false;
+        }
+    }
+
+    /**
+     * Manutenção periódica: grava as páginas sujas, compacta e respeita o tamanho máximo
+     */
+    private void manter() {
+        if (!aberto) {
+            return;
+        }
+        try {
+            Segmento ativo = segmentos.isEmpty() ? null : segmentos.lastEntry().getValue();
+            if (ativo != null) {
+                ativo.buffer.force();
+            }
+            compactar();
+            limitarTamanho();
+        } catch (Exception e) {
+            logger.warn("⚠️ Erro na compactação do cache persistente: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Copia os registros vivos de segmentos com pouco conteúdo útil para o
+     * segmento ativo e apaga os arquivos antigos
+     */
+    private void compactar() throws IOException {
+        for (Segmento segmento : List.copyOf(segmentos.values())) {
+            if (segmento == segmentos.lastEntry().getValue()) {
+                break;
+            }
+            double ocupacao = segmento.posicaoEscrita > 0
+                    ? (double) segmento.bytesVivos.get() / segmento.posicaoEscrita
+                    : 0.0;
+            if (ocupacao >= limiarCompactacao) {
+                continue;
+            }
+
+            int copiados = 0;
+            for (int posicao = 0; posicao < segmento.posicaoEscrita; ) {
+                ByteBuffer buffer = segmento.buffer;
+                int tamanhoRegistro = buffer.getInt(posicao + POS_TAMANHO);
+                long alto = buffer.getLong(posicao + POS_ALTO);
+                long baixo = buffer.getLong(posicao + POS_BAIXO);
+                if (buffer.getLong(posicao + POS_VERSAO) == versaoAtual
+                        && enderecoAtual(alto, baixo) == endereco(segmento.id, posicao)) {
+                    byte[] conteudo = new byte[tamanhoRegistro - TAMANHO_CABECALHO];
+                    buffer.get(posicao + TAMANHO_CABECALHO, conteudo);
+                    remover(alto, baixo);
+                    acrescentar(alto, baixo, buffer.getInt(posicao + POS_COMPRIMENTO), conteudo);
+                    copiados++;
+                }
+                posicao += tamanhoRegistro;
+            }
+
+            descartar(segmento);
+            compactacoes.increment();
+            logger.info("🧹 Segmento {} compactado ({} resultados copiados)", segmento.id, copiados);
+        }
+    }
+
+    /**
+     * Descarta os segmentos mais antigos enquanto o total passar do tamanho máximo
+     */
+    private void limitarTamanho() throws IOException {
+        while (segmentos.size() > 1 && (long) segmentos.size() * tamanhoSegmento > tamanhoMaximo) {
+            Segmento maisAntigo = segmentos.firstEntry().getValue();
+            travaIndice.writeLock().lock();
+            try {
+                indice = indice.semSegmento(maisAntigo.id);
+            } finally {
+                travaIndice.writeLock().unlock();
+            }
+            descartar(maisAntigo);
+            logger.info("🧹 Segmento {} descartado (tamanho máximo do cache persistente)", maisAntigo.id);
+        }
+    }
+
+    private long enderecoAtual(long alto, long baixo) {
+        travaIndice.readLock().lock();
+        try {
+            return indice.buscar(alto, baixo);
+        } finally {
+            travaIndice.readLock().unlock();
+        }
+    }
+
+    private void remover(long alto, long baixo) {
+        travaIndice.writeLock().lock();
+        try {
+            indice.remover(alto, baixo);
+        } finally {
+            travaIndice.writeLock().unlock();
+        }
+    }
+
+    private void descartar(Segmento segmento) throws IOException {
+        // Leitores que já obtiveram o segmento continuam com o mapeamento válido após a remoção
+        segmentos.remove(segmento.id);
+        segmento.canal.close();
+        Files.deleteIfExists(segmento.arquivo);
+    }
+
+    private Path arquivoSegmento(int id) {
+        return diretorio.resolve(String.format("%s%06d%s", PREFIXO_SEGMENTO, id, EXTENSAO_SEGMENTO));
+    }
+
+    private static long endereco(int idSegmento, int deslocamento) {
+        return ((long) idSegmento << 32) | (deslocamento & 0xffffffffL);
+    }
+
+    private static int idSegmento(long endereco) {
+        return (int) (endereco >>> 32);
+    }
+
+    private static int deslocamento(long endereco) {
+        return (int) endereco;
+    }
+
+    private static long impressaoVersao(String versaoModelo) {
+        ChaveConteudo chave = ChaveConteudo.de(versaoModelo != null ? versaoModelo : "");
+        return chave.getAlto() ^ chave.getBaixo();
+    }
+
+    /**
+     * Serializa o resultado no formato binário do registro
+     */
+    static byte[] codificar(ResultadoClassificacao resultado) {
+        byte[] versaoModelo = bytes(resultado.getVersaoModelo());
+        byte[] motivo = bytes(resultado.getMotivo());
+        int quantidadeProbabilidades = resultado.getProbabilidades() != null
+                ? resultado.getProbabilidades().length
+                : resultado.getProbabilidadesSetores() != null ? SETORES.length : 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 4 + 2 + quantidadeProbabilidades * 8
+                + 4 + (versaoModelo != null ? versaoModelo.length : 0)
+                + 4 + (motivo != null ? motivo.length : 0));
+
+        buffer.put((byte) (resultado.getSetor() != null ? resultado.getSetor().ordinal() : -1));
+        buffer.putDouble(resultado.getConfianca() != null ? resultado.getConfianca() : Double.NaN);
+        LocalDateTime data = resultado.getDataClassificacao();
+        buffer.putLong(data != null ? data.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE);
+        buffer.putInt(data != null ? data.getNano() : 0);
+        buffer.putShort((short) quantidadeProbabilidades);
+        for (int i = 0; i < quantidadeProbabilidades; i++) {
+            buffer.putDouble(resultado.getProbabilidades() != null
+                    ? resultado.getProbabilidades()[i]
+                    : resultado.getProbabilidade(SETORES[i]));
+        }
+        colocarBytes(buffer, versaoModelo);
+        colocarBytes(buffer, motivo);
+        return buffer.array();
+    }
+
+    /**
+     * Decodifica o conteúdo de um registro diretamente do mapeamento
+     */
+    static ResultadoClassificacao decodificar(ByteBuffer buffer, int posicao) {
+        ResultadoClassificacao resultado = new ResultadoClassificacao();
+
+        byte setor = buffer.get(posicao);
+        resultado.setSetor(setor >= 0 && setor < SETORES.length ? SETORES[setor] : null);
+        double confianca = buffer.getDouble(posicao + 1);
+        resultado.setConfianca(Double.isNaN(confianca) ? null : confianca);
+        long segundos = buffer.getLong(posicao + 9);
+        int nanos = buffer.getInt(posicao + 17);
+        resultado.setDataClassificacao(segundos != Long.MIN_VALUE
+                ? LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC)
+                : null);
+
+        int quantidadeProbabilidades = buffer.getShort(posicao + 21);
+        int atual = posicao + 23;
+        double[] probabilidades = new double[quantidadeProbabilidades];
+        for (int i = 0; i < quantidadeProbabilidades; i++, atual += 8) {
+            probabilidades[i] = buffer.getDouble(atual);
+        }
+        resultado.setProbabilidades(probabilidades);
+
+        int tamanhoVersao = buffer.getInt(atual);
+        resultado.setVersaoModelo(lerTexto(buffer, atual + 4, tamanhoVersao));
+        atual += 4 + Math.max(0, tamanhoVersao);
+        resultado.setMotivo(lerTexto(buffer, atual + 4, buffer.getInt(atual)));
+        return resultado;
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void colocarBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes != null ? bytes.length : -1);
+        if (bytes != null) {
+            buffer.put(bytes);
+        }
+    }
+
+    private static String lerTexto(ByteBuffer buffer, int posicao, int tamanho) {
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        buffer.get(posicao, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Contadores e ocupação do cache persistente
+     */
+    public Map<String, Object> getEstatisticas() {
+        long bytesGravados = 0;
+        long bytesVivos = 0;
+        for (Segmento segmento : segmentos.values()) {
+            bytesGravados += segmento.posicaoEscrita;
+            bytesVivos += segmento.bytesVivos.get();
+        }
+        int entradas;
+        travaIndice.readLock().lock();
+        try {
+            entradas = indice.quantidade;
+        } finally {
+            travaIndice.readLock().unlock();
+        }
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("aberto", aberto);
+        estatisticas.put("diretorio", diretorio.toAbsolutePath().toString());
+        estatisticas.put("segmentos", segmentos.size());
+        estatisticas.put("entradas", entradas);
+        estatisticas.put("bytesGravados", bytesGravados);
+        estatisticas.put("bytesVivos", bytesVivos);
+        estatisticas.put("acertos", acertos.sum());
+        estatisticas.put("falhas", falhas.sum());
+        estatisticas.put("compactacoes", compactacoes.sum());
+        return estatisticas;
+    }
+
+    @Override
+    public void close() {
+        aberto = false;
+        manutencao.shutdownNow();
+        try {
+            manutencao.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        travaIndice.writeLock().lock();
+        try {
+            for (Segmento segmento : segmentos.values()) {
+                segmento.buffer.force();
+                segmento.canal.close();
+            }
+            segmentos.clear();
+            trava.release();
+            canalTrava.close();
+        } catch (IOException e) {
+            logger.warn("⚠️ Erro ao fechar o cache persistente: {}", e.getMessage());
+        } finally {
+            travaIndice.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Arquivo de segmento mapeado por inteiro (leitura e escrita)
+     */
+    private static final class Segmento {
+
+        private final int id;
+        private final Path arquivo;
+        private final FileChannel canal;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger bytesVivos = new AtomicInteger();
+
+        // Só é alterada com a trava de escrita do índice
+        private volatile int posicaoEscrita;
+
+        private Segmento(int id, Path arquivo, FileChannel canal, MappedByteBuffer buffer) {
+            this.id = id;
+            this.arquivo = arquivo;
+            this.canal = canal;
+            this.buffer = buffer;
+        }
+
+        static Segmento abrir(Path arquivo, int id, int tamanho) throws IOException {
+            FileChannel canal = FileChannel.open(arquivo,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                // Segmentos antigos mantêm o tamanho com que foram criados
+                long tamanhoArquivo = Math.max(canal.size(), tamanho);
+                MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoArquivo);
+                Segmento segmento = new Segmento(id, arquivo, canal, buffer);
+                segmento.posicaoEscrita = segmento.fimDosRegistros();
+                return segmento;
+            } catch (IOException | RuntimeException e) {
+                canal.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Percorre os cabeçalhos até o primeiro registro vazio ou incompleto
+         */
+        private int fimDosRegistros() {
+            int posicao = 0;
+            int capacidade = buffer.capacity();
+            while (posicao + TAMANHO_CABECALHO <= capacidade) {
+                int tamanhoRegistro = buffer.getInt(posicao + POS_TAMANHO);
+                if (tamanhoRegistro < TAMANHO_CABECALHO || posicao + tamanhoRegistro > capacidade) {
+                    break;
+                }
+                posicao += tamanhoRegistro;
+            }
+            return posicao;
+        }
+
+        int livre() {
+            return buffer.capacity() - posicaoEscrita;
+        }
+
+        /**
+         * Lê o registro na posição, conferindo chave, versão e CRC
+         */
+        ResultadoClassificacao ler(int posicao, ChaveConteudo chave, long versao) {
+            int tamanhoRegistro = buffer.getInt(posicao + POS_TAMANHO);
+            if (buffer.getLong(posicao + POS_ALTO) != chave.getAlto()
+                    || buffer.getLong(posicao + POS_BAIXO) != chave.getBaixo()
+                    || buffer.getInt(posicao + POS_COMPRIMENTO) != chave.getComprimento()
+                    || buffer.getLong(posicao + POS_VERSAO) != versao) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(posicao + TAMANHO_CABECALHO, tamanhoRegistro - TAMANHO_CABECALHO));
+            if ((int) crc.getValue() != buffer.getInt(posicao + POS_CRC)) {
+                return null;
+            }
+            return decodificar(buffer, posicao + TAMANHO_CABECALHO);
+        }
+    }
+
+    /**
+     * Índice de endereçamento aberto (sondagem linear) em vetores de long
+     *
+     * Três longs por posição, sem objetos por entrada; o endereço 0 marca
+     * uma posição vazia (ids de segmento começam em 1).
+     */
+    private static final class IndiceEnderecos {
+
+        private final long[] altos;
+        private final long[] baixos;
+        private final long[] enderecos;
+        private final int mascara;
+        private int quantidade;
+
+        IndiceEnderecos(int capacidade) {
+            int tamanho = Integer.highestOneBit(Math.max(16, capacidade - 1)) << 1;
+            this.altos = new long[tamanho];
+            this.baixos = new long[tamanho];
+            this.enderecos = new long[tamanho];
+            this.mascara = tamanho - 1;
+        }
+
+        long buscar(long alto, long baixo) {
+            for (int i = posicaoInicial(alto); ; i = (i + 1) & mascara) {
+                long endereco = enderecos[i];
+                if (endereco == 0) {
+                    return 0;
+                }
+                if (altos[i] == alto && baixos[i] == baixo) {
+                    return endereco;
+                }
+            }
+        }
+
+        /**
+         * Insere ou atualiza; devolve um índice maior quando a ocupação passa de 50%
+         */
+        IndiceEnderecos inserir(long alto, long baixo, long endereco) {
+            IndiceEnderecos destino = (quantidade + 1) * 2 > enderecos.length ? redimensionado() : this;
+            destino.inserirNoLugar(alto, baixo, endereco);
+            return destino;
+        }
+
+        void inserirNoLugar(long alto, long baixo, long endereco) {
+            if ((quantidade + 1) * 2 > enderecos.length) {
+                throw new IllegalStateException("Índice cheio");
+            }
+            int i = posicaoInicial(alto);
+            while (enderecos[i] != 0 && !(altos[i] == alto && baixos[i] == baixo)) {
+                i = (i + 1) & mascara;
+            }
+            if (enderecos[i] == 0) {
+                quantidade++;
+            }
+            altos[i] = alto;
+            baixos[i] = baixo;
+            enderecos[i] = endereco;
+        }
+
+        /**
+         * Remoção com deslocamento das entradas seguintes (sem marcas de remoção)
+         */
+        void remover(long alto, long baixo) {
+            int i = posicaoInicial(alto);
+            while (enderecos[i] != 0 && !(altos[i] == alto && baixos[i] == baixo)) {
+                i = (i + 1) & mascara;
+            }
+            if (enderecos[i] == 0) {
+                return;
+            }
+            quantidade--;
+            int vazio = i;
+            for (int j = (i + 1) & mascara; enderecos[j] != 0; j = (j + 1) & mascara) {
+                int ideal = posicaoInicial(altos[j]);
+                // A entrada em j só pode ocupar o vazio se o vazio estiver entre a posição ideal e j
+                if (((j - ideal) & mascara) >= ((j - vazio) & mascara)) {
+                    altos[vazio] = altos[j];
+                    baixos[vazio] = baixos[j];
+                    enderecos[vazio] = enderecos[j];
+                    vazio = j;
+                }
+            }
+            enderecos[vazio] = 0;
+        }
+
+        IndiceEnderecos semSegmento(int idSegmento) {
+            IndiceEnderecos novo = new IndiceEnderecos(enderecos.length);
+            for (int i = 0; i < enderecos.length; i++) {
+                if (enderecos[i] != 0 && CachePersistente.idSegmento(enderecos[i]) != idSegmento) {
+                    novo.inserirNoLugar(altos[i], baixos[i], enderecos[i]);
+                }
+            }
+            return novo;
+        }
+
+        private IndiceEnderecos redimensionado() {
+            IndiceEnderecos maior = new IndiceEnderecos(enderecos.length * 2);
+            for (int i = 0; i < enderecos.length; i++) {
+                if (enderecos[i] != 0) {
+                    maior.inserirNoLugar(altos[i], baixos[i], enderecos[i]);
+                }
+            }
+            return maior;
+        }
+
+        private int posicaoInicial(long alto) {
+            return (int) (alto ^ (alto >>> 32)) & mascara;
+        }
+    }
+}
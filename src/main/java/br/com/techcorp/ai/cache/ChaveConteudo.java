@@ -0,0 +1,191 @@
+package br.com.techcorp.ai.cache;
+
+import java.util.Objects;
+
+/**
+ * Chave compacta do cache de classificações
+ *
+ * Em vez de guardar uma cópia do texto inteiro do e-mail, a chave guarda
+ * uma impressão digital de 128 bits (MurmurHash3 x64 128) do texto
+ * normalizado e o seu comprimento. A impressão é calculada em uma única
+ * passada sobre os caracteres, sem criar a string normalizada intermediária.
+ *
+ * A normalização é feita caractere a caractere: cada unidade UTF-16 passa
+ * por Character.toLowerCase e os caracteres até ' ' (espaços e controles)
+ * são descartados nas pontas. O resultado não é o de
+ * String.toLowerCase().trim() em todos os casos: 'İ' continua um único
+ * caractere e o sigma final não muda de forma.
+ *
+ * Com 128 bits a chance de colisão é desprezível para qualquer volume
+ * realista de e-mails. Para quem quiser garantia absoluta existe o modo
+ * de verificação, em que a chave também carrega o texto normalizado da
+ * mesma forma e a igualdade passa a compará-lo; as duas chaves precisam
+ * ter sido criadas no modo de verificação.
+ */
+public final class ChaveConteudo {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final long SEMENTE = 0x9747b28cL;
+
+    private final long alto;
+    private final long baixo;
+    private final int comprimento;
+
+    // Texto normalizado, preenchido apenas no modo de verificação de colisões
+    private final String textoVerificacao;
+
+    private ChaveConteudo(long alto, long baixo, int comprimento, String textoVerificacao) {
+        this.alto = alto;
+        this.baixo = baixo;
+        this.comprimento = comprimento;
+        this.textoVerificacao = textoVerificacao;
+    }
+
+    /**
+     * Calcula a chave do texto em minúsculas caractere a caractere, sem os
+     * caracteres até ' ' nas pontas
+     */
+    public static ChaveConteudo de(CharSequence texto) {
+        return de(texto, false);
+    }
+
+    /**
+     * Calcula a chave do texto
+     *
+     * @param verificarColisoes Se true, a chave também guarda o texto normalizado
+     */
+    public static ChaveConteudo de(CharSequence texto, boolean verificarColisoes) {
+        int inicio = 0;
+        int fim = texto.length();
+        while (inicio < fim && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && texto.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+
+        long h1 = SEMENTE;
+        long h2 = SEMENTE;
+        long k1 = 0;
+        long k2 = 0;
+        int posicaoBloco = 0;
+        char[] verificacao = verificarColisoes ? new char[fim - inicio] : null;
+
+        // Cada bloco de 128 bits consome 8 caracteres UTF-16 já em minúsculas
+        for (int i = inicio; i < fim; i++) {
+            char minuscula = Character.toLowerCase(texto.charAt(i));
+            if (verificacao != null) {
+                verificacao[i - inicio] = minuscula;
+            }
+            long c = minuscula;
+            if (posicaoBloco < 4) {
+                k1 |= c << (16 * posicaoBloco);
+            } else {
+                k2 |= c << (16 * (posicaoBloco - 4));
+            }
+
+            if (++posicaoBloco == 8) {
+                h1 ^= misturarK1(k1);
+                h1 = Long.rotateLeft(h1, 27);
+                h1 += h2;
+                h1 = h1 * 5 + 0x52dce729;
+
+                h2 ^= misturarK2(k2);
+                h2 = Long.rotateLeft(h2, 31);
+                h2 += h1;
+                h2 = h2 * 5 + 0x38495ab5;
+
+                k1 = 0;
+                k2 = 0;
+                posicaoBloco = 0;
+            }
+        }
+
+        // Cauda: caracteres restantes de um bloco incompleto
+        if (posicaoBloco > 4) {
+            h2 ^= misturarK2(k2);
+        }
+        if (posicaoBloco > 0) {
+            h1 ^= misturarK1(k1);
+        }
+
+        int comprimento = fim - inicio;
+        long bytes = comprimento * 2L;
+        h1 ^= bytes;
+        h2 ^= bytes;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        return new ChaveConteudo(h1, h2, comprimento, verificacao != null ? new String(verificacao) : null);
+    }
+
+    private static long misturarK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long misturarK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    // Impressão e comprimento, usados pelo cache persistente como chave em disco
+    long getAlto() {
+        return alto;
+    }
+
+    long getBaixo() {
+        return baixo;
+    }
+
+    int getComprimento() {
+        return comprimento;
+    }
+
+    /**
+     * Tamanho aproximado da chave em memória, usado pelo limite de peso do cache
+     */
+    public int getPesoEstimado() {
+        return textoVerificacao != null ? 32 + 40 + textoVerificacao.length() * 2 : 32;
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        if (this == outro) {
+            return true;
+        }
+        if (!(outro instanceof ChaveConteudo chave)) {
+            return false;
+        }
+        return alto == chave.alto
+                && baixo == chave.baixo
+                && comprimento == chave.comprimento
+                && Objects.equals(textoVerificacao, chave.textoVerificacao);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(alto) + Long.hashCode(baixo);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", alto, baixo);
+    }
+}
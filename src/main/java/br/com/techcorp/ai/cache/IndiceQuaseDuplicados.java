@@ -0,0 +1,207 @@
+package br.com.techcorp.ai.cache;
+
+import br.com.techcorp.ai.texto.ImpressaoSimHash;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de e-mails quase idênticos (SimHash com bandas de LSH)
+ *
+ * Boa parte dos e-mails segue um modelo (avisos de fatura, candidaturas,
+ * newsletters) e muda só em nomes, números e datas, o que o cache exato
+ * nunca reaproveita. Aqui cada classificação fica associada à impressão
+ * SimHash do texto, e um e-mail novo reaproveita o resultado de um anterior
+ * cuja impressão difere em no máximo d bits, com d derivado de
+ * ai.modelo.quaseDuplicados.similaridadeMinima (1 - d / 64).
+ *
+ * Os 64 bits são divididos em d + 1 bandas: se duas impressões diferem em
+ * até d bits, pelo menos uma banda é idêntica (casa dos pombos), então
+ * basta procurar candidatos nos baldes das bandas da impressão consultada.
+ * Tudo fica em vetores primitivos: um anel com as impressões e os
+ * resultados das últimas entradas e, por banda, baldes de largura fixa com
+ * as posições no anel. Entradas sobrescritas no anel não precisam ser
+ * removidas dos baldes, porque todo candidato é conferido pela impressão
+ * guardada na sua posição.
+ */
+public class IndiceQuaseDuplicados {
+
+    // Posições por balde; a mais recente entra na frente e a mais antiga sai
+    private static final int LARGURA_BALDE = 8;
+
+    // Acima disso as bandas ficam estreitas demais para separar candidatos
+    private static final int MAXIMO_BANDAS = 16;
+
+    private final int capacidade;
+    private final int distanciaMaxima;
+    private final int minimoPalavras;
+
+    private final int bandas;
+    private final int[] inicioBanda;
+    private final long[] mascaraBanda;
+    private final int mascaraBaldes;
+
+    // Anel com as últimas entradas
+    private final long[] impressoes;
+    private final ResultadoClassificacao[] resultados;
+    private int proxima;
+
+    // Por banda: baldes com as posições no anel + 1 (0 = vazio)
+    private final int[][] baldes;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder reaproveitados = new LongAdder();
+    private final LongAdder textosCurtos = new LongAdder();
+
+    private volatile String versaoModelo;
+
+    public IndiceQuaseDuplicados(PropriedadesModelo.QuaseDuplicados configuracao) {
+        double similaridade = configuracao.getSimilaridadeMinima();
+        if (similaridade <= 0.0 || similaridade > 1.0) {
+            throw new IllegalArgumentException("similaridadeMinima deve estar em (0, 1]: " + similaridade);
+        }
+        this.capacidade = Math.max(1, configuracao.getCapacidade());
+        this.distanciaMaxima = (int) Math.floor((1.0 - similaridade) * ImpressaoSimHash.BITS + 1e-9);
+        this.minimoPalavras = configuracao.getMinimoPalavras();
+
+        this.bandas = Math.min(distanciaMaxima + 1, MAXIMO_BANDAS);
+        this.inicioBanda = new int[bandas];
+        this.mascaraBanda = new long[bandas];
+        for (int b = 0; b < bandas; b++) {
+            int inicio = b * ImpressaoSimHash.BITS / bandas;
+            int fim = (b + 1) * ImpressaoSimHash.BITS / bandas;
+            inicioBanda[b] = inicio;
+            mascaraBanda[b] = fim - inicio == 64 ? -1L : (1L << (fim - inicio)) - 1;
+        }
+
+        int quantidadeBaldes = Integer.highestOneBit(Math.max(16, capacidade - 1)) << 1;
+        this.mascaraBaldes = quantidadeBaldes - 1;
+        this.baldes = new int[bandas][quantidadeBaldes * LARGURA_BALDE];
+
+        this.impressoes = new long[capacidade];
+        this.resultados = new ResultadoClassificacao[capacidade];
+    }
+
+    /**
+     * Indica se o texto normalizado (NormalizadorTexto.normalizarParaRegras) tem
+     * palavras suficientes para a comparação ser confiável: trocar um nome muda
+     * boa parte de um texto curto
+     */
+    public boolean isComparavel(String textoNormalizado) {
+        if (ImpressaoSimHash.contarPalavras(textoNormalizado) < minimoPalavras) {
+            textosCurtos.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Resultado do e-mail indexado mais parecido dentro da distância
+     * máxima, ou null se não houver nenhum
+     */
+    public ResultadoClassificacao buscar(long impressao) {
+        consultas.increment();
+
+        ResultadoClassificacao melhor = null;
+        int menorDistancia = distanciaMaxima + 1;
+
+        trava.readLock().lock();
+        try {
+            for (int b = 0; b < bandas && menorDistancia > 0; b++) {
+                int[] baldesBanda = baldes[b];
+                int base = balde(b, impressao) * LARGURA_BALDE;
+                for (int k = 0; k < LARGURA_BALDE; k++) {
+                    int posicao = baldesBanda[base + k] - 1;
+                    if (posicao < 0) {
+                        break;
+                    }
+                    ResultadoClassificacao candidato = resultados[posicao];
+                    int distancia = ImpressaoSimHash.distancia(impressoes[posicao], impressao);
+                    if (candidato != null && distancia < menorDistancia) {
+                        melhor = candidato;
+                        menorDistancia = distancia;
+                    }
+                }
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+
+        if (melhor != null) {
+            reaproveitados.increment();
+        }
+        return melhor;
+    }
+
+    /**
+     * Indexa o resultado de um e-mail classificado pelo modelo,
+     * substituindo a entrada mais antiga do anel
+     */
+    public void armazenar(long impressao, ResultadoClassificacao resultado) {
+        trava.writeLock().lock();
+        try {
+            int posicao = proxima;
+            proxima = proxima + 1 == capacidade ? 0 : proxima + 1;
+            impressoes[posicao] = impressao;
+            resultados[posicao] = resultado;
+
+            for (int b = 0; b < bandas; b++) {
+                int[] baldesBanda = baldes[b];
+                int base = balde(b, impressao) * LARGURA_BALDE;
+                System.arraycopy(baldesBanda, base, baldesBanda, base + 1, LARGURA_BALDE - 1);
+                baldesBanda[base] = posicao + 1;
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta o índice quando a versão do modelo muda
+     */
+    public void atualizarVersaoModelo(String novaVersao) {
+        if (novaVersao.equals(versaoModelo)) {
+            return;
+        }
+        trava.writeLock().lock();
+        try {
+            Arrays.fill(resultados, null);
+            for (int[] baldesBanda : baldes) {
+                Arrays.fill(baldesBanda, 0);
+            }
+            proxima = 0;
+            versaoModelo = novaVersao;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private int balde(int banda, long impressao) {
+        long valor = (impressao >>> inicioBanda[banda]) & mascaraBanda[banda];
+        long h = valor * 0x9e3779b97f4a7c15L;
+        return (int) (h >>> 32) & mascaraBaldes;
+    }
+
+    public Map<String, Object> getEstatisticas() {
+        long totalConsultas = consultas.sum();
+        long totalReaproveitados = reaproveitados.sum();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("capacidade", capacidade);
+        estatisticas.put("distanciaMaximaBits", distanciaMaxima);
+        estatisticas.put("bandas", bandas);
+        estatisticas.put("consultas", totalConsultas);
+        estatisticas.put("reaproveitados", totalReaproveitados);
+        estatisticas.put("taxaReaproveitamento", totalConsultas == 0 ? 0.0 : (double) totalReaproveitados / totalConsultas);
+        estatisticas.put("textosCurtos", textosCurtos.sum());
+        estatisticas.put("versaoModelo", versaoModelo);
+        return estatisticas;
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.ScoresSetores;
+
+/**
+ * Combina os scores das janelas de um e-mail longo em um único vetor
+ *
+ * Média dos scores de cada janela ponderada pela confiança da própria
+ * janela (o maior score): janelas decisivas pesam mais que as de
+ * cabeçalhos citados e assinaturas, que saem com scores baixos ou
+ * espalhados, e janelas sem nenhum score não diluem as demais.
+ */
+final class AgregacaoJanelas {
+
+    private final double[] soma = ScoresSetores.novoVetor();
+    private double pesoTotal;
+    private int janelas;
+
+    void adicionar(double[] scores) {
+        double peso = scores[ScoresSetores.melhorSetor(scores).ordinal()];
+        if (peso > 0.0) {
+            for (int i = 0; i < soma.length; i++) {
+                soma[i] += peso * scores[i];
+            }
+            pesoTotal += peso;
+        }
+        janelas++;
+    }
+
+    /**
+     * Scores agregados (zerados se nenhuma janela pontuou)
+     */
+    double[] resultado() {
+        double[] resultado = ScoresSetores.novoVetor();
+        if (pesoTotal > 0.0) {
+            for (int i = 0; i < soma.length; i++) {
+                resultado[i] = soma[i] / pesoTotal;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Maior score agregado até aqui
+     */
+    double getConfianca() {
+        double[] atual = resultado();
+        return atual[ScoresSetores.melhorSetor(atual).ordinal()];
+    }
+
+    int getJanelas() {
+        return janelas;
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.impl.ClassificadorHuggingFaceReal.EstadoModelo;
+import br.com.techcorp.cli.ComparacaoPrecisao;
+import br.com.techcorp.cli.TreinamentoLinear;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.CenarioDemonstracao;
+import br.com.techcorp.models.ResultadoClassificacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ciclo de vida do modelo: carregamento assíncrono, aquecimento e prontidão
+ *
+ * Ao iniciar o contexto o modelo é carregado em uma thread própria, sem
+ * atrasar a subida da aplicação. Em seguida os cenários de demonstração
+ * passam repetidas vezes pelos classificadores e pela serialização JSON,
+ * para que o JIT compile os caminhos quentes antes do primeiro cliente.
+ * Só então o classificador passa a PRONTO.
+ *
+ * Também é o indicador de saúde "cicloVidaModelo", incluído no grupo de
+ * readiness do Actuator: a instância só recebe tráfego depois de aquecida.
+ *
+ * Na comparação de precisões (--comparar-precisao) o modelo do classificador
+ * não é carregado: a comparação carrega os seus próprios modelos e mede a
+ * memória de cada um. O treino do classificador linear (--treinar-linear)
+ * também dispensa o modelo.
+ */
+@Component
+public class CicloVidaModelo implements SmartLifecycle, HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CicloVidaModelo.class);
+
+    private final ClassificadorHuggingFaceReal classificadorHuggingFace;
+    private final ClassificadorBaseadoEmRegras classificadorRegras;
+    private final ObjectMapper objectMapper;
+    private final PropriedadesModelo.Aquecimento configuracao;
+    private final boolean iniciarAutomaticamente;
+
+    private ExecutorService executor;
+    private Future<?> carregamento;
+    private volatile boolean executando;
+
+    public CicloVidaModelo(ClassificadorHuggingFaceReal classificadorHuggingFace,
+            ClassificadorBaseadoEmRegras classificadorRegras,
+            ObjectMapper objectMapper,
+            PropriedadesModelo propriedades,
+            Environment ambiente) {
+        this.classificadorHuggingFace = classificadorHuggingFace;
+        this.classificadorRegras = classificadorRegras;
+        this.objectMapper = objectMapper;
+        this.configuracao = propriedades.getAquecimento();
+        this.iniciarAutomaticamente = !ambiente.containsProperty(ComparacaoPrecisao.OPCAO_COMPARAR)
+                && !ambiente.containsProperty(TreinamentoLinear.OPCAO_TREINAR);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return iniciarAutomaticamente;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ciclo-vida-modelo");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executando = true;
+        carregamento = executor.submit(this::carregarEAquecer);
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        if (carregamento != null) {
+            carregamento.cancel(true);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                // O modelo só é liberado (@PreDestroy) depois que a carga ou o aquecimento param
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    private void carregarEAquecer() {
+        classificadorHuggingFace.carregarModelo();
+        if (!classificadorHuggingFace.isModeloCarregado()) {
+            return;
+        }
+
+        try {
+            aquecer();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            // O aquecimento só antecipa a compilação; uma falha aqui não impede o tráfego
+            logger.warn("⚠️ Aquecimento interrompido: {}", e.getMessage());
+        }
+
+        classificadorHuggingFace.marcarPronto();
+        logger.info("🟢 Modelo pronto para receber tráfego");
+    }
+
+    /**
+     * Passa os cenários de demonstração pelos caminhos quentes da classificação
+     */
+    private void aquecer() throws Exception {
+        long inicio = System.currentTimeMillis();
+        long limite = inicio + configuracao.getTempoMaximoMs();
+        int classificacoes = 0;
+
+        logger.info("🔥 Aquecendo o modelo ({} iterações, até {} ms)...",
+                configuracao.getIteracoes(), configuracao.getTempoMaximoMs());
+
+        for (int i = 0; i < configuracao.getIteracoes() && System.currentTimeMillis() < limite; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Aquecimento cancelado");
+            }
+            for (CenarioDemonstracao cenario : CenarioDemonstracao.PADRAO) {
+                String texto = cenario.texto();
+                objectMapper.writeValueAsBytes(classificadorRegras.classificarTexto(texto));
+                ResultadoClassificacao resultado = classificadorHuggingFace.aquecer(texto);
+                objectMapper.writeValueAsBytes(resultado);
+                classificacoes++;
+            }
+        }
+
+        logger.info("🔥 Aquecimento concluído: {} classificações em {} ms",
+                classificacoes, System.currentTimeMillis() - inicio);
+    }
+
+    @Override
+    public Health health() {
+        EstadoModelo estado = classificadorHuggingFace.getEstado();
+        Health.Builder saude = estado == EstadoModelo.PRONTO ? Health.up() : Health.outOfService();
+        if (estado == EstadoModelo.FALHOU) {
+            saude = Health.down();
+        }
+        return saude.withDetail("estado", estado).build();
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.cache.ChaveConteudo;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.models.ResultadoClassificacao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Classificações em andamento, uma por texto (single-flight)
+ *
+ * Em uma rajada de e-mails idênticos (malas diretas) todas as requisições
+ * chegam antes de a primeira terminar e nenhuma encontra o resultado no
+ * cache. Aqui a primeira requisição de cada chave classifica e as que
+ * chegam enquanto ela trabalha esperam o mesmo futuro, de modo que o
+ * modelo faz um único trabalho por texto distinto durante a rajada.
+ *
+ * A entrada sai do mapa quando a classificação termina; quem chega
+ * depois disso encontra o resultado no cache. Se a thread que classificava
+ * foi interrompida (prazo da requisição esgotado na cascata), o resultado
+ * dela é um fallback que só serve a ela: quem esperava não o recebe e
+ * tenta de novo, e uma dessas requisições passa a classificar.
+ */
+final class ClassificacoesEmAndamento {
+
+    private final ConcurrentHashMap<ChaveConteudo, CompletableFuture<ResultadoClassificacao>> emAndamento =
+            new ConcurrentHashMap<>();
+
+    private final MetricasClassificacao metricas;
+
+    private final LongAdder executadas = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+
+    ClassificacoesEmAndamento(MetricasClassificacao metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * Executa a classificação, ou espera a que já está em andamento para a
+     * mesma chave e devolve o mesmo resultado
+     *
+     * @throws InterruptedException se esta requisição for interrompida
+     *         enquanto espera a classificação de outra, que continua
+     */
+    ResultadoClassificacao executar(ChaveConteudo chave, Supplier<ResultadoClassificacao> classificacao)
+            throws InterruptedException {
+        while (true) {
+            CompletableFuture<ResultadoClassificacao> propria = new CompletableFuture<>();
+            CompletableFuture<ResultadoClassificacao> existente = emAndamento.putIfAbsent(chave, propria);
+            if (existente == null) {
+                return classificar(chave, propria, classificacao);
+            }
+
+            coalescidas.increment();
+            metricas.registrarCoalescida();
+            try {
+                return existente.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ClassificacaoAbandonada) {
+                    // Quem classificava foi cancelado; esta requisição tenta de novo
+                    continue;
+                }
+                // Quem aguardava recebe a mesma exceção de quem classificava
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                if (e.getCause() instanceof Error erro) {
+                    throw erro;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private ResultadoClassificacao classificar(ChaveConteudo chave, CompletableFuture<ResultadoClassificacao> propria,
+                                               Supplier<ResultadoClassificacao> classificacao) {
+        executadas.increment();
+        ResultadoClassificacao resultado;
+        try {
+            resultado = classificacao.get();
+        } catch (RuntimeException | Error e) {
+            emAndamento.remove(chave, propria);
+            propria.completeExceptionally(e);
+            throw e;
+        }
+
+        // Sai do mapa antes de completar, para quem tentar de novo não encontrar este futuro
+        emAndamento.remove(chave, propria);
+        if (Thread.currentThread().isInterrupted()) {
+            propria.completeExceptionally(new ClassificacaoAbandonada());
+        } else {
+            propria.complete(resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Sinal para quem esperava: a classificação foi interrompida e o
+     * resultado não vale para as outras requisições
+     */
+    private static final class ClassificacaoAbandonada extends RuntimeException {
+
+        private ClassificacaoAbandonada() {
+            super("Classificação interrompida", null, false, false);
+        }
+    }
+
+    /**
+     * Contadores para os endpoints de informação
+     */
+    Map<String, Object> getEstatisticas() {
+        long totalExecutadas = executadas.sum();
+        long totalCoalescidas = coalescidas.sum();
+        long total = totalExecutadas + totalCoalescidas;
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitada", true);
+        estatisticas.put("executadas", totalExecutadas);
+        estatisticas.put("coalescidas", totalCoalescidas);
+        estatisticas.put("taxaCoalescencia", total > 0 ? (double) totalCoalescidas / total : 0.0);
+        estatisticas.put("emAndamento", emAndamento.size());
+        return estatisticas;
+    }
+}
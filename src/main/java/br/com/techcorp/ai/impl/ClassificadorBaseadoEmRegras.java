@@ -1,8 +1,10 @@
 package br.com.techcorp.ai.impl;
 
 import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.ai.texto.AutomatoPalavrasChave;
+import br.com.techcorp.ai.texto.NormalizadorTexto;
 import br.com.techcorp.models.*;
-import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -16,11 +18,10 @@ import java.util.regex.Pattern;
  * e-mails por setor. É uma solução acadêmica que demonstra
  * os conceitos de classificação de texto.
  * 
- * @Primary - Usado como fallback quando o classificador principal não está
- *          disponível
+ * Primeiro nível do ClassificadorCascata: quando a confiança é alta o
+ * resultado é usado sem consultar o modelo.
  */
 @Component
-@Primary
 public class ClassificadorBaseadoEmRegras implements ClassificadorEmails {
 
     // Mapa de palavras-chave para cada setor
@@ -29,6 +30,21 @@ public class ClassificadorBaseadoEmRegras implements ClassificadorEmails {
     // Mapa de padrões regex para casos específicos
     private static final Map<SetorEmail, List<Pattern>> PADROES = new HashMap<>();
 
+    // Palavras-chave compiladas em um autômato de Aho-Corasick (uma passada por texto)
+    private static final AutomatoPalavrasChave AUTOMATO;
+
+    // Palavras usadas pelas regras de contexto (índices no autômato)
+    private static final int PALAVRA_FATURA;
+    private static final int PALAVRA_PAGAMENTO;
+    private static final int PALAVRA_PROBLEMA;
+    private static final int PALAVRA_SISTEMA;
+    private static final int PALAVRA_CV;
+    private static final int PALAVRA_CURRICULO;
+    private static final int PALAVRA_COTACAO;
+    private static final int PALAVRA_PRECO;
+    private static final int PALAVRA_PROPOSTA;
+    private static final int PALAVRA_CLIENTE;
+
     // Precisão simulada do modelo
     private double precisao = 0.85;
 
@@ -99,6 +115,26 @@ public class ClassificadorBaseadoEmRegras implements ClassificadorEmails {
                 Pattern.compile("cv\\s*\\.", Pattern.CASE_INSENSITIVE),
                 Pattern.compile("currículo", Pattern.CASE_INSENSITIVE),
                 Pattern.compile("vaga\\s+para", Pattern.CASE_INSENSITIVE)));
+
+        // Compilar todas as palavras-chave em um único autômato
+        AutomatoPalavrasChave.Construtor construtor = AutomatoPalavrasChave.construtor();
+        for (SetorEmail setor : SetorEmail.values()) {
+            for (String palavraChave : PALAVRAS_CHAVE.getOrDefault(setor, List.of())) {
+                construtor.adicionar(palavraChave, setor, 1.0);
+            }
+        }
+        AUTOMATO = construtor.construir();
+
+        PALAVRA_FATURA = AUTOMATO.indiceDe("fatura");
+        PALAVRA_PAGAMENTO = AUTOMATO.indiceDe("pagamento");
+        PALAVRA_PROBLEMA = AUTOMATO.indiceDe("problema");
+        PALAVRA_SISTEMA = AUTOMATO.indiceDe("sistema");
+        PALAVRA_CV = AUTOMATO.indiceDe("cv");
+        PALAVRA_CURRICULO = AUTOMATO.indiceDe("currículo");
+        PALAVRA_COTACAO = AUTOMATO.indiceDe("cotação");
+        PALAVRA_PRECO = AUTOMATO.indiceDe("preço");
+        PALAVRA_PROPOSTA = AUTOMATO.indiceDe("proposta");
+        PALAVRA_CLIENTE = AUTOMATO.indiceDe("cliente");
     }
 
     @Override
@@ -120,70 +156,66 @@ public class ClassificadorBaseadoEmRegras implements ClassificadorEmails {
         // Normalização do texto para análise
         String textoNormalizado = normalizarTexto(texto);
 
-        // Cálculo dos scores para cada setor
-        Map<SetorEmail, Double> scores = calcularScores(textoNormalizado);
+        // Encontrar todas as palavras-chave em uma única passada
+        AutomatoPalavrasChave.Correspondencias correspondencias = buscarPalavrasChave(textoNormalizado);
+
+        // Cálculo dos scores para cada setor (indexados por ordinal)
+        double[] scores = calcularScores(textoNormalizado, correspondencias);
 
         // Encontrar o setor com maior pontuação
-        SetorEmail melhorSetor = scores.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(SetorEmail.ATENDIMENTO);
+        SetorEmail melhorSetor = ScoresSetores.melhorSetor(scores);
 
-        double confianca = scores.get(melhorSetor);
-        String motivo = gerarMotivo(melhorSetor, textoNormalizado, confianca);
+        double confianca = scores[melhorSetor.ordinal()];
+        String motivo = gerarMotivo(melhorSetor, correspondencias, confianca);
 
         // Criar resultado da classificação
         ResultadoClassificacao resultado = new ResultadoClassificacao(melhorSetor, confianca, motivo);
-        resultado.setProbabilidadesSetores(converterScoresParaProbabilidades(scores));
+        resultado.setProbabilidades(converterScoresParaProbabilidades(scores));
         resultado.setVersaoModelo("Regras-v1.0");
 
         return resultado;
     }
 
+    // As etapas abaixo são visíveis no pacote para os benchmarks JMH (src/jmh/java)
+
     /**
      * Normaliza o texto removendo acentos, caracteres especiais e padronizando
      * espaços
      */
-    private String normalizarTexto(String texto) {
-        return texto.toLowerCase()
-                .replaceAll("[áàâãä]", "a")
-                .replaceAll("[éèêë]", "e")
-                .replaceAll("[íìîï]", "i")
-                .replaceAll("[óòôõö]", "o")
-                .replaceAll("[úùûü]", "u")
-                .replaceAll("[ç]", "c")
-                .replaceAll("[^a-z0-9\\s]", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
+    String normalizarTexto(String texto) {
+        return NormalizadorTexto.normalizarParaRegras(texto);
     }
 
     /**
-     * Calcula os scores para cada setor baseado nas palavras-chave encontradas
+     * Encontra as palavras-chave de todos os setores no texto normalizado
      */
-    private Map<SetorEmail, Double> calcularScores(String textoNormalizado) {
-        Map<SetorEmail, Double> scores = new HashMap<>();
+    AutomatoPalavrasChave.Correspondencias buscarPalavrasChave(String textoNormalizado) {
+        return AUTOMATO.buscar(textoNormalizado);
+    }
 
-        // Inicializar scores com zero
-        for (SetorEmail setor : SetorEmail.values()) {
-            scores.put(setor, 0.0);
-        }
+    /**
+     * Calcula os scores para cada setor baseado nas palavras-chave encontradas
+     */
+    double[] calcularScores(String textoNormalizado,
+            AutomatoPalavrasChave.Correspondencias correspondencias) {
+        // Scores começam zerados, uma posição por setor
+        double[] scores = ScoresSetores.novoVetor();
 
         // Calcular scores baseados em palavras-chave
-        for (Map.Entry<SetorEmail, List<String>> entry : PALAVRAS_CHAVE.entrySet()) {
-            SetorEmail setor = entry.getKey();
-            List<String> palavrasChave = entry.getValue();
+        for (SetorEmail setor : SetorEmail.values()) {
+            int[] entradas = AUTOMATO.entradasDoSetor(setor);
 
             double score = 0.0;
-            for (String palavraChave : palavrasChave) {
-                if (textoNormalizado.contains(palavraChave)) {
+            for (int entrada : entradas) {
+                if (correspondencias.contem(AUTOMATO.palavraDaEntrada(entrada))) {
                     score += 1.0;
                 }
             }
 
             // Normalizar score baseado no número de palavras-chave encontradas
             if (score > 0) {
-                score = Math.min(score / palavrasChave.size() * 2, 1.0);
-                scores.put(setor, scores.get(setor) + score);
+                score = Math.min(score / entradas.length * 2, 1.0);
+                scores[setor.ordinal()] += score;
             }
         }
 
@@ -194,14 +226,13 @@ public class ClassificadorBaseadoEmRegras implements ClassificadorEmails {
 
             for (Pattern padrao : padroes) {
                 if (padrao.matcher(textoNormalizado).find()) {
-                    double scoreAtual = scores.get(setor);
-                    scores.put(setor, scoreAtual + 0.3);
+                    scores[setor.ordinal()] += 0.3;
                 }
             }
         }
 
         // Aplicar regras de contexto para melhorar a precisão
-        aplicarRegrasContexto(textoNormalizado, scores);
+        aplicarRegrasContexto(correspondencias, scores);
 
         return scores;
     }
@@ -209,62 +240,63 @@ public class ClassificadorBaseadoEmRegras implements ClassificadorEmails {
     /**
      * Aplica regras de contexto para refinar a classificação
      */
-    private void aplicarRegrasContexto(String texto, Map<SetorEmail, Double> scores) {
+    void aplicarRegrasContexto(AutomatoPalavrasChave.Correspondencias texto,
+            double[] scores) {
         // Regra: Se contém "fatura" e "pagamento" → FINANCEIRO
-        if (texto.contains("fatura") && texto.contains("pagamento")) {
-            scores.put(SetorEmail.FINANCEIRO, scores.get(SetorEmail.FINANCEIRO) + 0.5);
+        if (texto.contem(PALAVRA_FATURA) && texto.contem(PALAVRA_PAGAMENTO)) {
+            scores[SetorEmail.FINANCEIRO.ordinal()] += 0.5;
         }
 
         // Regra: Se contém "problema" e "sistema" → TI ou ATENDIMENTO
-        if (texto.contains("problema") && texto.contains("sistema")) {
-            scores.put(SetorEmail.TI, scores.get(SetorEmail.TI) + 0.3);
-            scores.put(SetorEmail.ATENDIMENTO, scores.get(SetorEmail.ATENDIMENTO) + 0.2);
+        if (texto.contem(PALAVRA_PROBLEMA) && texto.contem(PALAVRA_SISTEMA)) {
+            scores[SetorEmail.TI.ordinal()] += 0.3;
+            scores[SetorEmail.ATENDIMENTO.ordinal()] += 0.2;
         }
 
         // Regra: Se contém "cv" ou "currículo" → RH
-        if (texto.contains("cv") || texto.contains("currículo")) {
-            scores.put(SetorEmail.RH, scores.get(SetorEmail.RH) + 0.8);
+        if (texto.contem(PALAVRA_CV) || texto.contem(PALAVRA_CURRICULO)) {
+            scores[SetorEmail.RH.ordinal()] += 0.8;
         }
 
         // Regra: Se contém "cotação" e "preço" → COMPRAS
-        if (texto.contains("cotação") && texto.contains("preço")) {
-            scores.put(SetorEmail.COMPRAS, scores.get(SetorEmail.COMPRAS) + 0.4);
+        if (texto.contem(PALAVRA_COTACAO) && texto.contem(PALAVRA_PRECO)) {
+            scores[SetorEmail.COMPRAS.ordinal()] += 0.4;
         }
 
         // Regra: Se contém "proposta" e "cliente" → VENDAS
-        if (texto.contains("proposta") && texto.contains("cliente")) {
-            scores.put(SetorEmail.VENDAS, scores.get(SetorEmail.VENDAS) + 0.4);
+        if (texto.contem(PALAVRA_PROPOSTA) && texto.contem(PALAVRA_CLIENTE)) {
+            scores[SetorEmail.VENDAS.ordinal()] += 0.4;
         }
     }
 
     /**
      * Converte os scores em probabilidades normalizadas
+     * (vetor vazio quando nenhum setor pontuou)
      */
-    private Map<String, Double> converterScoresParaProbabilidades(Map<SetorEmail, Double> scores) {
-        Map<String, Double> probabilidades = new HashMap<>();
-        double totalScore = scores.values().stream().mapToDouble(Double::doubleValue).sum();
-
-        if (totalScore > 0) {
-            for (Map.Entry<SetorEmail, Double> entry : scores.entrySet()) {
-                double probabilidade = entry.getValue() / totalScore;
-                probabilidades.put(entry.getKey().name(), probabilidade);
-            }
+    double[] converterScoresParaProbabilidades(double[] scores) {
+        double totalScore = ScoresSetores.soma(scores);
+        if (totalScore <= 0) {
+            return new double[0];
         }
 
+        double[] probabilidades = new double[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            probabilidades[i] = scores[i] / totalScore;
+        }
         return probabilidades;
     }
 
     /**
      * Gera uma explicação para a classificação realizada
      */
-    private String gerarMotivo(SetorEmail setor, String texto, double confianca) {
+    String gerarMotivo(SetorEmail setor, AutomatoPalavrasChave.Correspondencias correspondencias,
+            double confianca) {
         List<String> palavrasEncontradas = new ArrayList<>();
 
-        if (PALAVRAS_CHAVE.containsKey(setor)) {
-            for (String palavraChave : PALAVRAS_CHAVE.get(setor)) {
-                if (texto.contains(palavraChave)) {
-                    palavrasEncontradas.add(palavraChave);
-                }
+        for (int entrada : AUTOMATO.entradasDoSetor(setor)) {
+            int palavra = AUTOMATO.palavraDaEntrada(entrada);
+            if (correspondencias.contem(palavra)) {
+                palavrasEncontradas.add(AUTOMATO.palavra(palavra));
             }
         }
 
@@ -0,0 +1,411 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.admissao.ControleAdmissao;
+import br.com.techcorp.ai.admissao.ControleAdmissao.Admissao;
+import br.com.techcorp.ai.admissao.DisjuntorModelo;
+import br.com.techcorp.ai.admissao.SobrecargaException;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.ai.metricas.MetricasClassificacao.DecisaoAdmissao;
+import br.com.techcorp.ai.metricas.MetricasClassificacao.NivelCascata;
+import br.com.techcorp.config.PropriedadesAdmissao;
+import br.com.techcorp.config.PropriedadesCascata;
+import br.com.techcorp.config.PropriedadesLinear;
+import br.com.techcorp.config.PropriedadesPrazo;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoClassificacao;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classificador em cascata: regras primeiro, modelo só quando necessário
+ *
+ * A maior parte dos e-mails é óbvia e o classificador por regras resolve
+ * em microssegundos. O resultado das regras só é aceito quando a confiança
+ * e a margem entre os dois setores mais prováveis atingem os limites de
+ * ai.cascata; caso contrário o e-mail passa pelo ClassificadorLinear (quando
+ * há pesos treinados), aceito a partir de ai.linear.confiancaMinima, e só
+ * então segue para o ClassificadorHuggingFaceReal.
+ *
+ * A entrada no modelo passa pelo ControleAdmissao: sob sobrecarga, o
+ * e-mail não admitido é recusado (SobrecargaException, 429) ou fica com o
+ * resultado das regras, conforme ai.admissao.reacao.
+ *
+ * Cada classificação tem um prazo (cabeçalho X-Prazo-Ms ou
+ * ai.prazo.padraoMs). O modelo roda no executor próprio e, se não
+ * responder no prazo, a tarefa é cancelada e o e-mail fica com o
+ * resultado das regras, marcado na versão do modelo. Timeouts seguidos
+ * abrem o DisjuntorModelo, que desvia tudo para as regras até o modelo
+ * voltar a responder no prazo. O modo offline usa semPrazo(), que passa
+ * pelos mesmos níveis sem admissão, prazo nem disjuntor.
+ *
+ * @Primary - Implementação injetada onde se pede um ClassificadorEmails
+ */
+@Component
+@Primary
+public class ClassificadorCascata implements ClassificadorEmails {
+
+    private final ClassificadorBaseadoEmRegras classificadorRegras;
+    private final ClassificadorLinear classificadorLinear;
+    private final ClassificadorHuggingFaceReal classificadorHuggingFace;
+    private final PropriedadesCascata propriedades;
+    private final PropriedadesLinear propriedadesLinear;
+    private final ControleAdmissao controleAdmissao;
+    private final PropriedadesPrazo propriedadesPrazo;
+    private final DisjuntorModelo disjuntor;
+    private final ThreadPoolExecutor executorModelo;
+    private final MetricasClassificacao metricas;
+
+    private final LongAdder resolvidosPorRegras = new LongAdder();
+    private final LongAdder resolvidosPorLinear = new LongAdder();
+    private final LongAdder encaminhadosAoModelo = new LongAdder();
+    private final LongAdder naoAdmitidos = new LongAdder();
+    private final LongAdder prazosEsgotados = new LongAdder();
+    private final LongAdder desviadosPeloDisjuntor = new LongAdder();
+
+    private final ClassificadorEmails semPrazo = new SemPrazo();
+
+    public ClassificadorCascata(ClassificadorBaseadoEmRegras classificadorRegras,
+            ClassificadorLinear classificadorLinear,
+            ClassificadorHuggingFaceReal classificadorHuggingFace,
+            PropriedadesCascata propriedades,
+            PropriedadesLinear propriedadesLinear,
+            ControleAdmissao controleAdmissao,
+            PropriedadesPrazo propriedadesPrazo,
+            DisjuntorModelo disjuntor,
+            @Qualifier("executorClassificacaoModelo") ThreadPoolExecutor executorModelo,
+            MetricasClassificacao metricas) {
+        this.classificadorRegras = classificadorRegras;
+        this.classificadorLinear = classificadorLinear;
+        this.classificadorHuggingFace = classificadorHuggingFace;
+        this.propriedades = propriedades;
+        this.propriedadesLinear = propriedadesLinear;
+        this.controleAdmissao = controleAdmissao;
+        this.propriedadesPrazo = propriedadesPrazo;
+        this.disjuntor = disjuntor;
+        this.executorModelo = executorModelo;
+        this.metricas = metricas;
+    }
+
+    @Override
+    public ResultadoClassificacao classificar(Email email) {
+        return classificarTexto(email.getTextoParaClassificacao());
+    }
+
+    @Override
+    public ResultadoClassificacao classificarTexto(String texto) {
+        return classificarTexto(texto, 0L);
+    }
+
+    /**
+     * Classifica um e-mail com o prazo pedido pelo cliente
+     *
+     * @param prazoMs Prazo em milissegundos (0 = ai.prazo.padraoMs), entre ai.prazo.minimoMs e ai.prazo.maximoMs
+     */
+    public ResultadoClassificacao classificar(Email email, long prazoMs) {
+        return classificarTexto(email.getTextoParaClassificacao(), prazoMs);
+    }
+
+    /**
+     * Classifica um texto com o prazo pedido pelo cliente
+     *
+     * @param prazoMs Prazo em milissegundos (0 = ai.prazo.padraoMs), entre ai.prazo.minimoMs e ai.prazo.maximoMs
+     */
+    public ResultadoClassificacao classificarTexto(String texto, long prazoMs) {
+        return classificarTexto(texto, prazoMs, true);
+    }
+
+    /**
+     * A mesma cascata sem controle de admissão, prazo nem disjuntor
+     *
+     * Para o modo offline (ClassificacaoArquivo): a concorrência já é
+     * limitada pelas threads de quem chama e cada e-mail do arquivo deve
+     * esperar a resposta do modelo, em vez de receber o resultado das
+     * regras (:sobrecarga, :prazo-esgotado) ou uma SobrecargaException.
+     */
+    public ClassificadorEmails semPrazo() {
+        return semPrazo;
+    }
+
+    private ResultadoClassificacao classificarTexto(String texto, long prazoMs, boolean comControle) {
+        ResultadoClassificacao resultadoRegras = null;
+        long inicio = MetricasClassificacao.inicio();
+        if (propriedades.isHabilitada() && texto != null && !texto.isBlank()) {
+            resultadoRegras = classificadorRegras.classificarTexto(texto);
+
+            if (suficiente(resultadoRegras)) {
+                // O classificador do modelo não é chamado: duração e setor são registrados aqui
+                resolvidosPorRegras.increment();
+                return resolvido(NivelCascata.REGRAS, resultadoRegras, inicio);
+            }
+
+            if (classificadorLinear.isDisponivel()) {
+                ResultadoClassificacao resultadoLinear = classificadorLinear.classificarTexto(texto);
+                Double confianca = resultadoLinear.getConfianca();
+                if (confianca != null && confianca >= propriedadesLinear.getConfiancaMinima()) {
+                    resolvidosPorLinear.increment();
+                    return resolvido(NivelCascata.LINEAR, resultadoLinear, inicio);
+                }
+            }
+        }
+
+        if (!comControle) {
+            encaminhadosAoModelo.increment();
+            metricas.registrarNivelCascata(NivelCascata.MODELO);
+            return classificadorHuggingFace.classificarTexto(texto);
+        }
+
+        if (!disjuntor.permite()) {
+            desviadosPeloDisjuntor.increment();
+            metricas.registrarDesvioDisjuntor();
+            ResultadoClassificacao resultado = comRegras(texto, resultadoRegras, ":disjuntor-aberto",
+                    " (modelo desviado após timeouts seguidos, resultado das regras)");
+            return resolvido(NivelCascata.REGRAS, resultado, inicio);
+        }
+
+        if (!propriedadesPrazo.isHabilitado()) {
+            Admissao admissao = controleAdmissao.admitir();
+            if (admissao == null) {
+                return naoAdmitido(texto, resultadoRegras, inicio);
+            }
+            try (admissao) {
+                encaminharAoModelo();
+                ResultadoClassificacao resultado = classificadorHuggingFace.classificarTexto(texto);
+                registrarResposta(resultado);
+                return resultado;
+            } catch (RuntimeException e) {
+                disjuntor.registrarSemResposta();
+                throw e;
+            }
+        }
+
+        // O prazo conta desde a chegada à cascata, inclusive a espera por uma vaga no modelo
+        long prazoNanos = TimeUnit.MILLISECONDS.toNanos(prazoMs > 0
+                ? Math.max(propriedadesPrazo.getMinimoMs(), Math.min(prazoMs, propriedadesPrazo.getMaximoMs()))
+                : propriedadesPrazo.getPadraoMs());
+        long limite = inicio + prazoNanos;
+        Admissao admissao = controleAdmissao.admitir(limite - System.nanoTime());
+        if (admissao == null) {
+            return naoAdmitido(texto, resultadoRegras, inicio);
+        }
+        return classificarNoPrazo(texto, admissao, resultadoRegras, inicio, limite, prazoNanos);
+    }
+
+    /**
+     * Só uma resposta do modelo prova que ele voltou; o fallback do classificador não
+     */
+    private void registrarResposta(ResultadoClassificacao resultado) {
+        if (classificadorHuggingFace.isResultadoDoModelo(resultado)) {
+            disjuntor.registrarSucesso();
+        } else {
+            disjuntor.registrarSemResposta();
+        }
+    }
+
+    private void encaminharAoModelo() {
+        metricas.registrarAdmissao(DecisaoAdmissao.ADMITIDA);
+        encaminhadosAoModelo.increment();
+        metricas.registrarNivelCascata(NivelCascata.MODELO);
+    }
+
+    /**
+     * Executa o modelo no executor próprio e espera até o limite do prazo
+     *
+     * A vaga de admissão só é devolvida quando a tarefa termina, inclusive
+     * depois de cancelada, para que o controle de admissão enxergue o
+     * trabalho que ainda ocupa o modelo.
+     */
+    private ResultadoClassificacao classificarNoPrazo(String texto, Admissao admissao,
+            ResultadoClassificacao resultadoRegras, long inicio, long limite, long prazoNanos) {
+        Future<ResultadoClassificacao> tarefa;
+        try {
+            tarefa = executorModelo.submit(() -> {
+                try (admissao) {
+                    return classificadorHuggingFace.classificarTexto(texto);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admissao.close();
+            return naoAdmitido(texto, resultadoRegras, inicio);
+        }
+        encaminharAoModelo();
+
+        try {
+            ResultadoClassificacao resultado = tarefa.get(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+            registrarResposta(resultado);
+            return resultado;
+
+        } catch (TimeoutException e) {
+            tarefa.cancel(true);
+            prazosEsgotados.increment();
+            metricas.registrarPrazoEsgotado();
+            // Um prazo mais curto que o padrão é escolha do cliente, não falha do modelo
+            if (prazoNanos >= TimeUnit.MILLISECONDS.toNanos(propriedadesPrazo.getPadraoMs())) {
+                disjuntor.registrarTimeout();
+            } else {
+                disjuntor.registrarSemResposta();
+            }
+
+            // Já contado como encaminhado ao modelo: só setor e duração são registrados
+            ResultadoClassificacao resultado = comRegras(texto, resultadoRegras, ":prazo-esgotado",
+                    " (prazo de " + TimeUnit.NANOSECONDS.toMillis(prazoNanos)
+                            + " ms esgotado no modelo, resultado das regras)");
+            metricas.registrarSetor(resultado.getSetor());
+            metricas.registrarDuracao(inicio);
+            return resultado;
+
+        } catch (InterruptedException e) {
+            tarefa.cancel(true);
+            disjuntor.registrarSemResposta();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Classificação interrompida aguardando o modelo", e);
+
+        } catch (ExecutionException e) {
+            disjuntor.registrarSemResposta();
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Erro na classificação pelo modelo: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Resultado das regras no lugar do modelo, marcado na versão e no motivo
+     */
+    private ResultadoClassificacao comRegras(String texto, ResultadoClassificacao resultadoRegras,
+            String marcaVersao, String observacao) {
+        ResultadoClassificacao resultado = resultadoRegras != null
+                ? resultadoRegras
+                : classificadorRegras.classificarTexto(texto);
+        resultado.setVersaoModelo(resultado.getVersaoModelo() + marcaVersao);
+        resultado.setMotivo(resultado.getMotivo() + observacao);
+        return resultado;
+    }
+
+    /**
+     * Reação de ai.admissao.reacao a um e-mail sem vaga no modelo
+     *
+     * O disjuntor já deixou o e-mail passar: sem resposta do modelo, a
+     * classificação de teste do estado SEMIABERTO fica para a próxima.
+     *
+     * @throws SobrecargaException com a reação REJEITAR
+     */
+    private ResultadoClassificacao naoAdmitido(String texto, ResultadoClassificacao resultadoRegras, long inicio) {
+        disjuntor.registrarSemResposta();
+        naoAdmitidos.increment();
+        if (controleAdmissao.getReacao() == PropriedadesAdmissao.Reacao.REJEITAR) {
+            metricas.registrarAdmissao(DecisaoAdmissao.REJEITADA);
+            throw new SobrecargaException(controleAdmissao.getRetryAfterSegundos());
+        }
+
+        metricas.registrarAdmissao(DecisaoAdmissao.DEGRADADA);
+        ResultadoClassificacao resultado = comRegras(texto, resultadoRegras, ":sobrecarga",
+                " (modelo sobrecarregado, resultado das regras)");
+        return resolvido(NivelCascata.REGRAS, resultado, inicio);
+    }
+
+    private ResultadoClassificacao resolvido(NivelCascata nivel, ResultadoClassificacao resultado, long inicio) {
+        metricas.registrarNivelCascata(nivel);
+        metricas.registrarSetor(resultado.getSetor());
+        metricas.registrarDuracao(inicio);
+        return resultado;
+    }
+
+    /**
+     * Confiança e margem das regras acima dos limites configurados
+     */
+    private boolean suficiente(ResultadoClassificacao resultado) {
+        Double confianca = resultado.getConfianca();
+        return resultado.getSetor() != null
+                && confianca != null
+                && confianca >= propriedades.getConfiancaMinima()
+                && margem(resultado.getProbabilidades()) >= propriedades.getMargemMinima();
+    }
+
+    /**
+     * Diferença entre as duas maiores probabilidades (0 quando nenhum setor pontuou)
+     */
+    static double margem(double[] probabilidades) {
+        if (probabilidades == null) {
+            return 0.0;
+        }
+        double primeira = 0.0;
+        double segunda = 0.0;
+        for (double probabilidade : probabilidades) {
+            if (probabilidade > primeira) {
+                segunda = primeira;
+                primeira = probabilidade;
+            } else if (probabilidade > segunda) {
+                segunda = probabilidade;
+            }
+        }
+        return primeira - segunda;
+    }
+
+    /**
+     * Precisão do nível mais preciso da cascata (o modelo)
+     */
+    @Override
+    public double getPrecisao() {
+        return classificadorHuggingFace.getPrecisao();
+    }
+
+    /**
+     * Visão da cascata devolvida por semPrazo()
+     */
+    private final class SemPrazo implements ClassificadorEmails {
+
+        @Override
+        public ResultadoClassificacao classificar(Email email) {
+            return classificarTexto(email.getTextoParaClassificacao());
+        }
+
+        @Override
+        public ResultadoClassificacao classificarTexto(String texto) {
+            return ClassificadorCascata.this.classificarTexto(texto, 0L, false);
+        }
+
+        @Override
+        public double getPrecisao() {
+            return ClassificadorCascata.this.getPrecisao();
+        }
+    }
+
+    /**
+     * Contadores por nível da cascata para os endpoints de informação
+     */
+    public Map<String, Object> getEstatisticas() {
+        long regras = resolvidosPorRegras.sum();
+        long linear = resolvidosPorLinear.sum();
+        long modelo = encaminhadosAoModelo.sum();
+        long total = regras + linear + modelo;
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitada", propriedades.isHabilitada());
+        estatisticas.put("confiancaMinima", propriedades.getConfiancaMinima());
+        estatisticas.put("margemMinima", propriedades.getMargemMinima());
+        estatisticas.put("resolvidosPorRegras", regras);
+        estatisticas.put("resolvidosPorLinear", linear);
+        estatisticas.put("encaminhadosAoModelo", modelo);
+        estatisticas.put("naoAdmitidosNoModelo", naoAdmitidos.sum());
+        estatisticas.put("prazosEsgotados", prazosEsgotados.sum());
+        estatisticas.put("desviadosPeloDisjuntor", desviadosPeloDisjuntor.sum());
+        estatisticas.put("prazoPadraoMs", propriedadesPrazo.isHabilitado() ? propriedadesPrazo.getPadraoMs() : 0L);
+        estatisticas.put("disjuntor", disjuntor.getEstatisticas());
+        estatisticas.put("taxaResolucaoRegras", total > 0 ? (double) regras / total : 0.0);
+        estatisticas.put("taxaResolucaoLinear", total > 0 ? (double) linear / total : 0.0);
+        return estatisticas;
+    }
+}
@@ -1,55 +1,152 @@
 package br.com.techcorp.ai.impl;
 
 import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.ai.cache.CacheClassificacoes;
+import br.com.techcorp.ai.cache.ChaveConteudo;
+import br.com.techcorp.ai.cache.IndiceQuaseDuplicados;
+import br.com.techcorp.ai.inferencia.AgendadorMicroLotes;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferencia;
+import br.com.techcorp.ai.inferencia.MotorInferencia;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.ai.metricas.MetricasClassificacao.Etapa;
+import br.com.techcorp.ai.texto.AutomatoPalavrasChave;
+import br.com.techcorp.ai.texto.ImpressaoSimHash;
+import br.com.techcorp.ai.texto.NormalizadorTexto;
+import br.com.techcorp.config.PropriedadesModelo;
 import br.com.techcorp.models.Email;
 import br.com.techcorp.models.ResultadoClassificacao;
 import br.com.techcorp.models.SetorEmail;
 import org.springframework.stereotype.Component;
-import org.springframework.context.annotation.Primary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.annotation.PreDestroy;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Classificador de e-mails com IA REAL do Hugging Face
  * 
  * Este classificador utiliza modelos reais de machine learning
- * da Hugging Face para classificação de texto usando DJL.
+ * da Hugging Face para classificação de texto.
  * 
  * Modelo usado: microsoft/mdeberta-v3-base (multilíngue)
  * Tarefa: Classificação de texto por setor
+ *
+ * Quando o diretório configurado em ai.modelo.diretorio contém o modelo
+ * exportado, a classificação é feita por inferência real na engine de
+ * ai.modelo.engine (PyTorch via DJL ou ONNX Runtime). Sem o
+ * modelo local, usa o sistema de pontuação semântica. É o último nível
+ * do ClassificadorCascata, consultado quando as regras não bastam.
+ *
+ * E-mails longos não são truncados no início: o texto é dividido em
+ * janelas sobrepostas (ai.modelo.janelas) e os resultados das janelas são
+ * combinados, parando assim que a confiança agregada é suficiente.
  */
 @Component
-@Primary
 public class ClassificadorHuggingFaceReal implements ClassificadorEmails {
 
     private static final Logger logger = LoggerFactory.getLogger(ClassificadorHuggingFaceReal.class);
 
-    // Flag para indicar se o modelo está carregado
-    private boolean modeloCarregado = false;
+    // Revisão do texto classificado; muda junto com Email.getTextoParaClassificacao para
+    // invalidar o cache persistente (v1.1: assunto e corpo separados por quebra de linha)
+    private static final String REVISAO = "v1.1";
+
+    private static final String VERSAO_SEMANTICA = "HuggingFace-Real-" + REVISAO;
+
+    /**
+     * Ciclo de vida do modelo, conduzido pelo CicloVidaModelo
+     */
+    public enum EstadoModelo {
+        CARREGANDO,
+        AQUECENDO,
+        PRONTO,
+        FALHOU
+    }
+
+    // Escrito pela thread de carregamento e lido pelas requisições
+    private volatile EstadoModelo estado = EstadoModelo.CARREGANDO;
 
     // Precisão real do modelo
     private double precisao = 0.92;
 
-    // Cache de classificações para performance
-    private final Map<String, ResultadoClassificacao> cacheClassificacoes = new ConcurrentHashMap<>();
+    // Cache limitado de classificações para performance (null se ai.modelo.cache = false)
+    private final CacheClassificacoes cacheClassificacoes;
+
+    // Textos idênticos simultâneos esperam a mesma classificação (null se ai.modelo.coalescencia = false)
+    private final ClassificacoesEmAndamento emAndamento;
+
+    // E-mails quase idênticos reaproveitam a classificação (null se ai.modelo.quaseDuplicados desabilitado)
+    private final IndiceQuaseDuplicados indiceQuaseDuplicados;
 
     // Sistema de pontuação semântica avançado (IA real)
     private final Map<SetorEmail, Map<String, Double>> pesosSemanticos = new HashMap<>();
 
-    public ClassificadorHuggingFaceReal() {
+    // Pesos semânticos compilados em um autômato de Aho-Corasick (uma passada por texto)
+    private final AutomatoPalavrasChave automatoSemantico;
+
+    // Palavras usadas pelas regras de contexto (índices no autômato)
+    private final int palavraSistema;
+    private final int palavraProblema;
+    private final int palavraPagamento;
+    private final int palavraCliente;
+    private final int palavraFuncionario;
+    private final int palavraSalario;
+    private final int palavraFornecedor;
+    private final int palavraCotacao;
+    private final int palavraContrato;
+    private final int palavraLegal;
+
+    // Configurações do modelo (ai.modelo)
+    private final PropriedadesModelo propriedades;
+
+    // Engines de inferência disponíveis; a usada é a de ai.modelo.engine
+    private final List<FornecedorMotorInferencia> fornecedoresMotor;
+
+    // Motor de inferência (null quando o modelo local não está disponível)
+    private volatile MotorInferencia motor;
+
+    // Versão gravada nos resultados da inferência, com o nome da engine
+    private volatile String versaoInferencia;
+
+    // Agrupa requisições concorrentes em micro-lotes antes do motor (null se desabilitado)
+    private volatile AgendadorMicroLotes agendador;
+
+    // Tempos por etapa e contadores (cache, fallback, setores)
+    private final MetricasClassificacao metricas;
+
+    // Destino das medições do aquecimento, fora dos histogramas de produção
+    private final MetricasClassificacao metricasAquecimento = MetricasClassificacao.semRegistro();
+
+    public ClassificadorHuggingFaceReal(PropriedadesModelo propriedades, MetricasClassificacao metricas,
+            List<FornecedorMotorInferencia> fornecedoresMotor) {
+        this.propriedades = propriedades;
+        this.fornecedoresMotor = fornecedoresMotor;
+        this.metricas = metricas;
+        this.cacheClassificacoes = propriedades.isCache()
+                ? new CacheClassificacoes(propriedades.getCacheClassificacoes())
+                : null;
+        this.emAndamento = propriedades.isCoalescencia()
+                ? new ClassificacoesEmAndamento(metricas)
+                : null;
+        this.indiceQuaseDuplicados = propriedades.getQuaseDuplicados().isHabilitado()
+                ? new IndiceQuaseDuplicados(propriedades.getQuaseDuplicados())
+                : null;
         inicializarPesosSemanticos();
-        // Carregar modelo de forma assíncrona para não bloquear a inicialização
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000); // Pequeno delay para simular carregamento
-                carregarModeloHuggingFace();
-            } catch (InterruptedException e) {
-                logger.error("❌ Erro ao carregar modelo: {}", e.getMessage());
-            }
-        }).start();
+
+        this.automatoSemantico = compilarAutomatoSemantico();
+        this.palavraSistema = automatoSemantico.indiceDe("sistema");
+        this.palavraProblema = automatoSemantico.indiceDe("problema");
+        this.palavraPagamento = automatoSemantico.indiceDe("pagamento");
+        this.palavraCliente = automatoSemantico.indiceDe("cliente");
+        this.palavraFuncionario = automatoSemantico.indiceDe("funcionário");
+        this.palavraSalario = automatoSemantico.indiceDe("salário");
+        this.palavraFornecedor = automatoSemantico.indiceDe("fornecedor");
+        this.palavraCotacao = automatoSemantico.indiceDe("cotação");
+        this.palavraContrato = automatoSemantico.indiceDe("contrato");
+        this.palavraLegal = automatoSemantico.indiceDe("legal");
     }
 
     /**
@@ -162,25 +259,80 @@ public class ClassificadorHuggingFaceReal implements ClassificadorEmails {
     }
 
     /**
-     * Carrega o modelo real do Hugging Face
+     * Compila os pesos semânticos de todos os setores em um único autômato
+     */
+    private AutomatoPalavrasChave compilarAutomatoSemantico() {
+        AutomatoPalavrasChave.Construtor construtor = AutomatoPalavrasChave.construtor();
+        for (SetorEmail setor : SetorEmail.values()) {
+            Map<String, Double> pesos = pesosSemanticos.get(setor);
+            if (pesos != null) {
+                for (Map.Entry<String, Double> entrada : pesos.entrySet()) {
+                    construtor.adicionar(entrada.getKey(), setor, entrada.getValue());
+                }
+            }
+        }
+        return construtor.construir();
+    }
+
+    /**
+     * Carrega o modelo real do Hugging Face (chamado pelo CicloVidaModelo fora
+     * da thread de inicialização); ao final o estado passa a AQUECENDO
      */
-    private void carregarModeloHuggingFace() {
+    void carregarModelo() {
         try {
             logger.info("🤖 Inicializando IA Real Hugging Face...");
 
-            // Simular carregamento do modelo (em produção seria real)
-            Thread.sleep(1000); // Simular tempo de carregamento
+            try {
+                MotorInferencia motorCarregado = FornecedorMotorInferencia.carregar(fornecedoresMotor, propriedades);
+                if (propriedades.getMicroLotes().isHabilitado()) {
+                    agendador = new AgendadorMicroLotes(motorCarregado, propriedades.getMicroLotes());
+                }
+                versaoInferencia = "HuggingFace-" + motorCarregado.getEngine() + "-"
+                        + motorCarregado.getPrecisaoNumerica() + "-" + REVISAO;
+                motor = motorCarregado;
+                logger.info("🧵 Pool de predictors: {} (micro-lotes: {})", motorCarregado.getTamanhoPool(),
+                        agendador != null ? "ativos" : "desabilitados");
+                logger.info("🔢 Precisão dos pesos: {}", motorCarregado.getPrecisaoNumerica());
+            } catch (Exception | LinkageError e) {
+                logger.warn("⚠️ Modelo local indisponível ({}), usando pontuação semântica", e.getMessage());
+            }
+
+            if (cacheClassificacoes != null) {
+                cacheClassificacoes.atualizarVersaoModelo(getVersaoModelo());
+            }
+            if (indiceQuaseDuplicados != null) {
+                indiceQuaseDuplicados.atualizarVersaoModelo(getVersaoModelo());
+            }
 
-            modeloCarregado = true;
+            estado = EstadoModelo.AQUECENDO;
             logger.info("✅ IA Real Hugging Face inicializada com sucesso!");
-            logger.info("📊 Modelo: microsoft/mdeberta-v3-base (simulado)");
-            logger.info("🔧 Engine: PyTorch");
-            logger.info("🌍 Suporte: Multilíngue (inclui português)");
+            logger.info("📊 Modelo: {} ({})", propriedades.getNome(),
+                    motor != null ? propriedades.getDiretorio() : "pontuação semântica");
+            logger.info("🔧 Engine: {}", propriedades.getEngine());
+            logger.info("🌍 Suporte: {}", propriedades.getSuporte());
             logger.info("🎯 Precisão estimada: {}%", (precisao * 100));
 
         } catch (Exception e) {
             logger.error("❌ Erro ao inicializar IA Hugging Face: {}", e.getMessage());
-            modeloCarregado = false;
+            estado = EstadoModelo.FALHOU;
+        }
+    }
+
+    /**
+     * Classifica sem consultar o cache nem registrar métricas, para que o
+     * aquecimento percorra sempre o caminho completo de normalização,
+     * tokenização e inferência
+     */
+    ResultadoClassificacao aquecer(String texto) throws Exception {
+        return classificarComHuggingFace(texto, metricasAquecimento);
+    }
+
+    /**
+     * Conclui o aquecimento: a partir daqui a instância aceita tráfego
+     */
+    void marcarPronto() {
+        if (estado == EstadoModelo.AQUECENDO) {
+            estado = EstadoModelo.PRONTO;
         }
     }
 
@@ -199,105 +351,399 @@ public class ClassificadorHuggingFaceReal implements ClassificadorEmails {
                     "Texto vazio - setor padrão aplicado");
         }
 
-        // Verificar cache primeiro
-        String chaveCache = texto.toLowerCase().trim();
-        if (cacheClassificacoes.containsKey(chaveCache)) {
-            logger.debug("📋 Resultado encontrado no cache");
-            return cacheClassificacoes.get(chaveCache);
+        long inicio = MetricasClassificacao.inicio();
+        ResultadoClassificacao resultado = classificarTextoValido(texto);
+        // Cancelada pelo prazo da cascata, que registra a duração e o setor do resultado das regras
+        if (!Thread.currentThread().isInterrupted()) {
+            metricas.registrarDuracao(inicio);
+            metricas.registrarSetor(resultado.getSetor());
+        }
+        return resultado;
+    }
+
+    /**
+     * Indica se o resultado veio da inferência do modelo carregado (e não
+     * do fallback ou da análise semântica sem modelo), para o disjuntor
+     * da cascata só contar como sucesso o que o modelo de fato respondeu
+     */
+    boolean isResultadoDoModelo(ResultadoClassificacao resultado) {
+        String versao = versaoInferencia;
+        return versao != null && versao.equals(resultado.getVersaoModelo());
+    }
+
+    private ResultadoClassificacao classificarTextoValido(String texto) {
+        // Verificar cache primeiro (chave = impressão de 128 bits do texto em minúsculas)
+        ChaveConteudo chaveCache = null;
+        if (cacheClassificacoes != null) {
+            long inicioCache = MetricasClassificacao.inicio();
+            chaveCache = cacheClassificacoes.chave(texto);
+            ResultadoClassificacao emCache = cacheClassificacoes.obter(chaveCache);
+            metricas.registrarEtapa(Etapa.CACHE, inicioCache);
+            metricas.registrarCache(emCache != null);
+            if (emCache != null) {
+                logger.debug("📋 Resultado encontrado no cache");
+                return emCache;
+            }
+        }
+
+        if (emAndamento == null) {
+            return classificarSemCache(texto, chaveCache);
+        }
+        // Só a primeira de várias requisições simultâneas com o mesmo texto classifica
+        ChaveConteudo chave = chaveCache != null ? chaveCache : ChaveConteudo.de(texto);
+        ChaveConteudo chaveArmazenamento = chaveCache;
+        try {
+            return emAndamento.executar(chave, () -> {
+                // Uma classificação idêntica pode ter terminado entre a consulta ao cache e aqui
+                if (chaveArmazenamento != null) {
+                    ResultadoClassificacao recente = cacheClassificacoes.obter(chaveArmazenamento);
+                    if (recente != null) {
+                        return recente;
+                    }
+                }
+                return classificarSemCache(texto, chaveArmazenamento);
+            });
+        } catch (InterruptedException e) {
+            // Prazo esgotado enquanto esperava a classificação idêntica de outra requisição
+            Thread.currentThread().interrupt();
+            logger.debug("⏱️ Espera pela classificação em andamento cancelada");
+            return classificarPorPalavrasChave(texto);
+        }
+    }
+
+    /**
+     * Classificação de um texto que não está no cache; o resultado é
+     * armazenado no cache (se chaveCache não for null) e no índice de
+     * semelhantes
+     */
+    private ResultadoClassificacao classificarSemCache(String texto, ChaveConteudo chaveCache) {
+        // E-mails do mesmo modelo (fatura, candidatura) reaproveitam a classificação de um anterior
+        long impressao = 0;
+        boolean comparavel = false;
+        if (indiceQuaseDuplicados != null) {
+            long inicioSemelhanca = MetricasClassificacao.inicio();
+            String textoNormalizado = NormalizadorTexto.normalizarParaRegras(texto);
+            comparavel = indiceQuaseDuplicados.isComparavel(textoNormalizado);
+            ResultadoClassificacao semelhante = null;
+            if (comparavel) {
+                impressao = ImpressaoSimHash.calcular(textoNormalizado);
+                semelhante = indiceQuaseDuplicados.buscar(impressao);
+                metricas.registrarQuaseDuplicado(semelhante != null);
+            }
+            metricas.registrarEtapa(Etapa.SEMELHANCA, inicioSemelhanca);
+            if (semelhante != null) {
+                logger.debug("📋 Classificação reaproveitada de um e-mail semelhante");
+                if (cacheClassificacoes != null) {
+                    cacheClassificacoes.armazenar(chaveCache, semelhante);
+                }
+                return semelhante;
+            }
         }
 
         try {
             // Classificação usando IA real do Hugging Face
-            ResultadoClassificacao resultado = classificarComHuggingFace(texto);
+            ResultadoClassificacao resultado = classificarComHuggingFace(texto, metricas);
 
-            // Armazenar no cache
-            cacheClassificacoes.put(chaveCache, resultado);
+            // Armazenar no cache e no índice de semelhantes
+            if (cacheClassificacoes != null) {
+                cacheClassificacoes.armazenar(chaveCache, resultado);
+            }
+            if (comparavel) {
+                indiceQuaseDuplicados.armazenar(impressao, resultado);
+            }
 
             return resultado;
 
+        } catch (InterruptedException e) {
+            // Prazo da requisição esgotado (ClassificadorCascata): o resultado não será usado nem guardado
+            Thread.currentThread().interrupt();
+            logger.debug("⏱️ Classificação cancelada antes de terminar");
+            return classificarPorPalavrasChave(texto);
+
         } catch (Exception e) {
+            if (causadaPorInterrupcao(e)) {
+                // O cancelamento interrompeu o predictor, que o relata como TranslateException/EngineException
+                Thread.currentThread().interrupt();
+                logger.debug("⏱️ Classificação cancelada durante a inferência: {}", e.getMessage());
+                return classificarPorPalavrasChave(texto);
+            }
             logger.error("❌ Erro na classificação com Hugging Face: {}", e.getMessage());
             return classificarComFallback(texto);
         }
     }
 
+    private static boolean causadaPorInterrupcao(Throwable erro) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Classificação usando IA real do Hugging Face
+     *
+     * @param metricas Onde registrar as etapas: as da aplicação, ou as descartadas no aquecimento
      */
-    private ResultadoClassificacao classificarComHuggingFace(String texto) {
-        if (!modeloCarregado) {
+    private ResultadoClassificacao classificarComHuggingFace(String texto, MetricasClassificacao metricas)
+            throws Exception {
+        if (!isModeloCarregado()) {
             throw new RuntimeException("Modelo não está carregado");
         }
 
-        // Preparar texto para classificação
-        String textoPreparado = prepararTextoParaClassificacao(texto);
+        // Com o modelo carregado o texto vai direto para o tokenizador, truncado em tokens
+        PropriedadesModelo.Janelas configuracaoJanelas = propriedades.getJanelas();
+        MotorInferencia motorAtual = motor;
+        if (motorAtual != null) {
+            long inicio = MetricasClassificacao.inicio();
+            long[][] janelas = configuracaoJanelas.isHabilitada()
+                    ? motorAtual.tokenizarJanelas(texto, configuracaoJanelas.getMaximoJanelas(),
+                            configuracaoJanelas.getSobreposicaoTokens())
+                    : new long[][] { motorAtual.tokenizar(texto) };
+            metricas.registrarEtapa(Etapa.TOKENIZACAO, inicio);
+
+            inicio = MetricasClassificacao.inicio();
+            ResultadoClassificacao resultado = classificarComInferencia(motorAtual, janelas, metricas);
+            metricas.registrarEtapa(Etapa.INFERENCIA, inicio);
+            return resultado;
+        }
 
-        // Calcular scores semânticos avançados
-        Map<SetorEmail, Double> scores = calcularScoresSemanticosAvancados(textoPreparado);
+        // Preparar texto para classificação (uma ou mais janelas)
+        long inicio = MetricasClassificacao.inicio();
+        List<String> janelas = prepararJanelasParaClassificacao(texto);
+        metricas.registrarEtapa(Etapa.NORMALIZACAO, inicio);
 
-        // Aplicar regras de contexto inteligentes
-        aplicarRegrasContextoAvancadas(textoPreparado, scores);
+        inicio = MetricasClassificacao.inicio();
+
+        // As janelas seguintes só são pontuadas enquanto o setor não estiver claro
+        AgregacaoJanelas agregacao = new AgregacaoJanelas();
+        for (String janela : janelas) {
+            verificarCancelamento();
+            agregacao.adicionar(pontuarJanela(janela));
+            if (agregacao.getConfianca() >= configuracaoJanelas.getConfiancaParada()) {
+                break;
+            }
+        }
+        metricas.registrarJanelas(agregacao.getJanelas(), janelas.size());
+        double[] scores = agregacao.resultado();
 
         // Encontrar setor com maior pontuação
-        SetorEmail melhorSetor = scores.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(SetorEmail.ATENDIMENTO);
+        SetorEmail melhorSetor = ScoresSetores.melhorSetor(scores);
 
-        double confianca = scores.get(melhorSetor);
+        double confianca = scores[melhorSetor.ordinal()];
 
         // Gerar motivo da classificação
-        String motivo = gerarMotivoHuggingFace(melhorSetor, textoPreparado, confianca);
+        String motivo = gerarMotivoHuggingFace(melhorSetor, janelas.get(0), confianca)
+                + descreverJanelas(agregacao.getJanelas(), janelas.size());
 
         // Criar resultado
         ResultadoClassificacao resultado = new ResultadoClassificacao(melhorSetor, confianca, motivo);
-        resultado.setProbabilidadesSetores(converterScoresParaProbabilidadesString(scores));
-        resultado.setVersaoModelo("HuggingFace-Real-v1.0");
+        resultado.setProbabilidades(scores);
+        resultado.setVersaoModelo(VERSAO_SEMANTICA);
+
+        metricas.registrarEtapa(Etapa.PONTUACAO, inicio);
+        return resultado;
+    }
+
+    /**
+     * Pontuação semântica de uma janela de texto preparado
+     */
+    private double[] pontuarJanela(String textoPreparado) {
+        // Encontrar todas as palavras-chave em uma única passada
+        AutomatoPalavrasChave.Correspondencias correspondencias = buscarPalavrasChave(textoPreparado);
+
+        // Calcular scores semânticos avançados (indexados por ordinal)
+        double[] scores = calcularScoresSemanticosAvancados(correspondencias);
+
+        // Aplicar regras de contexto inteligentes
+        aplicarRegrasContextoAvancadas(correspondencias, scores);
+        return scores;
+    }
+
+    /**
+     * Classificação por inferência real do modelo carregado
+     *
+     * A primeira janela é inferida sozinha: a maioria dos e-mails cabe nela
+     * ou já se decide por ela. As demais seguem em lotes de
+     * ai.modelo.janelas.janelasPorLote enquanto a confiança agregada não
+     * atinge confiancaParada; o custo só cresce com o tamanho do texto
+     * quando a decisão é incerta.
+     */
+    private ResultadoClassificacao classificarComInferencia(MotorInferencia motorAtual, long[][] janelas,
+            MetricasClassificacao metricas) throws Exception {
+        PropriedadesModelo.Janelas configuracaoJanelas = propriedades.getJanelas();
+        AgregacaoJanelas agregacao = new AgregacaoJanelas();
+        agregacao.adicionar(inferir(motorAtual, janelas[0]));
+
+        int proxima = 1;
+        int janelasPorLote = Math.max(1, configuracaoJanelas.getJanelasPorLote());
+        while (proxima < janelas.length && agregacao.getConfianca() < configuracaoJanelas.getConfiancaParada()) {
+            verificarCancelamento();
+            int fim = Math.min(janelas.length, proxima + janelasPorLote);
+            for (double[] probabilidadesJanela : inferirLote(motorAtual, Arrays.copyOfRange(janelas, proxima, fim))) {
+                agregacao.adicionar(probabilidadesJanela);
+            }
+            proxima = fim;
+        }
+        metricas.registrarJanelas(agregacao.getJanelas(), janelas.length);
+        double[] probabilidades = agregacao.resultado();
+
+        SetorEmail melhorSetor = ScoresSetores.melhorSetor(probabilidades);
+        double confianca = probabilidades[melhorSetor.ordinal()];
+        String motivo = String.format(
+                "Classificado como %s com confiança %.1f%% usando IA Real Hugging Face. " +
+                        "Inferência do modelo %s.",
+                melhorSetor.getDescricao(),
+                confianca * 100,
+                propriedades.getNome())
+                + descreverJanelas(agregacao.getJanelas(), janelas.length);
+
+        ResultadoClassificacao resultado = new ResultadoClassificacao(melhorSetor, confianca, motivo);
+        resultado.setProbabilidades(probabilidades);
+        resultado.setVersaoModelo(versaoInferencia);
 
         return resultado;
     }
 
     /**
-     * Prepara o texto para classificação
+     * Interrompe a classificação entre janelas quando a requisição desistiu dela
      */
-    private String prepararTextoParaClassificacao(String texto) {
-        // Normalizar texto
-        String textoNormalizado = texto.toLowerCase()
-                .replaceAll("[^a-zA-ZÀ-ÿ\\s]", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
+    private static void verificarCancelamento() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Classificação cancelada");
+        }
+    }
+
+    private static String descreverJanelas(int analisadas, int total) {
+        return total > 1 ? String.format(" Analisadas %d de %d janelas do texto.", analisadas, total) : "";
+    }
 
-        // Limitar tamanho se necessário
-        if (textoNormalizado.length() > 500) {
-            textoNormalizado = textoNormalizado.substring(0, 500);
+    /**
+     * Executa a inferência pelo agendador de micro-lotes, ou direto no motor se desabilitado
+     */
+    private double[] inferir(MotorInferencia motorAtual, long[] tokens) throws Exception {
+        AgendadorMicroLotes agendadorAtual = agendador;
+        if (agendadorAtual == null) {
+            return motorAtual.classificar(tokens);
         }
 
-        return textoNormalizado;
+        CompletableFuture<double[]> pendente = agendadorAtual.submeter(tokens);
+        try {
+            return pendente.get();
+        } catch (InterruptedException e) {
+            // O agendador descarta pedidos cancelados antes de formar o lote
+            pendente.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception causa ? causa : e;
+        }
+    }
+
+    /**
+     * Várias janelas de texto executadas juntas: direto no motor como um
+     * lote, ou pelo agendador, que as agrupa no mesmo micro-lote
+     */
+    private double[][] inferirLote(MotorInferencia motorAtual, long[][] janelas) throws Exception {
+        AgendadorMicroLotes agendadorAtual = agendador;
+        if (agendadorAtual == null) {
+            return motorAtual.classificarLote(janelas);
+        }
+
+        List<CompletableFuture<double[]>> pendentes = new ArrayList<>(janelas.length);
+        for (long[] janela : janelas) {
+            pendentes.add(agendadorAtual.submeter(janela));
+        }
+        double[][] resultados = new double[janelas.length][];
+        try {
+            for (int i = 0; i < resultados.length; i++) {
+                resultados[i] = pendentes.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            pendentes.forEach(pendente -> pendente.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception causa ? causa : e;
+        }
+        return resultados;
+    }
+
+    // As etapas abaixo são visíveis no pacote para os benchmarks JMH (src/jmh/java)
+
+    /**
+     * Prepara o início do texto para a classificação semântica (sem modelo
+     * carregado), quando as janelas estão desabilitadas; com o modelo, o
+     * limite é aplicado em tokens pelo TokenizadorModelo
+     */
+    String prepararTextoParaClassificacao(String texto) {
+        // Normalizar texto e limitar tamanho em uma única passada
+        return NormalizadorTexto.prepararParaModelo(texto, 500);
+    }
+
+    /**
+     * Divide o texto preparado em janelas de ai.modelo.janelas.tamanhoCaracteres,
+     * sobrepostas e cortadas em espaços; com as janelas desabilitadas, só o início
+     */
+    List<String> prepararJanelasParaClassificacao(String texto) {
+        PropriedadesModelo.Janelas configuracaoJanelas = propriedades.getJanelas();
+        if (!configuracaoJanelas.isHabilitada()) {
+            return List.of(prepararTextoParaClassificacao(texto));
+        }
+
+        int tamanho = Math.max(1, configuracaoJanelas.getTamanhoCaracteres());
+        int passo = Math.max(1, tamanho - Math.max(0, configuracaoJanelas.getSobreposicaoCaracteres()));
+        int maximoJanelas = Math.max(1, configuracaoJanelas.getMaximoJanelas());
+        String preparado = NormalizadorTexto.prepararParaModelo(texto, tamanho + passo * (maximoJanelas - 1));
+
+        List<String> janelas = new ArrayList<>();
+        int inicio = 0;
+        while (janelas.size() < maximoJanelas) {
+            int fim = Math.min(preparado.length(), inicio + tamanho);
+            if (fim < preparado.length() && preparado.charAt(fim) != ' ') {
+                int espaco = preparado.lastIndexOf(' ', fim);
+                if (espaco > inicio) {
+                    fim = espaco;
+                }
+            }
+            janelas.add(preparado.substring(inicio, fim));
+            if (fim >= preparado.length()) {
+                break;
+            }
+
+            int proximo = inicio + passo;
+            int espaco = preparado.lastIndexOf(' ', proximo);
+            inicio = espaco > inicio ? espaco + 1 : proximo;
+        }
+        return janelas;
+    }
+
+    /**
+     * Encontra os termos semânticos de todos os setores no texto preparado
+     */
+    AutomatoPalavrasChave.Correspondencias buscarPalavrasChave(String textoPreparado) {
+        return automatoSemantico.buscar(textoPreparado);
     }
 
     /**
      * Calcula scores semânticos avançados
      */
-    private Map<SetorEmail, Double> calcularScoresSemanticosAvancados(String texto) {
-        Map<SetorEmail, Double> scores = new HashMap<>();
+    double[] calcularScoresSemanticosAvancados(AutomatoPalavrasChave.Correspondencias correspondencias) {
+        double[] scores = ScoresSetores.novoVetor();
 
         for (SetorEmail setor : SetorEmail.values()) {
             double score = 0.0;
-            Map<String, Double> pesos = pesosSemanticos.get(setor);
 
-            if (pesos != null) {
-                for (Map.Entry<String, Double> entrada : pesos.entrySet()) {
-                    String palavra = entrada.getKey();
-                    Double peso = entrada.getValue();
-
-                    if (texto.contains(palavra)) {
-                        score += peso;
-                    }
+            for (int entrada : automatoSemantico.entradasDoSetor(setor)) {
+                if (correspondencias.contem(automatoSemantico.palavraDaEntrada(entrada))) {
+                    score += automatoSemantico.pesoDaEntrada(entrada);
                 }
             }
 
             // Normalizar score
-            scores.put(setor, Math.min(1.0, score / 10.0));
+            scores[setor.ordinal()] = Math.min(1.0, score / 10.0);
         }
 
         return scores;
@@ -306,37 +752,38 @@ public class ClassificadorHuggingFaceReal implements ClassificadorEmails {
     /**
      * Aplica regras de contexto avançadas
      */
-    private void aplicarRegrasContextoAvancadas(String texto, Map<SetorEmail, Double> scores) {
+    void aplicarRegrasContextoAvancadas(AutomatoPalavrasChave.Correspondencias texto,
+            double[] scores) {
         // Regra: Se contém "sistema" e "problema", aumenta TI
-        if (texto.contains("sistema") && texto.contains("problema")) {
-            scores.put(SetorEmail.TI, scores.get(SetorEmail.TI) + 0.2);
+        if (texto.contem(palavraSistema) && texto.contem(palavraProblema)) {
+            scores[SetorEmail.TI.ordinal()] += 0.2;
         }
 
         // Regra: Se contém "pagamento" e "cliente", aumenta FINANCEIRO
-        if (texto.contains("pagamento") && texto.contains("cliente")) {
-            scores.put(SetorEmail.FINANCEIRO, scores.get(SetorEmail.FINANCEIRO) + 0.15);
+        if (texto.contem(palavraPagamento) && texto.contem(palavraCliente)) {
+            scores[SetorEmail.FINANCEIRO.ordinal()] += 0.15;
         }
 
         // Regra: Se contém "funcionário" e "salário", aumenta RH
-        if (texto.contains("funcionário") && texto.contains("salário")) {
-            scores.put(SetorEmail.RH, scores.get(SetorEmail.RH) + 0.15);
+        if (texto.contem(palavraFuncionario) && texto.contem(palavraSalario)) {
+            scores[SetorEmail.RH.ordinal()] += 0.15;
         }
 
         // Regra: Se contém "fornecedor" e "cotação", aumenta COMPRAS
-        if (texto.contains("fornecedor") && texto.contains("cotação")) {
-            scores.put(SetorEmail.COMPRAS, scores.get(SetorEmail.COMPRAS) + 0.15);
+        if (texto.contem(palavraFornecedor) && texto.contem(palavraCotacao)) {
+            scores[SetorEmail.COMPRAS.ordinal()] += 0.15;
         }
 
         // Regra: Se contém "contrato" e "legal", aumenta JURÍDICO
-        if (texto.contains("contrato") && texto.contains("legal")) {
-            scores.put(SetorEmail.JURIDICO, scores.get(SetorEmail.JURIDICO) + 0.15);
+        if (texto.contem(palavraContrato) && texto.contem(palavraLegal)) {
+            scores[SetorEmail.JURIDICO.ordinal()] += 0.15;
         }
     }
 
     /**
      * Gera motivo da classificação
      */
-    private String gerarMotivoHuggingFace(SetorEmail setor, String texto, double confianca) {
+    String gerarMotivoHuggingFace(SetorEmail setor, String texto, double confianca) {
         return String.format(
                 "Classificado como %s com confiança %.1f%% usando IA Real Hugging Face. " +
                         "Análise semântica avançada aplicada.",
@@ -344,26 +791,20 @@ public class ClassificadorHuggingFaceReal implements ClassificadorEmails {
                 confianca * 100);
     }
 
-    /**
-     * Converte scores para formato de probabilidades
-     */
-    private Map<String, Double> converterScoresParaProbabilidadesString(Map<SetorEmail, Double> scores) {
-        Map<String, Double> probabilidades = new HashMap<>();
-
-        for (Map.Entry<SetorEmail, Double> entrada : scores.entrySet()) {
-            probabilidades.put(entrada.getKey().name(), entrada.getValue());
-        }
-
-        return probabilidades;
-    }
-
     /**
      * Fallback para classificação simples
      */
     private ResultadoClassificacao classificarComFallback(String texto) {
         logger.warn("⚠️ Usando fallback para classificação");
+        metricas.registrarFallback();
+        return classificarPorPalavrasChave(texto);
+    }
 
-        // Classificação simples baseada em palavras-chave
+    /**
+     * Classificação simples baseada em palavras-chave, sem log nem métrica
+     * (também devolvida a uma classificação cancelada, que ninguém usa)
+     */
+    private static ResultadoClassificacao classificarPorPalavrasChave(String texto) {
         String textoLower = texto.toLowerCase();
 
         if (textoLower.contains("ajuda") || textoLower.contains("problema") || textoLower.contains("erro")) {
@@ -387,24 +828,90 @@ public class ClassificadorHuggingFaceReal implements ClassificadorEmails {
      * Verifica se o modelo está carregado
      */
     public boolean isModeloCarregado() {
-        return modeloCarregado;
+        EstadoModelo atual = estado;
+        return atual == EstadoModelo.AQUECENDO || atual == EstadoModelo.PRONTO;
+    }
+
+    /**
+     * Verifica se o modelo está carregado e aquecido (pronto para tráfego)
+     */
+    public boolean isPronto() {
+        return estado == EstadoModelo.PRONTO;
+    }
+
+    public EstadoModelo getEstado() {
+        return estado;
+    }
+
+    /**
+     * Versão do modelo em uso; resultados em cache de outra versão são descartados
+     */
+    private String getVersaoModelo() {
+        return motor != null ? versaoInferencia + ":" + propriedades.getNome() : VERSAO_SEMANTICA;
     }
 
     /**
      * Obtém informações do modelo
      */
     public Map<String, Object> getInfoModelo() {
+        MotorInferencia motorAtual = motor;
+
         Map<String, Object> info = new HashMap<>();
         info.put("tipo", "Hugging Face Transformers (Modelo Real)");
-        info.put("carregado", modeloCarregado);
+        info.put("carregado", isModeloCarregado());
+        info.put("estado", estado);
         info.put("precisao", precisao);
         info.put("precisaoPorcentagem", String.format("%.1f%%", precisao * 100));
-        info.put("modelo", "microsoft/mdeberta-v3-base");
-        info.put("engine", "PyTorch");
-        info.put("suporte", "Multilíngue (inclui português)");
-        info.put("cache", cacheClassificacoes.size());
-        info.put("diretorioModelos", "modelos-huggingface");
-        info.put("urlModelo", "https://huggingface.co/microsoft/mdeberta-v3-base");
+        info.put("modelo", propriedades.getNome());
+        info.put("engine", motorAtual != null ? motorAtual.getEngine() : propriedades.getEngine());
+        info.put("precisaoNumerica", motorAtual != null
+                ? motorAtual.getPrecisaoNumerica()
+                : propriedades.getPrecisaoNumerica());
+        info.put("enginesDisponiveis", fornecedoresMotor.stream().map(FornecedorMotorInferencia::getNome).toList());
+        info.put("suporte", propriedades.getSuporte());
+        info.put("cache", cacheClassificacoes != null
+                ? cacheClassificacoes.getEstatisticas()
+                : Map.of("habilitado", false));
+        info.put("coalescencia", emAndamento != null
+                ? emAndamento.getEstatisticas()
+                : Map.of("habilitada", false));
+        info.put("quaseDuplicados", indiceQuaseDuplicados != null
+                ? indiceQuaseDuplicados.getEstatisticas()
+                : Map.of("habilitado", false));
+        info.put("diretorioModelos", propriedades.getDiretorio());
+        info.put("urlModelo", "https://huggingface.co/" + propriedades.getNome());
+        info.put("inferenciaReal", motorAtual != null);
+        if (motorAtual != null) {
+            info.put("poolPredictors", motorAtual.getTamanhoPool());
+            info.put("predictorsDisponiveis", motorAtual.getPredictorsDisponiveis());
+            info.put("tokenizador", motorAtual.getEstatisticasTokenizador());
+        }
+        AgendadorMicroLotes agendadorAtual = agendador;
+        if (agendadorAtual != null) {
+            info.put("microLotes", agendadorAtual.getEstatisticas());
+        }
         return info;
     }
+
+    /**
+     * Libera o modelo, os predictors e o cache em disco ao encerrar a aplicação
+     */
+    @PreDestroy
+    public void encerrar() {
+        AgendadorMicroLotes agendadorAtual = agendador;
+        agendador = null;
+        if (agendadorAtual != null) {
+            agendadorAtual.close();
+        }
+
+        MotorInferencia motorAtual = motor;
+        motor = null;
+        if (motorAtual != null) {
+            motorAtual.close();
+        }
+
+        if (cacheClassificacoes != null) {
+            cacheClassificacoes.close();
+        }
+    }
 }
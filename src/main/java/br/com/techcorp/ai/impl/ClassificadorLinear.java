@@ -0,0 +1,166 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.ai.linear.PesosLinear;
+import br.com.techcorp.config.PropriedadesLinear;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classificador linear sobre características por hashing
+ *
+ * Nível intermediário entre as regras e o transformer: uma regressão
+ * logística multinomial sobre palavras, pares de palavras e n-gramas de
+ * caracteres (ExtratorCaracteristicas), treinada offline com e-mails
+ * rotulados (--treinar-linear) e lida de um arquivo plano para um float[]
+ * na subida. Pontuar um e-mail é somar algumas centenas de linhas de
+ * pesos: microssegundos, sem tokenizador nem engine nativa.
+ *
+ * A extração e a pontuação não alocam: os índices e os escores ficam em
+ * buffers por thread. Só o ResultadoClassificacao devolvido é novo.
+ *
+ * Sem o arquivo de pesos as classificações ficam com o
+ * ClassificadorBaseadoEmRegras.
+ */
+@Component
+public class ClassificadorLinear implements ClassificadorEmails {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassificadorLinear.class);
+
+    private final PropriedadesLinear propriedades;
+    private final ClassificadorBaseadoEmRegras classificadorRegras;
+
+    private final ThreadLocal<Rascunho> rascunhos;
+
+    private volatile PesosLinear pesos;
+    private volatile String versaoModelo;
+
+    public ClassificadorLinear(PropriedadesLinear propriedades, ClassificadorBaseadoEmRegras classificadorRegras) {
+        this.propriedades = propriedades;
+        this.classificadorRegras = classificadorRegras;
+        int maximo = Math.max(1, propriedades.getMaximoCaracteristicas());
+        this.rascunhos = ThreadLocal.withInitial(() -> new Rascunho(maximo));
+    }
+
+    /**
+     * Buffers reaproveitados por thread entre classificações
+     */
+    private static final class Rascunho {
+        final int[] indices;
+        final double[] escores = ScoresSetores.novoVetor();
+
+        Rascunho(int maximo) {
+            this.indices = new int[maximo];
+        }
+    }
+
+    /**
+     * Lê os pesos de ai.linear.arquivo, se existirem
+     */
+    @PostConstruct
+    public void inicializar() {
+        if (!propriedades.isHabilitado()) {
+            return;
+        }
+        Path arquivo = Path.of(propriedades.getArquivo());
+        if (!Files.isRegularFile(arquivo)) {
+            logger.info("ℹ️ Pesos do classificador linear não encontrados em {} (treine com --treinar-linear)",
+                    arquivo.toAbsolutePath());
+            return;
+        }
+        try {
+            carregar(arquivo);
+        } catch (IOException e) {
+            logger.warn("⚠️ Classificador linear indisponível ({}), usando regras", e.getMessage());
+        }
+    }
+
+    /**
+     * Troca os pesos em uso pelos do arquivo; classificações em andamento
+     * terminam com os anteriores
+     */
+    public void carregar(Path arquivo) throws IOException {
+        PesosLinear carregados = PesosLinear.carregar(arquivo);
+        versaoModelo = "Linear-Hash" + carregados.getExtrator().getBits() + "-v1.0";
+        pesos = carregados;
+        logger.info("📐 Classificador linear carregado: 2^{} características, {} MB, {} e-mails de treino, precisão {}%",
+                carregados.getExtrator().getBits(), carregados.getTamanhoBytes() / (1024 * 1024),
+                carregados.getExemplos(), String.format("%.1f", carregados.getAcuracia() * 100));
+    }
+
+    @Override
+    public ResultadoClassificacao classificar(Email email) {
+        return classificarTexto(email.getTextoParaClassificacao());
+    }
+
+    @Override
+    public ResultadoClassificacao classificarTexto(String texto) {
+        PesosLinear pesosAtuais = pesos;
+        if (pesosAtuais == null || texto == null || texto.isBlank()) {
+            return classificadorRegras.classificarTexto(texto);
+        }
+
+        Rascunho rascunho = rascunhos.get();
+        int quantidade = pesosAtuais.getExtrator().extrair(texto, rascunho.indices);
+        if (quantidade == 0) {
+            return classificadorRegras.classificarTexto(texto);
+        }
+        double[] escores = rascunho.escores;
+        pesosAtuais.pontuar(rascunho.indices, quantidade, escores);
+        PesosLinear.probabilidades(escores);
+
+        SetorEmail setor = ScoresSetores.melhorSetor(escores);
+        ResultadoClassificacao resultado = new ResultadoClassificacao(setor, escores[setor.ordinal()],
+                "Modelo linear sobre " + quantidade + " características de palavras e n-gramas de caracteres");
+        resultado.setProbabilidades(escores.clone());
+        resultado.setVersaoModelo(versaoModelo);
+        return resultado;
+    }
+
+    /**
+     * Acurácia de validação registrada no treino
+     */
+    @Override
+    public double getPrecisao() {
+        PesosLinear pesosAtuais = pesos;
+        return pesosAtuais == null ? 0.0 : pesosAtuais.getAcuracia();
+    }
+
+    public boolean isDisponivel() {
+        return pesos != null;
+    }
+
+    /**
+     * Estado dos pesos para os endpoints de informação
+     */
+    public Map<String, Object> getEstatisticas() {
+        PesosLinear pesosAtuais = pesos;
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", propriedades.isHabilitado());
+        estatisticas.put("disponivel", pesosAtuais != null);
+        estatisticas.put("arquivo", propriedades.getArquivo());
+        estatisticas.put("confiancaMinima", propriedades.getConfiancaMinima());
+        if (pesosAtuais != null) {
+            estatisticas.put("versaoModelo", versaoModelo);
+            estatisticas.put("bits", pesosAtuais.getExtrator().getBits());
+            estatisticas.put("ngramas", pesosAtuais.getExtrator().getNGramaMinimo() + ".."
+                    + pesosAtuais.getExtrator().getNGramaMaximo());
+            estatisticas.put("exemplosTreino", pesosAtuais.getExemplos());
+            estatisticas.put("precisao", pesosAtuais.getAcuracia());
+            estatisticas.put("tamanhoBytes", pesosAtuais.getTamanhoBytes());
+        }
+        return estatisticas;
+    }
+}
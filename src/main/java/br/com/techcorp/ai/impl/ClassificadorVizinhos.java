@@ -0,0 +1,296 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.ai.inferencia.CodificadorEmbeddingsDjl;
+import br.com.techcorp.ai.vizinhos.CodificadorEmbeddings;
+import br.com.techcorp.ai.vizinhos.CodificadorHashPalavras;
+import br.com.techcorp.ai.vizinhos.IndiceHnsw;
+import br.com.techcorp.ai.vizinhos.IndiceHnsw.Vizinho;
+import br.com.techcorp.config.PropriedadesVizinhos;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classificador por vizinhos mais próximos (k-NN) sobre embeddings
+ *
+ * O e-mail é transformado em um embedding por um modelo local de
+ * sentenças e comparado com os e-mails rotulados do IndiceHnsw: os k mais
+ * parecidos votam no setor com peso igual à similaridade. Para ensinar um
+ * caso novo basta adicionar o e-mail rotulado (adicionarExemplo), que passa
+ * a valer na classificação seguinte, sem retreino.
+ *
+ * Sem o modelo de embeddings é usado o CodificadorHashPalavras; sem o
+ * índice (desabilitado ou diretório em uso) as classificações ficam com o
+ * ClassificadorBaseadoEmRegras. Quando o índice abre vazio, ele recebe os
+ * exemplos de ai.vizinhos.exemplosIniciais.
+ */
+@Component
+public class ClassificadorVizinhos implements ClassificadorEmails {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassificadorVizinhos.class);
+
+    private static final String EXEMPLOS_PADRAO = "avaliacao/emails-rotulados.jsonl";
+
+    private final PropriedadesVizinhos propriedades;
+    private final ClassificadorBaseadoEmRegras classificadorRegras;
+    private final ObjectMapper objectMapper;
+
+    private volatile CodificadorEmbeddings codificador;
+    private volatile IndiceHnsw indice;
+    private volatile String versaoModelo;
+
+    // Precisão medida deixando cada exemplo fora da própria busca (0 até a medição)
+    private volatile double precisao;
+
+    public ClassificadorVizinhos(PropriedadesVizinhos propriedades,
+            ClassificadorBaseadoEmRegras classificadorRegras,
+            ObjectMapper objectMapper) {
+        this.propriedades = propriedades;
+        this.classificadorRegras = classificadorRegras;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Carrega o codificador, abre o índice e, se ele estiver vazio, insere os exemplos iniciais
+     */
+    @PostConstruct
+    public void inicializar() {
+        if (!propriedades.isHabilitado()) {
+            return;
+        }
+
+        CodificadorEmbeddings codificadorCarregado;
+        try {
+            codificadorCarregado = CodificadorEmbeddingsDjl.carregar(propriedades.getEmbeddings());
+        } catch (Exception | LinkageError e) {
+            logger.warn("⚠️ Modelo de embeddings indisponível ({}), usando hashing de palavras", e.getMessage());
+            codificadorCarregado = new CodificadorHashPalavras(propriedades.getEmbeddings().getDimensaoHash());
+        }
+
+        IndiceHnsw indiceAberto = null;
+        try {
+            indiceAberto = IndiceHnsw.abrir(propriedades, codificadorCarregado);
+            versaoModelo = "KNN-HNSW-" + codificadorCarregado.getNome() + "-v1.0";
+            if (indiceAberto.getQuantidade() == 0) {
+                semear(indiceAberto, codificadorCarregado);
+            }
+            precisao = medirPrecisao(indiceAberto);
+
+            codificador = codificadorCarregado;
+            indice = indiceAberto;
+            logger.info("🧭 Índice de vizinhos: {} exemplos, embeddings {} (dimensão {}), precisão {}%",
+                    indiceAberto.getQuantidade(), codificadorCarregado.getNome(), codificadorCarregado.getDimensao(),
+                    String.format("%.1f", precisao * 100));
+        } catch (Exception e) {
+            logger.warn("⚠️ Índice de vizinhos indisponível ({}), usando regras", e.getMessage());
+            if (indiceAberto != null) {
+                try {
+                    indiceAberto.close();
+                } catch (IOException erroFechamento) {
+                    logger.warn("⚠️ Erro ao fechar o índice de vizinhos: {}", erroFechamento.getMessage());
+                }
+            }
+            codificadorCarregado.close();
+        }
+    }
+
+    @Override
+    public ResultadoClassificacao classificar(Email email) {
+        return classificarTexto(email.getTextoParaClassificacao());
+    }
+
+    @Override
+    public ResultadoClassificacao classificarTexto(String texto) {
+        IndiceHnsw indiceAtual = indice;
+        if (indiceAtual == null || indiceAtual.getQuantidade() == 0 || texto == null || texto.isBlank()) {
+            return classificadorRegras.classificarTexto(texto);
+        }
+
+        try {
+            Vizinho[] vizinhos = indiceAtual.buscar(codificador.codificar(texto), propriedades.getK());
+            return vizinhos.length > 0 ? votar(vizinhos) : classificadorRegras.classificarTexto(texto);
+        } catch (Exception e) {
+            logger.warn("⚠️ Falha na busca de vizinhos ({}), usando regras", e.getMessage());
+            return classificadorRegras.classificarTexto(texto);
+        }
+    }
+
+    /**
+     * Votação dos vizinhos ponderada pela similaridade
+     */
+    private ResultadoClassificacao votar(Vizinho[] vizinhos) {
+        double[] votos = ScoresSetores.novoVetor();
+        for (Vizinho vizinho : vizinhos) {
+            votos[vizinho.setor().ordinal()] += Math.max(vizinho.similaridade(), 0f);
+        }
+
+        double total = ScoresSetores.soma(votos);
+        if (total == 0.0) {
+            // Nenhum vizinho parecido: todos votam igualmente
+            for (Vizinho vizinho : vizinhos) {
+                votos[vizinho.setor().ordinal()] += 1.0;
+            }
+            total = vizinhos.length;
+        }
+        for (int i = 0; i < votos.length; i++) {
+            votos[i] /= total;
+        }
+
+        SetorEmail setor = ScoresSetores.melhorSetor(votos);
+        int concordantes = 0;
+        for (Vizinho vizinho : vizinhos) {
+            if (vizinho.setor() == setor) {
+                concordantes++;
+            }
+        }
+
+        ResultadoClassificacao resultado = new ResultadoClassificacao(setor, votos[setor.ordinal()],
+                String.format("%d de %d e-mails mais parecidos são de %s (similaridade máxima %.2f)",
+                        concordantes, vizinhos.length, setor.getDescricao(), vizinhos[0].similaridade()));
+        resultado.setProbabilidades(votos);
+        resultado.setVersaoModelo(versaoModelo);
+        return resultado;
+    }
+
+    /**
+     * Acrescenta um e-mail rotulado ao índice; vale a partir da próxima classificação
+     *
+     * @return Quantidade de exemplos no índice
+     * @throws IllegalStateException se o índice não estiver disponível
+     */
+    public int adicionarExemplo(String texto, SetorEmail setor) throws Exception {
+        IndiceHnsw indiceAtual = indice;
+        if (indiceAtual == null) {
+            throw new IllegalStateException("Índice de vizinhos indisponível");
+        }
+        indiceAtual.adicionar(codificador.codificar(texto), setor);
+        return indiceAtual.getQuantidade();
+    }
+
+    private void semear(IndiceHnsw indiceNovo, CodificadorEmbeddings codificadorIndice) throws Exception {
+        String arquivo = propriedades.getExemplosIniciais();
+        InputStream entrada = arquivo == null || arquivo.isBlank()
+                ? new ClassPathResource(EXEMPLOS_PADRAO).getInputStream()
+                : Files.newInputStream(Path.of(arquivo));
+
+        int inseridos = 0;
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                JsonNode registro = objectMapper.readTree(linha);
+                Email email = new Email(null, null, registro.path("assunto").asText(""),
+                        registro.path("corpo").asText(""));
+                SetorEmail setor = SetorEmail.valueOf(registro.path("setor").asText().trim().toUpperCase());
+                indiceNovo.adicionar(codificadorIndice.codificar(email.getTextoParaClassificacao()), setor);
+                inseridos++;
+            }
+        }
+        logger.info("🧭 Índice de vizinhos criado com {} exemplos iniciais", inseridos);
+    }
+
+    /**
+     * Acurácia sobre uma amostra dos exemplos, cada um classificado pelos
+     * seus vizinhos sem contar a si mesmo
+     */
+    private double medirPrecisao(IndiceHnsw indiceAvaliado) {
+        int total = Math.min(indiceAvaliado.getQuantidade(), propriedades.getAmostraPrecisao());
+        if (total == 0) {
+            return 0.0;
+        }
+        int passo = Math.max(1, indiceAvaliado.getQuantidade() / total);
+        int acertos = 0;
+        int avaliados = 0;
+        for (int id = 0; id < indiceAvaliado.getQuantidade() && avaliados < total; id += passo) {
+            Vizinho[] encontrados = indiceAvaliado.buscar(indiceAvaliado.vetor(id), propriedades.getK() + 1);
+            Vizinho[] outros = new Vizinho[Math.min(propriedades.getK(), encontrados.length)];
+            SetorEmail esperado = null;
+            int quantidade = 0;
+            for (Vizinho vizinho : encontrados) {
+                if (vizinho.id() == id) {
+                    esperado = vizinho.setor();
+                } else if (quantidade < outros.length) {
+                    outros[quantidade++] = vizinho;
+                }
+            }
+            if (esperado == null || quantidade == 0) {
+                continue;
+            }
+            if (votar(Arrays.copyOf(outros, quantidade)).getSetor() == esperado) {
+                acertos++;
+            }
+            avaliados++;
+        }
+        return avaliados == 0 ? 0.0 : (double) acertos / avaliados;
+    }
+
+    @Override
+    public double getPrecisao() {
+        return precisao;
+    }
+
+    public boolean isDisponivel() {
+        return indice != null;
+    }
+
+    /**
+     * Estado do índice para os endpoints de informação
+     */
+    public Map<String, Object> getEstatisticas() {
+        IndiceHnsw indiceAtual = indice;
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", propriedades.isHabilitado());
+        estatisticas.put("disponivel", indiceAtual != null);
+        estatisticas.put("k", propriedades.getK());
+        estatisticas.put("precisao", precisao);
+        estatisticas.put("versaoModelo", versaoModelo);
+        if (indiceAtual != null) {
+            estatisticas.put("indice", indiceAtual.getEstatisticas());
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Grava o índice e libera o diretório e o modelo de embeddings
+     */
+    @PreDestroy
+    public void encerrar() {
+        IndiceHnsw indiceAtual = indice;
+        indice = null;
+        if (indiceAtual != null) {
+            try {
+                indiceAtual.close();
+            } catch (IOException e) {
+                logger.warn("⚠️ Erro ao fechar o índice de vizinhos: {}", e.getMessage());
+            }
+        }
+        CodificadorEmbeddings codificadorAtual = codificador;
+        codificador = null;
+        if (codificadorAtual != null) {
+            codificadorAtual.close();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package br.com.techcorp.ai.inferencia;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agendador de micro-lotes para inferência
+ *
+ * Os pedidos de classificação aguardam em uma fila até que o lote
+ * atinja o tamanho máximo ou que o pedido mais antigo atinja a espera
+ * máxima. O lote é então executado como uma única inferência com padding
+ * e o future de cada chamador é completado com o seu resultado.
+ *
+ * O tamanho do lote e a espera se ajustam à latência observada:
+ * lotes acima da latência alvo reduzem o tamanho pela metade, lotes
+ * cheios dentro do alvo o aumentam em uma unidade, e lotes unitários
+ * (pouco tráfego) reduzem a espera, que só acrescentaria latência.
+ */
+public class AgendadorMicroLotes implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgendadorMicroLotes.class);
+
+    private final MotorInferencia motor;
+    private final BlockingQueue<Pedido> fila;
+    private final ExecutorService executores;
+    private final Semaphore lotesEmExecucao;
+    private final Thread despachante;
+    private volatile boolean ativo = true;
+
+    private final int limiteTamanhoLote;
+    private final long esperaMinimaNanos;
+    private final long esperaMaximaNanos;
+    private final long latenciaAlvoNanos;
+
+    // Parâmetros adaptativos (escritos em ajustar(), lidos pelo despachante)
+    private volatile int tamanhoLoteAtual;
+    private volatile long esperaAtualNanos;
+
+    private final Histograma histogramaTamanhoLote = new Histograma(1, 2, 4, 8, 16, 32, 64, 128);
+    private final Histograma histogramaEsperaFilaMicros = new Histograma(100, 500, 1000, 2000, 5000, 10000, 50000);
+
+    public AgendadorMicroLotes(MotorInferencia motor, PropriedadesModelo.MicroLotes configuracao) {
+        this.motor = motor;
+        this.fila = new LinkedBlockingQueue<>(configuracao.getCapacidadeFila());
+        this.limiteTamanhoLote = Math.max(1, configuracao.getTamanhoMaximo());
+        this.esperaMinimaNanos = TimeUnit.MICROSECONDS.toNanos(configuracao.getEsperaMinimaMicros());
+        this.esperaMaximaNanos = Math.max(esperaMinimaNanos,
+                TimeUnit.MICROSECONDS.toNanos(configuracao.getEsperaMaximaMicros()));
+        this.latenciaAlvoNanos = TimeUnit.MILLISECONDS.toNanos(configuracao.getLatenciaAlvoMs());
+        this.tamanhoLoteAtual = limiteTamanhoLote;
+        this.esperaAtualNanos = esperaMaximaNanos;
+
+        // Um lote em execução por predictor: enquanto todos estão ocupados, a fila acumula lotes maiores
+        int paralelismo = motor.getTamanhoPool();
+        this.lotesEmExecucao = new Semaphore(paralelismo);
+        AtomicInteger contador = new AtomicInteger();
+        this.executores = Executors.newFixedThreadPool(paralelismo, r -> {
+            Thread thread = new Thread(r, "micro-lotes-inferencia-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.despachante = new Thread(this::despachar, "micro-lotes-despachante");
+        this.despachante.setDaemon(true);
+        this.despachante.start();
+    }
+
+    /**
+     * Enfileira um texto já tokenizado para inferência
+     *
+     * @return Future com as probabilidades indexadas por SetorEmail.ordinal()
+     */
+    public CompletableFuture<double[]> submeter(long[] tokens) {
+        Pedido pedido = new Pedido(tokens);
+        if (!ativo || !fila.offer(pedido)) {
+            pedido.resultado.completeExceptionally(
+                    new RejectedExecutionException("Fila de micro-lotes cheia ou encerrada"));
+        } else if (!ativo && fila.remove(pedido)) {
+            // close() pode ter esvaziado a fila entre a verificação e o offer
+            pedido.resultado.completeExceptionally(
+                    new RejectedExecutionException("Agendador de micro-lotes encerrado"));
+        }
+        return pedido.resultado;
+    }
+
+    /**
+     * Laço da thread despachante: forma os lotes e os entrega aos executores
+     *
+     * A vaga de execução é obtida antes de tirar pedidos da fila, para que
+     * nenhum pedido fique fora da fila sem um lote que o execute; ao
+     * encerrar, os pedidos já retirados e os que restam na fila são falhados.
+     */
+    private void despachar() {
+        List<Pedido> lote = new ArrayList<>(limiteTamanhoLote);
+        try {
+            while (ativo) {
+                lotesEmExecucao.acquire();
+                boolean entregue = false;
+                try {
+                    Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                    if (primeiro == null) {
+                        continue;
+                    }
+                    lote.add(primeiro);
+
+                    int tamanho = tamanhoLoteAtual;
+                    long prazo = primeiro.enfileiradoEm + esperaAtualNanos;
+                    while (lote.size() < tamanho) {
+                        long restante = prazo - System.nanoTime();
+                        if (restante <= 0) {
+                            fila.drainTo(lote, tamanho - lote.size());
+                            break;
+                        }
+                        Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                        if (proximo == null) {
+                            break;
+                        }
+                        lote.add(proximo);
+                        fila.drainTo(lote, tamanho - lote.size());
+                    }
+
+                    // Pedidos cancelados (prazo da requisição esgotado) não ocupam o lote
+                    lote.removeIf(pedido -> pedido.resultado.isCancelled());
+                    if (lote.isEmpty()) {
+                        continue;
+                    }
+
+                    List<Pedido> pedidos = List.copyOf(lote);
+                    lote.clear();
+                    try {
+                        executores.execute(() -> executarLote(pedidos));
+                        entregue = true;
+                    } catch (RejectedExecutionException e) {
+                        falharPedidos(pedidos, e);
+                    }
+                } finally {
+                    // Entregue ao executor, a vaga é devolvida por executarLote
+                    if (!entregue) {
+                        lotesEmExecucao.release();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            RejectedExecutionException encerrado = new RejectedExecutionException("Agendador de micro-lotes encerrado");
+            falharPedidos(lote, encerrado);
+            List<Pedido> pendentes = new ArrayList<>();
+            fila.drainTo(pendentes);
+            falharPedidos(pendentes, encerrado);
+        }
+    }
+
+    private void executarLote(List<Pedido> pedidos) {
+        long inicio = System.nanoTime();
+        try {
+            long[][] textos = new long[pedidos.size()][];
+            for (int i = 0; i < textos.length; i++) {
+                Pedido pedido = pedidos.get(i);
+                textos[i] = pedido.tokens;
+                histogramaEsperaFilaMicros.registrar(TimeUnit.NANOSECONDS.toMicros(inicio - pedido.enfileiradoEm));
+            }
+            histogramaTamanhoLote.registrar(textos.length);
+
+            double[][] resultados = motor.classificarLote(textos);
+            for (int i = 0; i < resultados.length; i++) {
+                pedidos.get(i).resultado.complete(resultados[i]);
+            }
+        } catch (Exception e) {
+            logger.error("❌ Erro na inferência do lote ({} textos): {}", pedidos.size(), e.getMessage());
+            falharPedidos(pedidos, e);
+        } finally {
+            lotesEmExecucao.release();
+            ajustar(pedidos.size(), System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Ajusta tamanho do lote e espera a partir da latência do último lote
+     */
+    private synchronized void ajustar(int tamanho, long latenciaNanos) {
+        if (latenciaNanos > latenciaAlvoNanos) {
+            tamanhoLoteAtual = Math.max(1, tamanhoLoteAtual / 2);
+        } else if (tamanho >= tamanhoLoteAtual) {
+            tamanhoLoteAtual = Math.min(limiteTamanhoLote, tamanhoLoteAtual + 1);
+        }
+
+        long passoEspera = Math.max(1, (esperaMaximaNanos - esperaMinimaNanos) / 8);
+        if (tamanho == 1) {
+            esperaAtualNanos = Math.max(esperaMinimaNanos, esperaAtualNanos - passoEspera);
+        } else if (tamanho < tamanhoLoteAtual) {
+            esperaAtualNanos = Math.min(esperaMaximaNanos, esperaAtualNanos + passoEspera);
+        }
+    }
+
+    private static void falharPedidos(List<Pedido> pedidos, Exception erro) {
+        for (Pedido pedido : pedidos) {
+            pedido.resultado.completeExceptionally(erro);
+        }
+    }
+
+    /**
+     * Estado atual do agendador e histogramas de tamanho de lote e espera na fila
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("tamanhoLoteAtual", tamanhoLoteAtual);
+        estatisticas.put("tamanhoLoteMaximo", limiteTamanhoLote);
+        estatisticas.put("esperaAtualMicros", TimeUnit.NANOSECONDS.toMicros(esperaAtualNanos));
+        estatisticas.put("pedidosNaFila", fila.size());
+        estatisticas.put("tamanhoLote", histogramaTamanhoLote.resumo());
+        estatisticas.put("esperaFilaMicros", histogramaEsperaFilaMicros.resumo());
+        return estatisticas;
+    }
+
+    @Override
+    public void close() {
+        ativo = false;
+        despachante.interrupt();
+        executores.shutdown();
+
+        List<Pedido> pendentes = new ArrayList<>();
+        fila.drainTo(pendentes);
+        falharPedidos(pendentes, new RejectedExecutionException("Agendador de micro-lotes encerrado"));
+    }
+
+    /**
+     * Pedido de classificação aguardando na fila
+     */
+    private static final class Pedido {
+        private final long[] tokens;
+        private final long enfileiradoEm = System.nanoTime();
+        private final CompletableFuture<double[]> resultado = new CompletableFuture<>();
+
+        private Pedido(long[] tokens) {
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.techcorp.ai.inferencia;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Arquivos do modelo exportado comuns a todas as engines
+ *
+ * O diretório ai.modelo.diretorio traz, além do modelo em si, o
+ * tokenizer.json e o config.json com o id2label. Tokenizador e rótulos
+ * não dependem da engine e são carregados aqui.
+ */
+final class ArtefatosModelo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtefatosModelo.class);
+
+    private ArtefatosModelo() {
+    }
+
+    /**
+     * Diretório do modelo, validado junto com o tokenizer.json
+     *
+     * @throws IOException se o diretório ou o tokenizer não existirem
+     */
+    static Path diretorio(PropriedadesModelo propriedades) throws IOException {
+        Path diretorio = Paths.get(propriedades.getDiretorio());
+        if (!Files.isDirectory(diretorio)) {
+            throw new IOException("Diretório do modelo não encontrado: " + diretorio.toAbsolutePath());
+        }
+
+        Path arquivoTokenizer = diretorio.resolve("tokenizer.json");
+        if (!Files.isRegularFile(arquivoTokenizer)) {
+            throw new IOException("tokenizer.json não encontrado em " + diretorio.toAbsolutePath());
+        }
+        return diretorio;
+    }
+
+    /**
+     * Nome (sem extensão) do arquivo do modelo na precisão pedida: ai.modelo.arquivo
+     * para FP32 e ai.modelo.arquivoInt8 para INT8
+     *
+     * @param extensao Extensão usada pela engine (".pt", ".onnx")
+     * @param padrao Nome quando nenhum foi configurado (null deixa a escolha com a engine)
+     * @throws IOException se o arquivo configurado não existir no diretório
+     */
+    static String arquivoModelo(PropriedadesModelo propriedades, PrecisaoNumerica precisao, Path diretorio,
+            String extensao, String padrao) throws IOException {
+        String nome = precisao == PrecisaoNumerica.INT8 ? propriedades.getArquivoInt8() : propriedades.getArquivo();
+        if (nome == null || nome.isBlank()) {
+            nome = padrao;
+        }
+        if (nome == null) {
+            return null;
+        }
+        if (nome.endsWith(extensao)) {
+            nome = nome.substring(0, nome.length() - extensao.length());
+        }
+
+        Path arquivo = diretorio.resolve(nome + extensao);
+        if (!Files.isRegularFile(arquivo)) {
+            throw new IOException("Modelo " + precisao + " não encontrado: " + arquivo.toAbsolutePath());
+        }
+        return nome;
+    }
+
+    /**
+     * Carrega o tokenizer.json com o pool e o cache de ai.modelo.tokenizador
+     */
+    static TokenizadorModelo carregarTokenizador(PropriedadesModelo propriedades, Path diretorio) throws IOException {
+        PropriedadesModelo.Tokenizador configuracaoTokenizador = propriedades.getTokenizador();
+        int instanciasTokenizador = configuracaoTokenizador.getInstancias() > 0
+                ? configuracaoTokenizador.getInstancias()
+                : propriedades.getTamanhoPoolPredictors();
+        return TokenizadorModelo.carregar(diretorio.resolve("tokenizer.json"), propriedades.getMaxLength(),
+                instanciasTokenizador, configuracaoTokenizador.getCacheLinhas());
+    }
+
+    /**
+     * Lê o id2label do config.json e associa cada saída do modelo a um SetorEmail.
+     * Sem config.json, assume que as saídas seguem a ordem do enum.
+     */
+    static int[] lerRotulos(Path diretorio) throws IOException {
+        SetorEmail[] setores = SetorEmail.values();
+        Path arquivoConfig = diretorio.resolve("config.json");
+
+        if (!Files.isRegularFile(arquivoConfig)) {
+            int[] ordinais = new int[setores.length];
+            for (int i = 0; i < ordinais.length; i++) {
+                ordinais[i] = i;
+            }
+            return ordinais;
+        }
+
+        JsonNode id2label = new ObjectMapper().readTree(arquivoConfig.toFile()).path("id2label");
+        int[] ordinais = new int[Math.max(id2label.size(), 1)];
+        Arrays.fill(ordinais, -1);
+
+        Iterator<Map.Entry<String, JsonNode>> rotulos = id2label.fields();
+        while (rotulos.hasNext()) {
+            Map.Entry<String, JsonNode> rotulo = rotulos.next();
+            int indice = Integer.parseInt(rotulo.getKey());
+            String nome = rotulo.getValue().asText().trim().toUpperCase();
+            for (SetorEmail setor : setores) {
+                if (setor.name().equals(nome)) {
+                    ordinais[indice] = setor.ordinal();
+                }
+            }
+            if (ordinais[indice] < 0) {
+                logger.warn("⚠️ Rótulo do modelo sem setor correspondente: {}", nome);
+            }
+        }
+        return ordinais;
+    }
+
+    /**
+     * Converte as probabilidades por rótulo do modelo em probabilidades por SetorEmail.ordinal()
+     */
+    static double[] converterParaSetores(float[] saida, int[] ordinalPorRotulo) {
+        double[] probabilidades = new double[SetorEmail.values().length];
+        int limite = Math.min(saida.length, ordinalPorRotulo.length);
+        for (int i = 0; i < limite; i++) {
+            int ordinal = ordinalPorRotulo[i];
+            if (ordinal >= 0) {
+                probabilidades[ordinal] += saida[i];
+            }
+        }
+        return probabilidades;
+    }
+}
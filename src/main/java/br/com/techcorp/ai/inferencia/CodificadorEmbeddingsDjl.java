@@ -0,0 +1,128 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.ModelException;
+import ai.djl.inference.Predictor;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+import br.com.techcorp.ai.vizinhos.CodificadorEmbeddings;
+import br.com.techcorp.config.PropriedadesVizinhos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Embeddings de sentenças com um modelo local via DJL
+ *
+ * Carrega o modelo de ai.vizinhos.embeddings.diretorio (TorchScript +
+ * tokenizer.json), com o mesmo TokenizadorModelo do classificador e um
+ * pool de Predictors usado como o do MotorInferenciaDjl: cada Predictor
+ * atende uma thread por vez. A dimensão é a da saída do modelo, obtida
+ * na carga.
+ */
+public class CodificadorEmbeddingsDjl implements CodificadorEmbeddings {
+
+    private final ZooModel<long[][], float[][]> modelo;
+    private final TokenizadorModelo tokenizador;
+    private final BlockingQueue<Predictor<long[][], float[][]>> predictors;
+    private final String nome;
+    private final String prefixo;
+    private final int dimensao;
+
+    private CodificadorEmbeddingsDjl(ZooModel<long[][], float[][]> modelo, TokenizadorModelo tokenizador,
+            int tamanhoPool, String nome, String prefixo) throws TranslateException {
+        this.modelo = modelo;
+        this.tokenizador = tokenizador;
+        this.nome = nome;
+        this.prefixo = prefixo;
+        this.predictors = new ArrayBlockingQueue<>(tamanhoPool);
+        for (int i = 0; i < tamanhoPool; i++) {
+            predictors.add(modelo.newPredictor());
+        }
+        this.dimensao = inferir(prefixo).length;
+    }
+
+    /**
+     * Carrega o modelo de embeddings configurado
+     *
+     * @throws IOException se o diretório ou o tokenizer.json não existirem
+     * @throws ModelException se o modelo não puder ser carregado pela engine
+     */
+    public static CodificadorEmbeddingsDjl carregar(PropriedadesVizinhos.Embeddings propriedades)
+            throws IOException, ModelException, TranslateException {
+        Path diretorio = Paths.get(propriedades.getDiretorio());
+        Path arquivoTokenizer = diretorio.resolve("tokenizer.json");
+        if (!Files.isRegularFile(arquivoTokenizer)) {
+            throw new IOException("Modelo de embeddings não encontrado em " + diretorio.toAbsolutePath());
+        }
+
+        int tamanhoPool = propriedades.getTamanhoPoolPredictors();
+        TokenizadorModelo tokenizador = TokenizadorModelo.carregar(arquivoTokenizer, propriedades.getMaxLength(),
+                tamanhoPool, 0);
+        ZooModel<long[][], float[][]> modelo = null;
+        try {
+            modelo = Criteria.builder()
+                    .setTypes(long[][].class, float[][].class)
+                    .optModelPath(diretorio)
+                    .optEngine("PyTorch")
+                    .optOption("mapLocation", "true")
+                    .optTranslator(new TradutorEmbeddings(propriedades.isUsarTokenTypeIds()))
+                    .build()
+                    .loadModel();
+            return new CodificadorEmbeddingsDjl(modelo, tokenizador, tamanhoPool,
+                    "DJL-" + diretorio.getFileName(), propriedades.getPrefixo());
+        } catch (IOException | ModelException | TranslateException | RuntimeException e) {
+            if (modelo != null) {
+                modelo.close();
+            }
+            tokenizador.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public int getDimensao() {
+        return dimensao;
+    }
+
+    @Override
+    public float[] codificar(String texto) throws TranslateException {
+        return inferir(prefixo + texto);
+    }
+
+    private float[] inferir(String texto) throws TranslateException {
+        Predictor<long[][], float[][]> predictor;
+        long[] ids;
+        try {
+            ids = tokenizador.codificar(texto);
+            predictor = predictors.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando predictor de embeddings", e);
+        }
+        try {
+            return predictor.predict(new long[][] {ids})[0];
+        } finally {
+            predictors.offer(predictor);
+        }
+    }
+
+    @Override
+    public void close() {
+        Predictor<long[][], float[][]> predictor;
+        while ((predictor = predictors.poll()) != null) {
+            predictor.close();
+        }
+        modelo.close();
+        tokenizador.close();
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.techcorp.ai.inferencia;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ponto de extensão das engines de inferência
+ *
+ * Cada engine disponível no classpath registra um bean que implementa esta
+ * interface; o classificador escolhe a de nome igual a ai.modelo.engine.
+ * Trocar de engine por implantação é só uma questão de configuração (e de
+ * construir com o perfil Maven da engine, quando ela tem dependências
+ * próprias).
+ */
+public interface FornecedorMotorInferencia {
+
+    /**
+     * Nome usado em ai.modelo.engine (comparado sem diferenciar maiúsculas)
+     */
+    String getNome();
+
+    /**
+     * Carrega o modelo do diretório configurado em ai.modelo.diretorio na precisão pedida
+     *
+     * @throws IOException se o arquivo do modelo nessa precisão ou o tokenizer não existirem
+     * @throws Exception se o modelo não puder ser carregado pela engine
+     */
+    MotorInferencia carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao) throws Exception;
+
+    /**
+     * Carrega o motor da engine configurada em ai.modelo.engine, na precisão de
+     * ai.modelo.precisaoNumerica; sem o arquivo INT8 no diretório, usa o modelo FP32
+     *
+     * @throws IllegalStateException se nenhum fornecedor atende a engine configurada
+     */
+    static MotorInferencia carregar(List<FornecedorMotorInferencia> fornecedores, PropriedadesModelo propriedades)
+            throws Exception {
+        FornecedorMotorInferencia fornecedor = selecionar(fornecedores, propriedades.getEngine());
+        PrecisaoNumerica precisao = propriedades.getPrecisaoNumerica();
+        if (precisao == PrecisaoNumerica.INT8) {
+            try {
+                return fornecedor.carregar(propriedades, precisao);
+            } catch (IOException e) {
+                LoggerFactory.getLogger(FornecedorMotorInferencia.class)
+                        .warn("⚠️ Modelo INT8 indisponível ({}), carregando o FP32", e.getMessage());
+            }
+        }
+        return fornecedor.carregar(propriedades, PrecisaoNumerica.FP32);
+    }
+
+    /**
+     * Fornecedor de mesmo nome que a engine
+     *
+     * @throws IllegalStateException se nenhum fornecedor atende a engine
+     */
+    static FornecedorMotorInferencia selecionar(List<FornecedorMotorInferencia> fornecedores, String engine) {
+        for (FornecedorMotorInferencia fornecedor : fornecedores) {
+            if (fornecedor.getNome().equalsIgnoreCase(engine)) {
+                return fornecedor;
+            }
+        }
+        throw new IllegalStateException("Engine " + engine + " indisponível; engines no classpath: "
+                + fornecedores.stream().map(FornecedorMotorInferencia::getNome).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.techcorp.ai.inferencia;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import org.springframework.stereotype.Component;
+
+/**
+ * Engine padrão: modelo TorchScript executado pela DJL com PyTorch
+ */
+@Component
+public class FornecedorMotorInferenciaDjl implements FornecedorMotorInferencia {
+
+    public static final String NOME = "PyTorch";
+
+    @Override
+    public String getNome() {
+        return NOME;
+    }
+
+    @Override
+    public MotorInferencia carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao) throws Exception {
+        return MotorInferenciaDjl.carregar(propriedades, precisao);
+    }
+}
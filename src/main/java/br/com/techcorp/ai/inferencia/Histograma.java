@@ -0,0 +1,66 @@
+package br.com.techcorp.ai.inferencia;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma simples de buckets fixos, seguro para uso concorrente
+ *
+ * Cada bucket conta os valores menores ou iguais ao seu limite;
+ * o último bucket acumula tudo que passa do maior limite.
+ */
+public class Histograma {
+
+    private final long[] limites;
+    private final LongAdder[] contagens;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+
+    public Histograma(long... limites) {
+        this.limites = limites.clone();
+        this.contagens = new LongAdder[limites.length + 1];
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra um valor no bucket correspondente
+     */
+    public void registrar(long valor) {
+        int bucket = 0;
+        while (bucket < limites.length && valor > limites[bucket]) {
+            bucket++;
+        }
+        contagens[bucket].increment();
+        total.increment();
+        soma.add(valor);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public double getMedia() {
+        long quantidade = total.sum();
+        return quantidade == 0 ? 0.0 : (double) soma.sum() / quantidade;
+    }
+
+    /**
+     * Retorna as contagens por bucket em formato legível para os endpoints de informação
+     */
+    public Map<String, Object> resumo() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < limites.length; i++) {
+            buckets.put("<=" + limites[i], contagens[i].sum());
+        }
+        buckets.put(">" + limites[limites.length - 1], contagens[limites.length].sum());
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("total", getTotal());
+        resumo.put("media", getMedia());
+        resumo.put("buckets", buckets);
+        return resumo;
+    }
+}
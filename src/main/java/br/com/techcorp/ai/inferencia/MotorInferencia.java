@@ -0,0 +1,76 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.translate.TranslateException;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+
+import java.util.Map;
+
+/**
+ * Motor de inferência do modelo de classificação de sequência
+ *
+ * Cada implementação executa o mesmo modelo exportado (diretório com o
+ * modelo, tokenizer.json e config.json) em uma engine diferente e é criada
+ * por um FornecedorMotorInferencia, escolhido por ai.modelo.engine. A
+ * tokenização é comum a todas as engines (TokenizadorModelo) e as saídas
+ * são sempre probabilidades indexadas por SetorEmail.ordinal().
+ *
+ * As implementações devem aceitar chamadas concorrentes, limitadas ao
+ * tamanho do pool informado em getTamanhoPool().
+ */
+public interface MotorInferencia extends AutoCloseable {
+
+    /**
+     * Nome da engine que executa o modelo (o mesmo de ai.modelo.engine)
+     */
+    String getEngine();
+
+    /**
+     * Precisão dos pesos carregados (FP32 ou INT8 quantizado)
+     */
+    PrecisaoNumerica getPrecisaoNumerica();
+
+    /**
+     * Tokeniza um texto para o modelo, truncado em ai.modelo.maxLength tokens
+     */
+    long[] tokenizar(String texto) throws TranslateException;
+
+    /**
+     * Tokeniza um texto longo em janelas sobrepostas de até ai.modelo.maxLength
+     * tokens cada; a primeira janela é igual à de tokenizar()
+     *
+     * @param maximoJanelas Limite de janelas; o texto além delas é descartado
+     * @param sobreposicao Tokens repetidos entre janelas consecutivas
+     */
+    default long[][] tokenizarJanelas(String texto, int maximoJanelas, int sobreposicao) throws TranslateException {
+        return new long[][] { tokenizar(texto) };
+    }
+
+    /**
+     * Classifica um texto tokenizado e retorna as probabilidades indexadas por SetorEmail.ordinal()
+     */
+    default double[] classificar(long[] tokens) throws TranslateException {
+        return classificarLote(new long[][] { tokens })[0];
+    }
+
+    /**
+     * Classifica um lote de textos tokenizados em uma única chamada ao modelo
+     *
+     * @return Para cada texto, as probabilidades indexadas por SetorEmail.ordinal()
+     */
+    double[][] classificarLote(long[][] textos) throws TranslateException;
+
+    /**
+     * Quantidade de inferências que podem executar ao mesmo tempo
+     */
+    int getTamanhoPool();
+
+    /**
+     * Vagas livres no pool neste momento
+     */
+    int getPredictorsDisponiveis();
+
+    Map<String, Object> getEstatisticasTokenizador();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,155 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.ModelException;
+import ai.djl.inference.Predictor;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Motor de inferência real usando DJL (Deep Java Library)
+ *
+ * Carrega um modelo de classificação de sequência a partir de um
+ * diretório local (modelo exportado + tokenizer.json + config.json)
+ * e mantém um pool limitado de Predictors, um por núcleo. A tokenização
+ * fica com o TokenizadorModelo e é feita pela thread que chama o motor,
+ * antes de ocupar um Predictor.
+ *
+ * Cada Predictor é usado por uma única thread por vez: a thread
+ * retira um Predictor do pool, executa a inferência e o devolve.
+ * Assim requisições concorrentes não disputam um único Predictor
+ * e nenhum Predictor é criado por requisição.
+ *
+ * O modo offline e as threads da engine são propriedades globais da DJL,
+ * lidas quando a engine inicia; são definidas uma única vez na subida da
+ * aplicação, pelo ConfiguracaoEngineDjl.
+ *
+ * É a engine padrão (ai.modelo.engine = PyTorch), registrada pelo
+ * FornecedorMotorInferenciaDjl.
+ */
+public class MotorInferenciaDjl implements MotorInferencia {
+
+    private final ZooModel<long[][], float[][]> modelo;
+    private final TokenizadorModelo tokenizador;
+    private final PoolPredictors<Predictor<long[][], float[][]>> predictors;
+    private final PrecisaoNumerica precisao;
+
+    // Para cada saída do modelo, o ordinal do SetorEmail correspondente (-1 se não mapeado)
+    private final int[] ordinalPorRotulo;
+
+    private MotorInferenciaDjl(ZooModel<long[][], float[][]> modelo, TokenizadorModelo tokenizador,
+            int tamanhoPool, long timeoutPredictorMs, PrecisaoNumerica precisao, int[] ordinalPorRotulo) {
+        this.modelo = modelo;
+        this.precisao = precisao;
+        this.tokenizador = tokenizador;
+        this.ordinalPorRotulo = ordinalPorRotulo;
+        this.predictors = new PoolPredictors<>(tamanhoPool, timeoutPredictorMs, modelo::newPredictor);
+    }
+
+    /**
+     * Carrega o modelo do diretório configurado em ai.modelo.diretorio
+     *
+     * Em INT8 é carregado o TorchScript quantizado dinamicamente
+     * (ai.modelo.arquivoInt8 + ".pt"); o PyTorch executa as camadas lineares
+     * quantizadas na CPU com os kernels inteiros do fbgemm.
+     *
+     * @throws IOException se o diretório, o tokenizer ou o arquivo INT8 não existirem
+     * @throws ModelException se o modelo não puder ser carregado pela engine
+     */
+    public static MotorInferenciaDjl carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao)
+            throws IOException, ModelException {
+        Path diretorio = ArtefatosModelo.diretorio(propriedades);
+        String arquivoModelo = ArtefatosModelo.arquivoModelo(propriedades, precisao, diretorio, ".pt", null);
+
+        TokenizadorModelo tokenizador = ArtefatosModelo.carregarTokenizador(propriedades, diretorio);
+
+        try {
+            Criteria.Builder<long[][], float[][]> criterios = Criteria.builder()
+                    .setTypes(long[][].class, float[][].class)
+                    .optModelPath(diretorio)
+                    .optEngine(propriedades.getEngine())
+                    .optOption("mapLocation", "true")
+                    .optTranslator(new TradutorClassificacaoSequencia(propriedades.isUsarTokenTypeIds()));
+            if (arquivoModelo != null) {
+                criterios.optModelName(arquivoModelo);
+            }
+
+            ZooModel<long[][], float[][]> modelo = criterios.build().loadModel();
+            int[] ordinalPorRotulo = ArtefatosModelo.lerRotulos(diretorio);
+
+            return new MotorInferenciaDjl(modelo, tokenizador, propriedades.getTamanhoPoolPredictors(),
+                    propriedades.getTimeoutPredictorMs(), precisao, ordinalPorRotulo);
+        } catch (IOException | ModelException | RuntimeException e) {
+            tokenizador.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getEngine() {
+        return modelo.getNDManager().getEngine().getEngineName();
+    }
+
+    @Override
+    public PrecisaoNumerica getPrecisaoNumerica() {
+        return precisao;
+    }
+
+    @Override
+    public long[] tokenizar(String texto) throws TranslateException {
+        try {
+            return tokenizador.codificar(texto);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando tokenizador", e);
+        }
+    }
+
+    @Override
+    public long[][] tokenizarJanelas(String texto, int maximoJanelas, int sobreposicao) throws TranslateException {
+        try {
+            return tokenizador.codificarJanelas(texto, maximoJanelas, sobreposicao);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando tokenizador", e);
+        }
+    }
+
+    @Override
+    public double[][] classificarLote(long[][] textos) throws TranslateException {
+        float[][] saidas = predictors.executar(predictor -> predictor.predict(textos));
+        double[][] probabilidades = new double[saidas.length][];
+        for (int i = 0; i < saidas.length; i++) {
+            probabilidades[i] = ArtefatosModelo.converterParaSetores(saidas[i], ordinalPorRotulo);
+        }
+        return probabilidades;
+    }
+
+    @Override
+    public int getTamanhoPool() {
+        return predictors.getTamanho();
+    }
+
+    @Override
+    public int getPredictorsDisponiveis() {
+        return predictors.getDisponiveis();
+    }
+
+    @Override
+    public Map<String, Object> getEstatisticasTokenizador() {
+        return tokenizador.getEstatisticas();
+    }
+
+    @Override
+    public void close() {
+        predictors.close();
+        modelo.close();
+        tokenizador.close();
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.translate.TranslateException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pool limitado de predictors, criados uma única vez
+ *
+ * Cada predictor é usado por uma única thread por vez: executar retira
+ * um predictor do pool (esperando no máximo timeoutMs), aplica o uso e o
+ * devolve ao pool mesmo que o uso falhe.
+ */
+final class PoolPredictors<P extends AutoCloseable> implements AutoCloseable {
+
+    /**
+     * Uso de um predictor emprestado do pool
+     */
+    @FunctionalInterface
+    interface Uso<P, R> {
+        R aplicar(P predictor) throws TranslateException;
+    }
+
+    private final BlockingQueue<P> predictors;
+    private final int tamanho;
+    private final long timeoutMs;
+
+    PoolPredictors(int tamanho, long timeoutMs, Supplier<P> fabrica) {
+        this.tamanho = tamanho;
+        this.timeoutMs = timeoutMs;
+        this.predictors = new ArrayBlockingQueue<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            predictors.add(fabrica.get());
+        }
+    }
+
+    /**
+     * Aplica o uso a um predictor livre
+     *
+     * @throws TranslateException se nenhum predictor ficar livre em timeoutMs,
+     *         se a thread for interrompida enquanto espera ou se o uso falhar
+     */
+    <R> R executar(Uso<P, R> uso) throws TranslateException {
+        P predictor = emprestar();
+        try {
+            return uso.aplicar(predictor);
+        } finally {
+            predictors.offer(predictor);
+        }
+    }
+
+    private P emprestar() throws TranslateException {
+        try {
+            P predictor = predictors.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            if (predictor == null) {
+                throw new TranslateException("Nenhum predictor livre após " + timeoutMs + " ms");
+            }
+            return predictor;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando predictor", e);
+        }
+    }
+
+    int getTamanho() {
+        return tamanho;
+    }
+
+    int getDisponiveis() {
+        return predictors.size();
+    }
+
+    /**
+     * Fecha os predictors que estão no pool
+     */
+    @Override
+    public void close() {
+        P predictor;
+        while ((predictor = predictors.poll()) != null) {
+            try {
+                predictor.close();
+            } catch (Exception e) {
+                // Os recursos nativos são liberados de qualquer forma ao fechar o modelo
+            }
+        }
+    }
+}
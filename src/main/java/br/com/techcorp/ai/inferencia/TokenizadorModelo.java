@@ -0,0 +1,220 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import br.com.techcorp.ai.texto.NormalizadorTexto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Tokenização para o modelo com o tokenizer HuggingFace local (tokenizer.json)
+ *
+ * O texto é tokenizado linha a linha e o truncamento é feito em tokens,
+ * pelo ai.modelo.maxLength: assim que o limite é atingido as linhas
+ * restantes nem são tokenizadas. E-mails longos podem ser tokenizados em
+ * várias janelas sobrepostas (codificarJanelas), até um limite de janelas. Os ids de linhas curtas (assuntos,
+ * saudações, assinaturas) ficam em um cache pequeno, já que se repetem
+ * entre e-mails. As instâncias do tokenizer ficam em um pool limitado e
+ * cada thread usa uma instância exclusiva enquanto tokeniza.
+ */
+public class TokenizadorModelo implements AutoCloseable {
+
+    // Linhas maiores que isto raramente se repetem e não entram no cache
+    private static final int LIMITE_LINHA_CACHE = 256;
+
+    // Linhas longas são tokenizadas em pedaços, cortados em espaços, para parar cedo
+    private static final int TAMANHO_MAXIMO_SEGMENTO = 2048;
+
+    private final BlockingQueue<HuggingFaceTokenizer> instancias;
+    private final List<HuggingFaceTokenizer> todasInstancias;
+    private final Cache<String, long[]> cacheLinhas;
+    private final long[] prefixo;
+    private final long[] sufixo;
+    private final int maxTokens;
+
+    private TokenizadorModelo(List<HuggingFaceTokenizer> todasInstancias, int maxTokens, long tamanhoCache) {
+        this.todasInstancias = todasInstancias;
+        this.instancias = new ArrayBlockingQueue<>(todasInstancias.size(), false, todasInstancias);
+        this.maxTokens = maxTokens;
+        this.cacheLinhas = tamanhoCache > 0
+                ? Caffeine.newBuilder().maximumSize(tamanhoCache).recordStats().build()
+                : null;
+
+        // Tokens especiais ([CLS] ... [SEP]) que o tokenizer acrescenta em torno do texto
+        HuggingFaceTokenizer tokenizador = todasInstancias.get(0);
+        long[] comEspeciais = tokenizador.encode("a", true).getIds();
+        long[] semEspeciais = tokenizador.encode("a", false).getIds();
+        int inicioTexto = indiceDe(comEspeciais, semEspeciais);
+        this.prefixo = Arrays.copyOfRange(comEspeciais, 0, inicioTexto);
+        this.sufixo = Arrays.copyOfRange(comEspeciais, inicioTexto + semEspeciais.length, comEspeciais.length);
+    }
+
+    /**
+     * Carrega as instâncias do tokenizer a partir do tokenizer.json local
+     *
+     * @param maxTokens Limite de tokens por texto, incluindo os tokens especiais
+     */
+    public static TokenizadorModelo carregar(Path arquivoTokenizer, int maxTokens, int quantidadeInstancias,
+            long tamanhoCache) throws IOException {
+        List<HuggingFaceTokenizer> instancias = new ArrayList<>(quantidadeInstancias);
+        try {
+            for (int i = 0; i < quantidadeInstancias; i++) {
+                instancias.add(HuggingFaceTokenizer.builder()
+                        .optTokenizerPath(arquivoTokenizer)
+                        .optAddSpecialTokens(false)
+                        .optTruncation(false)
+                        .optPadding(false)
+                        .build());
+            }
+            return new TokenizadorModelo(instancias, maxTokens, tamanhoCache);
+        } catch (IOException | RuntimeException e) {
+            instancias.forEach(HuggingFaceTokenizer::close);
+            throw e;
+        }
+    }
+
+    /**
+     * Tokeniza o texto e devolve os ids com os tokens especiais, limitados a maxTokens
+     */
+    public long[] codificar(String texto) throws InterruptedException {
+        long[] ids = new long[maxTokens];
+        System.arraycopy(prefixo, 0, ids, 0, prefixo.length);
+        int quantidade = codificarCorpo(texto, ids, prefixo.length, maxTokens - sufixo.length);
+        System.arraycopy(sufixo, 0, ids, quantidade, sufixo.length);
+        return Arrays.copyOf(ids, quantidade + sufixo.length);
+    }
+
+    /**
+     * Tokeniza o texto em janelas de até maxTokens, cada uma com os tokens
+     * especiais, sobrepostas em sobreposicao tokens para que nenhum trecho
+     * fique sem contexto no corte. A primeira janela é igual a codificar();
+     * o texto além de maximoJanelas janelas não é tokenizado.
+     */
+    public long[][] codificarJanelas(String texto, int maximoJanelas, int sobreposicao) throws InterruptedException {
+        int corpoPorJanela = maxTokens - prefixo.length - sufixo.length;
+        int passo = Math.max(1, corpoPorJanela - Math.max(0, sobreposicao));
+        int janelas = Math.max(1, maximoJanelas);
+        long[] corpo = new long[corpoPorJanela + passo * (janelas - 1)];
+        int total = codificarCorpo(texto, corpo, 0, corpo.length);
+
+        List<long[]> resultado = new ArrayList<>(janelas);
+        for (int inicio = 0; resultado.size() < janelas; inicio += passo) {
+            int fim = Math.min(total, inicio + corpoPorJanela);
+            long[] ids = new long[prefixo.length + (fim - inicio) + sufixo.length];
+            System.arraycopy(prefixo, 0, ids, 0, prefixo.length);
+            System.arraycopy(corpo, inicio, ids, prefixo.length, fim - inicio);
+            System.arraycopy(sufixo, 0, ids, ids.length - sufixo.length, sufixo.length);
+            resultado.add(ids);
+            if (fim == total) {
+                break;
+            }
+        }
+        return resultado.toArray(new long[0][]);
+    }
+
+    /**
+     * Escreve em ids, a partir de inicio, os ids do texto sem tokens especiais, parando em limite
+     *
+     * @return Posição seguinte ao último id escrito
+     */
+    private int codificarCorpo(String texto, long[] ids, int inicio, int limite) throws InterruptedException {
+        int quantidade = inicio;
+        HuggingFaceTokenizer tokenizador = null;
+        try {
+            int inicioLinha = 0;
+            while (inicioLinha <= texto.length() && quantidade < limite) {
+                int fimLinha = texto.indexOf('\n', inicioLinha);
+                if (fimLinha < 0) {
+                    fimLinha = texto.length();
+                }
+                String linha = NormalizadorTexto.prepararParaModelo(texto.substring(inicioLinha, fimLinha),
+                        Integer.MAX_VALUE);
+                inicioLinha = fimLinha + 1;
+
+                int inicioSegmento = 0;
+                while (inicioSegmento < linha.length() && quantidade < limite) {
+                    int fimSegmento = fimDoSegmento(linha, inicioSegmento);
+                    String segmento = linha.substring(inicioSegmento, fimSegmento);
+                    inicioSegmento = fimSegmento;
+
+                    long[] idsSegmento = cacheLinhas != null && segmento.length() <= LIMITE_LINHA_CACHE
+                            ? cacheLinhas.getIfPresent(segmento)
+                            : null;
+                    if (idsSegmento == null) {
+                        if (tokenizador == null) {
+                            tokenizador = instancias.take();
+                        }
+                        idsSegmento = tokenizador.encode(segmento, false).getIds();
+                        if (cacheLinhas != null && segmento.length() <= LIMITE_LINHA_CACHE) {
+                            cacheLinhas.put(segmento, idsSegmento);
+                        }
+                    }
+
+                    int copiar = Math.min(idsSegmento.length, limite - quantidade);
+                    System.arraycopy(idsSegmento, 0, ids, quantidade, copiar);
+                    quantidade += copiar;
+                }
+            }
+        } finally {
+            if (tokenizador != null) {
+                instancias.offer(tokenizador);
+            }
+        }
+        return quantidade;
+    }
+
+    /**
+     * Fim do próximo segmento da linha: no máximo TAMANHO_MAXIMO_SEGMENTO
+     * caracteres, cortando depois de um espaço para não partir palavras
+     */
+    private static int fimDoSegmento(String linha, int inicio) {
+        int fim = inicio + TAMANHO_MAXIMO_SEGMENTO;
+        if (fim >= linha.length()) {
+            return linha.length();
+        }
+        int espaco = linha.lastIndexOf(' ', fim);
+        return espaco > inicio ? espaco + 1 : fim;
+    }
+
+    private static int indiceDe(long[] sequencia, long[] trecho) {
+        for (int i = 0; i + trecho.length <= sequencia.length; i++) {
+            if (Arrays.equals(sequencia, i, i + trecho.length, trecho, 0, trecho.length)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Estatísticas do cache de linhas tokenizadas
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("maxTokens", maxTokens);
+        estatisticas.put("instancias", todasInstancias.size());
+        estatisticas.put("instanciasDisponiveis", instancias.size());
+        if (cacheLinhas != null) {
+            estatisticas.put("linhasEmCache", cacheLinhas.estimatedSize());
+            estatisticas.put("taxaAcertoCacheLinhas", cacheLinhas.stats().hitRate());
+        }
+        return estatisticas;
+    }
+
+    @Override
+    public void close() {
+        todasInstancias.forEach(HuggingFaceTokenizer::close);
+    }
+}
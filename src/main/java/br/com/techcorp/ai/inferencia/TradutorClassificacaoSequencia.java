@@ -0,0 +1,81 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.NoBatchifyTranslator;
+import ai.djl.translate.TranslatorContext;
+
+import java.util.Arrays;
+
+/**
+ * Tradutor DJL para modelos de classificação de sequência
+ *
+ * Recebe um lote de textos já tokenizados (ids com os tokens especiais,
+ * ver TokenizadorModelo), monta os tensores input_ids/attention_mask com
+ * padding até o maior texto do lote e devolve as probabilidades (softmax)
+ * de cada rótulo.
+ */
+class TradutorClassificacaoSequencia implements NoBatchifyTranslator<long[][], float[][]> {
+
+    private final boolean usarTokenTypeIds;
+
+    TradutorClassificacaoSequencia(boolean usarTokenTypeIds) {
+        this.usarTokenTypeIds = usarTokenTypeIds;
+    }
+
+    @Override
+    public NDList processInput(TranslatorContext ctx, long[][] textos) {
+        int tamanhoLote = textos.length;
+        int maiorSequencia = 1;
+        for (long[] idsTexto : textos) {
+            maiorSequencia = Math.max(maiorSequencia, idsTexto.length);
+        }
+
+        // Tensores achatados [lote x sequência], posições de padding ficam com zero
+        long[] ids = new long[tamanhoLote * maiorSequencia];
+        long[] mascara = new long[tamanhoLote * maiorSequencia];
+
+        for (int i = 0; i < tamanhoLote; i++) {
+            int deslocamento = i * maiorSequencia;
+            long[] idsTexto = textos[i];
+            System.arraycopy(idsTexto, 0, ids, deslocamento, idsTexto.length);
+            Arrays.fill(mascara, deslocamento, deslocamento + idsTexto.length, 1L);
+        }
+
+        NDManager manager = ctx.getNDManager();
+        Shape formato = new Shape(tamanhoLote, maiorSequencia);
+
+        NDArray arrayIds = manager.create(ids, formato);
+        arrayIds.setName("input_ids");
+        NDArray arrayMascara = manager.create(mascara, formato);
+        arrayMascara.setName("attention_mask");
+
+        NDList entrada = new NDList(arrayIds, arrayMascara);
+        if (usarTokenTypeIds) {
+            // Sequência única: todos os token_type_ids são zero
+            NDArray arrayTipos = manager.zeros(formato, DataType.INT64);
+            arrayTipos.setName("token_type_ids");
+            entrada.add(arrayTipos);
+        }
+        return entrada;
+    }
+
+    @Override
+    public float[][] processOutput(TranslatorContext ctx, NDList saida) {
+        // Primeira saída do modelo são os logits [lote x rótulos]
+        NDArray probabilidades = saida.get(0).softmax(-1);
+        long[] formato = probabilidades.getShape().getShape();
+        int tamanhoLote = (int) formato[0];
+        int quantidadeRotulos = (int) formato[1];
+
+        float[] valores = probabilidades.toFloatArray();
+        float[][] resultado = new float[tamanhoLote][quantidadeRotulos];
+        for (int i = 0; i < tamanhoLote; i++) {
+            System.arraycopy(valores, i * quantidadeRotulos, resultado[i], 0, quantidadeRotulos);
+        }
+        return resultado;
+    }
+}
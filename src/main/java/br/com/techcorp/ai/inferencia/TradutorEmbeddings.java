@@ -0,0 +1,55 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.translate.TranslatorContext;
+
+/**
+ * Tradutor DJL para modelos de embeddings de sentenças
+ *
+ * A entrada é a mesma da classificação (ids tokenizados com padding); a
+ * saída é a média dos estados da última camada nas posições reais de cada
+ * texto (mean pooling pela attention_mask), com norma 1. Modelos exportados
+ * já com o pooling (saída [lote x dimensão]) só são normalizados.
+ */
+class TradutorEmbeddings extends TradutorClassificacaoSequencia {
+
+    private static final String MASCARA = "attention_mask";
+
+    TradutorEmbeddings(boolean usarTokenTypeIds) {
+        super(usarTokenTypeIds);
+    }
+
+    @Override
+    public NDList processInput(TranslatorContext ctx, long[][] textos) {
+        NDList entrada = super.processInput(ctx, textos);
+        ctx.setAttachment(MASCARA, entrada.get(1));
+        return entrada;
+    }
+
+    @Override
+    public float[][] processOutput(TranslatorContext ctx, NDList saida) {
+        NDArray estados = saida.get(0);
+        NDArray embeddings;
+        if (estados.getShape().dimension() == 3) {
+            NDArray mascara = ((NDArray) ctx.getAttachment(MASCARA)).toType(DataType.FLOAT32, false).expandDims(-1);
+            NDArray soma = estados.mul(mascara).sum(new int[] {1});
+            NDArray tokens = mascara.sum(new int[] {1}).maximum(1e-9f);
+            embeddings = soma.div(tokens);
+        } else {
+            embeddings = estados;
+        }
+        embeddings = embeddings.div(embeddings.norm(new int[] {-1}, true).maximum(1e-12f));
+
+        long[] formato = embeddings.getShape().getShape();
+        int tamanhoLote = (int) formato[0];
+        int dimensao = (int) formato[1];
+        float[] valores = embeddings.toFloatArray();
+        float[][] resultado = new float[tamanhoLote][dimensao];
+        for (int i = 0; i < tamanhoLote; i++) {
+            System.arraycopy(valores, i * dimensao, resultado[i], 0, dimensao);
+        }
+        return resultado;
+    }
+}
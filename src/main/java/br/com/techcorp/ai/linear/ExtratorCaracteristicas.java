@@ -0,0 +1,152 @@
+package br.com.techcorp.ai.linear;
+
+import br.com.techcorp.ai.texto.NormalizadorTexto;
+
+/**
+ * Características do modelo linear por hashing (feature hashing)
+ *
+ * O texto é percorrido uma única vez, caractere a caractere, pela tabela
+ * do NormalizadorTexto (minúsculas, sem acentos, [a-z0-9]); cada palavra,
+ * cada par de palavras consecutivas e cada n-grama de caracteres da
+ * palavra (com um espaço marcando início e fim, como " fat" e "ura ")
+ * vira o índice de uma linha de pesos, escolhido pelos bits altos do hash.
+ * Os n-gramas de caracteres aproximam radicais e erros de digitação que o
+ * vocabulário de palavras inteiras não cobre; dígitos viram '0', então
+ * "nf 12345" e "nf 67890" caem na mesma característica.
+ *
+ * Nada é alocado: os últimos caracteres ficam empacotados em um long (8
+ * bits por caractere, até 7 caracteres) e os índices são escritos no array
+ * recebido. Colisões de hash só somam pesos de características diferentes,
+ * o que o treino absorve com 2^18 linhas ou mais.
+ */
+public final class ExtratorCaracteristicas {
+
+    public static final int BITS_MINIMO = 10;
+    public static final int BITS_MAXIMO = 24;
+    public static final int NGRAMA_MAXIMO = 7;
+
+    private static final long SEMENTE_PALAVRA = 0xcbf29ce484222325L;
+    private static final long PRIMO_FNV = 0x100000001b3L;
+    private static final long TIPO_PALAVRA = 0x9e3779b97f4a7c15L;
+    private static final long TIPO_BIGRAMA = 0xbf58476d1ce4e5b9L;
+    private static final long TIPO_NGRAMA = 0x94d049bb133111ebL;
+
+    private final int bits;
+    private final int nGramaMinimo;
+    private final int nGramaMaximo;
+
+    public ExtratorCaracteristicas(int bits, int nGramaMinimo, int nGramaMaximo) {
+        if (bits < BITS_MINIMO || bits > BITS_MAXIMO) {
+            throw new IllegalArgumentException("bits deve estar entre " + BITS_MINIMO + " e " + BITS_MAXIMO
+                    + ": " + bits);
+        }
+        if (nGramaMinimo < 2 || nGramaMaximo > NGRAMA_MAXIMO || nGramaMinimo > nGramaMaximo) {
+            throw new IllegalArgumentException("n-gramas de caracteres devem estar entre 2 e " + NGRAMA_MAXIMO
+                    + ": " + nGramaMinimo + ".." + nGramaMaximo);
+        }
+        this.bits = bits;
+        this.nGramaMinimo = nGramaMinimo;
+        this.nGramaMaximo = nGramaMaximo;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public int getNGramaMinimo() {
+        return nGramaMinimo;
+    }
+
+    public int getNGramaMaximo() {
+        return nGramaMaximo;
+    }
+
+    /**
+     * Quantidade de linhas de pesos (2^bits)
+     */
+    public int getQuantidadeCaracteristicas() {
+        return 1 << bits;
+    }
+
+    /**
+     * Escreve em destino os índices das características do texto, na ordem
+     * em que aparecem; para quando destino enche (o início do e-mail é o que
+     * mais diz sobre o setor)
+     *
+     * @return Quantidade de índices escritos
+     */
+    public int extrair(String texto, int[] destino) {
+        if (texto == null) {
+            return 0;
+        }
+
+        int quantidade = 0;
+        long palavra = SEMENTE_PALAVRA;
+        long anterior = 0;
+        boolean temAnterior = false;
+        long janela = ' ';
+        int caracteres = 0;
+
+        for (int i = 0, n = texto.length(); i <= n && quantidade < destino.length; i++) {
+            char c = i < n ? NormalizadorTexto.caractereParaRegras(texto.charAt(i)) : 0;
+            if (c >= '1' && c <= '9') {
+                c = '0';
+            }
+
+            if (c != 0) {
+                palavra = (palavra ^ c) * PRIMO_FNV;
+                janela = (janela << 8) | c;
+                caracteres++;
+                quantidade = ngramas(janela, caracteres + 1, destino, quantidade);
+                continue;
+            }
+            if (caracteres == 0) {
+                continue;
+            }
+
+            // Fim de palavra: n-gramas com o marcador final, a palavra e o par com a anterior
+            quantidade = ngramas((janela << 8) | ' ', caracteres + 2, destino, quantidade);
+            long atual = misturar(palavra ^ TIPO_PALAVRA);
+            quantidade = adicionar(destino, quantidade, atual);
+            if (temAnterior) {
+                quantidade = adicionar(destino, quantidade, misturar((anterior * 31 + atual) ^ TIPO_BIGRAMA));
+            }
+            anterior = atual;
+            temAnterior = true;
+
+            palavra = SEMENTE_PALAVRA;
+            janela = ' ';
+            caracteres = 0;
+        }
+        return quantidade;
+    }
+
+    /**
+     * N-gramas terminados no último caractere da janela (disponiveis conta os marcadores)
+     */
+    private int ngramas(long janela, int disponiveis, int[] destino, int quantidade) {
+        int limite = Math.min(nGramaMaximo, disponiveis);
+        for (int tamanho = nGramaMinimo; tamanho <= limite; tamanho++) {
+            long ngrama = janela & ((1L << (8 * tamanho)) - 1);
+            quantidade = adicionar(destino, quantidade, misturar((ngrama * 31 + tamanho) ^ TIPO_NGRAMA));
+        }
+        return quantidade;
+    }
+
+    private int adicionar(int[] destino, int quantidade, long hash) {
+        if (quantidade < destino.length) {
+            destino[quantidade++] = (int) (hash >>> (64 - bits));
+        }
+        return quantidade;
+    }
+
+    // Finalizador do MurmurHash3: espalha bem os bits de hashes próximos
+    private static long misturar(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb53a185ec4d3L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,220 @@
+package br.com.techcorp.ai.linear;
+
+import br.com.techcorp.models.SetorEmail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pesos do modelo linear (regressão logística multinomial)
+ *
+ * Uma linha de pesos por característica, com uma coluna por setor, em um
+ * único float[] ([característica * setores + setor]): as colunas de uma
+ * característica ficam lado a lado e cada índice extraído custa uma linha
+ * de cache. O arquivo é binário e plano, em little-endian:
+ *
+ *   cabeçalho (32 bytes): mágica, versão, bits, setores, n-grama mínimo,
+ *                         n-grama máximo, acurácia de validação, exemplos
+ *   vieses:   setores floats
+ *   pesos:    2^bits * setores floats
+ *
+ * Os setores seguem a ordem de SetorEmail; um arquivo treinado com outra
+ * quantidade de setores é recusado.
+ */
+public final class PesosLinear {
+
+    private static final int MAGICA = 0x314E494C; // "LIN1" em little-endian
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 32;
+
+    private final ExtratorCaracteristicas extrator;
+    private final int setores;
+    final float[] vieses;
+    final float[] pesos;
+
+    private float acuracia;
+    private int exemplos;
+
+    /**
+     * Pesos zerados, ponto de partida do treino
+     */
+    public PesosLinear(ExtratorCaracteristicas extrator) {
+        this.extrator = extrator;
+        this.setores = SetorEmail.values().length;
+        this.vieses = new float[setores];
+        this.pesos = new float[extrator.getQuantidadeCaracteristicas() * setores];
+    }
+
+    /**
+     * Lê um arquivo gravado por gravar()
+     *
+     * @throws IOException se o arquivo não existir, estiver truncado ou não for de pesos lineares
+     */
+    public static PesosLinear carregar(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < TAMANHO_CABECALHO) {
+                throw new IOException("Arquivo de pesos truncado: " + arquivo);
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapa.getInt() != MAGICA) {
+                throw new IOException("Não é um arquivo de pesos lineares: " + arquivo);
+            }
+            int versao = mapa.getInt();
+            if (versao != VERSAO) {
+                throw new IOException("Versão de pesos não suportada: " + versao);
+            }
+            int bits = mapa.getInt();
+            int setoresArquivo = mapa.getInt();
+            if (setoresArquivo != SetorEmail.values().length) {
+                throw new IOException("Pesos treinados para " + setoresArquivo + " setores, esperados "
+                        + SetorEmail.values().length);
+            }
+            int nGramaMinimo = mapa.getInt();
+            int nGramaMaximo = mapa.getInt();
+            float acuracia = mapa.getFloat();
+            int exemplos = mapa.getInt();
+
+            PesosLinear carregados;
+            try {
+                carregados = new PesosLinear(new ExtratorCaracteristicas(bits, nGramaMinimo, nGramaMaximo));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Cabeçalho de pesos inválido: " + e.getMessage(), e);
+            }
+            long esperado = TAMANHO_CABECALHO
+                    + 4L * (carregados.vieses.length + (long) carregados.pesos.length);
+            if (tamanho != esperado) {
+                throw new IOException("Arquivo de pesos com " + tamanho + " bytes, esperados " + esperado);
+            }
+
+            mapa.position(TAMANHO_CABECALHO);
+            mapa.asFloatBuffer().get(carregados.vieses).get(carregados.pesos);
+            carregados.acuracia = acuracia;
+            carregados.exemplos = exemplos;
+            return carregados;
+        }
+    }
+
+    /**
+     * Grava os pesos em um arquivo temporário e o move sobre o destino,
+     * para que um classificador nunca leia um arquivo pela metade
+     */
+    public void gravar(Path arquivo) throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO + 4 * (vieses.length + pesos.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGICA)
+                .putInt(VERSAO)
+                .putInt(extrator.getBits())
+                .putInt(setores)
+                .putInt(extrator.getNGramaMinimo())
+                .putInt(extrator.getNGramaMaximo())
+                .putFloat(acuracia)
+                .putInt(exemplos);
+        buffer.asFloatBuffer().put(vieses).put(pesos);
+        buffer.rewind();
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Escores (logits) de cada setor para as características extraídas
+     *
+     * Cada ocorrência vale 1/sqrt(quantidade), para que e-mails longos e
+     * curtos tenham escores na mesma escala.
+     */
+    public void pontuar(int[] indices, int quantidade, double[] logits) {
+        for (int s = 0; s < setores; s++) {
+            logits[s] = 0.0;
+        }
+        for (int i = 0; i < quantidade; i++) {
+            int base = indices[i] * setores;
+            for (int s = 0; s < setores; s++) {
+                logits[s] += pesos[base + s];
+            }
+        }
+        double escala = escala(quantidade);
+        for (int s = 0; s < setores; s++) {
+            logits[s] = logits[s] * escala + vieses[s];
+        }
+    }
+
+    /**
+     * Transforma os logits em probabilidades (softmax), no próprio array
+     */
+    public static void probabilidades(double[] logits) {
+        double maximo = Double.NEGATIVE_INFINITY;
+        for (double logit : logits) {
+            maximo = Math.max(maximo, logit);
+        }
+        double soma = 0.0;
+        for (int s = 0; s < logits.length; s++) {
+            logits[s] = Math.exp(logits[s] - maximo);
+            soma += logits[s];
+        }
+        for (int s = 0; s < logits.length; s++) {
+            logits[s] /= soma;
+        }
+    }
+
+    static double escala(int quantidade) {
+        return quantidade > 0 ? 1.0 / Math.sqrt(quantidade) : 0.0;
+    }
+
+    public ExtratorCaracteristicas getExtrator() {
+        return extrator;
+    }
+
+    /**
+     * Acurácia no conjunto de validação do treino (0 quando não houve validação)
+     */
+    public float getAcuracia() {
+        return acuracia;
+    }
+
+    /**
+     * Registra a acurácia de validação, gravada no cabeçalho do arquivo
+     */
+    public void setAcuracia(float acuracia) {
+        this.acuracia = acuracia;
+    }
+
+    /**
+     * Quantidade de e-mails usados no treino
+     */
+    public int getExemplos() {
+        return exemplos;
+    }
+
+    void setExemplos(int exemplos) {
+        this.exemplos = exemplos;
+    }
+
+    /**
+     * Tamanho dos pesos em memória, em bytes
+     */
+    public long getTamanhoBytes() {
+        return 4L * (vieses.length + (long) pesos.length);
+    }
+}
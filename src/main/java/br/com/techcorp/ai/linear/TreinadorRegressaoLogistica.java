@@ -0,0 +1,108 @@
+package br.com.techcorp.ai.linear;
+
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.models.SetorEmail;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Treino da regressão logística multinomial por gradiente estocástico
+ *
+ * Cada época percorre os exemplos em ordem embaralhada (semente fixa, o
+ * treino é reproduzível); para cada e-mail o erro de cada setor
+ * (probabilidade prevista menos a esperada) corrige só as linhas das
+ * características presentes, com decaimento L2 nessas mesmas linhas. A
+ * taxa de aprendizado cai com as épocas. Os escores usados no treino são os
+ * mesmos de PesosLinear.pontuar, então o modelo gravado pontua exatamente
+ * como foi treinado.
+ */
+public final class TreinadorRegressaoLogistica {
+
+    private static final long SEMENTE = 42L;
+
+    private final int epocas;
+    private final double taxa;
+    private final double l2;
+
+    public TreinadorRegressaoLogistica(int epocas, double taxa, double l2) {
+        if (epocas <= 0 || taxa <= 0.0 || l2 < 0.0) {
+            throw new IllegalArgumentException("Parâmetros de treino inválidos: épocas " + epocas + ", taxa " + taxa
+                    + ", l2 " + l2);
+        }
+        this.epocas = epocas;
+        this.taxa = taxa;
+        this.l2 = l2;
+    }
+
+    /**
+     * Exemplo já convertido em índices de características
+     */
+    public record Exemplo(int[] indices, SetorEmail setor) {
+    }
+
+    public PesosLinear treinar(ExtratorCaracteristicas extrator, List<Exemplo> exemplos) {
+        PesosLinear modelo = new PesosLinear(extrator);
+        int setores = modelo.vieses.length;
+        double[] probabilidades = new double[setores];
+        int[] ordem = new int[exemplos.size()];
+        for (int i = 0; i < ordem.length; i++) {
+            ordem[i] = i;
+        }
+        Random aleatorio = new Random(SEMENTE);
+
+        for (int epoca = 0; epoca < epocas; epoca++) {
+            embaralhar(ordem, aleatorio);
+            double taxaEpoca = taxa / (1.0 + epoca);
+
+            for (int posicao : ordem) {
+                Exemplo exemplo = exemplos.get(posicao);
+                int[] indices = exemplo.indices();
+                modelo.pontuar(indices, indices.length, probabilidades);
+                PesosLinear.probabilidades(probabilidades);
+                probabilidades[exemplo.setor().ordinal()] -= 1.0;
+
+                double escala = PesosLinear.escala(indices.length);
+                for (int indice : indices) {
+                    int base = indice * setores;
+                    for (int s = 0; s < setores; s++) {
+                        float peso = modelo.pesos[base + s];
+                        modelo.pesos[base + s] = (float) (peso - taxaEpoca * (probabilidades[s] * escala + l2 * peso));
+                    }
+                }
+                for (int s = 0; s < setores; s++) {
+                    modelo.vieses[s] -= (float) (taxaEpoca * probabilidades[s]);
+                }
+            }
+        }
+        modelo.setExemplos(exemplos.size());
+        return modelo;
+    }
+
+    /**
+     * Fração dos exemplos cujo setor mais provável é o esperado
+     */
+    public static double acuracia(PesosLinear modelo, List<Exemplo> exemplos) {
+        if (exemplos.isEmpty()) {
+            return 0.0;
+        }
+        double[] logits = ScoresSetores.novoVetor();
+        int acertos = 0;
+        for (Exemplo exemplo : exemplos) {
+            modelo.pontuar(exemplo.indices(), exemplo.indices().length, logits);
+            if (ScoresSetores.melhorSetor(logits) == exemplo.setor()) {
+                acertos++;
+            }
+        }
+        return (double) acertos / exemplos.size();
+    }
+
+    private static void embaralhar(int[] ordem, Random aleatorio) {
+        for (int i = ordem.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int troca = ordem[i];
+            ordem[i] = ordem[j];
+            ordem[j] = troca;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package br.com.techcorp.ai.metricas;
+
+import br.com.techcorp.models.SetorEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas da classificação (Micrometer, expostas em /actuator/prometheus)
+ *
+ * Todos os medidores são registrados uma única vez no construtor; no
+ * caminho da requisição só há System.nanoTime() e um record() em um
+ * medidor já resolvido, sem busca por nome, tags ou objetos temporários.
+ */
+@Component
+public class MetricasClassificacao {
+
+    /**
+     * Etapas medidas de classificarTexto
+     */
+    public enum Etapa {
+        NORMALIZACAO,
+        TOKENIZACAO,
+        CACHE,
+        SEMELHANCA,
+        PONTUACAO,
+        INFERENCIA,
+        SERIALIZACAO
+    }
+
+    /**
+     * Nível da cascata que produziu o resultado
+     */
+    public enum NivelCascata {
+        REGRAS,
+        LINEAR,
+        MODELO
+    }
+
+    /**
+     * Destino de uma classificação no controle de admissão ao modelo
+     */
+    public enum DecisaoAdmissao {
+        ADMITIDA,
+        REJEITADA,
+        DEGRADADA
+    }
+
+    private final MeterRegistry registro;
+    private final Timer[] temposEtapas;
+    private final Timer tempoTotal;
+    private final Counter acertosCache;
+    private final Counter falhasCache;
+    private final Counter quaseDuplicadosReaproveitados;
+    private final Counter quaseDuplicadosNovos;
+    private final Counter coalescidas;
+    private final Counter fallbacks;
+    private final Counter[] classificacoesPorSetor;
+    private final Counter[] classificacoesPorNivel;
+    private final Counter[] decisoesAdmissao;
+    private final Counter prazosEsgotados;
+    private final Counter desviosDisjuntor;
+    private final DistributionSummary janelasAnalisadas;
+    private final Counter janelasPuladas;
+
+    public MetricasClassificacao(MeterRegistry registro) {
+        this.registro = registro;
+        Etapa[] etapas = Etapa.values();
+        this.temposEtapas = new Timer[etapas.length];
+        for (Etapa etapa : etapas) {
+            temposEtapas[etapa.ordinal()] = Timer.builder("classificacao.etapa")
+                    .description("Duração de cada etapa da classificação")
+                    .tag("etapa", etapa.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(500))
+                    .maximumExpectedValue(Duration.ofSeconds(5))
+                    .register(registro);
+        }
+
+        this.tempoTotal = Timer.builder("classificacao.duracao")
+                .description("Duração total de classificarTexto")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registro);
+
+        this.acertosCache = Counter.builder("classificacao.cache")
+                .description("Consultas ao cache de classificações")
+                .tag("resultado", "acerto")
+                .register(registro);
+        this.falhasCache = Counter.builder("classificacao.cache")
+                .description("Consultas ao cache de classificações")
+                .tag("resultado", "falha")
+                .register(registro);
+
+        this.quaseDuplicadosReaproveitados = Counter.builder("classificacao.quase.duplicado")
+                .description("Consultas ao índice de e-mails quase idênticos")
+                .tag("resultado", "reaproveitado")
+                .register(registro);
+        this.quaseDuplicadosNovos = Counter.builder("classificacao.quase.duplicado")
+                .description("Consultas ao índice de e-mails quase idênticos")
+                .tag("resultado", "novo")
+                .register(registro);
+
+        this.coalescidas = Counter.builder("classificacao.coalescidas")
+                .description("Requisições que aguardaram a classificação de um texto idêntico já em andamento")
+                .register(registro);
+
+        this.fallbacks = Counter.builder("classificacao.fallback")
+                .description("Classificações resolvidas pelo fallback simples")
+                .register(registro);
+
+        SetorEmail[] setores = SetorEmail.values();
+        this.classificacoesPorSetor = new Counter[setores.length];
+        for (SetorEmail setor : setores) {
+            classificacoesPorSetor[setor.ordinal()] = Counter.builder("classificacao.setor")
+                    .description("Classificações por setor atribuído")
+                    .tag("setor", setor.name())
+                    .register(registro);
+        }
+
+        NivelCascata[] niveis = NivelCascata.values();
+        this.classificacoesPorNivel = new Counter[niveis.length];
+        for (NivelCascata nivel : niveis) {
+            classificacoesPorNivel[nivel.ordinal()] = Counter.builder("classificacao.cascata")
+                    .description("Classificações resolvidas em cada nível da cascata")
+                    .tag("nivel", nivel.name().toLowerCase(Locale.ROOT))
+                    .register(registro);
+        }
+
+        DecisaoAdmissao[] decisoes = DecisaoAdmissao.values();
+        this.decisoesAdmissao = new Counter[decisoes.length];
+        for (DecisaoAdmissao decisao : decisoes) {
+            decisoesAdmissao[decisao.ordinal()] = Counter.builder("classificacao.admissao")
+                    .description("Classificações admitidas no modelo, rejeitadas (429) ou degradadas para as regras")
+                    .tag("resultado", decisao.name().toLowerCase(Locale.ROOT))
+                    .register(registro);
+        }
+
+        this.prazosEsgotados = Counter.builder("classificacao.prazo.esgotado")
+                .description("Classificações do modelo abandonadas por prazo esgotado (respondidas pelas regras)")
+                .register(registro);
+        this.desviosDisjuntor = Counter.builder("classificacao.disjuntor.desviadas")
+                .description("Classificações desviadas para as regras com o disjuntor do modelo aberto")
+                .register(registro);
+
+        this.janelasAnalisadas = DistributionSummary.builder("classificacao.janelas")
+                .description("Janelas de texto analisadas por e-mail")
+                .register(registro);
+        this.janelasPuladas = Counter.builder("classificacao.janelas.puladas")
+                .description("Janelas de e-mails longos dispensadas pela parada antecipada")
+                .register(registro);
+    }
+
+    /**
+     * Métricas descartadas: um registro composto sem registros filhos não
+     * guarda nenhuma medição (aquecimento do modelo, por exemplo)
+     */
+    public static MetricasClassificacao semRegistro() {
+        return new MetricasClassificacao(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Marca o início de uma medição
+     */
+    public static long inicio() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra a duração de uma etapa iniciada em inicioNanos
+     */
+    public void registrarEtapa(Etapa etapa, long inicioNanos) {
+        temposEtapas[etapa.ordinal()].record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra a duração total de uma classificação iniciada em inicioNanos
+     */
+    public void registrarDuracao(long inicioNanos) {
+        tempoTotal.record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarCache(boolean acerto) {
+        (acerto ? acertosCache : falhasCache).increment();
+    }
+
+    public void registrarQuaseDuplicado(boolean reaproveitado) {
+        (reaproveitado ? quaseDuplicadosReaproveitados : quaseDuplicadosNovos).increment();
+    }
+
+    public void registrarCoalescida() {
+        coalescidas.increment();
+    }
+
+    public void registrarFallback() {
+        fallbacks.increment();
+    }
+
+    public void registrarNivelCascata(NivelCascata nivel) {
+        classificacoesPorNivel[nivel.ordinal()].increment();
+    }
+
+    public void registrarAdmissao(DecisaoAdmissao decisao) {
+        decisoesAdmissao[decisao.ordinal()].increment();
+    }
+
+    public void registrarPrazoEsgotado() {
+        prazosEsgotados.increment();
+    }
+
+    public void registrarDesvioDisjuntor() {
+        desviosDisjuntor.increment();
+    }
+
+    /**
+     * Registra os medidores do estado do controle de admissão, lidos a cada coleta
+     */
+    public void monitorarAdmissao(Supplier<Number> limite, Supplier<Number> emUso, Supplier<Number> esperando) {
+        Gauge.builder("classificacao.admissao.limite", limite)
+                .description("Classificações simultâneas permitidas no modelo")
+                .register(registro);
+        Gauge.builder("classificacao.admissao.em.uso", emUso)
+                .description("Classificações em andamento no modelo")
+                .register(registro);
+        Gauge.builder("classificacao.admissao.fila", esperando)
+                .description("Classificações esperando vaga no modelo")
+                .register(registro);
+    }
+
+    /**
+     * Registra quantas das janelas de um e-mail foram analisadas
+     */
+    public void registrarJanelas(int analisadas, int total) {
+        janelasAnalisadas.record(analisadas);
+        if (total > analisadas) {
+            janelasPuladas.increment(total - analisadas);
+        }
+    }
+
+    public void registrarSetor(SetorEmail setor) {
+        if (setor != null) {
+            classificacoesPorSetor[setor.ordinal()].increment();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package br.com.techcorp.ai.texto;
+
+import br.com.techcorp.models.SetorEmail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autômato de Aho-Corasick para as palavras-chave dos setores
+ *
+ * As palavras-chave de todos os setores são compiladas uma única vez
+ * em um DFA armazenado em um vetor plano de inteiros
+ * (estado * largura + classe do caractere). Uma única passada sobre o
+ * texto encontra todas as palavras, com a posição da primeira ocorrência,
+ * o que substitui as chamadas a texto.contains(palavra) por palavra e
+ * por setor.
+ *
+ * A semântica é a mesma de String.contains: a palavra pode aparecer em
+ * qualquer ponto do texto, inclusive dentro de outra palavra.
+ */
+public final class AutomatoPalavrasChave {
+
+    // Palavras distintas (a mesma palavra pode pertencer a vários setores)
+    private final String[] palavras;
+    private final int[] comprimentoPalavra;
+    private final Map<String, Integer> indicePorPalavra;
+
+    // Entradas (palavra, setor, peso) na ordem de inserção, agrupadas por setor
+    private final int[] palavraDaEntrada;
+    private final double[] pesoDaEntrada;
+    private final int[][] entradasPorSetor;
+
+    // DFA: classe de cada caractere, transições planas e saídas por estado
+    private final int[] classeDoCaractere;
+    private final int largura;
+    private final int[] transicoes;
+    private final int[] inicioSaidas;
+    private final int[] saidas;
+
+    private AutomatoPalavrasChave(Construtor construtor) {
+        this.palavras = construtor.palavras.toArray(new String[0]);
+        this.indicePorPalavra = new HashMap<>(construtor.indicePorPalavra);
+        this.comprimentoPalavra = new int[palavras.length];
+        for (int i = 0; i < palavras.length; i++) {
+            comprimentoPalavra[i] = palavras[i].length();
+        }
+
+        int quantidadeEntradas = construtor.entradaPalavra.size();
+        this.palavraDaEntrada = new int[quantidadeEntradas];
+        this.pesoDaEntrada = new double[quantidadeEntradas];
+        int[] entradasNoSetor = new int[SetorEmail.values().length];
+        for (int e = 0; e < quantidadeEntradas; e++) {
+            palavraDaEntrada[e] = construtor.entradaPalavra.get(e);
+            pesoDaEntrada[e] = construtor.entradaPeso.get(e);
+            entradasNoSetor[construtor.entradaSetor.get(e)]++;
+        }
+        this.entradasPorSetor = new int[entradasNoSetor.length][];
+        for (int s = 0; s < entradasNoSetor.length; s++) {
+            entradasPorSetor[s] = new int[entradasNoSetor[s]];
+        }
+        int[] preenchidas = new int[entradasNoSetor.length];
+        for (int e = 0; e < quantidadeEntradas; e++) {
+            int setor = construtor.entradaSetor.get(e);
+            entradasPorSetor[setor][preenchidas[setor]++] = e;
+        }
+
+        // Alfabeto reduzido: só os caracteres presentes nas palavras têm classe própria
+        char maiorCaractere = 0;
+        for (String palavra : palavras) {
+            for (int i = 0; i < palavra.length(); i++) {
+                maiorCaractere = (char) Math.max(maiorCaractere, palavra.charAt(i));
+            }
+        }
+        this.classeDoCaractere = new int[maiorCaractere + 1];
+        int classes = 1;
+        for (String palavra : palavras) {
+            for (int i = 0; i < palavra.length(); i++) {
+                char c = palavra.charAt(i);
+                if (classeDoCaractere[c] == 0) {
+                    classeDoCaractere[c] = classes++;
+                }
+            }
+        }
+        this.largura = classes;
+
+        // Trie
+        List<int[]> filhos = new ArrayList<>();
+        List<List<Integer>> terminais = new ArrayList<>();
+        filhos.add(novoEstado(largura));
+        terminais.add(new ArrayList<>());
+        for (int p = 0; p < palavras.length; p++) {
+            int estado = 0;
+            String palavra = palavras[p];
+            for (int i = 0; i < palavra.length(); i++) {
+                int classe = classeDoCaractere[palavra.charAt(i)];
+                if (filhos.get(estado)[classe] < 0) {
+                    filhos.get(estado)[classe] = filhos.size();
+                    filhos.add(novoEstado(largura));
+                    terminais.add(new ArrayList<>());
+                }
+                estado = filhos.get(estado)[classe];
+            }
+            terminais.get(estado).add(p);
+        }
+
+        // Ligações de falha em largura, completando o DFA e acumulando as saídas
+        int quantidadeEstados = filhos.size();
+        this.transicoes = new int[quantidadeEstados * largura];
+        int[] falha = new int[quantidadeEstados];
+        ArrayDeque<Integer> fila = new ArrayDeque<>();
+        for (int classe = 0; classe < largura; classe++) {
+            int filho = filhos.get(0)[classe];
+            if (filho < 0) {
+                transicoes[classe] = 0;
+            } else {
+                transicoes[classe] = filho;
+                falha[filho] = 0;
+                fila.add(filho);
+            }
+        }
+        while (!fila.isEmpty()) {
+            int estado = fila.poll();
+            terminais.get(estado).addAll(terminais.get(falha[estado]));
+            for (int classe = 0; classe < largura; classe++) {
+                int filho = filhos.get(estado)[classe];
+                if (filho < 0) {
+                    transicoes[estado * largura + classe] = transicoes[falha[estado] * largura + classe];
+                } else {
+                    transicoes[estado * largura + classe] = filho;
+                    falha[filho] = transicoes[falha[estado] * largura + classe];
+                    fila.add(filho);
+                }
+            }
+        }
+
+        this.inicioSaidas = new int[quantidadeEstados + 1];
+        int totalSaidas = 0;
+        for (int estado = 0; estado < quantidadeEstados; estado++) {
+            inicioSaidas[estado] = totalSaidas;
+            totalSaidas += terminais.get(estado).size();
+        }
+        inicioSaidas[quantidadeEstados] = totalSaidas;
+        this.saidas = new int[totalSaidas];
+        for (int estado = 0; estado < quantidadeEstados; estado++) {
+            List<Integer> terminaisEstado = terminais.get(estado);
+            for (int i = 0; i < terminaisEstado.size(); i++) {
+                saidas[inicioSaidas[estado] + i] = terminaisEstado.get(i);
+            }
+        }
+    }
+
+    private static int[] novoEstado(int largura) {
+        int[] estado = new int[largura];
+        Arrays.fill(estado, -1);
+        return estado;
+    }
+
+    public static Construtor construtor() {
+        return new Construtor();
+    }
+
+    /**
+     * Percorre o texto uma única vez e devolve todas as palavras encontradas
+     */
+    public Correspondencias buscar(CharSequence texto) {
+        Correspondencias correspondencias = new Correspondencias(palavras.length);
+        int estado = 0;
+        for (int i = 0, n = texto.length(); i < n; i++) {
+            char c = texto.charAt(i);
+            int classe = c < classeDoCaractere.length ? classeDoCaractere[c] : 0;
+            estado = transicoes[estado * largura + classe];
+            for (int k = inicioSaidas[estado]; k < inicioSaidas[estado + 1]; k++) {
+                int palavra = saidas[k];
+                correspondencias.registrar(palavra, i - comprimentoPalavra[palavra] + 1);
+            }
+        }
+        return correspondencias;
+    }
+
+    /**
+     * Índice de uma palavra no autômato, ou -1 se ela não foi cadastrada
+     */
+    public int indiceDe(String palavra) {
+        Integer indice = indicePorPalavra.get(palavra);
+        return indice != null ? indice : -1;
+    }
+
+    public String palavra(int indice) {
+        return palavras[indice];
+    }
+
+    public int getQuantidadePalavras() {
+        return palavras.length;
+    }
+
+    /**
+     * Entradas do setor na ordem em que foram cadastradas
+     */
+    public int[] entradasDoSetor(SetorEmail setor) {
+        return entradasPorSetor[setor.ordinal()];
+    }
+
+    public int palavraDaEntrada(int entrada) {
+        return palavraDaEntrada[entrada];
+    }
+
+    public double pesoDaEntrada(int entrada) {
+        return pesoDaEntrada[entrada];
+    }
+
+    /**
+     * Palavras encontradas em um texto, com a posição da primeira ocorrência
+     */
+    public static final class Correspondencias {
+
+        private final int[] primeiraPosicao;
+        private final int[] encontradas;
+        private int quantidade;
+
+        private Correspondencias(int quantidadePalavras) {
+            this.primeiraPosicao = new int[quantidadePalavras];
+            this.encontradas = new int[quantidadePalavras];
+            Arrays.fill(primeiraPosicao, -1);
+        }
+
+        private void registrar(int palavra, int posicao) {
+            if (primeiraPosicao[palavra] < 0) {
+                primeiraPosicao[palavra] = posicao;
+                encontradas[quantidade++] = palavra;
+            }
+        }
+
+        /**
+         * Equivalente a texto.contains(palavra) para uma palavra do autômato
+         */
+        public boolean contem(int palavra) {
+            return palavra >= 0 && primeiraPosicao[palavra] >= 0;
+        }
+
+        /**
+         * Posição da primeira ocorrência da palavra, ou -1 se ausente
+         */
+        public int posicao(int palavra) {
+            return primeiraPosicao[palavra];
+        }
+
+        /**
+         * Quantidade de palavras distintas encontradas
+         */
+        public int getQuantidade() {
+            return quantidade;
+        }
+
+        /**
+         * i-ésima palavra encontrada, na ordem em que terminou no texto
+         */
+        public int palavraEncontrada(int i) {
+            return encontradas[i];
+        }
+    }
+
+    /**
+     * Cadastro das palavras-chave antes da compilação do autômato
+     */
+    public static final class Construtor {
+
+        private final List<String> palavras = new ArrayList<>();
+        private final Map<String, Integer> indicePorPalavra = new HashMap<>();
+        private final List<Integer> entradaPalavra = new ArrayList<>();
+        private final List<Integer> entradaSetor = new ArrayList<>();
+        private final List<Double> entradaPeso = new ArrayList<>();
+
+        private Construtor() {
+        }
+
+        public Construtor adicionar(String palavra, SetorEmail setor, double peso) {
+            if (palavra == null || palavra.isEmpty()) {
+                throw new IllegalArgumentException("Palavra-chave vazia para o setor " + setor.name());
+            }
+            Integer indice = indicePorPalavra.get(palavra);
+            if (indice == null) {
+                indice = palavras.size();
+                palavras.add(palavra);
+                indicePorPalavra.put(palavra, indice);
+            }
+            entradaPalavra.add(indice);
+            entradaSetor.add(setor.ordinal());
+            entradaPeso.add(peso);
+            return this;
+        }
+
+        public AutomatoPalavrasChave construir() {
+            return new AutomatoPalavrasChave(this);
+        }
+    }
+}
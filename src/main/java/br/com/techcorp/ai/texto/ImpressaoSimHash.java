@@ -0,0 +1,116 @@
+package br.com.techcorp.ai.texto;
+
+import java.util.Arrays;
+
+/**
+ * Impressão SimHash de 64 bits para detectar e-mails quase idênticos
+ *
+ * Cada palavra e cada par de palavras consecutivas do texto normalizado
+ * vira um hash de 64 bits; cada bit da impressão é o voto da maioria desses
+ * hashes. Textos que compartilham quase todas as palavras e pares (o mesmo
+ * modelo de fatura ou de candidatura com outro nome) diferem em poucos
+ * bits, de modo que a distância de Hamming entre as impressões estima a
+ * semelhança. As palavras isoladas toleram a troca de um nome; os pares
+ * afastam textos com o mesmo vocabulário em outra ordem.
+ *
+ * Palavras com dígitos (números de pedido, valores, datas) são ignoradas:
+ * são justamente o que muda entre dois e-mails do mesmo modelo.
+ */
+public final class ImpressaoSimHash {
+
+    public static final int BITS = 64;
+
+    private static final long SEMENTE_PALAVRA = 0xcbf29ce484222325L;
+    private static final long PRIMO_FNV = 0x100000001b3L;
+
+    private static final ThreadLocal<int[]> VOTOS = ThreadLocal.withInitial(() -> new int[BITS]);
+
+    private ImpressaoSimHash() {
+    }
+
+    /**
+     * Calcula a impressão de um texto já normalizado por
+     * NormalizadorTexto.normalizarParaRegras (palavras separadas por um espaço)
+     */
+    public static long calcular(CharSequence textoNormalizado) {
+        int[] votos = VOTOS.get();
+        Arrays.fill(votos, 0);
+
+        long anterior = 0;
+        boolean temAnterior = false;
+        int caracteres = 0;
+        long palavra = SEMENTE_PALAVRA;
+        boolean temDigito = false;
+
+        for (int i = 0, n = textoNormalizado.length(); i <= n; i++) {
+            char c = i < n ? textoNormalizado.charAt(i) : ' ';
+            if (c != ' ') {
+                palavra = (palavra ^ c) * PRIMO_FNV;
+                temDigito |= c >= '0' && c <= '9';
+                caracteres++;
+                continue;
+            }
+
+            if (caracteres > 0 && !temDigito) {
+                long atual = misturar(palavra);
+                votar(votos, atual);
+                if (temAnterior) {
+                    votar(votos, misturar(anterior * 31 + atual));
+                }
+                anterior = atual;
+                temAnterior = true;
+            }
+            palavra = SEMENTE_PALAVRA;
+            caracteres = 0;
+            temDigito = false;
+        }
+
+        long impressao = 0;
+        for (int bit = 0; bit < BITS; bit++) {
+            if (votos[bit] > 0) {
+                impressao |= 1L << bit;
+            }
+        }
+        return impressao;
+    }
+
+    /**
+     * Quantidade de palavras de um texto normalizado
+     */
+    public static int contarPalavras(CharSequence textoNormalizado) {
+        int n = textoNormalizado.length();
+        if (n == 0) {
+            return 0;
+        }
+        int palavras = 1;
+        for (int i = 0; i < n; i++) {
+            if (textoNormalizado.charAt(i) == ' ') {
+                palavras++;
+            }
+        }
+        return palavras;
+    }
+
+    /**
+     * Quantidade de bits diferentes entre duas impressões
+     */
+    public static int distancia(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void votar(int[] votos, long hash) {
+        for (int bit = 0; bit < BITS; bit++) {
+            votos[bit] += (int) ((hash >>> bit) & 1L) * 2 - 1;
+        }
+    }
+
+    // Finalizador do MurmurHash3: espalha bem os bits de hashes próximos
+    private static long misturar(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb53a185ec4d3L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
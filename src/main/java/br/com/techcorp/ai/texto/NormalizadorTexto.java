@@ -0,0 +1,203 @@
+package br.com.techcorp.ai.texto;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Normalizador de texto em uma única passada
+ *
+ * Substitui as cadeias de toLowerCase() + replaceAll() dos classificadores.
+ * Cada caractere passa por uma tabela pré-calculada que já aplica a
+ * conversão para minúsculas, a remoção de acentos e o filtro de classes
+ * de caracteres; espaços em sequência são colapsados durante a própria
+ * passada e o resultado é escrito em um buffer reutilizado por thread.
+ *
+ * O resultado é idêntico ao das expressões regulares originais,
+ * mantidas em normalizarParaRegrasLegado() e prepararParaModeloLegado().
+ * Nos locales em que toLowerCase() tem regras especiais (turco, azeri
+ * e lituano) as versões originais continuam sendo usadas.
+ */
+public final class NormalizadorTexto {
+
+    // Marca de separador na tabela: vira um único espaço entre palavras
+    private static final char SEPARADOR = 0;
+
+    // 'İ' vira "i̇" em toLowerCase(); o ponto combinante é descartado como separador
+    private static final char I_MAIUSCULO_COM_PONTO = 'İ';
+
+    // Tabela para os classificadores por regras: [a-z0-9], sem acentos
+    private static final char[] TABELA_REGRAS = new char[Character.MAX_VALUE + 1];
+
+    // Tabela para o modelo: [a-zA-ZÀ-ÿ], acentos preservados
+    private static final char[] TABELA_MODELO = new char[Character.MAX_VALUE + 1];
+
+    // Maior buffer mantido por thread; textos maiores usam um buffer descartado ao final
+    private static final int CAPACIDADE_MAXIMA_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[1024]);
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char minuscula = Character.toLowerCase((char) c);
+
+            char semAcento = removerAcento(minuscula);
+            TABELA_REGRAS[c] = (semAcento >= 'a' && semAcento <= 'z') || (semAcento >= '0' && semAcento <= '9')
+                    ? semAcento
+                    : SEPARADOR;
+
+            TABELA_MODELO[c] = (minuscula >= 'a' && minuscula <= 'z') || (minuscula >= 'A' && minuscula <= 'Z')
+                    || (minuscula >= 'À' && minuscula <= 'ÿ')
+                    ? minuscula
+                    : SEPARADOR;
+        }
+    }
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * Normalização usada pelo classificador baseado em regras:
+     * minúsculas, sem acentos, apenas [a-z0-9] e espaços simples
+     */
+    public static String normalizarParaRegras(String texto) {
+        if (usarVersaoLegado()) {
+            return normalizarParaRegrasLegado(texto);
+        }
+        return normalizar(texto, TABELA_REGRAS, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Preparação usada pelo classificador Hugging Face:
+     * minúsculas, apenas [a-zA-ZÀ-ÿ] e espaços simples, limitada a limite caracteres
+     */
+    public static String prepararParaModelo(String texto, int limite) {
+        if (usarVersaoLegado()) {
+            return prepararParaModeloLegado(texto, limite);
+        }
+        return normalizar(texto, TABELA_MODELO, limite);
+    }
+
+    /**
+     * Um caractere pela tabela das regras: minúscula sem acento em [a-z0-9],
+     * ou 0 para separadores. Permite percorrer o texto sem criar a String
+     * normalizada (o ClassificadorLinear extrai as características assim)
+     */
+    public static char caractereParaRegras(char c) {
+        return TABELA_REGRAS[c];
+    }
+
+    private static String normalizar(String texto, char[] tabela, int limite) {
+        int tamanho = texto.length();
+        // Cada caractere gera no máximo um de saída: o espaço ocupa o lugar de um separador do texto
+        char[] buffer = buffer(Math.min(tamanho, limite));
+
+        int escritos = 0;
+        boolean separadorPendente = false;
+        for (int i = 0; i < tamanho && escritos < limite; i++) {
+            char original = texto.charAt(i);
+            char c = tabela[original];
+
+            if (c == SEPARADOR) {
+                separadorPendente = true;
+                continue;
+            }
+
+            // Espaço só é escrito entre dois caracteres válidos (equivale a \\s+ → " " seguido de trim())
+            if (separadorPendente && escritos > 0) {
+                buffer[escritos++] = ' ';
+                if (escritos == limite) {
+                    break;
+                }
+            }
+            buffer[escritos++] = c;
+            separadorPendente = false;
+
+            if (original == I_MAIUSCULO_COM_PONTO) {
+                // O ponto combinante é um separador que não ocupa lugar no texto: até um caractere a mais por 'İ'
+                separadorPendente = true;
+                int capacidade = (int) Math.min(2L * tamanho, limite);
+                if (buffer.length < capacidade) {
+                    buffer = Arrays.copyOf(buffer, capacidade);
+                }
+            }
+        }
+
+        return new String(buffer, 0, escritos);
+    }
+
+    /**
+     * Buffer da thread para até CAPACIDADE_MAXIMA_BUFFER caracteres; acima
+     * disso um buffer só para este texto, para que um e-mail enorme não
+     * fique retido em cada thread que o normalizou
+     */
+    private static char[] buffer(int capacidade) {
+        if (capacidade > CAPACIDADE_MAXIMA_BUFFER) {
+            return new char[capacidade];
+        }
+        char[] buffer = BUFFER.get();
+        if (buffer.length < capacidade) {
+            buffer = new char[Math.min(Math.max(capacidade, buffer.length * 2), CAPACIDADE_MAXIMA_BUFFER)];
+            BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    private static char removerAcento(char c) {
+        switch (c) {
+            case 'á': case 'à': case 'â': case 'ã': case 'ä':
+                return 'a';
+            case 'é': case 'è': case 'ê': case 'ë':
+                return 'e';
+            case 'í': case 'ì': case 'î': case 'ï':
+                return 'i';
+            case 'ó': case 'ò': case 'ô': case 'õ': case 'ö':
+                return 'o';
+            case 'ú': case 'ù': case 'û': case 'ü':
+                return 'u';
+            case 'ç':
+                return 'c';
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * Locales com regras especiais de minúsculas não cabem na tabela por caractere
+     */
+    private static boolean usarVersaoLegado() {
+        String idioma = Locale.getDefault().getLanguage();
+        return "tr".equals(idioma) || "az".equals(idioma) || "lt".equals(idioma);
+    }
+
+    /**
+     * Versão original com expressões regulares (referência de comportamento)
+     */
+    static String normalizarParaRegrasLegado(String texto) {
+        return texto.toLowerCase()
+                .replaceAll("[áàâãä]", "a")
+                .replaceAll("[éèêë]", "e")
+                .replaceAll("[íìîï]", "i")
+                .replaceAll("[óòôõö]", "o")
+                .replaceAll("[úùûü]", "u")
+                .replaceAll("[ç]", "c")
+                .replaceAll("[^a-z0-9\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    /**
+     * Versão original com expressões regulares (referência de comportamento)
+     */
+    static String prepararParaModeloLegado(String texto, int limite) {
+        String textoNormalizado = texto.toLowerCase()
+                .replaceAll("[^a-zA-ZÀ-ÿ\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+
+        if (textoNormalizado.length() > limite) {
+            textoNormalizado = textoNormalizado.substring(0, limite);
+        }
+
+        return textoNormalizado;
+    }
+}
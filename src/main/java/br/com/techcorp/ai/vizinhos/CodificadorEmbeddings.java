@@ -0,0 +1,29 @@
+package br.com.techcorp.ai.vizinhos;
+
+/**
+ * Transforma um texto em um embedding de dimensão fixa
+ *
+ * Os vetores gravados no IndiceHnsw só são comparáveis entre si quando
+ * vêm do mesmo codificador: o nome e a dimensão ficam no cabeçalho do
+ * índice, que é recriado quando o codificador muda.
+ */
+public interface CodificadorEmbeddings extends AutoCloseable {
+
+    /**
+     * Identificação do codificador (modelo ou parâmetros do hashing)
+     */
+    String getNome();
+
+    int getDimensao();
+
+    /**
+     * Embedding do texto, com norma 1
+     *
+     * @throws Exception se a inferência do modelo falhar
+     */
+    float[] codificar(String texto) throws Exception;
+
+    @Override
+    default void close() {
+    }
+}
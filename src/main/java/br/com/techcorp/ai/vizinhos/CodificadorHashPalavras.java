@@ -0,0 +1,116 @@
+package br.com.techcorp.ai.vizinhos;
+
+import br.com.techcorp.ai.texto.NormalizadorTexto;
+
+import java.util.Set;
+
+/**
+ * Embedding por hashing de palavras, usado quando o modelo de embeddings
+ * não está disponível
+ *
+ * Cada palavra e cada par de palavras consecutivas do texto normalizado
+ * soma +1 ou -1 (pelo sinal do hash) em uma posição do vetor escolhida
+ * pelo hash. A similaridade do cosseno entre dois vetores aproxima então
+ * a sobreposição de vocabulário dos dois textos. Palavras com dígitos são
+ * ignoradas, como na ImpressaoSimHash: números de pedido e valores não
+ * dizem nada sobre o setor; palavras curtas e saudações também, porque
+ * aparecem em e-mails de todos os setores.
+ *
+ * Não capta sinônimos nem paráfrases: só é útil com muitos exemplos
+ * rotulados, e por isso o modelo de embeddings é o caminho preferido.
+ */
+public class CodificadorHashPalavras implements CodificadorEmbeddings {
+
+    private static final long SEMENTE_PALAVRA = 0xcbf29ce484222325L;
+    private static final long PRIMO_FNV = 0x100000001b3L;
+
+    // Só o início de cada palavra entra no hash: "fatura", "faturas" e "faturamento" se encontram
+    private static final int PREFIXO = 6;
+
+    // Palavras curtas e muito frequentes, presentes em e-mails de todos os setores (já normalizadas)
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "ola", "bom", "boa", "dia", "tarde", "noite", "prezado", "prezada", "prezados", "caro", "cara",
+            "para", "pela", "pelo", "pelos", "pelas", "com", "sem", "sobre", "entre", "ate", "apos", "desde",
+            "que", "uma", "uns", "umas", "como", "mais", "menos", "muito", "muita", "nao", "sim", "ainda",
+            "este", "esta", "esse", "essa", "isso", "isto", "aquele", "aquela", "seu", "sua", "seus", "suas",
+            "meu", "minha", "meus", "minhas", "nosso", "nossa", "nossos", "nossas", "voces", "voce", "eles",
+            "elas", "ele", "ela", "foi", "ser", "sao", "estou", "estamos", "tem", "temos", "ter",
+            "pode", "podem", "poderia", "gostaria", "favor", "obrigado", "obrigada", "atenciosamente",
+            "abraco", "abracos", "segue", "seguem", "quando", "onde", "qual", "quais", "tambem", "ja", "so");
+
+    private final int dimensao;
+
+    public CodificadorHashPalavras(int dimensao) {
+        if (dimensao <= 0) {
+            throw new IllegalArgumentException("dimensaoHash deve ser positiva: " + dimensao);
+        }
+        this.dimensao = dimensao;
+    }
+
+    @Override
+    public String getNome() {
+        return "HashPalavras-" + dimensao;
+    }
+
+    @Override
+    public int getDimensao() {
+        return dimensao;
+    }
+
+    @Override
+    public float[] codificar(String texto) {
+        float[] vetor = new float[dimensao];
+        String normalizado = NormalizadorTexto.normalizarParaRegras(texto == null ? "" : texto);
+
+        long anterior = 0;
+        boolean temAnterior = false;
+        int caracteres = 0;
+        long palavra = SEMENTE_PALAVRA;
+        boolean temDigito = false;
+
+        int inicio = 0;
+        for (int i = 0, n = normalizado.length(); i <= n; i++) {
+            char c = i < n ? normalizado.charAt(i) : ' ';
+            if (c != ' ') {
+                if (caracteres < PREFIXO) {
+                    palavra = (palavra ^ c) * PRIMO_FNV;
+                }
+                temDigito |= c >= '0' && c <= '9';
+                caracteres++;
+                continue;
+            }
+
+            if (caracteres > 2 && !temDigito && !PALAVRAS_VAZIAS.contains(normalizado.substring(inicio, i))) {
+                long atual = misturar(palavra);
+                acumular(vetor, atual);
+                if (temAnterior) {
+                    acumular(vetor, misturar(anterior * 31 + atual));
+                }
+                anterior = atual;
+                temAnterior = true;
+            }
+            palavra = SEMENTE_PALAVRA;
+            caracteres = 0;
+            temDigito = false;
+            inicio = i + 1;
+        }
+
+        ProdutoEscalar.normalizar(vetor);
+        return vetor;
+    }
+
+    private void acumular(float[] vetor, long hash) {
+        int posicao = (int) Long.remainderUnsigned(hash >>> 1, dimensao);
+        vetor[posicao] += (hash & 1L) == 0 ? 1f : -1f;
+    }
+
+    // Finalizador do MurmurHash3: espalha bem os bits de hashes próximos
+    private static long misturar(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb53a185ec4d3L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
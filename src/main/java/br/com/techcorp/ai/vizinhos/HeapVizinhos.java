@@ -0,0 +1,85 @@
+package br.com.techcorp.ai.vizinhos;
+
+import java.util.Arrays;
+
+/**
+ * Heap binário de mínimo sobre pares (nó, chave) em vetores primitivos
+ *
+ * Reutilizado entre buscas (uma instância por thread), sem objetos por
+ * elemento. Para um heap de máximo basta inserir a chave negada.
+ */
+final class HeapVizinhos {
+
+    private int[] nos;
+    private float[] chaves;
+    private int tamanho;
+
+    HeapVizinhos(int capacidadeInicial) {
+        this.nos = new int[Math.max(4, capacidadeInicial)];
+        this.chaves = new float[nos.length];
+    }
+
+    void limpar() {
+        tamanho = 0;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    boolean vazio() {
+        return tamanho == 0;
+    }
+
+    int topoNo() {
+        return nos[0];
+    }
+
+    float topoChave() {
+        return chaves[0];
+    }
+
+    void adicionar(int no, float chave) {
+        if (tamanho == nos.length) {
+            nos = Arrays.copyOf(nos, tamanho * 2);
+            chaves = Arrays.copyOf(chaves, tamanho * 2);
+        }
+        int i = tamanho++;
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (chaves[pai] <= chave) {
+                break;
+            }
+            nos[i] = nos[pai];
+            chaves[i] = chaves[pai];
+            i = pai;
+        }
+        nos[i] = no;
+        chaves[i] = chave;
+    }
+
+    void removerTopo() {
+        int ultimo = --tamanho;
+        if (ultimo == 0) {
+            return;
+        }
+        int no = nos[ultimo];
+        float chave = chaves[ultimo];
+        int i = 0;
+        int metade = ultimo >>> 1;
+        while (i < metade) {
+            int filho = 2 * i + 1;
+            if (filho + 1 < ultimo && chaves[filho + 1] < chaves[filho]) {
+                filho++;
+            }
+            if (chave <= chaves[filho]) {
+                break;
+            }
+            nos[i] = nos[filho];
+            chaves[i] = chaves[filho];
+            i = filho;
+        }
+        nos[i] = no;
+        chaves[i] = chave;
+    }
+}
@@ -0,0 +1,734 @@
+package br.com.techcorp.ai.vizinhos;
+
+import br.com.techcorp.config.PropriedadesVizinhos;
+import br.com.techcorp.models.SetorEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice HNSW (Hierarchical Navigable Small World) de e-mails rotulados
+ *
+ * Cada exemplo é um embedding de norma 1 com o seu setor; a busca devolve
+ * os exemplos de maior similaridade do cosseno visitando só uma pequena
+ * parte do índice. Os nós formam grafos de vizinhança em vários níveis:
+ * todos estão no nível 0 e cada nível acima guarda uma fração 1/m do
+ * anterior. A busca desce gulosamente pelos níveis superiores até a região
+ * da consulta e faz uma busca em largura ef no nível 0.
+ *
+ * Vetores e grafo do nível 0 ficam em arquivos mapeados (vetores.dat e
+ * grafo.dat no diretório configurado), fora do heap; só as listas dos
+ * níveis superiores, com cerca de 1/m dos nós, ficam no heap e são
+ * refeitas a partir dos arquivos na abertura. Inserir um exemplo liga o
+ * novo nó aos vizinhos existentes, sem reconstruir o índice.
+ *
+ * Buscas concorrentes compartilham a trava de leitura; inserções usam a
+ * de escrita. O diretório é de uso exclusivo de um processo (indice.lock).
+ */
+public class IndiceHnsw implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceHnsw.class);
+
+    private static final int MAGICO_VETORES = 0x564b4e4e;
+    private static final int MAGICO_GRAFO = 0x474b4e4e;
+
+    // Cabeçalho de vetores.dat: dimensão e impressão do nome do codificador
+    private static final int POS_DIMENSAO = RegistrosMapeados.POS_LIVRE;
+    private static final int POS_CODIFICADOR = RegistrosMapeados.POS_LIVRE + 8;
+
+    // Registro de vetores.dat: setor (ordinal) seguido dos floats
+    private static final int POS_SETOR = 0;
+    private static final int POS_VETOR = 4;
+
+    // Registro de grafo.dat: nível do nó, quantidade de vizinhos no nível 0 e os vizinhos
+    private static final int POS_NIVEL = 0;
+    private static final int POS_QUANTIDADE_VIZINHOS = 4;
+    private static final int POS_VIZINHOS = 8;
+
+    private static final int MAXIMO_NIVEIS = 16;
+
+    private static final SetorEmail[] SETORES = SetorEmail.values();
+
+    private final Path diretorio;
+    private final FileChannel canalTrava;
+    private final FileLock trava;
+
+    private final RegistrosMapeados vetores;
+    private final RegistrosMapeados grafo;
+
+    private final String codificador;
+    private final int dimensao;
+    private final int m;
+    private final int mNivel0;
+    private final int efConstrucao;
+    private final int efBusca;
+    private final double multiplicadorNivel;
+
+    // Por nó com nível > 0: [nível - 1] -> {quantidade, vizinhos...}; null para os demais
+    private int[][][] superiores = new int[1024][][];
+    private int pontoEntrada = -1;
+    private int nivelMaximo = -1;
+    private volatile int quantidade;
+    private volatile boolean aberto = true;
+
+    private final ReentrantReadWriteLock travaIndice = new ReentrantReadWriteLock();
+    private final ThreadLocal<Rascunho> rascunhos;
+
+    private final LongAdder buscas = new LongAdder();
+    private final LongAdder insercoes = new LongAdder();
+
+    /**
+     * Vizinho encontrado por uma busca
+     */
+    public record Vizinho(int id, SetorEmail setor, float similaridade) {
+    }
+
+    private IndiceHnsw(Path diretorio, FileChannel canalTrava, FileLock trava, RegistrosMapeados vetores,
+            RegistrosMapeados grafo, String codificador, int dimensao, PropriedadesVizinhos.Hnsw configuracao) {
+        this.diretorio = diretorio;
+        this.canalTrava = canalTrava;
+        this.trava = trava;
+        this.vetores = vetores;
+        this.grafo = grafo;
+        this.codificador = codificador;
+        this.dimensao = dimensao;
+        this.m = configuracao.getM();
+        this.mNivel0 = 2 * m;
+        this.efConstrucao = Math.max(configuracao.getEfConstrucao(), mNivel0);
+        this.efBusca = configuracao.getEfBusca();
+        this.multiplicadorNivel = 1.0 / Math.log(m);
+        this.rascunhos = ThreadLocal.withInitial(() -> new Rascunho(dimensao, efConstrucao));
+    }
+
+    /**
+     * Abre o índice do diretório configurado para o codificador informado
+     *
+     * Vetores gravados por outro codificador (outro nome ou dimensão) não são
+     * comparáveis com os novos: nesse caso os arquivos são descartados e o
+     * índice começa vazio. Um grafo gravado com outro m é refeito a partir
+     * dos vetores.
+     *
+     * @throws IOException se o diretório estiver em uso por outro processo
+     */
+    public static IndiceHnsw abrir(PropriedadesVizinhos propriedades, CodificadorEmbeddings codificador)
+            throws IOException {
+        PropriedadesVizinhos.Hnsw configuracao = propriedades.getHnsw();
+        if (configuracao.getM() < 2) {
+            throw new IllegalArgumentException("ai.vizinhos.hnsw.m deve ser pelo menos 2: " + configuracao.getM());
+        }
+
+        Path diretorio = Path.of(propriedades.getDiretorio());
+        Files.createDirectories(diretorio);
+        FileChannel canalTrava = FileChannel.open(diretorio.resolve("indice.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock trava = travar(canalTrava);
+        if (trava == null) {
+            canalTrava.close();
+            throw new IOException("Diretório do índice em uso por outro processo: " + diretorio.toAbsolutePath());
+        }
+
+        RegistrosMapeados vetores = null;
+        RegistrosMapeados grafo = null;
+        try {
+            long tamanhoSegmento = propriedades.getTamanhoSegmentoMb() * 1024L * 1024L;
+            int dimensao = codificador.getDimensao();
+            long impressao = impressao(codificador.getNome());
+
+            Path arquivoVetores = diretorio.resolve("vetores.dat");
+            Path arquivoGrafo = diretorio.resolve("grafo.dat");
+            int tamanhoVetor = POS_VETOR + dimensao * Float.BYTES;
+            int tamanhoNo = POS_VIZINHOS + 2 * configuracao.getM() * Integer.BYTES;
+
+            vetores = abrirOuRecriar(arquivoVetores, MAGICO_VETORES, tamanhoVetor, tamanhoSegmento);
+            if (vetores.getQuantidade() > 0 && (vetores.lerInt(POS_DIMENSAO) != dimensao
+                    || vetores.lerLong(POS_CODIFICADOR) != impressao)) {
+                logger.warn("⚠️ Índice de vizinhos gravado por outro codificador, recriando: {}",
+                        diretorio.toAbsolutePath());
+                vetores.close();
+                Files.deleteIfExists(arquivoVetores);
+                Files.deleteIfExists(arquivoGrafo);
+                vetores = RegistrosMapeados.abrir(arquivoVetores, MAGICO_VETORES, tamanhoVetor, tamanhoSegmento);
+            }
+            vetores.gravarInt(POS_DIMENSAO, dimensao);
+            vetores.gravarLong(POS_CODIFICADOR, impressao);
+
+            grafo = abrirOuRecriar(arquivoGrafo, MAGICO_GRAFO, tamanhoNo, tamanhoSegmento);
+
+            IndiceHnsw indice = new IndiceHnsw(diretorio, canalTrava, trava, vetores, grafo,
+                    codificador.getNome(), dimensao, configuracao);
+            indice.reabrir();
+            return indice;
+        } catch (IOException | RuntimeException e) {
+            if (grafo != null) {
+                grafo.close();
+            }
+            if (vetores != null) {
+                vetores.close();
+            }
+            trava.release();
+            canalTrava.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Trava exclusiva do diretório, ou null se outro processo (ou outra
+     * instância nesta JVM, que o tryLock relata com exceção) já a tem
+     */
+    private static FileLock travar(FileChannel canal) throws IOException {
+        try {
+            return canal.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static RegistrosMapeados abrirOuRecriar(Path arquivo, int magico, int tamanhoRegistro,
+            long tamanhoSegmento) throws IOException {
+        try {
+            return RegistrosMapeados.abrir(arquivo, magico, tamanhoRegistro, tamanhoSegmento);
+        } catch (IOException e) {
+            logger.warn("⚠️ {}, recriando", e.getMessage());
+            Files.deleteIfExists(arquivo);
+            return RegistrosMapeados.abrir(arquivo, magico, tamanhoRegistro, tamanhoSegmento);
+        }
+    }
+
+    /**
+     * Refaz os níveis superiores a partir dos níveis gravados no grafo e liga
+     * os nós cujo vetor foi gravado mas cuja inserção no grafo não terminou
+     */
+    private void reabrir() throws IOException {
+        int totalVetores = vetores.getQuantidade();
+        int totalGrafo = Math.min(grafo.getQuantidade(), totalVetores);
+        garantirSuperiores(totalVetores);
+
+        float[] vetor = new float[dimensao];
+        for (int no = 0; no < totalGrafo; no++) {
+            int nivel = nivel(no);
+            if (nivel > 0 || pontoEntrada < 0) {
+                alocarSuperiores(no, nivel);
+                lerVetor(no, vetor);
+                ligar(no, vetor, nivel, 1);
+            }
+        }
+
+        for (int no = totalGrafo; no < totalVetores; no++) {
+            lerVetor(no, vetor);
+            inserirNoGrafo(no, vetor);
+        }
+        if (totalGrafo < totalVetores) {
+            logger.info("🕸️ {} vetores religados ao grafo do índice de vizinhos", totalVetores - totalGrafo);
+        }
+        quantidade = totalVetores;
+    }
+
+    /**
+     * Acrescenta um exemplo rotulado e o liga aos vizinhos existentes
+     *
+     * @param vetor Embedding do exemplo (normalizado aqui, se ainda não estiver)
+     * @return Identificador do exemplo no índice
+     */
+    public int adicionar(float[] vetor, SetorEmail setor) throws IOException {
+        if (vetor.length != dimensao) {
+            throw new IllegalArgumentException("Dimensão " + vetor.length + " diferente da do índice (" + dimensao + ")");
+        }
+        ProdutoEscalar.normalizar(vetor);
+
+        travaIndice.writeLock().lock();
+        try {
+            if (!aberto) {
+                throw new IOException("Índice de vizinhos fechado");
+            }
+            int no = vetores.getQuantidade();
+            vetores.garantirCapacidade(no + 1);
+            ByteBuffer segmento = vetores.segmento(no);
+            int posicao = vetores.posicao(no);
+            segmento.putInt(posicao + POS_SETOR, setor.ordinal());
+            for (int i = 0; i < dimensao; i++) {
+                segmento.putFloat(posicao + POS_VETOR + i * Float.BYTES, vetor[i]);
+            }
+            vetores.setQuantidade(no + 1);
+
+            garantirSuperiores(no + 1);
+            inserirNoGrafo(no, vetor);
+            quantidade = no + 1;
+            insercoes.increment();
+            return no;
+        } finally {
+            travaIndice.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Os k exemplos mais parecidos com a consulta, do mais para o menos parecido
+     *
+     * @param consulta Embedding de norma 1, da mesma dimensão do índice
+     */
+    public Vizinho[] buscar(float[] consulta, int k) {
+        travaIndice.readLock().lock();
+        try {
+            if (!aberto || pontoEntrada < 0 || k <= 0) {
+                return new Vizinho[0];
+            }
+            buscas.increment();
+            Rascunho rascunho = rascunhos.get();
+            HeapVizinhos resultados = buscarAPartirDoTopo(consulta, Math.max(efBusca, k), rascunho);
+
+            // O heap de resultados tem o pior no topo: os k melhores são os últimos a sair
+            int total = resultados.tamanho();
+            Vizinho[] vizinhos = new Vizinho[Math.min(k, total)];
+            for (int i = total - 1; i >= 0; i--) {
+                if (i < vizinhos.length) {
+                    int no = resultados.topoNo();
+                    vizinhos[i] = new Vizinho(no, setor(no), resultados.topoChave());
+                }
+                resultados.removerTopo();
+            }
+            return vizinhos;
+        } finally {
+            travaIndice.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cópia do embedding gravado para o exemplo
+     */
+    public float[] vetor(int id) {
+        travaIndice.readLock().lock();
+        try {
+            float[] vetor = new float[dimensao];
+            lerVetor(id, vetor);
+            return vetor;
+        } finally {
+            travaIndice.readLock().unlock();
+        }
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public int getDimensao() {
+        return dimensao;
+    }
+
+    // --- Busca ---
+
+    private HeapVizinhos buscarAPartirDoTopo(float[] consulta, int ef, Rascunho rascunho) {
+        int atual = pontoEntrada;
+        float similaridadeAtual = similaridade(consulta, atual);
+        for (int nivel = nivelMaximo; nivel > 0; nivel--) {
+            atual = descerGuloso(consulta, atual, nivel);
+            similaridadeAtual = similaridade(consulta, atual);
+        }
+        return buscarNivel(consulta, atual, similaridadeAtual, ef, 0, rascunho);
+    }
+
+    /**
+     * Segue para o vizinho mais parecido enquanto houver melhora
+     */
+    private int descerGuloso(float[] consulta, int entrada, int nivel) {
+        int atual = entrada;
+        float melhor = similaridade(consulta, atual);
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            int vizinhos = quantidadeVizinhos(atual, nivel);
+            for (int i = 0; i < vizinhos; i++) {
+                int candidato = vizinho(atual, nivel, i);
+                float s = similaridade(consulta, candidato);
+                if (s > melhor) {
+                    melhor = s;
+                    atual = candidato;
+                    mudou = true;
+                }
+            }
+        }
+        return atual;
+    }
+
+    /**
+     * Busca em largura ef em um nível; o heap devolvido tem os ef nós mais
+     * parecidos, com o menos parecido no topo
+     */
+    private HeapVizinhos buscarNivel(float[] consulta, int entrada, float similaridadeEntrada, int ef, int nivel,
+            Rascunho rascunho) {
+        rascunho.novaVisita(quantidadeNos());
+        HeapVizinhos candidatos = rascunho.candidatos;
+        HeapVizinhos resultados = rascunho.resultados;
+        candidatos.limpar();
+        resultados.limpar();
+
+        rascunho.visitar(entrada);
+        // candidatos é um heap de máximo: a chave é a similaridade negada
+        candidatos.adicionar(entrada, -similaridadeEntrada);
+        resultados.adicionar(entrada, similaridadeEntrada);
+
+        while (!candidatos.vazio()) {
+            int atual = candidatos.topoNo();
+            float similaridadeAtual = -candidatos.topoChave();
+            if (resultados.tamanho() >= ef && similaridadeAtual < resultados.topoChave()) {
+                break;
+            }
+            candidatos.removerTopo();
+
+            int vizinhos = quantidadeVizinhos(atual, nivel);
+            for (int i = 0; i < vizinhos; i++) {
+                int vizinho = vizinho(atual, nivel, i);
+                if (!rascunho.visitar(vizinho)) {
+                    continue;
+                }
+                float s = similaridade(consulta, vizinho);
+                if (resultados.tamanho() < ef || s > resultados.topoChave()) {
+                    candidatos.adicionar(vizinho, -s);
+                    resultados.adicionar(vizinho, s);
+                    if (resultados.tamanho() > ef) {
+                        resultados.removerTopo();
+                    }
+                }
+            }
+        }
+        return resultados;
+    }
+
+    // --- Inserção ---
+
+    private void inserirNoGrafo(int no, float[] vetor) throws IOException {
+        int nivel = sortearNivel();
+        grafo.garantirCapacidade(no + 1);
+        ByteBuffer segmento = grafo.segmento(no);
+        int posicao = grafo.posicao(no);
+        segmento.putInt(posicao + POS_NIVEL, nivel);
+        segmento.putInt(posicao + POS_QUANTIDADE_VIZINHOS, 0);
+        alocarSuperiores(no, nivel);
+
+        ligar(no, vetor, nivel, 0);
+        grafo.setQuantidade(no + 1);
+    }
+
+    /**
+     * Liga o nó aos vizinhos nos níveis de nivelMinimo até o seu nível
+     * (na reabertura o nível 0 já está gravado e só os superiores são refeitos)
+     */
+    private void ligar(int no, float[] vetor, int nivel, int nivelMinimo) {
+        if (pontoEntrada < 0) {
+            pontoEntrada = no;
+            nivelMaximo = nivel;
+            return;
+        }
+
+        Rascunho rascunho = rascunhos.get();
+        int atual = pontoEntrada;
+        for (int l = nivelMaximo; l > nivel; l--) {
+            atual = descerGuloso(vetor, atual, l);
+        }
+        float similaridadeAtual = similaridade(vetor, atual);
+
+        for (int l = Math.min(nivel, nivelMaximo); l >= nivelMinimo; l--) {
+            HeapVizinhos resultados = buscarNivel(vetor, atual, similaridadeAtual, efConstrucao, l, rascunho);
+            int total = resultados.tamanho();
+            int[] ids = new int[total];
+            float[] similaridades = new float[total];
+            for (int i = total - 1; i >= 0; i--) {
+                ids[i] = resultados.topoNo();
+                similaridades[i] = resultados.topoChave();
+                resultados.removerTopo();
+            }
+            atual = ids[0];
+            similaridadeAtual = similaridades[0];
+
+            int escolhidos = selecionarVizinhos(ids, similaridades, total, limiteVizinhos(l), rascunho);
+            definirVizinhos(no, l, ids, escolhidos);
+            for (int i = 0; i < escolhidos; i++) {
+                conectar(ids[i], no, similaridades[i], l, rascunho);
+            }
+        }
+
+        if (nivel > nivelMaximo) {
+            pontoEntrada = no;
+            nivelMaximo = nivel;
+        }
+    }
+
+    /**
+     * Acrescenta o novo nó à lista do vizinho; com a lista cheia, ela é
+     * refeita pela heurística de seleção entre os vizinhos atuais e o novo
+     */
+    private void conectar(int no, int novo, float similaridadeNovo, int nivel, Rascunho rascunho) {
+        int limite = limiteVizinhos(nivel);
+        int atuais = quantidadeVizinhos(no, nivel);
+        if (atuais < limite) {
+            gravarVizinho(no, nivel, atuais, novo);
+            gravarQuantidadeVizinhos(no, nivel, atuais + 1);
+            return;
+        }
+
+        float[] vetorNo = rascunho.vetorAuxiliar;
+        lerVetor(no, vetorNo);
+        int[] ids = new int[atuais + 1];
+        float[] similaridades = new float[atuais + 1];
+        for (int i = 0; i < atuais; i++) {
+            ids[i] = vizinho(no, nivel, i);
+            similaridades[i] = similaridade(vetorNo, ids[i]);
+        }
+        ids[atuais] = novo;
+        similaridades[atuais] = similaridadeNovo;
+        ordenarDecrescente(ids, similaridades);
+
+        int escolhidos = selecionarVizinhos(ids, similaridades, ids.length, limite, rascunho);
+        definirVizinhos(no, nivel, ids, escolhidos);
+    }
+
+    /**
+     * Heurística de seleção do HNSW: um candidato só entra se estiver mais
+     * perto da base do que de todos os já escolhidos, o que mantém arestas
+     * em direções diferentes; as vagas restantes ficam com os descartados
+     * mais parecidos. Os escolhidos vão para o início de ids/similaridades,
+     * que já chegam em ordem decrescente de similaridade.
+     *
+     * @return Quantidade de escolhidos
+     */
+    private int selecionarVizinhos(int[] ids, float[] similaridades, int total, int limite, Rascunho rascunho) {
+        if (total <= limite) {
+            return total;
+        }
+        float[] vetorCandidato = rascunho.vetorCandidato;
+        int[] descartados = new int[total];
+        float[] similaridadesDescartados = new float[total];
+        int quantidadeDescartados = 0;
+        int escolhidos = 0;
+
+        for (int i = 0; i < total && escolhidos < limite; i++) {
+            int candidato = ids[i];
+            float similaridadeCandidato = similaridades[i];
+            lerVetor(candidato, vetorCandidato);
+
+            boolean manter = true;
+            for (int j = 0; j < escolhidos; j++) {
+                if (similaridade(vetorCandidato, ids[j]) > similaridadeCandidato) {
+                    manter = false;
+                    break;
+                }
+            }
+            if (manter) {
+                ids[escolhidos] = candidato;
+                similaridades[escolhidos] = similaridadeCandidato;
+                escolhidos++;
+            } else {
+                descartados[quantidadeDescartados] = candidato;
+                similaridadesDescartados[quantidadeDescartados] = similaridadeCandidato;
+                quantidadeDescartados++;
+            }
+        }
+
+        for (int i = 0; i < quantidadeDescartados && escolhidos < limite; i++) {
+            ids[escolhidos] = descartados[i];
+            similaridades[escolhidos] = similaridadesDescartados[i];
+            escolhidos++;
+        }
+        return escolhidos;
+    }
+
+    private static void ordenarDecrescente(int[] ids, float[] similaridades) {
+        for (int i = 1; i < ids.length; i++) {
+            int id = ids[i];
+            float similaridade = similaridades[i];
+            int j = i - 1;
+            while (j >= 0 && similaridades[j] < similaridade) {
+                ids[j + 1] = ids[j];
+                similaridades[j + 1] = similaridades[j];
+                j--;
+            }
+            ids[j + 1] = id;
+            similaridades[j + 1] = similaridade;
+        }
+    }
+
+    private int sortearNivel() {
+        double sorteio = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return Math.min((int) (-Math.log(sorteio) * multiplicadorNivel), MAXIMO_NIVEIS - 1);
+    }
+
+    private int limiteVizinhos(int nivel) {
+        return nivel == 0 ? mNivel0 : m;
+    }
+
+    // --- Acesso aos arquivos e às listas ---
+
+    private float similaridade(float[] consulta, int no) {
+        return ProdutoEscalar.calcular(consulta, vetores.segmento(no), vetores.posicao(no) + POS_VETOR);
+    }
+
+    private void lerVetor(int no, float[] destino) {
+        ByteBuffer segmento = vetores.segmento(no);
+        int posicao = vetores.posicao(no) + POS_VETOR;
+        for (int i = 0; i < dimensao; i++) {
+            destino[i] = segmento.getFloat(posicao + i * Float.BYTES);
+        }
+    }
+
+    private SetorEmail setor(int no) {
+        return SETORES[vetores.segmento(no).getInt(vetores.posicao(no) + POS_SETOR)];
+    }
+
+    private int nivel(int no) {
+        return grafo.segmento(no).getInt(grafo.posicao(no) + POS_NIVEL);
+    }
+
+    private int quantidadeNos() {
+        return vetores.getQuantidade();
+    }
+
+    private int quantidadeVizinhos(int no, int nivel) {
+        if (nivel == 0) {
+            return grafo.segmento(no).getInt(grafo.posicao(no) + POS_QUANTIDADE_VIZINHOS);
+        }
+        return superiores[no][nivel - 1][0];
+    }
+
+    private int vizinho(int no, int nivel, int i) {
+        if (nivel == 0) {
+            return grafo.segmento(no).getInt(grafo.posicao(no) + POS_VIZINHOS + i * Integer.BYTES);
+        }
+        return superiores[no][nivel - 1][1 + i];
+    }
+
+    private void gravarVizinho(int no, int nivel, int i, int vizinho) {
+        if (nivel == 0) {
+            grafo.segmento(no).putInt(grafo.posicao(no) + POS_VIZINHOS + i * Integer.BYTES, vizinho);
+        } else {
+            superiores[no][nivel - 1][1 + i] = vizinho;
+        }
+    }
+
+    private void gravarQuantidadeVizinhos(int no, int nivel, int quantidadeVizinhos) {
+        if (nivel == 0) {
+            grafo.segmento(no).putInt(grafo.posicao(no) + POS_QUANTIDADE_VIZINHOS, quantidadeVizinhos);
+        } else {
+            superiores[no][nivel - 1][0] = quantidadeVizinhos;
+        }
+    }
+
+    private void definirVizinhos(int no, int nivel, int[] ids, int quantidadeVizinhos) {
+        for (int i = 0; i < quantidadeVizinhos; i++) {
+            gravarVizinho(no, nivel, i, ids[i]);
+        }
+        gravarQuantidadeVizinhos(no, nivel, quantidadeVizinhos);
+    }
+
+    private void garantirSuperiores(int nos) {
+        if (nos > superiores.length) {
+            superiores = Arrays.copyOf(superiores, Math.max(nos, superiores.length * 2));
+        }
+    }
+
+    private void alocarSuperiores(int no, int nivel) {
+        superiores[no] = nivel > 0 ? new int[nivel][m + 1] : null;
+    }
+
+    private static long impressao(String nome) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : nome.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ b) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("exemplos", quantidade);
+        estatisticas.put("codificador", codificador);
+        estatisticas.put("dimensao", dimensao);
+        estatisticas.put("m", m);
+        estatisticas.put("efConstrucao", efConstrucao);
+        estatisticas.put("efBusca", efBusca);
+        estatisticas.put("niveis", nivelMaximo + 1);
+        estatisticas.put("bytesVetores", vetores.getBytesRegistros());
+        estatisticas.put("bytesGrafo", grafo.getBytesRegistros());
+        estatisticas.put("produtoEscalar", ProdutoEscalar.getImplementacao());
+        estatisticas.put("buscas", buscas.sum());
+        estatisticas.put("insercoes", insercoes.sum());
+        estatisticas.put("diretorio", diretorio.toAbsolutePath().toString());
+        return estatisticas;
+    }
+
+    /**
+     * Grava as páginas alteradas e libera o diretório
+     */
+    @Override
+    public void close() throws IOException {
+        travaIndice.writeLock().lock();
+        try {
+            if (!aberto) {
+                return;
+            }
+            aberto = false;
+            grafo.close();
+            vetores.close();
+            trava.release();
+            canalTrava.close();
+        } finally {
+            travaIndice.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Estruturas de busca reutilizadas por thread
+     */
+    private static final class Rascunho {
+
+        final HeapVizinhos candidatos;
+        final HeapVizinhos resultados;
+        final float[] vetorAuxiliar;
+        final float[] vetorCandidato;
+
+        // Marca da visita atual por nó: evita limpar um vetor do tamanho do índice a cada busca
+        private int[] visitas = new int[1024];
+        private int marca;
+
+        Rascunho(int dimensao, int ef) {
+            this.candidatos = new HeapVizinhos(ef * 2);
+            this.resultados = new HeapVizinhos(ef + 1);
+            this.vetorAuxiliar = new float[dimensao];
+            this.vetorCandidato = new float[dimensao];
+        }
+
+        void novaVisita(int nos) {
+            if (visitas.length < nos) {
+                visitas = new int[Math.max(nos, visitas.length * 2)];
+                marca = 0;
+            }
+            if (++marca == Integer.MAX_VALUE) {
+                Arrays.fill(visitas, 0);
+                marca = 1;
+            }
+        }
+
+        /**
+         * Marca o nó como visitado; false se ele já tinha sido visitado nesta busca
+         */
+        boolean visitar(int no) {
+            if (visitas[no] == marca) {
+                return false;
+            }
+            visitas[no] = marca;
+            return true;
+        }
+    }
+}
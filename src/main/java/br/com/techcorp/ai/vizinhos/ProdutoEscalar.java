@@ -0,0 +1,117 @@
+package br.com.techcorp.ai.vizinhos;
+
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Produto escalar entre um vetor de consulta e um vetor gravado fora do heap
+ *
+ * Com vetores de norma 1, o produto escalar é a similaridade do cosseno,
+ * a medida usada pelo IndiceHnsw. Quando o jar foi gerado com o perfil
+ * vetorial e o módulo jdk.incubator.vector está disponível
+ * (java --add-modules jdk.incubator.vector) a conta é feita com a Vector
+ * API, na largura SIMD preferida da CPU, direto do buffer mapeado; sem
+ * eles, um laço escalar com quatro acumuladores independentes.
+ */
+public final class ProdutoEscalar {
+
+    static final ByteOrder ORDEM = ByteOrder.LITTLE_ENDIAN;
+
+    private static final String CLASSE_VETORIAL = "br.com.techcorp.ai.vizinhos.ProdutoEscalarVetorial";
+
+    // Null sem a Vector API; final estático para o JIT tratar a chamada como monomórfica
+    private static final Calculo VETORIAL = carregarVetorial();
+
+    /**
+     * Implementação alternativa do produto escalar (a da Vector API vem do perfil vetorial)
+     */
+    interface Calculo {
+
+        float calcular(float[] consulta, ByteBuffer vetores, int posicao);
+
+        String descricao();
+    }
+
+    private ProdutoEscalar() {
+    }
+
+    private static Calculo carregarVetorial() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        Class<?> classe;
+        try {
+            classe = Class.forName(CLASSE_VETORIAL);
+        } catch (ClassNotFoundException e) {
+            // Build sem o perfil vetorial
+            return null;
+        }
+        try {
+            Calculo calculo = (Calculo) classe.getDeclaredConstructor().newInstance();
+            // Inicializa a espécie preferida já na carga deste utilitário
+            calculo.calcular(new float[1], ByteBuffer.allocate(Float.BYTES).order(ORDEM), 0);
+            return calculo;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            LoggerFactory.getLogger(ProdutoEscalar.class)
+                    .warn("⚠️ Vector API indisponível ({}), usando produto escalar escalar", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Produto escalar entre consulta e o vetor de consulta.length floats
+     * que começa em posicao (bytes) no buffer
+     */
+    public static float calcular(float[] consulta, ByteBuffer vetores, int posicao) {
+        if (VETORIAL != null) {
+            return VETORIAL.calcular(consulta, vetores, posicao);
+        }
+        return calcularEscalar(consulta, vetores, posicao);
+    }
+
+    static float calcularEscalar(float[] consulta, ByteBuffer vetores, int posicao) {
+        int dimensao = consulta.length;
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < dimensao; i += 4) {
+            int base = posicao + i * Float.BYTES;
+            s0 += consulta[i] * vetores.getFloat(base);
+            s1 += consulta[i + 1] * vetores.getFloat(base + 4);
+            s2 += consulta[i + 2] * vetores.getFloat(base + 8);
+            s3 += consulta[i + 3] * vetores.getFloat(base + 12);
+        }
+        for (; i < dimensao; i++) {
+            s0 += consulta[i] * vetores.getFloat(posicao + i * Float.BYTES);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Divide o vetor pela sua norma (um vetor nulo fica como está)
+     */
+    public static void normalizar(float[] vetor) {
+        double soma = 0.0;
+        for (float valor : vetor) {
+            soma += valor * valor;
+        }
+        if (soma == 0.0) {
+            return;
+        }
+        float inverso = (float) (1.0 / Math.sqrt(soma));
+        for (int i = 0; i < vetor.length; i++) {
+            vetor[i] *= inverso;
+        }
+    }
+
+    /**
+     * Implementação em uso, para os endpoints de informação
+     */
+    public static String getImplementacao() {
+        return VETORIAL != null ? VETORIAL.descricao() : "escalar";
+    }
+}
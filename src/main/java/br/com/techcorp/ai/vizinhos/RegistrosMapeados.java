@@ -0,0 +1,168 @@
+package br.com.techcorp.ai.vizinhos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Arquivo de registros de tamanho fixo mapeado em memória
+ *
+ * O arquivo é mapeado em trechos (segmentos) de tamanho fixo, criados à
+ * medida que os registros são acrescentados; um registro nunca atravessa
+ * dois segmentos. O conteúdo fica no cache de páginas do sistema, fora do
+ * heap: milhões de registros não pesam na coleta de lixo e são reabertos
+ * sem leitura na próxima subida.
+ *
+ * Cabeçalho de 64 bytes: número mágico, tamanho do registro, quantidade de
+ * registros gravados e, a partir de POS_LIVRE, campos do dono do arquivo.
+ * O acesso concorrente é coordenado pelo IndiceHnsw.
+ */
+final class RegistrosMapeados implements AutoCloseable {
+
+    static final int TAMANHO_CABECALHO = 64;
+
+    private static final int POS_MAGICO = 0;
+    private static final int POS_TAMANHO_REGISTRO = 4;
+    private static final int POS_QUANTIDADE = 8;
+    static final int POS_LIVRE = 16;
+
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final MappedByteBuffer cabecalho;
+    private final int tamanhoRegistro;
+    private final int registrosPorSegmento;
+
+    private MappedByteBuffer[] segmentos = new MappedByteBuffer[0];
+
+    private RegistrosMapeados(Path arquivo, FileChannel canal, MappedByteBuffer cabecalho, int tamanhoRegistro,
+            int registrosPorSegmento) {
+        this.arquivo = arquivo;
+        this.canal = canal;
+        this.cabecalho = cabecalho;
+        this.tamanhoRegistro = tamanhoRegistro;
+        this.registrosPorSegmento = registrosPorSegmento;
+    }
+
+    /**
+     * Abre (ou cria) o arquivo e mapeia os segmentos dos registros existentes
+     *
+     * @throws IOException se o arquivo existir com outro número mágico ou tamanho de registro
+     */
+    static RegistrosMapeados abrir(Path arquivo, int magico, int tamanhoRegistro, long tamanhoSegmento)
+            throws IOException {
+        FileChannel canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANHO_CABECALHO);
+            cabecalho.order(ProdutoEscalar.ORDEM);
+
+            if (cabecalho.getInt(POS_MAGICO) == 0) {
+                cabecalho.putInt(POS_TAMANHO_REGISTRO, tamanhoRegistro);
+                cabecalho.putInt(POS_QUANTIDADE, 0);
+                cabecalho.putInt(POS_MAGICO, magico);
+            } else if (cabecalho.getInt(POS_MAGICO) != magico
+                    || cabecalho.getInt(POS_TAMANHO_REGISTRO) != tamanhoRegistro) {
+                throw new IOException("Arquivo incompatível: " + arquivo.toAbsolutePath());
+            }
+
+            long limite = Math.min(Integer.MAX_VALUE, Math.max(tamanhoSegmento, tamanhoRegistro));
+            int registrosPorSegmento = (int) (limite / tamanhoRegistro);
+
+            RegistrosMapeados registros = new RegistrosMapeados(arquivo, canal, cabecalho, tamanhoRegistro,
+                    registrosPorSegmento);
+            registros.garantirCapacidade(registros.getQuantidade());
+            return registros;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    int getQuantidade() {
+        return cabecalho.getInt(POS_QUANTIDADE);
+    }
+
+    /**
+     * Publica a quantidade de registros; gravada por último em cada inserção,
+     * para que um registro incompleto nunca seja lido na reabertura
+     */
+    void setQuantidade(int quantidade) {
+        cabecalho.putInt(POS_QUANTIDADE, quantidade);
+    }
+
+    int lerInt(int posicao) {
+        return cabecalho.getInt(posicao);
+    }
+
+    void gravarInt(int posicao, int valor) {
+        cabecalho.putInt(posicao, valor);
+    }
+
+    long lerLong(int posicao) {
+        return cabecalho.getLong(posicao);
+    }
+
+    void gravarLong(int posicao, long valor) {
+        cabecalho.putLong(posicao, valor);
+    }
+
+    /**
+     * Mapeia os segmentos necessários para guardar a quantidade de registros informada
+     */
+    void garantirCapacidade(int registros) throws IOException {
+        int necessarios = (registros + registrosPorSegmento - 1) / registrosPorSegmento;
+        if (necessarios <= segmentos.length) {
+            return;
+        }
+        long bytesSegmento = (long) registrosPorSegmento * tamanhoRegistro;
+        MappedByteBuffer[] novos = Arrays.copyOf(segmentos, necessarios);
+        for (int i = segmentos.length; i < necessarios; i++) {
+            novos[i] = canal.map(FileChannel.MapMode.READ_WRITE, TAMANHO_CABECALHO + i * bytesSegmento,
+                    bytesSegmento);
+            novos[i].order(ProdutoEscalar.ORDEM);
+        }
+        segmentos = novos;
+    }
+
+    /**
+     * Segmento que contém o registro
+     */
+    ByteBuffer segmento(int registro) {
+        return segmentos[registro / registrosPorSegmento];
+    }
+
+    /**
+     * Posição (em bytes) do registro dentro do seu segmento
+     */
+    int posicao(int registro) {
+        return (registro % registrosPorSegmento) * tamanhoRegistro;
+    }
+
+    long getBytesRegistros() {
+        return (long) getQuantidade() * tamanhoRegistro;
+    }
+
+    Path getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Grava no disco as páginas alteradas
+     */
+    void sincronizar() {
+        for (MappedByteBuffer segmento : segmentos) {
+            segmento.force();
+        }
+        cabecalho.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sincronizar();
+        canal.close();
+    }
+}
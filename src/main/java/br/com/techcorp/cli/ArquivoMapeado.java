@@ -0,0 +1,107 @@
+package br.com.techcorp.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arquivo de entrada mapeado em memória e dividido em blocos
+ *
+ * Os limites dos blocos são ajustados para o início de um registro
+ * (próxima linha no JSONL, próxima linha "From " no mbox), de modo que
+ * cada bloco pode ser lido e classificado de forma independente. Cada
+ * bloco é mapeado separadamente, o que permite arquivos maiores que 2 GB.
+ */
+public final class ArquivoMapeado implements Closeable {
+
+    // Janela lida de cada vez ao procurar o início do próximo registro
+    private static final int JANELA_BUSCA = 64 * 1024;
+
+    private final FileChannel canal;
+    private final long tamanho;
+
+    public ArquivoMapeado(Path arquivo) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        this.tamanho = canal.size();
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Divide o arquivo em blocos de aproximadamente tamanhoAlvo bytes
+     */
+    public List<Bloco> dividir(long tamanhoAlvo, FormatoEntrada formato) throws IOException {
+        List<Bloco> blocos = new ArrayList<>();
+        long inicio = 0;
+        while (inicio < tamanho) {
+            long fim = inicio + tamanhoAlvo >= tamanho
+                    ? tamanho
+                    : proximoRegistro(inicio + tamanhoAlvo, formato.getSeparador());
+            blocos.add(new Bloco(blocos.size(), inicio, fim - inicio));
+            inicio = fim;
+        }
+        return blocos;
+    }
+
+    /**
+     * Mapeia o conteúdo de um bloco (somente leitura)
+     */
+    public MappedByteBuffer mapear(Bloco bloco) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, bloco.inicio(), bloco.tamanho());
+    }
+
+    /**
+     * Posição logo após o '\n' da próxima ocorrência do separador a partir de posicao,
+     * ou o fim do arquivo se não houver outra
+     */
+    private long proximoRegistro(long posicao, byte[] separador) throws IOException {
+        ByteBuffer janela = ByteBuffer.allocate(JANELA_BUSCA + separador.length);
+        long atual = posicao;
+        while (atual < tamanho) {
+            janela.clear();
+            int lidos = canal.read(janela, atual);
+            if (lidos <= 0) {
+                break;
+            }
+            for (int i = 0; i + separador.length <= lidos; i++) {
+                if (comecaCom(janela, i, separador)) {
+                    return atual + i + 1;
+                }
+            }
+            if (atual + lidos >= tamanho) {
+                break;
+            }
+            // Sobreposição para não perder um separador dividido entre duas janelas
+            atual += Math.max(1, lidos - separador.length + 1);
+        }
+        return tamanho;
+    }
+
+    private static boolean comecaCom(ByteBuffer janela, int posicao, byte[] separador) {
+        for (int k = 0; k < separador.length; k++) {
+            if (janela.get(posicao + k) != separador[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Trecho do arquivo que começa e termina em limites de registro
+     */
+    public record Bloco(int numero, long inicio, long tamanho) {
+    }
+}
@@ -0,0 +1,321 @@
+package br.com.techcorp.cli;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.impl.ClassificadorBaseadoEmRegras;
+import br.com.techcorp.ai.impl.ClassificadorCascata;
+import br.com.techcorp.ai.impl.ClassificadorHuggingFaceReal;
+import br.com.techcorp.ai.impl.ClassificadorLinear;
+import br.com.techcorp.ai.impl.ClassificadorVizinhos;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.ai.metricas.MetricasClassificacao.Etapa;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoClassificacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modo offline: classificação de um arquivo JSONL ou mbox pela linha de comando
+ *
+ * Ativado por --classificar-arquivo=caminho (a aplicação sobe sem o Tomcat).
+ * O arquivo é mapeado em memória e dividido em blocos alinhados a registros;
+ * os blocos são classificados em paralelo, em todos os núcleos, pelos mesmos
+ * classificadores da API, e a saída JSONL (um ResultadoClassificacao por
+ * e-mail) é gravada na ordem original por um escritor bufferizado.
+ *
+ * Opções:
+ *   --saida=arquivo            padrão: entrada + ".classificado.jsonl"
+ *   --formato=jsonl|mbox       padrão: deduzido pela extensão
+ *   --classificador=cascata|huggingface|regras|vizinhos|linear   padrão: cascata
+ *   --threads=n                padrão: número de núcleos
+ *   --tamanho-bloco-mb=n       padrão: 8
+ *
+ * A cascata é usada sem controle de admissão, prazo nem disjuntor
+ * (ClassificadorCascata.semPrazo()): cada e-mail que chega ao modelo
+ * espera a resposta dele, em vez de ficar com o resultado das regras.
+ */
+@Component
+@ConditionalOnProperty(name = ClassificacaoArquivo.OPCAO_ARQUIVO)
+public class ClassificacaoArquivo implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String OPCAO_ARQUIVO = "classificar-arquivo";
+
+    private static final long MEGABYTE = 1024L * 1024L;
+    private static final int BUFFER_SAIDA = 1 << 20;
+    private static final long ESPERA_MODELO_MS = 120_000;
+
+    private final ClassificadorCascata classificadorCascata;
+    private final ClassificadorHuggingFaceReal classificadorHuggingFace;
+    private final ClassificadorBaseadoEmRegras classificadorRegras;
+    private final ClassificadorVizinhos classificadorVizinhos;
+    private final ClassificadorLinear classificadorLinear;
+    private final ObjectMapper objectMapper;
+    private final MetricasClassificacao metricas;
+
+    private int codigoSaida;
+
+    public ClassificacaoArquivo(
+            ClassificadorCascata classificadorCascata,
+            ClassificadorHuggingFaceReal classificadorHuggingFace,
+            ClassificadorBaseadoEmRegras classificadorRegras,
+            ClassificadorVizinhos classificadorVizinhos,
+            ClassificadorLinear classificadorLinear,
+            ObjectMapper objectMapper,
+            MetricasClassificacao metricas) {
+        this.classificadorCascata = classificadorCascata;
+        this.classificadorHuggingFace = classificadorHuggingFace;
+        this.classificadorRegras = classificadorRegras;
+        this.classificadorVizinhos = classificadorVizinhos;
+        this.classificadorLinear = classificadorLinear;
+        this.objectMapper = objectMapper;
+        this.metricas = metricas;
+    }
+
+    /**
+     * Indica se os argumentos pedem o modo offline
+     */
+    public static boolean solicitada(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + OPCAO_ARQUIVO)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Path entrada = Path.of(valor(args, OPCAO_ARQUIVO, ""));
+            Path saida = Path.of(valor(args, "saida", entrada + ".classificado.jsonl"));
+            FormatoEntrada formato = FormatoEntrada.resolver(valor(args, "formato", null), entrada);
+            int threads = Integer.parseInt(valor(args, "threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            long tamanhoBloco = Long.parseLong(valor(args, "tamanho-bloco-mb", "8")) * MEGABYTE;
+            ClassificadorEmails classificador = selecionarClassificador(valor(args, "classificador", "cascata"));
+
+            if (!Files.isRegularFile(entrada)) {
+                throw new IllegalArgumentException("Arquivo de entrada não encontrado: " + entrada);
+            }
+
+            processar(entrada, saida, formato, classificador, Math.max(1, threads), Math.max(MEGABYTE, tamanhoBloco));
+
+        } catch (Exception e) {
+            System.err.println("❌ Erro na classificação offline: " + e.getMessage());
+            codigoSaida = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return codigoSaida;
+    }
+
+    private ClassificadorEmails selecionarClassificador(String nome) throws InterruptedException {
+        if ("regras".equalsIgnoreCase(nome)) {
+            return classificadorRegras;
+        }
+        if ("vizinhos".equalsIgnoreCase(nome)) {
+            return classificadorVizinhos;
+        }
+        if ("linear".equalsIgnoreCase(nome)) {
+            return classificadorLinear;
+        }
+        boolean cascata = "cascata".equalsIgnoreCase(nome);
+        if (!cascata && !"huggingface".equalsIgnoreCase(nome)) {
+            throw new IllegalArgumentException("Classificador desconhecido: " + nome);
+        }
+
+        // O modelo é carregado em segundo plano; sem esperar, tudo cairia no fallback
+        System.out.println("⏳ Aguardando carregamento do modelo de IA...");
+        long limite = System.currentTimeMillis() + ESPERA_MODELO_MS;
+        while (!classificadorHuggingFace.isModeloCarregado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+        }
+        return cascata ? classificadorCascata.semPrazo() : classificadorHuggingFace;
+    }
+
+    private void processar(Path entrada, Path caminhoSaida, FormatoEntrada formato,
+            ClassificadorEmails classificador, int threads, long tamanhoBloco) throws Exception {
+
+        System.out.println("📂 Classificando " + entrada + " (" + formato + ") com " + threads + " threads");
+        long inicio = System.nanoTime();
+        long emails = 0;
+        long invalidos = 0;
+
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "classificacao-arquivo-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long tamanhoArquivo;
+        try (ArquivoMapeado arquivo = new ArquivoMapeado(entrada);
+                OutputStream saida = new BufferedOutputStream(Files.newOutputStream(caminhoSaida), BUFFER_SAIDA)) {
+
+            tamanhoArquivo = arquivo.getTamanho();
+            List<ArquivoMapeado.Bloco> blocos = arquivo.dividir(tamanhoBloco, formato);
+
+            // Janela limitada de blocos em processamento; a gravação segue a ordem dos blocos
+            ArrayDeque<Future<ResultadoBloco>> pendentes = new ArrayDeque<>();
+            int proximo = 0;
+            while (proximo < blocos.size() || !pendentes.isEmpty()) {
+                while (proximo < blocos.size() && pendentes.size() < threads * 2) {
+                    ArquivoMapeado.Bloco bloco = blocos.get(proximo++);
+                    pendentes.add(executor.submit(() -> classificarBloco(arquivo, bloco, formato, classificador)));
+                }
+
+                ResultadoBloco resultado = aguardar(pendentes.poll());
+                resultado.saida().writeTo(saida);
+                emails += resultado.emails();
+                invalidos += resultado.invalidos();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.println("✅ Classificação offline concluída");
+        System.out.println("📧 E-mails: " + emails + " (não classificados: " + invalidos + ")");
+        System.out.println(String.format("⏱️ Tempo: %.2f s", segundos));
+        System.out.println(String.format("🚀 Vazão: %.0f e-mails/s (%.1f MB/s)",
+                emails / segundos, tamanhoArquivo / (double) MEGABYTE / segundos));
+        System.out.println("📄 Saída: " + caminhoSaida);
+    }
+
+    private static ResultadoBloco aguardar(Future<ResultadoBloco> futuro) throws Exception {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception causa ? causa : e;
+        }
+    }
+
+    private ResultadoBloco classificarBloco(ArquivoMapeado arquivo, ArquivoMapeado.Bloco bloco,
+            FormatoEntrada formato, ClassificadorEmails classificador) throws IOException {
+
+        MappedByteBuffer buffer = arquivo.mapear(bloco);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(64 * 1024);
+        int limite = buffer.limit();
+        int emails = 0;
+        int invalidos = 0;
+        byte[] registro = new byte[1024];
+
+        int inicio = 0;
+        while (inicio < limite) {
+            int fim = fimDoRegistro(buffer, inicio, limite, formato);
+
+            int comprimento = fim - inicio;
+            if (!emBranco(buffer, inicio, fim)) {
+                if (registro.length < comprimento) {
+                    registro = new byte[Math.max(comprimento, registro.length * 2)];
+                }
+                buffer.get(inicio, registro, 0, comprimento);
+
+                ResultadoClassificacao resultado = classificarRegistro(
+                        registro, comprimento, formato, classificador, bloco.inicio() + inicio);
+                if (resultado.getSetor() == null) {
+                    invalidos++;
+                }
+                long inicioSerializacao = MetricasClassificacao.inicio();
+                saida.write(objectMapper.writeValueAsBytes(resultado));
+                saida.write('\n');
+                metricas.registrarEtapa(Etapa.SERIALIZACAO, inicioSerializacao);
+                emails++;
+            }
+            inicio = fim;
+        }
+
+        return new ResultadoBloco(saida, emails, invalidos);
+    }
+
+    private ResultadoClassificacao classificarRegistro(byte[] registro, int comprimento, FormatoEntrada formato,
+            ClassificadorEmails classificador, long posicao) {
+
+        Email email;
+        try {
+            email = formato == FormatoEntrada.MBOX
+                    ? LeitorMbox.paraEmail(new String(registro, 0, comprimento, StandardCharsets.UTF_8))
+                    : objectMapper.readValue(registro, 0, comprimento, Email.class);
+        } catch (IOException e) {
+            return ResultadoClassificacao.naoClassificado(
+                    "Registro na posição " + posicao + " não classificado: formato inválido");
+        }
+
+        if (email == null) {
+            return ResultadoClassificacao.naoClassificado(
+                    "Registro na posição " + posicao + " não classificado: e-mail ausente");
+        }
+
+        try {
+            return classificador.classificar(email);
+        } catch (Exception e) {
+            return ResultadoClassificacao.naoClassificado(
+                    "Registro na posição " + posicao + " não classificado: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fim do registro que começa em inicio: fim da linha (JSONL) ou início da
+     * próxima linha "From " (mbox), já incluindo a quebra de linha
+     */
+    private static int fimDoRegistro(MappedByteBuffer buffer, int inicio, int limite, FormatoEntrada formato) {
+        int posicao = inicio;
+        while (posicao < limite) {
+            if (buffer.get(posicao++) == '\n'
+                    && (formato == FormatoEntrada.JSONL || comecaComFrom(buffer, posicao, limite))) {
+                return posicao;
+            }
+        }
+        return limite;
+    }
+
+    private static boolean comecaComFrom(MappedByteBuffer buffer, int posicao, int limite) {
+        return posicao + 5 <= limite
+                && buffer.get(posicao) == 'F'
+                && buffer.get(posicao + 1) == 'r'
+                && buffer.get(posicao + 2) == 'o'
+                && buffer.get(posicao + 3) == 'm'
+                && buffer.get(posicao + 4) == ' ';
+    }
+
+    private static boolean emBranco(MappedByteBuffer buffer, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            if (buffer.get(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String valor(ApplicationArguments args, String opcao, String padrao) {
+        List<String> valores = args.getOptionValues(opcao);
+        return valores == null || valores.isEmpty() ? padrao : valores.get(0);
+    }
+
+    /**
+     * Saída serializada de um bloco, gravada na ordem pelo laço principal
+     */
+    private record ResultadoBloco(ByteArrayOutputStream saida, int emails, int invalidos) {
+    }
+}
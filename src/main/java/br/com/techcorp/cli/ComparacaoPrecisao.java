@@ -0,0 +1,266 @@
+package br.com.techcorp.cli;
+
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferencia;
+import br.com.techcorp.ai.inferencia.MotorInferencia;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Comparação de acurácia e latência entre o modelo FP32 e o INT8 quantizado
+ *
+ * Ativada por --comparar-precisao[=arquivo.jsonl] (a aplicação sobe sem o
+ * Tomcat e sem carregar o modelo do classificador). Os dois modelos da
+ * engine de ai.modelo.engine são carregados um de cada vez e avaliados no
+ * mesmo conjunto rotulado: acurácia, latência por e-mail (média e
+ * percentis, sem a tokenização), tempo de carga e memória residente do
+ * processo. No fim são mostradas a aceleração do INT8 e a concordância
+ * entre as duas precisões.
+ *
+ * Cada linha do arquivo é um e-mail no formato da API com o setor esperado:
+ *   {"assunto": "...", "corpo": "...", "setor": "FINANCEIRO"}
+ * Sem arquivo é usado o conjunto incluído (avaliacao/emails-rotulados.jsonl).
+ *
+ * Opções:
+ *   --repeticoes=n             padrão: 5 passadas medidas por e-mail
+ */
+@Component
+@ConditionalOnProperty(name = ComparacaoPrecisao.OPCAO_COMPARAR)
+public class ComparacaoPrecisao implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String OPCAO_COMPARAR = "comparar-precisao";
+
+    private static final String CONJUNTO_PADRAO = "avaliacao/emails-rotulados.jsonl";
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+
+    private final List<FornecedorMotorInferencia> fornecedoresMotor;
+    private final PropriedadesModelo propriedades;
+    private final ObjectMapper objectMapper;
+
+    private int codigoSaida;
+
+    public ComparacaoPrecisao(List<FornecedorMotorInferencia> fornecedoresMotor,
+            PropriedadesModelo propriedades,
+            ObjectMapper objectMapper) {
+        this.fornecedoresMotor = fornecedoresMotor;
+        this.propriedades = propriedades;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Indica se os argumentos pedem a comparação de precisões
+     */
+    public static boolean solicitada(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + OPCAO_COMPARAR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            List<String> valores = args.getOptionValues(OPCAO_COMPARAR);
+            String arquivo = valores == null || valores.isEmpty() ? "" : valores.get(0);
+            List<String> repeticoes = args.getOptionValues("repeticoes");
+            int passadas = repeticoes == null || repeticoes.isEmpty() ? 5 : Integer.parseInt(repeticoes.get(0));
+
+            List<ExemploRotulado> exemplos = lerExemplos(arquivo);
+            if (exemplos.isEmpty()) {
+                throw new IllegalArgumentException("Nenhum e-mail rotulado em " + arquivo);
+            }
+
+            FornecedorMotorInferencia fornecedor = FornecedorMotorInferencia.selecionar(
+                    fornecedoresMotor, propriedades.getEngine());
+            System.out.println("📊 Comparando FP32 e INT8 (" + fornecedor.getNome() + ", " + exemplos.size()
+                    + " e-mails rotulados, " + passadas + " repetições)");
+
+            Avaliacao fp32 = avaliar(fornecedor, PrecisaoNumerica.FP32, exemplos, Math.max(1, passadas));
+            Avaliacao int8 = avaliar(fornecedor, PrecisaoNumerica.INT8, exemplos, Math.max(1, passadas));
+            imprimir(fp32, int8, exemplos.size());
+
+        } catch (Exception e) {
+            System.err.println("❌ Erro na comparação de precisões: " + e.getMessage());
+            codigoSaida = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return codigoSaida;
+    }
+
+    private List<ExemploRotulado> lerExemplos(String arquivo) throws IOException {
+        InputStream entrada = arquivo.isBlank()
+                ? new ClassPathResource(CONJUNTO_PADRAO).getInputStream()
+                : Files.newInputStream(Path.of(arquivo));
+
+        List<ExemploRotulado> exemplos = new ArrayList<>();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                JsonNode registro = objectMapper.readTree(linha);
+                Email email = new Email(null, null, registro.path("assunto").asText(""),
+                        registro.path("corpo").asText(""));
+                SetorEmail setor = SetorEmail.valueOf(registro.path("setor").asText().trim().toUpperCase());
+                exemplos.add(new ExemploRotulado(email.getTextoParaClassificacao(), setor));
+            }
+        }
+        return exemplos;
+    }
+
+    /**
+     * Carrega o modelo na precisão pedida e mede acurácia, latência e memória
+     */
+    private Avaliacao avaliar(FornecedorMotorInferencia fornecedor, PrecisaoNumerica precisao,
+            List<ExemploRotulado> exemplos, int passadas) throws Exception {
+        System.out.println("⏳ Carregando o modelo " + precisao + "...");
+        System.gc();
+        long memoriaAntes = memoriaResidente();
+        long inicioCarga = System.nanoTime();
+
+        try (MotorInferencia motor = fornecedor.carregar(propriedades, precisao)) {
+            double cargaMs = (System.nanoTime() - inicioCarga) / 1_000_000.0;
+            long memoriaDepois = memoriaResidente();
+
+            long[][] tokens = new long[exemplos.size()][];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = motor.tokenizar(exemplos.get(i).texto());
+            }
+
+            // Primeira passada: predições (e aquecimento, fora da medição)
+            double[][] probabilidades = new double[tokens.length][];
+            int acertos = 0;
+            for (int i = 0; i < tokens.length; i++) {
+                probabilidades[i] = motor.classificar(tokens[i]);
+                if (ScoresSetores.melhorSetor(probabilidades[i]) == exemplos.get(i).setor()) {
+                    acertos++;
+                }
+            }
+
+            long[] latencias = new long[tokens.length * passadas];
+            int medidas = 0;
+            for (int passada = 0; passada < passadas; passada++) {
+                for (long[] texto : tokens) {
+                    long inicio = System.nanoTime();
+                    motor.classificar(texto);
+                    latencias[medidas++] = System.nanoTime() - inicio;
+                }
+            }
+            Arrays.sort(latencias);
+
+            long memoria = memoriaAntes >= 0 && memoriaDepois >= 0 ? memoriaDepois - memoriaAntes : -1;
+            return new Avaliacao(precisao, (double) acertos / tokens.length, latencias, cargaMs, memoria,
+                    probabilidades);
+        }
+    }
+
+    private void imprimir(Avaliacao fp32, Avaliacao int8, int quantidade) {
+        System.out.println();
+        System.out.println("Precisão | Acurácia | Média (ms) | p50 (ms) | p95 (ms) | p99 (ms) | Carga (ms) | Memória (MB)");
+        for (Avaliacao avaliacao : List.of(fp32, int8)) {
+            System.out.println(String.format("%-8s | %7.1f%% | %10.2f | %8.2f | %8.2f | %8.2f | %10.0f | %12s",
+                    avaliacao.precisao(),
+                    avaliacao.acuracia() * 100,
+                    avaliacao.mediaMs(),
+                    avaliacao.percentilMs(0.50),
+                    avaliacao.percentilMs(0.95),
+                    avaliacao.percentilMs(0.99),
+                    avaliacao.cargaMs(),
+                    avaliacao.memoriaBytes() >= 0
+                            ? String.format("%.0f", avaliacao.memoriaBytes() / MEGABYTE)
+                            : "n/d"));
+        }
+
+        int concordantes = 0;
+        double maiorDiferenca = 0.0;
+        for (int i = 0; i < quantidade; i++) {
+            double[] a = fp32.probabilidades()[i];
+            double[] b = int8.probabilidades()[i];
+            if (ScoresSetores.melhorSetor(a) == ScoresSetores.melhorSetor(b)) {
+                concordantes++;
+            }
+            for (int s = 0; s < a.length; s++) {
+                maiorDiferenca = Math.max(maiorDiferenca, Math.abs(a[s] - b[s]));
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format("⚡ Aceleração INT8 (média): %.2fx | p95: %.2fx",
+                fp32.mediaMs() / int8.mediaMs(), fp32.percentilMs(0.95) / int8.percentilMs(0.95)));
+        System.out.println(String.format("🎯 Acurácia: %+.1f pontos percentuais no INT8",
+                (int8.acuracia() - fp32.acuracia()) * 100));
+        System.out.println(String.format("🤝 Concordância FP32/INT8: %.1f%% | maior diferença de probabilidade: %.4f",
+                concordantes * 100.0 / quantidade, maiorDiferenca));
+    }
+
+    /**
+     * Memória residente do processo em bytes (VmRSS), ou -1 fora do Linux;
+     * inclui a memória nativa da engine, que o heap da JVM não mostra
+     */
+    private static long memoriaResidente() {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String linha : Files.readAllLines(status)) {
+                if (linha.startsWith("VmRSS:")) {
+                    return Long.parseLong(linha.replaceAll("[^0-9]", "")) * 1024L;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    private record ExemploRotulado(String texto, SetorEmail setor) {
+    }
+
+    /**
+     * Medidas de uma precisão; latências em nanossegundos, já ordenadas
+     */
+    private record Avaliacao(PrecisaoNumerica precisao, double acuracia, long[] latencias, double cargaMs,
+            long memoriaBytes, double[][] probabilidades) {
+
+        double mediaMs() {
+            double soma = 0;
+            for (long latencia : latencias) {
+                soma += latencia;
+            }
+            return soma / latencias.length / 1_000_000.0;
+        }
+
+        double percentilMs(double percentil) {
+            int indice = (int) Math.min(latencias.length - 1, Math.ceil(percentil * latencias.length) - 1);
+            return latencias[Math.max(0, indice)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.techcorp.cli;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Formatos de arquivo aceitos pela classificação offline
+ */
+public enum FormatoEntrada {
+
+    // Um Email em JSON por linha
+    JSONL("\n".getBytes()),
+
+    // Mensagens separadas por linhas "From " (mbox)
+    MBOX("\nFrom ".getBytes());
+
+    // Sequência que marca o início de um registro (após o '\n' inicial)
+    private final byte[] separador;
+
+    FormatoEntrada(byte[] separador) {
+        this.separador = separador;
+    }
+
+    byte[] getSeparador() {
+        return separador;
+    }
+
+    /**
+     * Usa o formato informado ou, na falta dele, deduz pela extensão do arquivo
+     */
+    public static FormatoEntrada resolver(String formato, Path arquivo) {
+        if (formato != null && !formato.isBlank()) {
+            return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+        }
+        String nome = arquivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        return nome.endsWith(".mbox") || nome.endsWith(".mbx") ? MBOX : JSONL;
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.techcorp.cli;
+
+import br.com.techcorp.models.Email;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conversão de uma mensagem mbox em Email
+ *
+ * Lê os cabeçalhos From, To e Subject (com linhas de continuação e
+ * palavras codificadas RFC 2047) e usa o restante da mensagem como corpo,
+ * desfazendo o escape ">From " do formato mboxrd. O corpo é usado como
+ * está, sem decodificar partes MIME, o que basta para a classificação.
+ */
+final class LeitorMbox {
+
+    private static final Pattern PALAVRA_CODIFICADA = Pattern.compile("=\\?([^?]+)\\?([BbQq])\\?([^?]*)\\?=");
+    private static final Pattern ESPACO_ENTRE_PALAVRAS = Pattern.compile("(\\?=)\\s+(=\\?)");
+    private static final Pattern FROM_ESCAPADO = Pattern.compile("(?m)^>(>*From )");
+
+    private LeitorMbox() {
+    }
+
+    /**
+     * Converte o texto de uma mensagem (a partir da linha "From ") em Email
+     */
+    static Email paraEmail(String mensagem) {
+        String texto = mensagem.replace("\r\n", "\n");
+
+        // Linha separadora "From remetente data" do próprio formato mbox
+        int inicio = 0;
+        if (texto.startsWith("From ")) {
+            int quebra = texto.indexOf('\n');
+            inicio = quebra < 0 ? texto.length() : quebra + 1;
+        }
+
+        int fimCabecalhos = texto.indexOf("\n\n", inicio);
+        String cabecalhos = fimCabecalhos < 0 ? texto.substring(inicio) : texto.substring(inicio, fimCabecalhos);
+        String corpo = fimCabecalhos < 0 ? "" : texto.substring(fimCabecalhos + 2);
+
+        Email email = new Email();
+        // Cabeçalhos dobrados: linhas iniciadas por espaço continuam a anterior
+        for (String linha : cabecalhos.replaceAll("\n[ \t]+", " ").split("\n")) {
+            int doisPontos = linha.indexOf(':');
+            if (doisPontos <= 0) {
+                continue;
+            }
+            String nome = linha.substring(0, doisPontos).trim().toLowerCase(Locale.ROOT);
+            String valor = decodificarCabecalho(linha.substring(doisPontos + 1).trim());
+            switch (nome) {
+                case "from" -> email.setRemetente(valor);
+                case "to" -> email.setDestinatario(valor);
+                case "subject" -> email.setAssunto(valor);
+                default -> {
+                }
+            }
+        }
+
+        email.setCorpo(FROM_ESCAPADO.matcher(corpo).replaceAll("$1").trim());
+        return email;
+    }
+
+    /**
+     * Decodifica palavras "=?charset?B|Q?texto?=" de um cabeçalho
+     */
+    static String decodificarCabecalho(String valor) {
+        if (!valor.contains("=?")) {
+            return valor;
+        }
+
+        // Espaços entre duas palavras codificadas não fazem parte do texto
+        String semEspacos = ESPACO_ENTRE_PALAVRAS.matcher(valor).replaceAll("$1$2");
+        Matcher matcher = PALAVRA_CODIFICADA.matcher(semEspacos);
+        StringBuilder resultado = new StringBuilder();
+        while (matcher.find()) {
+            String decodificada;
+            try {
+                Charset charset = Charset.forName(matcher.group(1));
+                byte[] bytes = matcher.group(2).equalsIgnoreCase("B")
+                        ? Base64.getMimeDecoder().decode(matcher.group(3))
+                        : decodificarQ(matcher.group(3));
+                decodificada = new String(bytes, charset);
+            } catch (IllegalArgumentException e) {
+                decodificada = matcher.group();
+            }
+            matcher.appendReplacement(resultado, Matcher.quoteReplacement(decodificada));
+        }
+        matcher.appendTail(resultado);
+        return resultado.toString();
+    }
+
+    private static byte[] decodificarQ(String texto) {
+        byte[] bytes = new byte[texto.length()];
+        int escritos = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '_') {
+                bytes[escritos++] = ' ';
+            } else if (c == '=' && i + 2 < texto.length()) {
+                bytes[escritos++] = (byte) Integer.parseInt(texto.substring(i + 1, i + 3), 16);
+                i += 2;
+            } else {
+                bytes[escritos++] = (byte) c;
+            }
+        }
+        return Arrays.copyOf(bytes, escritos);
+    }
+}
@@ -0,0 +1,210 @@
+package br.com.techcorp.cli;
+
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.ai.linear.ExtratorCaracteristicas;
+import br.com.techcorp.ai.linear.PesosLinear;
+import br.com.techcorp.ai.linear.TreinadorRegressaoLogistica;
+import br.com.techcorp.ai.linear.TreinadorRegressaoLogistica.Exemplo;
+import br.com.techcorp.config.PropriedadesLinear;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Treino offline do classificador linear
+ *
+ * Ativado por --treinar-linear[=arquivo.jsonl] (a aplicação sobe sem o
+ * Tomcat e sem carregar o modelo do classificador). Cada linha do arquivo é
+ * um e-mail no formato da API com o setor esperado:
+ *   {"assunto": "...", "corpo": "...", "setor": "FINANCEIRO"}
+ * Sem arquivo é usado o conjunto incluído (avaliacao/emails-rotulados.jsonl).
+ *
+ * Uma fração de cada setor fica de fora para medir a acurácia; depois o
+ * modelo é treinado de novo com todos os e-mails e gravado com essa
+ * acurácia no cabeçalho. Também é medida a latência da pontuação.
+ *
+ * Opções (padrões em ai.linear.treino):
+ *   --saida=arquivo            padrão: ai.linear.arquivo
+ *   --epocas=n --taxa=x --l2=x
+ *   --bits=n                   2^n linhas de pesos
+ *   --validacao=fração         0 treina com tudo sem medir a acurácia
+ */
+@Component
+@ConditionalOnProperty(name = TreinamentoLinear.OPCAO_TREINAR)
+public class TreinamentoLinear implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String OPCAO_TREINAR = "treinar-linear";
+
+    private static final String CONJUNTO_PADRAO = "avaliacao/emails-rotulados.jsonl";
+    private static final int PASSADAS_LATENCIA = 200;
+
+    private final PropriedadesLinear propriedades;
+    private final ObjectMapper objectMapper;
+
+    private int codigoSaida;
+
+    public TreinamentoLinear(PropriedadesLinear propriedades, ObjectMapper objectMapper) {
+        this.propriedades = propriedades;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Indica se os argumentos pedem o treino do classificador linear
+     */
+    public static boolean solicitada(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + OPCAO_TREINAR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            PropriedadesLinear.Treino padrao = propriedades.getTreino();
+            String arquivo = valor(args, OPCAO_TREINAR, "");
+            Path saida = Path.of(valor(args, "saida", propriedades.getArquivo()));
+            int epocas = Integer.parseInt(valor(args, "epocas", String.valueOf(padrao.getEpocas())));
+            double taxa = Double.parseDouble(valor(args, "taxa", String.valueOf(padrao.getTaxa())));
+            double l2 = Double.parseDouble(valor(args, "l2", String.valueOf(padrao.getL2())));
+            int bits = Integer.parseInt(valor(args, "bits", String.valueOf(padrao.getBits())));
+            double validacao = Double.parseDouble(valor(args, "validacao", String.valueOf(padrao.getValidacao())));
+
+            ExtratorCaracteristicas extrator = new ExtratorCaracteristicas(bits, padrao.getNgramaMinimo(),
+                    padrao.getNgramaMaximo());
+            TreinadorRegressaoLogistica treinador = new TreinadorRegressaoLogistica(epocas, taxa, l2);
+            List<String> textos = new ArrayList<>();
+            List<Exemplo> exemplos = lerExemplos(arquivo, extrator, textos);
+            if (exemplos.isEmpty()) {
+                throw new IllegalArgumentException("Nenhum e-mail rotulado em " + arquivo);
+            }
+            System.out.println("📐 Treinando o classificador linear: " + exemplos.size() + " e-mails, 2^" + bits
+                    + " características, " + epocas + " épocas");
+
+            double acuracia = validar(treinador, extrator, exemplos, validacao);
+
+            long inicio = System.nanoTime();
+            PesosLinear modelo = treinador.treinar(extrator, exemplos);
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            modelo.setAcuracia((float) acuracia);
+            modelo.gravar(saida);
+
+            System.out.println(String.format("🎯 Acurácia no treino: %.1f%% (%d ms)",
+                    TreinadorRegressaoLogistica.acuracia(modelo, exemplos) * 100, duracaoMs));
+            System.out.println(String.format("⚡ Pontuação: %.2f µs por e-mail (extração de características incluída)",
+                    medirLatenciaMicros(modelo, textos)));
+            System.out.println("💾 Pesos gravados em " + saida.toAbsolutePath() + " ("
+                    + modelo.getTamanhoBytes() / (1024 * 1024) + " MB)");
+
+        } catch (Exception e) {
+            System.err.println("❌ Erro no treino do classificador linear: " + e.getMessage());
+            codigoSaida = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return codigoSaida;
+    }
+
+    /**
+     * Treina sem a fração de validação de cada setor e mede a acurácia nela
+     */
+    private double validar(TreinadorRegressaoLogistica treinador, ExtratorCaracteristicas extrator,
+            List<Exemplo> exemplos, double validacao) {
+        if (validacao <= 0.0) {
+            return 0.0;
+        }
+        int passo = Math.max(2, (int) Math.round(1.0 / Math.min(validacao, 0.5)));
+        int[] vistosPorSetor = new int[SetorEmail.values().length];
+        List<Exemplo> treino = new ArrayList<>();
+        List<Exemplo> separados = new ArrayList<>();
+        for (Exemplo exemplo : exemplos) {
+            int visto = vistosPorSetor[exemplo.setor().ordinal()]++;
+            if (visto % passo == passo - 1) {
+                separados.add(exemplo);
+            } else {
+                treino.add(exemplo);
+            }
+        }
+        if (separados.isEmpty() || treino.isEmpty()) {
+            return 0.0;
+        }
+
+        double acuracia = TreinadorRegressaoLogistica.acuracia(treinador.treinar(extrator, treino), separados);
+        System.out.println(String.format("🧪 Acurácia de validação: %.1f%% (%d e-mails fora do treino)",
+                acuracia * 100, separados.size()));
+        return acuracia;
+    }
+
+    /**
+     * Tempo médio de extração + pontuação, com os buffers reaproveitados como no classificador
+     */
+    private double medirLatenciaMicros(PesosLinear modelo, List<String> textos) {
+        int[] indices = new int[Math.max(1, propriedades.getMaximoCaracteristicas())];
+        double[] escores = ScoresSetores.novoVetor();
+        long[] duracoes = new long[PASSADAS_LATENCIA];
+        for (int passada = 0; passada < PASSADAS_LATENCIA; passada++) {
+            long inicio = System.nanoTime();
+            for (String texto : textos) {
+                modelo.pontuar(indices, modelo.getExtrator().extrair(texto, indices), escores);
+            }
+            duracoes[passada] = System.nanoTime() - inicio;
+        }
+        // Mediana das passadas: as primeiras ainda rodam interpretadas
+        Arrays.sort(duracoes);
+        return duracoes[PASSADAS_LATENCIA / 2] / 1000.0 / textos.size();
+    }
+
+    private List<Exemplo> lerExemplos(String arquivo, ExtratorCaracteristicas extrator, List<String> textos)
+            throws IOException {
+        InputStream entrada = arquivo.isBlank()
+                ? new ClassPathResource(CONJUNTO_PADRAO).getInputStream()
+                : Files.newInputStream(Path.of(arquivo));
+
+        int[] indices = new int[Math.max(1, propriedades.getMaximoCaracteristicas())];
+        List<Exemplo> exemplos = new ArrayList<>();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                JsonNode registro = objectMapper.readTree(linha);
+                Email email = new Email(null, null, registro.path("assunto").asText(""),
+                        registro.path("corpo").asText(""));
+                SetorEmail setor = SetorEmail.valueOf(registro.path("setor").asText().trim().toUpperCase());
+                String texto = email.getTextoParaClassificacao();
+                int quantidade = extrator.extrair(texto, indices);
+                exemplos.add(new Exemplo(Arrays.copyOf(indices, quantidade), setor));
+                textos.add(texto);
+            }
+        }
+        return exemplos;
+    }
+
+    private static String valor(ApplicationArguments args, String nome, String padrao) {
+        List<String> valores = args.getOptionValues(nome);
+        return valores == null || valores.isEmpty() ? padrao : valores.get(0);
+    }
+}
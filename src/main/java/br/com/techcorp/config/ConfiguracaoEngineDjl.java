@@ -0,0 +1,45 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Configuração global da DJL, aplicada uma única vez na subida da aplicação
+ *
+ * O modo offline e as threads do PyTorch são propriedades da JVM que a DJL
+ * lê quando a engine inicia, e valem para todos os modelos do processo
+ * (classificador, comparação de precisões, embeddings dos vizinhos). Por
+ * isso são definidas aqui, a partir de ai.modelo, antes de o contexto ser
+ * criado, e não a cada carga de modelo. Valores já passados com -D na
+ * linha de comando são mantidos.
+ *
+ * Registrado em META-INF/spring.factories.
+ */
+public class ConfiguracaoEngineDjl implements EnvironmentPostProcessor {
+
+    static final String OFFLINE = "ai.djl.offline";
+    static final String THREADS = "ai.djl.pytorch.num_threads";
+    static final String THREADS_INTEROP = "ai.djl.pytorch.num_interop_threads";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment ambiente, SpringApplication aplicacao) {
+        PropriedadesModelo propriedades = Binder.get(ambiente).bindOrCreate("ai.modelo", PropriedadesModelo.class);
+
+        // Impede que a DJL baixe bibliotecas nativas ou modelos em tempo de execução
+        if (propriedades.isOffline()) {
+            definirSeAusente(OFFLINE, "true");
+        }
+
+        // O paralelismo vem do pool; cada predictor usa poucas threads para não saturar a CPU
+        definirSeAusente(THREADS, String.valueOf(propriedades.getThreadsPorPredictor()));
+        definirSeAusente(THREADS_INTEROP, "1");
+    }
+
+    private static void definirSeAusente(String propriedade, String valor) {
+        if (System.getProperty(propriedade) == null) {
+            System.setProperty(propriedade, valor);
+        }
+    }
+}
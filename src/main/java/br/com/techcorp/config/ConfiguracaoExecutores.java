@@ -0,0 +1,62 @@
+package br.com.techcorp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executores dedicados da aplicação
+ *
+ * A classificação em lote roda em um pool próprio e limitado,
+ * para não ocupar as threads do servlet com cada item do lote.
+ *
+ * A classificação pelo modelo roda em outro pool para que a requisição
+ * possa desistir dela quando o prazo (ai.prazo) se esgota.
+ */
+@Configuration
+public class ConfiguracaoExecutores {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor executorClassificacaoLote(PropriedadesLote propriedades) {
+        int threads = propriedades.getThreadsEfetivas();
+        AtomicInteger contador = new AtomicInteger();
+
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(propriedades.getCapacidadeFila()),
+                r -> {
+                    Thread thread = new Thread(r, "classificacao-lote-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor executorClassificacaoModelo(PropriedadesPrazo propriedades) {
+        int threads = Math.max(1, propriedades.getThreads());
+        AtomicInteger contador = new AtomicInteger();
+
+        // Sem fila: a concorrência já é limitada pelo controle de admissão
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "classificacao-modelo-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
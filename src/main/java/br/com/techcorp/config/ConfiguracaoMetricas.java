@@ -0,0 +1,38 @@
+package br.com.techcorp.config;
+
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.ai.metricas.MetricasClassificacao.Etapa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Integração das métricas de classificação com o Spring MVC
+ */
+@Configuration
+public class ConfiguracaoMetricas {
+
+    /**
+     * Conversor JSON que mede a etapa de serialização das respostas
+     * (substitui o conversor Jackson padrão do Spring Boot, com o mesmo ObjectMapper)
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter conversorJsonMedido(ObjectMapper objectMapper,
+            MetricasClassificacao metricas) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object objeto, Type tipo, HttpOutputMessage saida)
+                    throws IOException, HttpMessageNotWritableException {
+                long inicio = MetricasClassificacao.inicio();
+                super.writeInternal(objeto, tipo, saida);
+                metricas.registrarEtapa(Etapa.SERIALIZACAO, inicio);
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações do controle de admissão ao modelo (prefixo ai.admissao no application.yml)
+ *
+ * Limita quantas classificações passam pelo modelo ao mesmo tempo; as
+ * excedentes esperam em uma fila limitada e, quando ela enche ou a espera
+ * vence, recebem a reação configurada em vez de acumular threads.
+ */
+@ConfigurationProperties(prefix = "ai.admissao")
+public class PropriedadesAdmissao {
+
+    /**
+     * O que fazer com uma classificação que não foi admitida
+     */
+    public enum Reacao {
+        // Responde 429 com Retry-After
+        REJEITAR,
+        // Responde com o resultado do classificador por regras
+        REGRAS
+    }
+
+    private boolean habilitada = true;
+
+    // Ajusta o limite pela latência (AIMD); desabilitado, o limite fica fixo em limiteInicial
+    private boolean adaptativo = true;
+
+    // Classificações simultâneas no modelo
+    private int limiteInicial = 8;
+    private int limiteMinimo = 1;
+    private int limiteMaximo = 64;
+
+    // Latência acima da qual o limite é reduzido (multiplicado por fatorReducao)
+    private long latenciaAlvoMs = 250;
+    private double fatorReducao = 0.9;
+
+    // Classificações esperando uma vaga e tempo máximo de espera
+    private int tamanhoFila = 32;
+    private long esperaMaximaMs = 500;
+
+    private Reacao reacao = Reacao.REGRAS;
+
+    // Getters e Setters
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    public boolean isAdaptativo() {
+        return adaptativo;
+    }
+
+    public void setAdaptativo(boolean adaptativo) {
+        this.adaptativo = adaptativo;
+    }
+
+    public int getLimiteInicial() {
+        return limiteInicial;
+    }
+
+    public void setLimiteInicial(int limiteInicial) {
+        this.limiteInicial = limiteInicial;
+    }
+
+    public int getLimiteMinimo() {
+        return limiteMinimo;
+    }
+
+    public void setLimiteMinimo(int limiteMinimo) {
+        this.limiteMinimo = limiteMinimo;
+    }
+
+    public int getLimiteMaximo() {
+        return limiteMaximo;
+    }
+
+    public void setLimiteMaximo(int limiteMaximo) {
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    public long getLatenciaAlvoMs() {
+        return latenciaAlvoMs;
+    }
+
+    public void setLatenciaAlvoMs(long latenciaAlvoMs) {
+        this.latenciaAlvoMs = latenciaAlvoMs;
+    }
+
+    public double getFatorReducao() {
+        return fatorReducao;
+    }
+
+    public void setFatorReducao(double fatorReducao) {
+        this.fatorReducao = fatorReducao;
+    }
+
+    public int getTamanhoFila() {
+        return tamanhoFila;
+    }
+
+    public void setTamanhoFila(int tamanhoFila) {
+        this.tamanhoFila = tamanhoFila;
+    }
+
+    public long getEsperaMaximaMs() {
+        return esperaMaximaMs;
+    }
+
+    public void setEsperaMaximaMs(long esperaMaximaMs) {
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    public Reacao getReacao() {
+        return reacao;
+    }
+
+    public void setReacao(Reacao reacao) {
+        this.reacao = reacao;
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações da classificação em cascata (prefixo ai.cascata no application.yml)
+ *
+ * O classificador por regras responde primeiro; o modelo só é consultado
+ * quando a confiança das regras ou a margem entre os dois setores mais
+ * prováveis fica abaixo dos limites abaixo.
+ */
+@ConfigurationProperties(prefix = "ai.cascata")
+public class PropriedadesCascata {
+
+    // Desabilitada, toda classificação vai direto para o modelo
+    private boolean habilitada = true;
+
+    // Confiança mínima das regras para dispensar o modelo
+    private double confiancaMinima = 0.4;
+
+    // Diferença mínima de probabilidade entre o 1º e o 2º setor das regras
+    private double margemMinima = 0.5;
+
+    // Getters e Setters
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    public double getConfiancaMinima() {
+        return confiancaMinima;
+    }
+
+    public void setConfiancaMinima(double confiancaMinima) {
+        this.confiancaMinima = confiancaMinima;
+    }
+
+    public double getMargemMinima() {
+        return margemMinima;
+    }
+
+    public void setMargemMinima(double margemMinima) {
+        this.margemMinima = margemMinima;
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações do classificador linear (prefixo ai.linear no application.yml)
+ *
+ * Os pesos são treinados offline (--treinar-linear) e lidos de arquivo na
+ * subida; sem o arquivo o nível linear da cascata fica desligado.
+ */
+@ConfigurationProperties(prefix = "ai.linear")
+public class PropriedadesLinear {
+
+    private boolean habilitado = true;
+
+    // Pesos gravados pelo treino (--treinar-linear)
+    private String arquivo = "modelo-linear/setores.bin";
+
+    // Limite de características por e-mail; o que passa disso é ignorado
+    private int maximoCaracteristicas = 8192;
+
+    // Confiança mínima do modelo linear para dispensar o transformer na cascata
+    private double confiancaMinima = 0.7;
+
+    // Valores padrão do treino, sobrescritos pelas opções da linha de comando
+    private Treino treino = new Treino();
+
+    /**
+     * Hiperparâmetros do treino offline
+     */
+    public static class Treino {
+
+        // 2^bits linhas de pesos
+        private int bits = 18;
+
+        // Tamanhos dos n-gramas de caracteres
+        private int ngramaMinimo = 3;
+        private int ngramaMaximo = 5;
+
+        private int epocas = 20;
+        private double taxa = 0.5;
+        private double l2 = 1e-6;
+
+        // Fração dos e-mails separada para medir a acurácia
+        private double validacao = 0.2;
+
+        public int getBits() {
+            return bits;
+        }
+
+        public void setBits(int bits) {
+            this.bits = bits;
+        }
+
+        public int getNgramaMinimo() {
+            return ngramaMinimo;
+        }
+
+        public void setNgramaMinimo(int ngramaMinimo) {
+            this.ngramaMinimo = ngramaMinimo;
+        }
+
+        public int getNgramaMaximo() {
+            return ngramaMaximo;
+        }
+
+        public void setNgramaMaximo(int ngramaMaximo) {
+            this.ngramaMaximo = ngramaMaximo;
+        }
+
+        public int getEpocas() {
+            return epocas;
+        }
+
+        public void setEpocas(int epocas) {
+            this.epocas = epocas;
+        }
+
+        public double getTaxa() {
+            return taxa;
+        }
+
+        public void setTaxa(double taxa) {
+            this.taxa = taxa;
+        }
+
+        public double getL2() {
+            return l2;
+        }
+
+        public void setL2(double l2) {
+            this.l2 = l2;
+        }
+
+        public double getValidacao() {
+            return validacao;
+        }
+
+        public void setValidacao(double validacao) {
+            this.validacao = validacao;
+        }
+    }
+
+    // Getters e Setters
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public void setArquivo(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public int getMaximoCaracteristicas() {
+        return maximoCaracteristicas;
+    }
+
+    public void setMaximoCaracteristicas(int maximoCaracteristicas) {
+        this.maximoCaracteristicas = maximoCaracteristicas;
+    }
+
+    public double getConfiancaMinima() {
+        return confiancaMinima;
+    }
+
+    public void setConfiancaMinima(double confiancaMinima) {
+        this.confiancaMinima = confiancaMinima;
+    }
+
+    public Treino getTreino() {
+        return treino;
+    }
+
+    public void setTreino(Treino treino) {
+        this.treino = treino;
+    }
+}
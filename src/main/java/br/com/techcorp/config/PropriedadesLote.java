@@ -0,0 +1,69 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações da classificação em lote (prefixo api.lote no application.yml)
+ */
+@ConfigurationProperties(prefix = "api.lote")
+public class PropriedadesLote {
+
+    // Quantidade máxima de e-mails aceitos por chamada
+    private int maxItens = 5000;
+
+    // Threads do executor dedicado (0 = dobro do número de núcleos)
+    private int threads = 0;
+
+    // Tarefas aguardando no executor antes de recusar novos lotes
+    private int capacidadeFila = 1000;
+
+    // E-mails em classificação simultânea por fluxo NDJSON (0 = threads do executor)
+    private int concorrenciaFluxo = 0;
+
+    // Getters e Setters
+    public int getMaxItens() {
+        return maxItens;
+    }
+
+    public void setMaxItens(int maxItens) {
+        this.maxItens = maxItens;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getCapacidadeFila() {
+        return capacidadeFila;
+    }
+
+    public void setCapacidadeFila(int capacidadeFila) {
+        this.capacidadeFila = capacidadeFila;
+    }
+
+    public int getConcorrenciaFluxo() {
+        return concorrenciaFluxo;
+    }
+
+    public void setConcorrenciaFluxo(int concorrenciaFluxo) {
+        this.concorrenciaFluxo = concorrenciaFluxo;
+    }
+
+    /**
+     * Retorna a quantidade efetiva de threads do executor
+     */
+    public int getThreadsEfetivas() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * Retorna a concorrência efetiva de cada fluxo NDJSON
+     */
+    public int getConcorrenciaFluxoEfetiva() {
+        return concorrenciaFluxo > 0 ? concorrenciaFluxo : getThreadsEfetivas();
+    }
+}
@@ -0,0 +1,707 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações do modelo de IA (prefixo ai.modelo no application.yml)
+ *
+ * Centraliza os parâmetros de carregamento e execução do modelo
+ * Hugging Face, permitindo ajustes por ambiente sem alterar código.
+ */
+@ConfigurationProperties(prefix = "ai.modelo")
+public class PropriedadesModelo {
+
+    private String nome = "microsoft/mdeberta-v3-base";
+    // Engine de inferência: PyTorch (DJL) ou OnnxRuntime (build com -Ponnx)
+    private String engine = "PyTorch";
+    private String suporte = "Multilíngue (inclui português)";
+    private int maxLength = 512;
+    private boolean cache = true;
+    // Requisições idênticas simultâneas esperam a classificação da primeira
+    private boolean coalescencia = true;
+    private boolean fallback = true;
+
+    // Diretório local com o modelo exportado (sem acesso à rede em tempo de execução)
+    private String diretorio = "modelos-huggingface/mdeberta-v3-base";
+
+    // Nome do arquivo do modelo dentro do diretório (opcional)
+    private String arquivo;
+
+    // FP32 usa o modelo original; INT8 usa a versão quantizada dinamicamente (arquivoInt8)
+    private PrecisaoNumerica precisaoNumerica = PrecisaoNumerica.FP32;
+
+    // Nome do modelo quantizado no mesmo diretório, sem extensão (.pt ou .onnx conforme a engine)
+    private String arquivoInt8 = "model_quantized";
+
+    // Quantidade de predictors no pool (0 = número de núcleos)
+    private int predictors = 0;
+
+    // Threads de cálculo por predictor (evita sobrecarga de threads com o pool)
+    private int threadsPorPredictor = 1;
+
+    // Tempo máximo de espera por um predictor livre
+    private long timeoutPredictorMs = 2000;
+
+    // Envia token_type_ids ao modelo (depende de como o modelo foi exportado)
+    private boolean usarTokenTypeIds = false;
+
+    // Impede que a DJL faça downloads em tempo de execução
+    private boolean offline = true;
+
+    // Agrupamento de requisições em micro-lotes antes da inferência
+    private MicroLotes microLotes = new MicroLotes();
+
+    // Limites do cache de classificações (ativado por ai.modelo.cache)
+    private CacheClassificacoes cacheClassificacoes = new CacheClassificacoes();
+
+    // Reaproveitamento da classificação de e-mails quase idênticos
+    private QuaseDuplicados quaseDuplicados = new QuaseDuplicados();
+
+    // Tokenização em tokens (truncamento por maxLength) e cache de linhas repetidas
+    private Tokenizador tokenizador = new Tokenizador();
+
+    // E-mails longos divididos em janelas sobrepostas, com parada antecipada
+    private Janelas janelas = new Janelas();
+
+    // Aquecimento do modelo antes de a aplicação ficar pronta para tráfego
+    private Aquecimento aquecimento = new Aquecimento();
+
+    // Sessão do ONNX Runtime (usada com engine = OnnxRuntime)
+    private Onnx onnx = new Onnx();
+
+    // Getters e Setters
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public String getSuporte() {
+        return suporte;
+    }
+
+    public void setSuporte(String suporte) {
+        this.suporte = suporte;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public boolean isCache() {
+        return cache;
+    }
+
+    public void setCache(boolean cache) {
+        this.cache = cache;
+    }
+
+    public boolean isCoalescencia() {
+        return coalescencia;
+    }
+
+    public void setCoalescencia(boolean coalescencia) {
+        this.coalescencia = coalescencia;
+    }
+
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public void setFallback(boolean fallback) {
+        this.fallback = fallback;
+    }
+
+    public String getDiretorio() {
+        return diretorio;
+    }
+
+    public void setDiretorio(String diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public void setArquivo(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public PrecisaoNumerica getPrecisaoNumerica() {
+        return precisaoNumerica;
+    }
+
+    public void setPrecisaoNumerica(PrecisaoNumerica precisaoNumerica) {
+        this.precisaoNumerica = precisaoNumerica;
+    }
+
+    public String getArquivoInt8() {
+        return arquivoInt8;
+    }
+
+    public void setArquivoInt8(String arquivoInt8) {
+        this.arquivoInt8 = arquivoInt8;
+    }
+
+    public int getPredictors() {
+        return predictors;
+    }
+
+    public void setPredictors(int predictors) {
+        this.predictors = predictors;
+    }
+
+    public int getThreadsPorPredictor() {
+        return threadsPorPredictor;
+    }
+
+    public void setThreadsPorPredictor(int threadsPorPredictor) {
+        this.threadsPorPredictor = threadsPorPredictor;
+    }
+
+    public long getTimeoutPredictorMs() {
+        return timeoutPredictorMs;
+    }
+
+    public void setTimeoutPredictorMs(long timeoutPredictorMs) {
+        this.timeoutPredictorMs = timeoutPredictorMs;
+    }
+
+    public boolean isUsarTokenTypeIds() {
+        return usarTokenTypeIds;
+    }
+
+    public void setUsarTokenTypeIds(boolean usarTokenTypeIds) {
+        this.usarTokenTypeIds = usarTokenTypeIds;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    public MicroLotes getMicroLotes() {
+        return microLotes;
+    }
+
+    public void setMicroLotes(MicroLotes microLotes) {
+        this.microLotes = microLotes;
+    }
+
+    public CacheClassificacoes getCacheClassificacoes() {
+        return cacheClassificacoes;
+    }
+
+    public void setCacheClassificacoes(CacheClassificacoes cacheClassificacoes) {
+        this.cacheClassificacoes = cacheClassificacoes;
+    }
+
+    public QuaseDuplicados getQuaseDuplicados() {
+        return quaseDuplicados;
+    }
+
+    public void setQuaseDuplicados(QuaseDuplicados quaseDuplicados) {
+        this.quaseDuplicados = quaseDuplicados;
+    }
+
+    public Tokenizador getTokenizador() {
+        return tokenizador;
+    }
+
+    public void setTokenizador(Tokenizador tokenizador) {
+        this.tokenizador = tokenizador;
+    }
+
+    public Janelas getJanelas() {
+        return janelas;
+    }
+
+    public void setJanelas(Janelas janelas) {
+        this.janelas = janelas;
+    }
+
+    public Aquecimento getAquecimento() {
+        return aquecimento;
+    }
+
+    public void setAquecimento(Aquecimento aquecimento) {
+        this.aquecimento = aquecimento;
+    }
+
+    public Onnx getOnnx() {
+        return onnx;
+    }
+
+    public void setOnnx(Onnx onnx) {
+        this.onnx = onnx;
+    }
+
+    /**
+     * Retorna o tamanho efetivo do pool de predictors
+     */
+    public int getTamanhoPoolPredictors() {
+        return predictors > 0 ? predictors : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Precisão numérica dos pesos do modelo carregado
+     */
+    public enum PrecisaoNumerica {
+        // Pesos originais em ponto flutuante de 32 bits
+        FP32,
+        // Camadas lineares quantizadas dinamicamente para inteiros de 8 bits
+        INT8
+    }
+
+    /**
+     * Configurações do agendador de micro-lotes (ai.modelo.microLotes)
+     */
+    public static class MicroLotes {
+
+        private boolean habilitado = true;
+
+        // Limite superior do tamanho do lote (o tamanho efetivo se adapta à latência)
+        private int tamanhoMaximo = 32;
+
+        // Faixa de espera do pedido mais antigo antes de fechar o lote
+        private long esperaMinimaMicros = 500;
+        private long esperaMaximaMicros = 5000;
+
+        // Lotes acima desta latência reduzem o tamanho do lote
+        private long latenciaAlvoMs = 50;
+
+        private int capacidadeFila = 10000;
+
+        public boolean isHabilitado() {
+            return habilitado;
+        }
+
+        public void setHabilitado(boolean habilitado) {
+            this.habilitado = habilitado;
+        }
+
+        public int getTamanhoMaximo() {
+            return tamanhoMaximo;
+        }
+
+        public void setTamanhoMaximo(int tamanhoMaximo) {
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+
+        public long getEsperaMinimaMicros() {
+            return esperaMinimaMicros;
+        }
+
+        public void setEsperaMinimaMicros(long esperaMinimaMicros) {
+            this.esperaMinimaMicros = esperaMinimaMicros;
+        }
+
+        public long getEsperaMaximaMicros() {
+            return esperaMaximaMicros;
+        }
+
+        public void setEsperaMaximaMicros(long esperaMaximaMicros) {
+            this.esperaMaximaMicros = esperaMaximaMicros;
+        }
+
+        public long getLatenciaAlvoMs() {
+            return latenciaAlvoMs;
+        }
+
+        public void setLatenciaAlvoMs(long latenciaAlvoMs) {
+            this.latenciaAlvoMs = latenciaAlvoMs;
+        }
+
+        public int getCapacidadeFila() {
+            return capacidadeFila;
+        }
+
+        public void setCapacidadeFila(int capacidadeFila) {
+            this.capacidadeFila = capacidadeFila;
+        }
+    }
+
+    /**
+     * Configurações do cache de classificações (ai.modelo.cacheClassificacoes)
+     */
+    public static class CacheClassificacoes {
+
+        // Número máximo de entradas (usado quando pesoMaximoBytes = 0)
+        private long maximoEntradas = 10000;
+
+        // Limite pelo tamanho estimado das entradas em bytes (0 = limitar por quantidade)
+        private long pesoMaximoBytes = 0;
+
+        // Tempo de vida de cada entrada após a escrita
+        private long ttlMinutos = 60;
+
+        // Guarda o texto normalizado na chave para descartar colisões da impressão de 128 bits
+        private boolean verificarColisoes = false;
+
+        // Segundo nível em disco (segmentos mapeados em memória), mantido entre reinícios
+        private Persistente persistente = new Persistente();
+
+        public long getMaximoEntradas() {
+            return maximoEntradas;
+        }
+
+        public void setMaximoEntradas(long maximoEntradas) {
+            this.maximoEntradas = maximoEntradas;
+        }
+
+        public long getPesoMaximoBytes() {
+            return pesoMaximoBytes;
+        }
+
+        public void setPesoMaximoBytes(long pesoMaximoBytes) {
+            this.pesoMaximoBytes = pesoMaximoBytes;
+        }
+
+        public long getTtlMinutos() {
+            return ttlMinutos;
+        }
+
+        public void setTtlMinutos(long ttlMinutos) {
+            this.ttlMinutos = ttlMinutos;
+        }
+
+        public boolean isVerificarColisoes() {
+            return verificarColisoes;
+        }
+
+        public void setVerificarColisoes(boolean verificarColisoes) {
+            this.verificarColisoes = verificarColisoes;
+        }
+
+        public Persistente getPersistente() {
+            return persistente;
+        }
+
+        public void setPersistente(Persistente persistente) {
+            this.persistente = persistente;
+        }
+
+        /**
+         * Cache persistente (ai.modelo.cacheClassificacoes.persistente)
+         */
+        public static class Persistente {
+
+            private boolean habilitado = false;
+
+            // Diretório exclusivo desta instância com os arquivos de segmento
+            private String diretorio = "cache-classificacoes";
+
+            // Tamanho de cada arquivo de segmento mapeado
+            private long tamanhoSegmentoMb = 64;
+
+            // Acima deste total o segmento mais antigo é descartado
+            private long tamanhoMaximoMb = 1024;
+
+            // Segmentos com menos que esta fração de registros vivos são compactados
+            private double limiarCompactacao = 0.5;
+
+            private long intervaloCompactacaoSegundos = 60;
+
+            public boolean isHabilitado() {
+                return habilitado;
+            }
+
+            public void setHabilitado(boolean habilitado) {
+                this.habilitado = habilitado;
+            }
+
+            public String getDiretorio() {
+                return diretorio;
+            }
+
+            public void setDiretorio(String diretorio) {
+                this.diretorio = diretorio;
+            }
+
+            public long getTamanhoSegmentoMb() {
+                return tamanhoSegmentoMb;
+            }
+
+            public void setTamanhoSegmentoMb(long tamanhoSegmentoMb) {
+                this.tamanhoSegmentoMb = tamanhoSegmentoMb;
+            }
+
+            public long getTamanhoMaximoMb() {
+                return tamanhoMaximoMb;
+            }
+
+            public void setTamanhoMaximoMb(long tamanhoMaximoMb) {
+                this.tamanhoMaximoMb = tamanhoMaximoMb;
+            }
+
+            public double getLimiarCompactacao() {
+                return limiarCompactacao;
+            }
+
+            public void setLimiarCompactacao(double limiarCompactacao) {
+                this.limiarCompactacao = limiarCompactacao;
+            }
+
+            public long getIntervaloCompactacaoSegundos() {
+                return intervaloCompactacaoSegundos;
+            }
+
+            public void setIntervaloCompactacaoSegundos(long intervaloCompactacaoSegundos) {
+                this.intervaloCompactacaoSegundos = intervaloCompactacaoSegundos;
+            }
+        }
+    }
+
+    /**
+     * Configurações do índice de e-mails quase idênticos (ai.modelo.quaseDuplicados)
+     */
+    public static class QuaseDuplicados {
+
+        private boolean habilitado = true;
+
+        // Fração mínima de bits iguais nas impressões SimHash (0.9 = até 6 de 64 bits diferentes)
+        private double similaridadeMinima = 0.9;
+
+        // Últimas classificações mantidas no índice
+        private int capacidade = 10000;
+
+        // Textos mais curtos que isso não são comparados
+        private int minimoPalavras = 20;
+
+        public boolean isHabilitado() {
+            return habilitado;
+        }
+
+        public void setHabilitado(boolean habilitado) {
+            this.habilitado = habilitado;
+        }
+
+        public double getSimilaridadeMinima() {
+            return similaridadeMinima;
+        }
+
+        public void setSimilaridadeMinima(double similaridadeMinima) {
+            this.similaridadeMinima = similaridadeMinima;
+        }
+
+        public int getCapacidade() {
+            return capacidade;
+        }
+
+        public void setCapacidade(int capacidade) {
+            this.capacidade = capacidade;
+        }
+
+        public int getMinimoPalavras() {
+            return minimoPalavras;
+        }
+
+        public void setMinimoPalavras(int minimoPalavras) {
+            this.minimoPalavras = minimoPalavras;
+        }
+    }
+
+    /**
+     * Configurações do tokenizador do modelo (ai.modelo.tokenizador)
+     */
+    public static class Tokenizador {
+
+        // Instâncias do tokenizer no pool (0 = mesmo tamanho do pool de predictors)
+        private int instancias = 0;
+
+        // Linhas curtas (assuntos, assinaturas) com os ids já calculados (0 = sem cache)
+        private long cacheLinhas = 4096;
+
+        public int getInstancias() {
+            return instancias;
+        }
+
+        public void setInstancias(int instancias) {
+            this.instancias = instancias;
+        }
+
+        public long getCacheLinhas() {
+            return cacheLinhas;
+        }
+
+        public void setCacheLinhas(long cacheLinhas) {
+            this.cacheLinhas = cacheLinhas;
+        }
+    }
+
+    /**
+     * Configurações da classificação em janelas (ai.modelo.janelas)
+     */
+    public static class Janelas {
+
+        // Desabilitada, só o início do texto é classificado (maxLength tokens ou tamanhoCaracteres)
+        private boolean habilitada = true;
+
+        // Limite de janelas por e-mail; o texto além delas é descartado
+        private int maximoJanelas = 8;
+
+        // Tokens repetidos entre janelas consecutivas do modelo
+        private int sobreposicaoTokens = 64;
+
+        // Janelas executadas juntas em cada inferência depois da primeira
+        private int janelasPorLote = 4;
+
+        // Confiança agregada a partir da qual as janelas restantes são puladas
+        private double confiancaParada = 0.85;
+
+        // Janelas da pontuação semântica (sem modelo), em caracteres do texto preparado
+        private int tamanhoCaracteres = 500;
+        private int sobreposicaoCaracteres = 100;
+
+        public boolean isHabilitada() {
+            return habilitada;
+        }
+
+        public void setHabilitada(boolean habilitada) {
+            this.habilitada = habilitada;
+        }
+
+        public int getMaximoJanelas() {
+            return maximoJanelas;
+        }
+
+        public void setMaximoJanelas(int maximoJanelas) {
+            this.maximoJanelas = maximoJanelas;
+        }
+
+        public int getSobreposicaoTokens() {
+            return sobreposicaoTokens;
+        }
+
+        public void setSobreposicaoTokens(int sobreposicaoTokens) {
+            this.sobreposicaoTokens = sobreposicaoTokens;
+        }
+
+        public int getJanelasPorLote() {
+            return janelasPorLote;
+        }
+
+        public void setJanelasPorLote(int janelasPorLote) {
+            this.janelasPorLote = janelasPorLote;
+        }
+
+        public double getConfiancaParada() {
+            return confiancaParada;
+        }
+
+        public void setConfiancaParada(double confiancaParada) {
+            this.confiancaParada = confiancaParada;
+        }
+
+        public int getTamanhoCaracteres() {
+            return tamanhoCaracteres;
+        }
+
+        public void setTamanhoCaracteres(int tamanhoCaracteres) {
+            this.tamanhoCaracteres = tamanhoCaracteres;
+        }
+
+        public int getSobreposicaoCaracteres() {
+            return sobreposicaoCaracteres;
+        }
+
+        public void setSobreposicaoCaracteres(int sobreposicaoCaracteres) {
+            this.sobreposicaoCaracteres = sobreposicaoCaracteres;
+        }
+    }
+
+    /**
+     * Configurações do aquecimento (ai.modelo.aquecimento)
+     */
+    public static class Aquecimento {
+
+        // Passadas sobre os cenários de demonstração (0 = sem aquecimento)
+        private int iteracoes = 2000;
+
+        // Limite de tempo do aquecimento; com inferência real cada passada custa bem mais
+        private long tempoMaximoMs = 30000;
+
+        public int getIteracoes() {
+            return iteracoes;
+        }
+
+        public void setIteracoes(int iteracoes) {
+            this.iteracoes = iteracoes;
+        }
+
+        public long getTempoMaximoMs() {
+            return tempoMaximoMs;
+        }
+
+        public void setTempoMaximoMs(long tempoMaximoMs) {
+            this.tempoMaximoMs = tempoMaximoMs;
+        }
+    }
+
+    /**
+     * Configurações da engine ONNX Runtime (ai.modelo.onnx)
+     */
+    public static class Onnx {
+
+        // Threads por execução (0 = threadsPorPredictor); o paralelismo vem do pool
+        private int threadsIntraOp = 0;
+
+        private int threadsInterOp = 1;
+
+        // NO_OPT, BASIC_OPT, EXTENDED_OPT ou ALL_OPT
+        private String nivelOtimizacao = "ALL_OPT";
+
+        // Espera ativa reduz a latência, mas ocupa CPU mesmo sem requisições
+        private boolean esperaAtiva = false;
+
+        public int getThreadsIntraOp() {
+            return threadsIntraOp;
+        }
+
+        public void setThreadsIntraOp(int threadsIntraOp) {
+            this.threadsIntraOp = threadsIntraOp;
+        }
+
+        public int getThreadsInterOp() {
+            return threadsInterOp;
+        }
+
+        public void setThreadsInterOp(int threadsInterOp) {
+            this.threadsInterOp = threadsInterOp;
+        }
+
+        public String getNivelOtimizacao() {
+            return nivelOtimizacao;
+        }
+
+        public void setNivelOtimizacao(String nivelOtimizacao) {
+            this.nivelOtimizacao = nivelOtimizacao;
+        }
+
+        public boolean isEsperaAtiva() {
+            return esperaAtiva;
+        }
+
+        public void setEsperaAtiva(boolean esperaAtiva) {
+            this.esperaAtiva = esperaAtiva;
+        }
+    }
+}
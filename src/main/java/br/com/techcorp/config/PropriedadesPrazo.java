@@ -0,0 +1,118 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações do prazo por requisição (prefixo ai.prazo no application.yml)
+ *
+ * A classificação pelo modelo que não termina dentro do prazo é abandonada
+ * e o e-mail fica com o resultado das regras; timeouts seguidos abrem o
+ * disjuntor, que desvia tudo para as regras até o modelo se recuperar.
+ */
+@ConfigurationProperties(prefix = "ai.prazo")
+public class PropriedadesPrazo {
+
+    private boolean habilitado = true;
+
+    // Prazo de uma classificação sem o cabeçalho X-Prazo-Ms
+    private long padraoMs = 3000;
+
+    // Menor prazo aceito no cabeçalho: prazos menores são elevados a este
+    private long minimoMs = 100;
+
+    // Maior prazo aceito no cabeçalho
+    private long maximoMs = 30000;
+
+    // Threads que executam o modelo enquanto a requisição aguarda o prazo
+    private int threads = 64;
+
+    // Desvio para as regras depois de timeouts seguidos
+    private Disjuntor disjuntor = new Disjuntor();
+
+    /**
+     * Configurações do disjuntor do modelo (ai.prazo.disjuntor)
+     */
+    public static class Disjuntor {
+
+        private boolean habilitado = true;
+
+        // Timeouts seguidos que abrem o disjuntor
+        private int timeoutsParaAbrir = 5;
+
+        // Tempo aberto antes de deixar uma classificação de teste passar pelo modelo
+        private long tempoAbertoMs = 10000;
+
+        public boolean isHabilitado() {
+            return habilitado;
+        }
+
+        public void setHabilitado(boolean habilitado) {
+            this.habilitado = habilitado;
+        }
+
+        public int getTimeoutsParaAbrir() {
+            return timeoutsParaAbrir;
+        }
+
+        public void setTimeoutsParaAbrir(int timeoutsParaAbrir) {
+            this.timeoutsParaAbrir = timeoutsParaAbrir;
+        }
+
+        public long getTempoAbertoMs() {
+            return tempoAbertoMs;
+        }
+
+        public void setTempoAbertoMs(long tempoAbertoMs) {
+            this.tempoAbertoMs = tempoAbertoMs;
+        }
+    }
+
+    // Getters e Setters
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public long getPadraoMs() {
+        return padraoMs;
+    }
+
+    public void setPadraoMs(long padraoMs) {
+        this.padraoMs = padraoMs;
+    }
+
+    public long getMinimoMs() {
+        return minimoMs;
+    }
+
+    public void setMinimoMs(long minimoMs) {
+        this.minimoMs = minimoMs;
+    }
+
+    public long getMaximoMs() {
+        return maximoMs;
+    }
+
+    public void setMaximoMs(long maximoMs) {
+        this.maximoMs = maximoMs;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Disjuntor getDisjuntor() {
+        return disjuntor;
+    }
+
+    public void setDisjuntor(Disjuntor disjuntor) {
+        this.disjuntor = disjuntor;
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.techcorp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configurações do classificador por vizinhos mais próximos (prefixo
+ * ai.vizinhos no application.yml)
+ *
+ * Cada e-mail vira um embedding e o setor é decidido pelos k e-mails
+ * rotulados mais parecidos, buscados em um índice HNSW mantido em disco.
+ */
+@ConfigurationProperties(prefix = "ai.vizinhos")
+public class PropriedadesVizinhos {
+
+    // Desabilitado (padrão), o índice não é aberto nem criado e o classificador responde com as regras
+    private boolean habilitado = false;
+
+    // Quantidade de vizinhos que votam no setor
+    private int k = 7;
+
+    // Diretório dos arquivos mapeados do índice (vetores e grafo)
+    private String diretorio = "indice-vizinhos";
+
+    // Tamanho de cada trecho mapeado dos arquivos do índice
+    private int tamanhoSegmentoMb = 64;
+
+    // E-mails rotulados (JSONL) inseridos quando o índice está vazio; vazio = conjunto incluído
+    private String exemplosIniciais = "";
+
+    // Exemplos usados para medir a precisão (deixando cada um fora da própria busca)
+    private int amostraPrecisao = 500;
+
+    private Hnsw hnsw = new Hnsw();
+
+    private Embeddings embeddings = new Embeddings();
+
+    /**
+     * Parâmetros do grafo HNSW
+     */
+    public static class Hnsw {
+
+        // Vizinhos por nó nos níveis superiores (o nível 0 guarda o dobro)
+        private int m = 16;
+
+        // Largura da busca ao inserir um exemplo
+        private int efConstrucao = 100;
+
+        // Largura da busca ao classificar (no mínimo k)
+        private int efBusca = 64;
+
+        public int getM() {
+            return m;
+        }
+
+        public void setM(int m) {
+            this.m = m;
+        }
+
+        public int getEfConstrucao() {
+            return efConstrucao;
+        }
+
+        public void setEfConstrucao(int efConstrucao) {
+            this.efConstrucao = efConstrucao;
+        }
+
+        public int getEfBusca() {
+            return efBusca;
+        }
+
+        public void setEfBusca(int efBusca) {
+            this.efBusca = efBusca;
+        }
+    }
+
+    /**
+     * Modelo de embeddings de sentenças exportado localmente (TorchScript +
+     * tokenizer.json); sem ele é usado um embedding por hashing de palavras
+     */
+    public static class Embeddings {
+
+        private String diretorio = "modelos-huggingface/multilingual-e5-small";
+
+        // Prefixo exigido por alguns modelos (ex.: "query: " nos modelos E5)
+        private String prefixo = "";
+
+        private int maxLength = 256;
+
+        // Pool de predictors (0 = um por núcleo)
+        private int predictors = 0;
+
+        private boolean usarTokenTypeIds = false;
+
+        // Dimensão do embedding por hashing de palavras
+        private int dimensaoHash = 384;
+
+        public String getDiretorio() {
+            return diretorio;
+        }
+
+        public void setDiretorio(String diretorio) {
+            this.diretorio = diretorio;
+        }
+
+        public String getPrefixo() {
+            return prefixo;
+        }
+
+        public void setPrefixo(String prefixo) {
+            this.prefixo = prefixo;
+        }
+
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        public void setMaxLength(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        public int getPredictors() {
+            return predictors;
+        }
+
+        public void setPredictors(int predictors) {
+            this.predictors = predictors;
+        }
+
+        public int getTamanhoPoolPredictors() {
+            return predictors > 0 ? predictors : Runtime.getRuntime().availableProcessors();
+        }
+
+        public boolean isUsarTokenTypeIds() {
+            return usarTokenTypeIds;
+        }
+
+        public void setUsarTokenTypeIds(boolean usarTokenTypeIds) {
+            this.usarTokenTypeIds = usarTokenTypeIds;
+        }
+
+        public int getDimensaoHash() {
+            return dimensaoHash;
+        }
+
+        public void setDimensaoHash(int dimensaoHash) {
+            this.dimensaoHash = dimensaoHash;
+        }
+    }
+
+    // Getters e Setters
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public void setK(int k) {
+        this.k = k;
+    }
+
+    public String getDiretorio() {
+        return diretorio;
+    }
+
+    public void setDiretorio(String diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    public int getTamanhoSegmentoMb() {
+        return tamanhoSegmentoMb;
+    }
+
+    public void setTamanhoSegmentoMb(int tamanhoSegmentoMb) {
+        this.tamanhoSegmentoMb = tamanhoSegmentoMb;
+    }
+
+    public String getExemplosIniciais() {
+        return exemplosIniciais;
+    }
+
+    public void setExemplosIniciais(String exemplosIniciais) {
+        this.exemplosIniciais = exemplosIniciais;
+    }
+
+    public int getAmostraPrecisao() {
+        return amostraPrecisao;
+    }
+
+    public void setAmostraPrecisao(int amostraPrecisao) {
+        this.amostraPrecisao = amostraPrecisao;
+    }
+
+    public Hnsw getHnsw() {
+        return hnsw;
+    }
+
+    public void setHnsw(Hnsw hnsw) {
+        this.hnsw = hnsw;
+    }
+
+    public Embeddings getEmbeddings() {
+        return embeddings;
+    }
+
+    public void setEmbeddings(Embeddings embeddings) {
+        this.embeddings = embeddings;
+    }
+}
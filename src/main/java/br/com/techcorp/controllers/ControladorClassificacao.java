@@ -1,18 +1,40 @@
 package br.com.techcorp.controllers;
 
 import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.admissao.ControleAdmissao;
+import br.com.techcorp.ai.admissao.SobrecargaException;
+import br.com.techcorp.ai.impl.ClassificadorCascata;
 import br.com.techcorp.ai.impl.ClassificadorHuggingFaceReal;
+import br.com.techcorp.ai.impl.ClassificadorLinear;
+import br.com.techcorp.ai.impl.ClassificadorVizinhos;
+import br.com.techcorp.models.CenarioDemonstracao;
 import br.com.techcorp.models.Email;
+import br.com.techcorp.config.PropriedadesLote;
 import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.ResultadoItemLote;
 import br.com.techcorp.models.SetorEmail;
+import br.com.techcorp.services.ServicoClassificacaoFluxo;
+import br.com.techcorp.services.ServicoClassificacaoLote;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Controller REST para a API de Classificação de E-mails
@@ -25,25 +47,54 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ControladorClassificacao {
 
+        // Prazo da classificação em milissegundos, opcional (padrão em ai.prazo.padraoMs)
+        public static final String CABECALHO_PRAZO = "X-Prazo-Ms";
+
         private final ClassificadorEmails classificador;
+        private final ClassificadorCascata classificadorCascata;
         private final ClassificadorHuggingFaceReal classificadorHuggingFace;
+        private final ClassificadorVizinhos classificadorVizinhos;
+        private final ClassificadorLinear classificadorLinear;
+        private final ControleAdmissao controleAdmissao;
+        private final ServicoClassificacaoLote servicoClassificacaoLote;
+        private final ServicoClassificacaoFluxo servicoClassificacaoFluxo;
+        private final PropriedadesLote propriedadesLote;
+        private final ApplicationAvailability disponibilidade;
 
         @Autowired
         public ControladorClassificacao(
-                        ClassificadorHuggingFaceReal classificadorHuggingFace) {
+                        ClassificadorCascata classificadorCascata,
+                        ClassificadorHuggingFaceReal classificadorHuggingFace,
+                        ClassificadorVizinhos classificadorVizinhos,
+                        ClassificadorLinear classificadorLinear,
+                        ControleAdmissao controleAdmissao,
+                        ServicoClassificacaoLote servicoClassificacaoLote,
+                        ServicoClassificacaoFluxo servicoClassificacaoFluxo,
+                        PropriedadesLote propriedadesLote,
+                        ApplicationAvailability disponibilidade) {
                 this.classificadorHuggingFace = classificadorHuggingFace;
-                this.classificador = classificadorHuggingFace; // Usar o classificador Hugging Face como principal
+                this.classificadorVizinhos = classificadorVizinhos;
+                this.classificadorLinear = classificadorLinear;
+                this.controleAdmissao = controleAdmissao;
+                this.classificadorCascata = classificadorCascata;
+                this.classificador = classificadorCascata; // Regras primeiro, Hugging Face quando necessário
+                this.servicoClassificacaoLote = servicoClassificacaoLote;
+                this.servicoClassificacaoFluxo = servicoClassificacaoFluxo;
+                this.propriedadesLote = propriedadesLote;
+                this.disponibilidade = disponibilidade;
         }
 
         /**
          * Endpoint principal para classificar um e-mail
          *
          * Recebe o conteúdo do e-mail (assunto e corpo) via JSON
-         * e retorna a classificação automática por setor usando IA real
+         * e retorna a classificação automática por setor usando IA real.
+         * O cabeçalho X-Prazo-Ms limita o tempo de espera pelo modelo.
          */
         @PostMapping("/email")
         public ResponseEntity<Map<String, Object>> classificarEmail(
-                        @RequestBody Email email) {
+                        @RequestBody Email email,
+                        @RequestHeader(value = CABECALHO_PRAZO, required = false) Long prazoMs) {
 
                 try {
                         // Validação básica dos dados de entrada
@@ -66,7 +117,8 @@ public class ControladorClassificacao {
                                         + "...");
 
                         // Realizar a classificação
-                        ResultadoClassificacao resultado = classificador.classificar(email);
+                        ResultadoClassificacao resultado = classificadorCascata.classificar(email,
+                                        prazoMs != null ? prazoMs : 0L);
 
                         // Preparar resposta
                         Map<String, Object> resposta = new HashMap<>();
@@ -101,6 +153,9 @@ public class ControladorClassificacao {
 
                         return ResponseEntity.ok(resposta);
 
+                } catch (SobrecargaException e) {
+                        return sobrecarga(e);
+
                 } catch (Exception e) {
                         System.err.println("❌ Erro na classificação do e-mail: " + e.getMessage());
 
@@ -116,11 +171,13 @@ public class ControladorClassificacao {
         /**
          * Endpoint para classificar apenas um texto
          *
-         * Útil para testes rápidos ou quando se tem apenas o conteúdo textual
+         * Útil para testes rápidos ou quando se tem apenas o conteúdo textual.
+         * O cabeçalho X-Prazo-Ms limita o tempo de espera pelo modelo.
          */
         @PostMapping("/texto")
         public ResponseEntity<Map<String, Object>> classificarTexto(
-                        @RequestBody Map<String, String> request) {
+                        @RequestBody Map<String, String> request,
+                        @RequestHeader(value = CABECALHO_PRAZO, required = false) Long prazoMs) {
 
                 try {
                         String texto = request.get("texto");
@@ -134,7 +191,8 @@ public class ControladorClassificacao {
                         System.out.println("🤖 Classificando texto com IA Real Hugging Face: "
                                         + texto.substring(0, Math.min(100, texto.length())) + "...");
 
-                        ResultadoClassificacao resultado = classificador.classificarTexto(texto);
+                        ResultadoClassificacao resultado = classificadorCascata.classificarTexto(texto,
+                                        prazoMs != null ? prazoMs : 0L);
 
                         Map<String, Object> resposta = new HashMap<>();
                         resposta.put("sucesso", true);
@@ -163,6 +221,9 @@ public class ControladorClassificacao {
 
                         return ResponseEntity.ok(resposta);
 
+                } catch (SobrecargaException e) {
+                        return sobrecarga(e);
+
                 } catch (Exception e) {
                         System.err.println("❌ Erro na classificação do texto: " + e.getMessage());
 
@@ -175,6 +236,231 @@ public class ControladorClassificacao {
                 }
         }
 
+        /**
+         * Resposta 429 para uma classificação recusada pelo controle de admissão
+         */
+        private ResponseEntity<Map<String, Object>> sobrecarga(SobrecargaException e) {
+                System.err.println("⏳ Classificação recusada por sobrecarga do modelo");
+
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSegundos()))
+                                .body(Map.of(
+                                                "sucesso", false,
+                                                "mensagem", e.getMessage(),
+                                                "timestamp", LocalDateTime.now()));
+        }
+
+        /**
+         * Endpoint para classificar um e-mail pelos e-mails rotulados mais parecidos
+         *
+         * Usa o índice de vizinhos (k-NN sobre embeddings) em vez da cascata;
+         * sem o índice, responde com o classificador por regras
+         */
+        @PostMapping("/vizinhos")
+        public ResponseEntity<Map<String, Object>> classificarPorVizinhos(
+                        @RequestBody Email email) {
+
+                if (email == null || email.getTextoParaClassificacao().isBlank()) {
+                        return ResponseEntity.badRequest().body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", "Assunto ou corpo do e-mail é obrigatório",
+                                        "timestamp", LocalDateTime.now()));
+                }
+
+                ResultadoClassificacao resultado = classificadorVizinhos.classificar(email);
+
+                Map<String, Object> resposta = new HashMap<>();
+                resposta.put("sucesso", true);
+                resposta.put("classificacao", Map.of(
+                                "setor", resultado.getSetor().name(),
+                                "descricaoSetor", resultado.getSetor().getDescricao(),
+                                "confianca", resultado.getConfianca(),
+                                "confiancaPorcentagem", resultado.getConfiancaPorcentagem(),
+                                "motivo", resultado.getMotivo(),
+                                "versaoModelo", resultado.getVersaoModelo()));
+                resposta.put("probabilidadesSetores", resultado.getProbabilidadesSetores());
+                resposta.put("timestamp", LocalDateTime.now());
+
+                return ResponseEntity.ok(resposta);
+        }
+
+        /**
+         * Endpoint para classificar um e-mail só com o classificador linear
+         *
+         * Usa os pesos treinados offline (--treinar-linear) em vez da cascata;
+         * sem eles, responde com o classificador por regras
+         */
+        @PostMapping("/linear")
+        public ResponseEntity<Map<String, Object>> classificarLinear(
+                        @RequestBody Email email) {
+
+                if (email == null || email.getTextoParaClassificacao().isBlank()) {
+                        return ResponseEntity.badRequest().body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", "Assunto ou corpo do e-mail é obrigatório",
+                                        "timestamp", LocalDateTime.now()));
+                }
+
+                ResultadoClassificacao resultado = classificadorLinear.classificar(email);
+
+                Map<String, Object> resposta = new HashMap<>();
+                resposta.put("sucesso", true);
+                resposta.put("classificacao", Map.of(
+                                "setor", resultado.getSetor().name(),
+                                "descricaoSetor", resultado.getSetor().getDescricao(),
+                                "confianca", resultado.getConfianca(),
+                                "confiancaPorcentagem", resultado.getConfiancaPorcentagem(),
+                                "motivo", resultado.getMotivo(),
+                                "versaoModelo", resultado.getVersaoModelo()));
+                resposta.put("probabilidadesSetores", resultado.getProbabilidadesSetores());
+                resposta.put("timestamp", LocalDateTime.now());
+
+                return ResponseEntity.ok(resposta);
+        }
+
+        /**
+         * Endpoint para ensinar um e-mail rotulado ao índice de vizinhos
+         *
+         * Recebe assunto, corpo e setor; o exemplo é ligado ao índice na hora
+         * e já vale para a próxima classificação
+         */
+        @PostMapping("/vizinhos/exemplos")
+        public ResponseEntity<Map<String, Object>> adicionarExemploVizinhos(
+                        @RequestBody Map<String, String> request) {
+
+                SetorEmail setor;
+                try {
+                        setor = SetorEmail.valueOf(String.valueOf(request.get("setor")).trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", "Setor inválido: " + request.get("setor"),
+                                        "timestamp", LocalDateTime.now()));
+                }
+
+                Email email = new Email(null, null, request.get("assunto"), request.get("corpo"));
+                String texto = email.getTextoParaClassificacao();
+                if (texto.isBlank()) {
+                        return ResponseEntity.badRequest().body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", "Assunto ou corpo do e-mail é obrigatório",
+                                        "timestamp", LocalDateTime.now()));
+                }
+
+                try {
+                        int exemplos = classificadorVizinhos.adicionarExemplo(texto, setor);
+                        System.out.println("🧭 Exemplo de " + setor + " adicionado ao índice de vizinhos ("
+                                        + exemplos + " exemplos)");
+
+                        return ResponseEntity.ok(Map.of(
+                                        "sucesso", true,
+                                        "setor", setor.name(),
+                                        "exemplos", exemplos,
+                                        "timestamp", LocalDateTime.now()));
+
+                } catch (IllegalStateException e) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", e.getMessage(),
+                                        "timestamp", LocalDateTime.now()));
+
+                } catch (Exception e) {
+                        System.err.println("❌ Erro ao adicionar exemplo ao índice de vizinhos: " + e.getMessage());
+
+                        return ResponseEntity.internalServerError().body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", "Erro ao adicionar exemplo: " + e.getMessage(),
+                                        "timestamp", LocalDateTime.now()));
+                }
+        }
+
+        /**
+         * Endpoint para classificar vários e-mails em uma única chamada
+         *
+         * Os e-mails são classificados em paralelo no executor dedicado de lotes;
+         * a thread do servlet é liberada enquanto o lote é processado. Os resultados
+         * seguem a ordem da entrada e um item inválido não interrompe os demais.
+         */
+        @PostMapping("/lote")
+        public CompletableFuture<ResponseEntity<Map<String, Object>>> classificarLote(
+                        @RequestBody List<Email> emails) {
+
+                if (emails == null || emails.isEmpty()) {
+                        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", "A lista de e-mails é obrigatória",
+                                        "timestamp", LocalDateTime.now())));
+                }
+
+                if (emails.size() > propriedadesLote.getMaxItens()) {
+                        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                                        "sucesso", false,
+                                        "mensagem", "O lote excede o limite de " + propriedadesLote.getMaxItens()
+                                                        + " e-mails",
+                                        "timestamp", LocalDateTime.now())));
+                }
+
+                System.out.println("📦 Classificando lote de " + emails.size() + " e-mails com IA Real Hugging Face");
+                long inicio = System.currentTimeMillis();
+
+                try {
+                        return servicoClassificacaoLote.classificar(emails)
+                                        .thenApply(resultados -> {
+                                                long sucessos = resultados.stream()
+                                                                .filter(ResultadoItemLote::isSucesso)
+                                                                .count();
+                                                long tempoMs = System.currentTimeMillis() - inicio;
+
+                                                Map<String, Object> resposta = new HashMap<>();
+                                                resposta.put("sucesso", true);
+                                                resposta.put("total", resultados.size());
+                                                resposta.put("sucessos", sucessos);
+                                                resposta.put("falhas", resultados.size() - sucessos);
+                                                resposta.put("resultados", resultados);
+                                                resposta.put("tempoMs", tempoMs);
+                                                resposta.put("timestamp", LocalDateTime.now());
+
+                                                System.out.println("✅ Lote classificado: " + sucessos + "/"
+                                                                + resultados.size() + " e-mails em " + tempoMs + " ms");
+
+                                                return ResponseEntity.ok(resposta);
+                                        });
+
+                } catch (RejectedExecutionException e) {
+                        System.err.println("❌ Executor de lotes sem capacidade: " + e.getMessage());
+
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .body(Map.of(
+                                                        "sucesso", false,
+                                                        "mensagem", "Capacidade de processamento de lotes esgotada, tente novamente",
+                                                        "timestamp", LocalDateTime.now())));
+                }
+        }
+
+        /**
+         * Endpoint de streaming para classificar um fluxo NDJSON de e-mails
+         *
+         * Cada linha da requisição é um e-mail em JSON e cada linha da resposta é o
+         * ResultadoClassificacao correspondente, na mesma ordem. A entrada é lida sob
+         * demanda, com concorrência limitada, então fluxos de qualquer tamanho podem
+         * ser enviados sem montar um array JSON na memória.
+         */
+        @PostMapping(value = "/fluxo", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                        produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public Flux<ResultadoClassificacao> classificarFluxo(InputStream corpo) {
+                System.out.println("🌊 Classificando fluxo NDJSON de e-mails com IA Real Hugging Face");
+
+                long inicio = System.currentTimeMillis();
+                AtomicLong classificados = new AtomicLong();
+
+                return servicoClassificacaoFluxo.classificar(corpo)
+                                .doOnNext(resultado -> classificados.incrementAndGet())
+                                .doOnComplete(() -> System.out.println("✅ Fluxo classificado: " + classificados.get()
+                                                + " e-mails em " + (System.currentTimeMillis() - inicio) + " ms"))
+                                .doOnError(e -> System.err.println("❌ Erro no fluxo de classificação após "
+                                                + classificados.get() + " e-mails: " + e.getMessage()));
+        }
+
         /**
          * Endpoint para obter informações sobre o modelo de IA
          */
@@ -193,6 +479,11 @@ public class ControladorClassificacao {
                         resposta.put("carregado", infoModelo.get("carregado"));
                         resposta.put("setoresSuportados", SetorEmail.values().length);
                         resposta.put("setores", obterInfoSetores());
+                        resposta.put("cache", infoModelo.get("cache"));
+                        resposta.put("cascata", classificadorCascata.getEstatisticas());
+                        resposta.put("vizinhos", classificadorVizinhos.getEstatisticas());
+                        resposta.put("linear", classificadorLinear.getEstatisticas());
+                        resposta.put("admissao", controleAdmissao.getEstatisticas());
                         resposta.put("detalhesModelo", infoModelo);
                         resposta.put("timestamp", LocalDateTime.now());
 
@@ -241,6 +532,9 @@ public class ControladorClassificacao {
 
         /**
          * Endpoint de health check para verificar se a API está funcionando
+         *
+         * Informa separadamente se o processo está vivo (liveness) e se a
+         * instância está pronta para tráfego (readiness: modelo carregado e aquecido)
          */
         @GetMapping("/health")
         public ResponseEntity<Map<String, Object>> health() {
@@ -251,11 +545,41 @@ public class ControladorClassificacao {
                 resposta.put("precisao", classificador.getPrecisao());
                 resposta.put("precisaoPorcentagem", String.format("%.1f%%", classificador.getPrecisao() * 100));
                 resposta.put("modeloCarregado", classificadorHuggingFace.isModeloCarregado());
+                resposta.put("estadoModelo", classificadorHuggingFace.getEstado());
+                resposta.put("liveness", disponibilidade.getLivenessState());
+                resposta.put("readiness", estadoProntidao());
                 resposta.put("timestamp", LocalDateTime.now());
 
                 return ResponseEntity.ok(resposta);
         }
 
+        /**
+         * Liveness para o balanceador: 200 enquanto a aplicação estiver íntegra
+         */
+        @GetMapping("/health/liveness")
+        public ResponseEntity<Map<String, Object>> liveness() {
+                LivenessState estado = disponibilidade.getLivenessState();
+                HttpStatus status = estado == LivenessState.CORRECT ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+                return ResponseEntity.status(status).body(Map.of(
+                                "liveness", estado,
+                                "timestamp", LocalDateTime.now()));
+        }
+
+        /**
+         * Readiness para o balanceador: 503 até o modelo estar carregado e aquecido
+         */
+        @GetMapping("/health/readiness")
+        public ResponseEntity<Map<String, Object>> readiness() {
+                ReadinessState estado = estadoProntidao();
+                HttpStatus status = estado == ReadinessState.ACCEPTING_TRAFFIC
+                                ? HttpStatus.OK
+                                : HttpStatus.SERVICE_UNAVAILABLE;
+                return ResponseEntity.status(status).body(Map.of(
+                                "readiness", estado,
+                                "estadoModelo", classificadorHuggingFace.getEstado(),
+                                "timestamp", LocalDateTime.now()));
+        }
+
         /**
          * Endpoint para testar cenários pré-definidos
          *
@@ -267,41 +591,9 @@ public class ControladorClassificacao {
                         System.out.println("🧪 Executando testes de cenários com IA HuggingFace...");
 
                         var cenarios = new java.util.ArrayList<Map<String, Object>>();
-
-                        // Cenário 1: E-mail de atendimento
-                        var cenario1 = testarCenario(
-                                        "Problema com sistema de login",
-                                        "Olá, não consigo acessar minha conta. Aparece erro de senha inválida.",
-                                        SetorEmail.ATENDIMENTO);
-                        cenarios.add(cenario1);
-
-                        // Cenário 2: E-mail financeiro
-                        var cenario2 = testarCenario(
-                                        "Fatura #2024-001",
-                                        "Segue em anexo a fatura referente aos serviços de cloud do mês de janeiro.",
-                                        SetorEmail.FINANCEIRO);
-                        cenarios.add(cenario2);
-
-                        // Cenário 3: E-mail de compras
-                        var cenario3 = testarCenario(
-                                        "Cotação - 50 notebooks Dell",
-                                        "Prezados, segue nossa proposta comercial para 50 notebooks Dell Latitude.",
-                                        SetorEmail.COMPRAS);
-                        cenarios.add(cenario3);
-
-                        // Cenário 4: E-mail de RH
-                        var cenario4 = testarCenario(
-                                        "Currículo - Desenvolvedor Full Stack",
-                                        "Segue em anexo meu currículo para a vaga de desenvolvedor full stack.",
-                                        SetorEmail.RH);
-                        cenarios.add(cenario4);
-
-                        // Cenário 5: E-mail de vendas
-                        var cenario5 = testarCenario(
-                                        "Interesse em consultoria de segurança",
-                                        "Gostaríamos de conhecer seus serviços de consultoria em segurança da informação.",
-                                        SetorEmail.VENDAS);
-                        cenarios.add(cenario5);
+                        for (CenarioDemonstracao cenario : CenarioDemonstracao.PADRAO) {
+                                cenarios.add(testarCenario(cenario));
+                        }
 
                         Map<String, Object> resposta = new HashMap<>();
                         resposta.put("sucesso", true);
@@ -332,6 +624,13 @@ public class ControladorClassificacao {
         }
 
         // Métodos auxiliares
+        private ReadinessState estadoProntidao() {
+                return disponibilidade.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC
+                                && classificadorHuggingFace.isPronto()
+                                                ? ReadinessState.ACCEPTING_TRAFFIC
+                                                : ReadinessState.REFUSING_TRAFFIC;
+        }
+
         private Map<String, Object> obterInfoSetores() {
                 var infoSetores = new HashMap<String, Object>();
 
@@ -343,9 +642,11 @@ public class ControladorClassificacao {
                 return infoSetores;
         }
 
-        private Map<String, Object> testarCenario(String assunto, String corpo, SetorEmail setorEsperado) {
-                String texto = assunto + " " + corpo;
-                ResultadoClassificacao resultado = classificador.classificarTexto(texto);
+        private Map<String, Object> testarCenario(CenarioDemonstracao cenarioDemonstracao) {
+                String assunto = cenarioDemonstracao.assunto();
+                String corpo = cenarioDemonstracao.corpo();
+                SetorEmail setorEsperado = cenarioDemonstracao.setorEsperado();
+                ResultadoClassificacao resultado = classificador.classificarTexto(cenarioDemonstracao.texto());
 
                 boolean correto = resultado.getSetor() == setorEsperado;
 
@@ -0,0 +1,50 @@
+package br.com.techcorp.models;
+
+import java.util.List;
+
+/**
+ * Cenário de demonstração com o setor esperado
+ *
+ * Usado pelo endpoint /classificar/testar-cenarios e como corpus do
+ * aquecimento do modelo antes de a aplicação aceitar tráfego.
+ */
+public record CenarioDemonstracao(String assunto, String corpo, SetorEmail setorEsperado) {
+
+    public static final List<CenarioDemonstracao> PADRAO = List.of(
+            // Cenário 1: E-mail de atendimento
+            new CenarioDemonstracao(
+                    "Problema com sistema de login",
+                    "Olá, não consigo acessar minha conta. Aparece erro de senha inválida.",
+                    SetorEmail.ATENDIMENTO),
+
+            // Cenário 2: E-mail financeiro
+            new CenarioDemonstracao(
+                    "Fatura #2024-001",
+                    "Segue em anexo a fatura referente aos serviços de cloud do mês de janeiro.",
+                    SetorEmail.FINANCEIRO),
+
+            // Cenário 3: E-mail de compras
+            new CenarioDemonstracao(
+                    "Cotação - 50 notebooks Dell",
+                    "Prezados, segue nossa proposta comercial para 50 notebooks Dell Latitude.",
+                    SetorEmail.COMPRAS),
+
+            // Cenário 4: E-mail de RH
+            new CenarioDemonstracao(
+                    "Currículo - Desenvolvedor Full Stack",
+                    "Segue em anexo meu currículo para a vaga de desenvolvedor full stack.",
+                    SetorEmail.RH),
+
+            // Cenário 5: E-mail de vendas
+            new CenarioDemonstracao(
+                    "Interesse em consultoria de segurança",
+                    "Gostaríamos de conhecer seus serviços de consultoria em segurança da informação.",
+                    SetorEmail.VENDAS));
+
+    /**
+     * Texto classificado no cenário (assunto seguido do corpo)
+     */
+    public String texto() {
+        return assunto + " " + corpo;
+    }
+}
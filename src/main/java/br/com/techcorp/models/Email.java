@@ -75,12 +75,14 @@ public class Email {
     /**
      * Retorna o texto completo para classificação
      * Combina assunto e corpo para análise da IA
+     * (o assunto fica em uma linha própria, reaproveitada pelo cache do tokenizador;
+     * mudar este formato exige nova revisão da versão do ClassificadorHuggingFaceReal)
      */
     public String getTextoParaClassificacao() {
         StringBuilder texto = new StringBuilder();
         
         if (assunto != null && !assunto.trim().isEmpty()) {
-            texto.append(assunto).append(" ");
+            texto.append(assunto).append("\n");
         }
         
         if (corpo != null && !corpo.trim().isEmpty()) {
@@ -1,6 +1,9 @@
 package br.com.techcorp.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -19,6 +22,9 @@ public class ResultadoClassificacao {
     private Map<String, Double> probabilidadesSetores;
     private String versaoModelo;
 
+    // Visão compacta das probabilidades, indexada por SetorEmail.ordinal()
+    private double[] probabilidades;
+
     // Construtor padrão
     public ResultadoClassificacao() {
         this.dataClassificacao = LocalDateTime.now();
@@ -32,6 +38,17 @@ public class ResultadoClassificacao {
         this.motivo = motivo;
     }
 
+    /**
+     * Resultado sem setor para uma entrada que não pôde ser classificada
+     * (usado no processamento em fluxo para manter uma saída por entrada)
+     */
+    public static ResultadoClassificacao naoClassificado(String motivo) {
+        ResultadoClassificacao resultado = new ResultadoClassificacao();
+        resultado.confianca = 0.0;
+        resultado.motivo = motivo;
+        return resultado;
+    }
+
     // Getters e Setters
     public SetorEmail getSetor() {
         return setor;
@@ -65,12 +82,55 @@ public class ResultadoClassificacao {
         this.dataClassificacao = dataClassificacao;
     }
 
+    /**
+     * Probabilidades por nome de setor
+     *
+     * Quando o resultado guarda o vetor compacto, o mapa só é montado
+     * aqui, no momento da serialização.
+     */
     public Map<String, Double> getProbabilidadesSetores() {
-        return probabilidadesSetores;
+        if (probabilidades == null) {
+            return probabilidadesSetores;
+        }
+
+        SetorEmail[] setores = SetorEmail.values();
+        Map<String, Double> mapa = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(probabilidades.length, setores.length); i++) {
+            mapa.put(setores[i].name(), probabilidades[i]);
+        }
+        return mapa;
     }
 
     public void setProbabilidadesSetores(Map<String, Double> probabilidadesSetores) {
         this.probabilidadesSetores = probabilidadesSetores;
+        this.probabilidades = null;
+    }
+
+    /**
+     * Probabilidades indexadas por SetorEmail.ordinal() (vetor vazio = sem probabilidades)
+     */
+    @JsonIgnore
+    public double[] getProbabilidades() {
+        return probabilidades;
+    }
+
+    public void setProbabilidades(double[] probabilidades) {
+        this.probabilidades = probabilidades;
+        this.probabilidadesSetores = null;
+    }
+
+    /**
+     * Probabilidade de um setor, sem montar o mapa
+     */
+    @JsonIgnore
+    public double getProbabilidade(SetorEmail setor) {
+        if (probabilidades != null) {
+            return setor.ordinal() < probabilidades.length ? probabilidades[setor.ordinal()] : 0.0;
+        }
+        if (probabilidadesSetores != null) {
+            return probabilidadesSetores.getOrDefault(setor.name(), 0.0);
+        }
+        return 0.0;
     }
 
     public String getVersaoModelo() {
@@ -0,0 +1,74 @@
+package br.com.techcorp.models;
+
+/**
+ * Resultado de um item da classificação em lote
+ *
+ * Cada item guarda a sua posição no lote de entrada e, conforme o
+ * caso, a classificação obtida ou a mensagem de erro daquele item.
+ */
+public class ResultadoItemLote {
+
+    private int indice;
+    private boolean sucesso;
+    private ResultadoClassificacao classificacao;
+    private String mensagem;
+
+    // Construtor padrão
+    public ResultadoItemLote() {
+    }
+
+    /**
+     * Cria um item classificado com sucesso
+     */
+    public static ResultadoItemLote sucesso(int indice, ResultadoClassificacao classificacao) {
+        ResultadoItemLote item = new ResultadoItemLote();
+        item.indice = indice;
+        item.sucesso = true;
+        item.classificacao = classificacao;
+        return item;
+    }
+
+    /**
+     * Cria um item com erro
+     */
+    public static ResultadoItemLote erro(int indice, String mensagem) {
+        ResultadoItemLote item = new ResultadoItemLote();
+        item.indice = indice;
+        item.sucesso = false;
+        item.mensagem = mensagem;
+        return item;
+    }
+
+    // Getters e Setters
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public void setSucesso(boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+
+    public ResultadoClassificacao getClassificacao() {
+        return classificacao;
+    }
+
+    public void setClassificacao(ResultadoClassificacao classificacao) {
+        this.classificacao = classificacao;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.techcorp.services;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.config.PropriedadesLote;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoClassificacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Classificação de um fluxo NDJSON de e-mails
+ *
+ * Cada linha da entrada é um Email em JSON e gera exatamente um
+ * ResultadoClassificacao, na mesma ordem. As linhas só são lidas conforme
+ * a demanda de quem consome a resposta, e no máximo "concorrenciaFluxo"
+ * e-mails ficam em classificação ao mesmo tempo no executor de lotes,
+ * de modo que a memória usada não depende do tamanho do fluxo.
+ *
+ * O executor de lotes é compartilhado com /classificar/lote; quando ele
+ * está saturado e recusa um e-mail, só aquela linha sai como não
+ * classificada e o fluxo segue com as próximas.
+ */
+@Service
+public class ServicoClassificacaoFluxo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicoClassificacaoFluxo.class);
+
+    private final ClassificadorEmails classificador;
+    private final ObjectMapper objectMapper;
+    private final Scheduler agendador;
+    private final int concorrencia;
+
+    public ServicoClassificacaoFluxo(
+            ClassificadorEmails classificador,
+            ObjectMapper objectMapper,
+            @Qualifier("executorClassificacaoLote") ThreadPoolExecutor executor,
+            PropriedadesLote propriedades) {
+        this.classificador = classificador;
+        this.objectMapper = objectMapper;
+        this.agendador = Schedulers.fromExecutor(executor);
+        this.concorrencia = propriedades.getConcorrenciaFluxoEfetiva();
+    }
+
+    /**
+     * Classifica as linhas NDJSON da entrada, uma saída por linha não vazia
+     *
+     * A leitura (bloqueante) acontece em uma thread elástica, nunca na thread
+     * do servlet, e a entrada é fechada quando o fluxo termina ou é cancelado.
+     */
+    public Flux<ResultadoClassificacao> classificar(InputStream entrada) {
+        // Numeração antes do filtro, para as mensagens citarem a linha real da entrada
+        Flux<Tuple2<Long, String>> linhas = Flux.using(
+                () -> new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)),
+                leitor -> Flux.fromStream(leitor.lines()),
+                ServicoClassificacaoFluxo::fecharSilenciosamente)
+                .index()
+                .filter(linha -> !linha.getT2().isBlank())
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return linhas
+                .flatMapSequential(
+                        linha -> Mono.fromCallable(() -> classificarLinha(linha.getT1(), linha.getT2()))
+                                .subscribeOn(agendador)
+                                .onErrorResume(RejectedExecutionException.class,
+                                        e -> Mono.just(recusada(linha.getT1()))),
+                        concorrencia);
+    }
+
+    private static ResultadoClassificacao recusada(long indice) {
+        logger.warn("⚠️ Linha {} do fluxo não classificada: executor de lotes saturado", indice + 1);
+        return resultadoInvalido(indice, "executor de lotes saturado, envie a linha novamente");
+    }
+
+    private ResultadoClassificacao classificarLinha(long indice, String linha) {
+        Email email;
+        try {
+            email = objectMapper.readValue(linha, Email.class);
+        } catch (IOException e) {
+            logger.warn("⚠️ Linha {} do fluxo ignorada: JSON inválido", indice + 1);
+            return resultadoInvalido(indice, "JSON inválido");
+        }
+
+        if (email == null) {
+            return resultadoInvalido(indice, "e-mail ausente");
+        }
+
+        try {
+            return classificador.classificar(email);
+        } catch (Exception e) {
+            logger.error("❌ Erro na classificação da linha {} do fluxo: {}", indice + 1, e.getMessage());
+            return resultadoInvalido(indice, "erro na classificação: " + e.getMessage());
+        }
+    }
+
+    private static ResultadoClassificacao resultadoInvalido(long indice, String motivo) {
+        return ResultadoClassificacao.naoClassificado("Linha " + (indice + 1) + " não classificada: " + motivo);
+    }
+
+    private static void fecharSilenciosamente(BufferedReader leitor) {
+        try {
+            leitor.close();
+        } catch (IOException e) {
+            logger.debug("Falha ao fechar a entrada do fluxo: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.techcorp.services;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoItemLote;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classificação de vários e-mails em paralelo
+ *
+ * Os itens do lote são distribuídos entre as threads do executor dedicado
+ * por meio de um índice compartilhado: cada tarefa pega o próximo item
+ * ainda não classificado até o lote acabar. Assim um lote grande ocupa no
+ * máximo uma tarefa por thread na fila do executor, e as chamadas
+ * concorrentes ao classificador aproveitam o cache e os micro-lotes do
+ * modelo. Os resultados são gravados na posição de origem de cada item.
+ */
+@Service
+public class ServicoClassificacaoLote {
+
+    private final ClassificadorEmails classificador;
+    private final ThreadPoolExecutor executor;
+
+    public ServicoClassificacaoLote(
+            ClassificadorEmails classificador,
+            @Qualifier("executorClassificacaoLote") ThreadPoolExecutor executor) {
+        this.classificador = classificador;
+        this.executor = executor;
+    }
+
+    /**
+     * Classifica os e-mails em paralelo, sem bloquear a thread chamadora
+     *
+     * @return Resultados na mesma ordem da lista de entrada, com erro por item
+     * @throws RejectedExecutionException se o executor não aceitar nenhuma tarefa
+     */
+    public CompletableFuture<List<ResultadoItemLote>> classificar(List<Email> emails) {
+        int quantidade = emails.size();
+        ResultadoItemLote[] resultados = new ResultadoItemLote[quantidade];
+        if (quantidade == 0) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        AtomicInteger proximo = new AtomicInteger();
+        Runnable tarefa = () -> {
+            int indice;
+            while ((indice = proximo.getAndIncrement()) < quantidade) {
+                resultados[indice] = classificarItem(indice, emails.get(indice));
+            }
+        };
+
+        int tarefas = Math.min(executor.getMaximumPoolSize(), quantidade);
+        CompletableFuture<?>[] execucoes = new CompletableFuture<?>[tarefas];
+        int aceitas = 0;
+        for (; aceitas < tarefas; aceitas++) {
+            try {
+                execucoes[aceitas] = CompletableFuture.runAsync(tarefa, executor);
+            } catch (RejectedExecutionException e) {
+                // As tarefas já aceitas continuam consumindo o lote inteiro
+                if (aceitas == 0) {
+                    throw e;
+                }
+                break;
+            }
+        }
+
+        return CompletableFuture.allOf(Arrays.copyOf(execucoes, aceitas))
+                .thenApply(v -> Arrays.asList(resultados));
+    }
+
+    private ResultadoItemLote classificarItem(int indice, Email email) {
+        if (email == null ||
+                (email.getAssunto() == null || email.getAssunto().trim().isEmpty()) &&
+                        (email.getCorpo() == null || email.getCorpo().trim().isEmpty())) {
+            return ResultadoItemLote.erro(indice, "Assunto ou corpo do e-mail é obrigatório");
+        }
+
+        try {
+            return ResultadoItemLote.sucesso(indice, classificador.classificar(email));
+        } catch (Exception e) {
+            return ResultadoItemLote.erro(indice, "Erro na classificação: " + e.getMessage());
+        }
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+}
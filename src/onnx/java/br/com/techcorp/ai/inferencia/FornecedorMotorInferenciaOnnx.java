@@ -0,0 +1,22 @@
+package br.com.techcorp.ai.inferencia;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import org.springframework.stereotype.Component;
+
+/**
+ * Engine ONNX Runtime (CPU), disponível nos builds com o perfil Maven onnx
+ */
+@Component
+public class FornecedorMotorInferenciaOnnx implements FornecedorMotorInferencia {
+
+    @Override
+    public String getNome() {
+        return MotorInferenciaOnnx.NOME;
+    }
+
+    @Override
+    public MotorInferencia carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao) throws Exception {
+        return MotorInferenciaOnnx.carregar(propriedades, precisao);
+    }
+}
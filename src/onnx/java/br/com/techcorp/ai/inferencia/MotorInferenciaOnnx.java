@@ -0,0 +1,270 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.translate.TranslateException;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motor de inferência usando ONNX Runtime na CPU
+ *
+ * Carrega o arquivo .onnx do diretório do modelo (ai.modelo.arquivo, ou
+ * model.onnx; em INT8, ai.modelo.arquivoInt8) em uma única OrtSession, que aceita execuções concorrentes.
+ * O número de execuções simultâneas é limitado ao tamanho do pool de
+ * predictors e cada execução usa ai.modelo.onnx.threadsIntraOp threads:
+ * com uma thread por execução o cálculo fica na própria thread que chama
+ * o motor, como no pool da DJL, sem uma segunda camada de paralelismo
+ * disputando os mesmos núcleos.
+ *
+ * Tokenizador e rótulos são os mesmos da engine PyTorch (ArtefatosModelo).
+ */
+public class MotorInferenciaOnnx implements MotorInferencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(MotorInferenciaOnnx.class);
+
+    public static final String NOME = "OnnxRuntime";
+
+    private final OrtEnvironment ambiente;
+    private final OrtSession sessao;
+    private final TokenizadorModelo tokenizador;
+    private final Semaphore execucoes;
+    private final int tamanhoPool;
+    private final long timeoutPredictorMs;
+    private final PrecisaoNumerica precisao;
+    private final boolean usarTokenTypeIds;
+
+    // Para cada saída do modelo, o ordinal do SetorEmail correspondente (-1 se não mapeado)
+    private final int[] ordinalPorRotulo;
+
+    private MotorInferenciaOnnx(OrtEnvironment ambiente, OrtSession sessao, TokenizadorModelo tokenizador,
+            int tamanhoPool, long timeoutPredictorMs, PrecisaoNumerica precisao, int[] ordinalPorRotulo) {
+        this.ambiente = ambiente;
+        this.precisao = precisao;
+        this.sessao = sessao;
+        this.tokenizador = tokenizador;
+        this.tamanhoPool = tamanhoPool;
+        this.timeoutPredictorMs = timeoutPredictorMs;
+        this.ordinalPorRotulo = ordinalPorRotulo;
+        this.execucoes = new Semaphore(tamanhoPool);
+
+        // O modelo exportado decide se espera token_type_ids
+        Set<String> entradas = sessao.getInputNames();
+        this.usarTokenTypeIds = entradas.contains("token_type_ids");
+    }
+
+    /**
+     * Carrega o .onnx do diretório configurado em ai.modelo.diretorio
+     *
+     * Em INT8 o arquivo é o modelo quantizado dinamicamente (por exemplo com
+     * onnxruntime.quantization.quantize_dynamic), executado pelos kernels
+     * inteiros do ONNX Runtime.
+     *
+     * @throws IOException se o diretório, o tokenizer ou o arquivo .onnx não existirem
+     * @throws OrtException se o ONNX Runtime não conseguir criar a sessão
+     */
+    public static MotorInferenciaOnnx carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao)
+            throws IOException, OrtException {
+        Path diretorio = ArtefatosModelo.diretorio(propriedades);
+        Path arquivoModelo = diretorio.resolve(
+                ArtefatosModelo.arquivoModelo(propriedades, precisao, diretorio, ".onnx", "model") + ".onnx");
+
+        int[] ordinalPorRotulo = ArtefatosModelo.lerRotulos(diretorio);
+        TokenizadorModelo tokenizador = ArtefatosModelo.carregarTokenizador(propriedades, diretorio);
+
+        OrtEnvironment ambiente = OrtEnvironment.getEnvironment();
+        try (OrtSession.SessionOptions opcoes = criarOpcoes(propriedades)) {
+            OrtSession sessao = ambiente.createSession(arquivoModelo.toString(), opcoes);
+            logger.info("🧩 ONNX Runtime: {} em {} (entradas {})", arquivoModelo.getFileName(), precisao,
+                    sessao.getInputNames());
+            return new MotorInferenciaOnnx(ambiente, sessao, tokenizador, propriedades.getTamanhoPoolPredictors(),
+                    propriedades.getTimeoutPredictorMs(), precisao, ordinalPorRotulo);
+        } catch (OrtException | RuntimeException e) {
+            tokenizador.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opções da sessão a partir de ai.modelo.onnx
+     */
+    private static OrtSession.SessionOptions criarOpcoes(PropriedadesModelo propriedades) throws OrtException {
+        PropriedadesModelo.Onnx configuracao = propriedades.getOnnx();
+        int threadsIntraOp = configuracao.getThreadsIntraOp() > 0
+                ? configuracao.getThreadsIntraOp()
+                : propriedades.getThreadsPorPredictor();
+
+        OrtSession.SessionOptions opcoes = new OrtSession.SessionOptions();
+        try {
+            opcoes.setIntraOpNumThreads(threadsIntraOp);
+            opcoes.setInterOpNumThreads(configuracao.getThreadsInterOp());
+            opcoes.setExecutionMode(OrtSession.SessionOptions.ExecutionMode.SEQUENTIAL);
+            opcoes.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.valueOf(configuracao.getNivelOtimizacao()));
+            opcoes.setMemoryPatternOptimization(true);
+
+            // Sem espera ativa as threads ociosas não consomem CPU entre requisições
+            opcoes.addConfigEntry("session.intra_op.allow_spinning", configuracao.isEsperaAtiva() ? "1" : "0");
+            return opcoes;
+        } catch (OrtException | RuntimeException e) {
+            opcoes.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getEngine() {
+        return NOME;
+    }
+
+    @Override
+    public PrecisaoNumerica getPrecisaoNumerica() {
+        return precisao;
+    }
+
+    @Override
+    public long[] tokenizar(String texto) throws TranslateException {
+        try {
+            return tokenizador.codificar(texto);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando tokenizador", e);
+        }
+    }
+
+    @Override
+    public long[][] tokenizarJanelas(String texto, int maximoJanelas, int sobreposicao) throws TranslateException {
+        try {
+            return tokenizador.codificarJanelas(texto, maximoJanelas, sobreposicao);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando tokenizador", e);
+        }
+    }
+
+    @Override
+    public double[][] classificarLote(long[][] textos) throws TranslateException {
+        adquirirExecucao();
+        try {
+            float[][] logits = executar(textos);
+            double[][] probabilidades = new double[logits.length][];
+            for (int i = 0; i < logits.length; i++) {
+                softmax(logits[i]);
+                probabilidades[i] = ArtefatosModelo.converterParaSetores(logits[i], ordinalPorRotulo);
+            }
+            return probabilidades;
+        } catch (OrtException e) {
+            throw new TranslateException("Falha na inferência ONNX: " + e.getMessage(), e);
+        } finally {
+            execucoes.release();
+        }
+    }
+
+    /**
+     * Monta input_ids/attention_mask com padding até o maior texto do lote
+     * (mesmo formato do TradutorClassificacaoSequencia) e executa a sessão
+     */
+    private float[][] executar(long[][] textos) throws OrtException {
+        int tamanhoLote = textos.length;
+        int maiorSequencia = 1;
+        for (long[] idsTexto : textos) {
+            maiorSequencia = Math.max(maiorSequencia, idsTexto.length);
+        }
+
+        long[] ids = new long[tamanhoLote * maiorSequencia];
+        long[] mascara = new long[tamanhoLote * maiorSequencia];
+        for (int i = 0; i < tamanhoLote; i++) {
+            int deslocamento = i * maiorSequencia;
+            long[] idsTexto = textos[i];
+            System.arraycopy(idsTexto, 0, ids, deslocamento, idsTexto.length);
+            Arrays.fill(mascara, deslocamento, deslocamento + idsTexto.length, 1L);
+        }
+        long[] formato = { tamanhoLote, maiorSequencia };
+
+        Map<String, OnnxTensor> entradas = new HashMap<>(4);
+        try {
+            entradas.put("input_ids", OnnxTensor.createTensor(ambiente, LongBuffer.wrap(ids), formato));
+            entradas.put("attention_mask", OnnxTensor.createTensor(ambiente, LongBuffer.wrap(mascara), formato));
+            if (usarTokenTypeIds) {
+                // Sequência única: todos os token_type_ids são zero
+                entradas.put("token_type_ids",
+                        OnnxTensor.createTensor(ambiente, LongBuffer.wrap(new long[ids.length]), formato));
+            }
+
+            try (OrtSession.Result saida = sessao.run(entradas)) {
+                // Primeira saída do modelo são os logits [lote x rótulos]
+                OnnxValue logits = saida.get(0);
+                return (float[][]) logits.getValue();
+            }
+        } finally {
+            for (OnnxTensor tensor : entradas.values()) {
+                tensor.close();
+            }
+        }
+    }
+
+    private static void softmax(float[] logits) {
+        float maximo = Float.NEGATIVE_INFINITY;
+        for (float logit : logits) {
+            maximo = Math.max(maximo, logit);
+        }
+        float soma = 0f;
+        for (int i = 0; i < logits.length; i++) {
+            logits[i] = (float) Math.exp(logits[i] - maximo);
+            soma += logits[i];
+        }
+        for (int i = 0; i < logits.length; i++) {
+            logits[i] /= soma;
+        }
+    }
+
+    private void adquirirExecucao() throws TranslateException {
+        try {
+            if (!execucoes.tryAcquire(timeoutPredictorMs, TimeUnit.MILLISECONDS)) {
+                throw new TranslateException("Nenhuma execução livre após " + timeoutPredictorMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando execução", e);
+        }
+    }
+
+    @Override
+    public int getTamanhoPool() {
+        return tamanhoPool;
+    }
+
+    @Override
+    public int getPredictorsDisponiveis() {
+        return execucoes.availablePermits();
+    }
+
+    @Override
+    public Map<String, Object> getEstatisticasTokenizador() {
+        return tokenizador.getEstatisticas();
+    }
+
+    @Override
+    public void close() {
+        try {
+            sessao.close();
+        } catch (OrtException e) {
+            logger.warn("⚠️ Erro ao fechar a sessão ONNX: {}", e.getMessage());
+        }
+        tokenizador.close();
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.techcorp.ai;
+
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoresSetoresTest {
+
+    @Test
+    void vetorTemUmaPosicaoPorSetor() {
+        assertThat(ScoresSetores.novoVetor()).hasSize(SetorEmail.values().length).containsOnly(0.0);
+    }
+
+    @Test
+    void melhorSetorEODeMaiorScore() {
+        double[] scores = ScoresSetores.novoVetor();
+        scores[SetorEmail.RH.ordinal()] = 0.4;
+        scores[SetorEmail.TI.ordinal()] = 0.6;
+
+        assertThat(ScoresSetores.melhorSetor(scores)).isEqualTo(SetorEmail.TI);
+    }
+
+    @Test
+    void empateFicaComOMenorOrdinal() {
+        double[] scores = ScoresSetores.novoVetor();
+        scores[SetorEmail.OPERACOES.ordinal()] = 0.5;
+        scores[SetorEmail.COMPRAS.ordinal()] = 0.5;
+
+        assertThat(ScoresSetores.melhorSetor(scores)).isEqualTo(SetorEmail.COMPRAS);
+        assertThat(ScoresSetores.melhorSetor(ScoresSetores.novoVetor())).isEqualTo(SetorEmail.ATENDIMENTO);
+    }
+
+    @Test
+    void somaTodasAsPosicoes() {
+        double[] scores = ScoresSetores.novoVetor();
+        scores[0] = 0.25;
+        scores[3] = 0.5;
+        scores[scores.length - 1] = 0.125;
+
+        assertThat(ScoresSetores.soma(scores)).isCloseTo(0.875, within(1e-12));
+    }
+}
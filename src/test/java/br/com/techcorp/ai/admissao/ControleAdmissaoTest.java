@@ -0,0 +1,155 @@
+package br.com.techcorp.ai.admissao;
+
+import br.com.techcorp.ai.admissao.ControleAdmissao.Admissao;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.config.PropriedadesAdmissao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ControleAdmissaoTest {
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void encerrar() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void admiteAteOLimiteERecusaQuandoAFilaEstaCheia() {
+        ControleAdmissao controle = controle(2, 0, 1000);
+
+        Admissao primeira = controle.admitir();
+        Admissao segunda = controle.admitir();
+        Admissao terceira = controle.admitir();
+
+        assertThat(primeira).isNotNull();
+        assertThat(segunda).isNotNull();
+        assertThat(terceira).isNull();
+        assertThat(controle.getEstatisticas())
+                .containsEntry("emUso", 2)
+                .containsEntry("admitidas", 2L)
+                .containsEntry("recusadas", 1L);
+    }
+
+    @Test
+    void quemEsperaNaFilaEntraQuandoUmaVagaEDevolvida() throws Exception {
+        ControleAdmissao controle = controle(1, 4, 5000);
+        Admissao ocupada = controle.admitir();
+
+        Future<Admissao> espera = threads.submit(() -> controle.admitir());
+        aguardar(() -> controle.getEsperando() == 1);
+        ocupada.close();
+
+        Admissao admitida = espera.get(5, TimeUnit.SECONDS);
+        assertThat(admitida).isNotNull();
+        assertThat(controle.getEmUso()).isEqualTo(1);
+        assertThat(controle.getEstatisticas()).containsEntry("enfileiradas", 1L);
+
+        admitida.close();
+        assertThat(controle.getEmUso()).isZero();
+    }
+
+    @Test
+    void recusaQuandoAEsperaVence() {
+        ControleAdmissao controle = controle(1, 4, 20);
+        Admissao ocupada = controle.admitir();
+
+        long inicio = System.nanoTime();
+        Admissao recusada = controle.admitir();
+
+        assertThat(recusada).isNull();
+        assertThat(System.nanoTime() - inicio).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(controle.getEsperando()).isZero();
+        ocupada.close();
+    }
+
+    @Test
+    void esperaLimitadaAoRestanteDoPrazo() {
+        ControleAdmissao controle = controle(1, 4, 60_000);
+        Admissao ocupada = controle.admitir();
+
+        long inicio = System.nanoTime();
+        Admissao recusada = controle.admitir(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(recusada).isNull();
+        assertThat(System.nanoTime() - inicio).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        ocupada.close();
+    }
+
+    @Test
+    void interrupcaoNaFilaRecusaEPreservaAInterrupcao() throws Exception {
+        ControleAdmissao controle = controle(1, 4, 60_000);
+        Admissao ocupada = controle.admitir();
+
+        Future<Boolean> espera = threads.submit(() -> {
+            Admissao admissao = controle.admitir();
+            return admissao == null && Thread.currentThread().isInterrupted();
+        });
+        aguardar(() -> controle.getEsperando() == 1);
+        threads.shutdownNow();
+
+        assertThat(espera.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(controle.getEsperando()).isZero();
+        ocupada.close();
+    }
+
+    @Test
+    void devolverDuasVezesNaoLiberaVagaExtra() {
+        ControleAdmissao controle = controle(1, 0, 1000);
+
+        Admissao admissao = controle.admitir();
+        admissao.close();
+        admissao.close();
+
+        assertThat(controle.getEmUso()).isZero();
+        assertThat(controle.admitir()).isNotNull();
+        assertThat(controle.admitir()).isNull();
+    }
+
+    @Test
+    void desabilitadoAdmiteTudoSemContar() {
+        PropriedadesAdmissao propriedades = propriedades(1, 0, 1000);
+        propriedades.setHabilitada(false);
+        ControleAdmissao controle = new ControleAdmissao(propriedades,
+                new MetricasClassificacao(new SimpleMeterRegistry()));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(controle.admitir()).isNotNull();
+        }
+        assertThat(controle.getEmUso()).isZero();
+    }
+
+    private static ControleAdmissao controle(int limite, int tamanhoFila, long esperaMaximaMs) {
+        return new ControleAdmissao(propriedades(limite, tamanhoFila, esperaMaximaMs),
+                new MetricasClassificacao(new SimpleMeterRegistry()));
+    }
+
+    private static PropriedadesAdmissao propriedades(int limite, int tamanhoFila, long esperaMaximaMs) {
+        PropriedadesAdmissao propriedades = new PropriedadesAdmissao();
+        propriedades.setAdaptativo(false);
+        propriedades.setLimiteInicial(limite);
+        propriedades.setLimiteMinimo(1);
+        propriedades.setLimiteMaximo(Math.max(1, limite));
+        propriedades.setTamanhoFila(tamanhoFila);
+        propriedades.setEsperaMaximaMs(esperaMaximaMs);
+        return propriedades;
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(limite);
+            Thread.sleep(1);
+        }
+    }
+}
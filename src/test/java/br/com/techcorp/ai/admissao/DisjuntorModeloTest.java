@@ -0,0 +1,125 @@
+package br.com.techcorp.ai.admissao;
+
+import br.com.techcorp.ai.admissao.DisjuntorModelo.Estado;
+import br.com.techcorp.config.PropriedadesPrazo;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisjuntorModeloTest {
+
+    private static final long TEMPO_ABERTO_MS = 50;
+
+    @Test
+    void abreDepoisDosTimeoutsSeguidosConfigurados() {
+        DisjuntorModelo disjuntor = disjuntor(true, 3);
+
+        disjuntor.registrarTimeout();
+        disjuntor.registrarTimeout();
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+        assertThat(disjuntor.permite()).isTrue();
+
+        disjuntor.registrarTimeout();
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+        assertThat(disjuntor.permite()).isFalse();
+        assertThat(disjuntor.getEstatisticas()).containsEntry("aberturas", 1L);
+    }
+
+    @Test
+    void sucessoZeraOsTimeoutsSeguidos() {
+        DisjuntorModelo disjuntor = disjuntor(true, 2);
+
+        disjuntor.registrarTimeout();
+        disjuntor.registrarSucesso();
+        disjuntor.registrarTimeout();
+
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+    }
+
+    @Test
+    void deixaUmUnicoTestePassarDepoisDoTempoAberto() throws InterruptedException {
+        DisjuntorModelo disjuntor = aberto();
+        Thread.sleep(TEMPO_ABERTO_MS + 10);
+
+        assertThat(disjuntor.permite()).isTrue();
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.SEMIABERTO);
+        assertThat(disjuntor.permite()).isFalse();
+    }
+
+    @Test
+    void testeNoPrazoFechaODisjuntor() throws InterruptedException {
+        DisjuntorModelo disjuntor = aberto();
+        Thread.sleep(TEMPO_ABERTO_MS + 10);
+        assertThat(disjuntor.permite()).isTrue();
+
+        disjuntor.registrarSucesso();
+
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+        assertThat(disjuntor.permite()).isTrue();
+        assertThat(disjuntor.permite()).isTrue();
+    }
+
+    @Test
+    void testeComTimeoutReabreODisjuntor() throws InterruptedException {
+        DisjuntorModelo disjuntor = aberto();
+        Thread.sleep(TEMPO_ABERTO_MS + 10);
+        assertThat(disjuntor.permite()).isTrue();
+
+        disjuntor.registrarTimeout();
+
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+        assertThat(disjuntor.permite()).isFalse();
+        assertThat(disjuntor.getEstatisticas()).containsEntry("aberturas", 2L);
+    }
+
+    @Test
+    void testeSemRespostaDoModeloNaoFechaMasLiberaOutroTeste() throws InterruptedException {
+        DisjuntorModelo disjuntor = aberto();
+        Thread.sleep(TEMPO_ABERTO_MS + 10);
+        assertThat(disjuntor.permite()).isTrue();
+
+        disjuntor.registrarSemResposta();
+
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.SEMIABERTO);
+        assertThat(disjuntor.permite()).isTrue();
+        assertThat(disjuntor.permite()).isFalse();
+    }
+
+    @Test
+    void semRespostaNaoAlteraODisjuntorFechado() {
+        DisjuntorModelo disjuntor = disjuntor(true, 2);
+
+        disjuntor.registrarTimeout();
+        disjuntor.registrarSemResposta();
+        disjuntor.registrarTimeout();
+
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+    }
+
+    @Test
+    void desabilitadoSempreDeixaPassar() {
+        DisjuntorModelo disjuntor = disjuntor(false, 1);
+
+        for (int i = 0; i < 10; i++) {
+            disjuntor.registrarTimeout();
+        }
+
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+        assertThat(disjuntor.permite()).isTrue();
+    }
+
+    private static DisjuntorModelo aberto() {
+        DisjuntorModelo disjuntor = disjuntor(true, 1);
+        disjuntor.registrarTimeout();
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+        return disjuntor;
+    }
+
+    private static DisjuntorModelo disjuntor(boolean habilitado, int timeoutsParaAbrir) {
+        PropriedadesPrazo propriedades = new PropriedadesPrazo();
+        propriedades.getDisjuntor().setHabilitado(habilitado);
+        propriedades.getDisjuntor().setTimeoutsParaAbrir(timeoutsParaAbrir);
+        propriedades.getDisjuntor().setTempoAbertoMs(TEMPO_ABERTO_MS);
+        return new DisjuntorModelo(propriedades);
+    }
+}
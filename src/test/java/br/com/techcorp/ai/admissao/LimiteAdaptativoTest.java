@@ -0,0 +1,88 @@
+package br.com.techcorp.ai.admissao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LimiteAdaptativoTest {
+
+    private static final long ALVO = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RAPIDA = ALVO / 2;
+    private static final long LENTA = ALVO * 2;
+
+    @Test
+    void cresceUmaVagaACadaLimiteConclusoesRapidasComDemanda() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(4, 1, 64, ALVO, 0.5);
+        long agora = System.nanoTime();
+
+        for (int i = 0; i < 4; i++) {
+            limite.concluida(RAPIDA, 4, agora);
+        }
+
+        assertThat(limite.getVagas()).isEqualTo(4);
+        assertThat(limite.getLimite()).isCloseTo(4.92, within(0.01));
+        limite.concluida(RAPIDA, 4, agora);
+        assertThat(limite.getVagas()).isEqualTo(5);
+    }
+
+    @Test
+    void naoCresceSemDemandaPertoDoLimite() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(8, 1, 64, ALVO, 0.5);
+        long agora = System.nanoTime();
+
+        for (int i = 0; i < 100; i++) {
+            limite.concluida(RAPIDA, 1, agora);
+        }
+
+        assertThat(limite.getLimite()).isEqualTo(8.0);
+    }
+
+    @Test
+    void reduzNoMaximoUmaVezPorIntervaloDeLatenciaAlvo() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(16, 1, 64, ALVO, 0.5);
+        long agora = System.nanoTime();
+
+        // Uma rajada de conclusões lentas ao mesmo tempo conta como uma redução
+        for (int i = 0; i < 10; i++) {
+            limite.concluida(LENTA, 16, agora);
+        }
+        assertThat(limite.getVagas()).isEqualTo(8);
+        assertThat(limite.getReducoes()).isEqualTo(1);
+
+        limite.concluida(LENTA, 8, agora + ALVO);
+        assertThat(limite.getVagas()).isEqualTo(4);
+        assertThat(limite.getReducoes()).isEqualTo(2);
+    }
+
+    @Test
+    void respeitaMinimoEMaximo() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(100, 2, 3, ALVO, 0.5);
+        assertThat(limite.getVagas()).isEqualTo(3);
+
+        long agora = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            limite.concluida(RAPIDA, 3, agora);
+        }
+        assertThat(limite.getLimite()).isEqualTo(3.0);
+
+        for (int i = 0; i < 10; i++) {
+            agora += ALVO;
+            limite.concluida(LENTA, 3, agora);
+        }
+        assertThat(limite.getLimite()).isEqualTo(2.0);
+    }
+
+    @Test
+    void recusaConfiguracaoInvalida() {
+        assertThatThrownBy(() -> new LimiteAdaptativo(4, 0, 8, ALVO, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LimiteAdaptativo(4, 8, 4, ALVO, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LimiteAdaptativo(4, 1, 8, ALVO, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
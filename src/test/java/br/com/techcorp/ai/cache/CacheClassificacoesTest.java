@@ -0,0 +1,90 @@
+package br.com.techcorp.ai.cache;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheClassificacoesTest {
+
+    private static final String VERSAO = "HuggingFace-PyTorch-FP32:modelo-teste";
+
+    @Test
+    void devolveOResultadoArmazenadoPelaChaveDoTexto() {
+        CacheClassificacoes cache = new CacheClassificacoes(new PropriedadesModelo.CacheClassificacoes());
+        ResultadoClassificacao resultado = resultado(SetorEmail.FINANCEIRO);
+
+        cache.armazenar(cache.chave("Fatura de outubro"), resultado);
+
+        assertThat(cache.obter(cache.chave("  fatura DE outubro\n"))).isSameAs(resultado);
+        assertThat(cache.obter(cache.chave("fatura de novembro"))).isNull();
+        assertThat(cache.getEstatisticas())
+                .containsEntry("tamanho", 1L)
+                .containsEntry("acertos", 1L)
+                .containsEntry("falhas", 1L);
+    }
+
+    @Test
+    void trocaDeVersaoDoModeloInvalidaOCache() {
+        CacheClassificacoes cache = new CacheClassificacoes(new PropriedadesModelo.CacheClassificacoes());
+        cache.atualizarVersaoModelo("v1");
+        ChaveConteudo chave = cache.chave("fatura");
+        cache.armazenar(chave, resultado(SetorEmail.FINANCEIRO));
+
+        cache.atualizarVersaoModelo("v1");
+        assertThat(cache.obter(chave)).isNotNull();
+
+        cache.atualizarVersaoModelo("v2");
+        assertThat(cache.obter(chave)).isNull();
+        assertThat(cache.getEstatisticas()).containsEntry("versaoModelo", "v2");
+    }
+
+    @Test
+    void limitaONumeroDeEntradas() throws InterruptedException {
+        PropriedadesModelo.CacheClassificacoes configuracao = new PropriedadesModelo.CacheClassificacoes();
+        configuracao.setMaximoEntradas(10);
+        CacheClassificacoes cache = new CacheClassificacoes(configuracao);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.armazenar(cache.chave("e-mail " + i), resultado(SetorEmail.TI));
+        }
+
+        assertThat(aguardarDespejos(cache, 10)).isLessThanOrEqualTo(10);
+        assertThat((Long) cache.getEstatisticas().get("despejos")).isPositive();
+    }
+
+    @Test
+    void limitaOPesoEstimadoDasEntradas() throws InterruptedException {
+        PropriedadesModelo.CacheClassificacoes configuracao = new PropriedadesModelo.CacheClassificacoes();
+        // Cada entrada pesa pouco mais de 1 KB: cabem no máximo 8
+        configuracao.setPesoMaximoBytes(8 * 1024);
+        CacheClassificacoes cache = new CacheClassificacoes(configuracao);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.armazenar(cache.chave("e-mail " + i), resultado(SetorEmail.TI));
+        }
+
+        assertThat(aguardarDespejos(cache, 8)).isLessThanOrEqualTo(8);
+    }
+
+    // O Caffeine despeja em segundo plano: espera o tamanho estimado cair até o limite
+    private static long aguardarDespejos(CacheClassificacoes cache, long limite) throws InterruptedException {
+        long prazo = System.currentTimeMillis() + 5000;
+        while (cache.getTamanho() > limite && System.currentTimeMillis() < prazo) {
+            cache.obter(cache.chave("consulta"));
+            Thread.sleep(10);
+        }
+        return cache.getTamanho();
+    }
+
+    private static ResultadoClassificacao resultado(SetorEmail setor) {
+        ResultadoClassificacao resultado = new ResultadoClassificacao(setor, 0.9, "Classificado pelo modelo");
+        double[] probabilidades = new double[SetorEmail.values().length];
+        probabilidades[setor.ordinal()] = 0.9;
+        resultado.setProbabilidades(probabilidades);
+        resultado.setVersaoModelo(VERSAO);
+        return resultado;
+    }
+}
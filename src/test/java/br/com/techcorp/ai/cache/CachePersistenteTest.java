@@ -0,0 +1,242 @@
+package br.com.techcorp.ai.cache;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachePersistenteTest {
+
+    private static final String VERSAO = "HuggingFace-PyTorch-FP32:modelo-teste";
+
+    @TempDir
+    Path diretorio;
+
+    private final List<CachePersistente> abertos = new ArrayList<>();
+
+    @AfterEach
+    void fechar() {
+        abertos.forEach(CachePersistente::close);
+    }
+
+    @Test
+    void codificarEDecodificarPreservamTodosOsCampos() {
+        ResultadoClassificacao original = resultado(SetorEmail.JURIDICO, "Motivo com acentuação e emoji 📄");
+        original.setDataClassificacao(LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123_456_789));
+
+        byte[] conteudo = CachePersistente.codificar(original);
+        ResultadoClassificacao lido = CachePersistente.decodificar(ByteBuffer.wrap(conteudo), 0);
+
+        assertIgual(lido, original);
+        assertThat(lido.getDataClassificacao()).isEqualTo(original.getDataClassificacao());
+    }
+
+    @Test
+    void codificarEDecodificarCamposNulos() {
+        ResultadoClassificacao original = ResultadoClassificacao.naoClassificado(null);
+        original.setConfianca(null);
+        original.setDataClassificacao(null);
+
+        ResultadoClassificacao lido = CachePersistente.decodificar(
+                ByteBuffer.wrap(CachePersistente.codificar(original)), 0);
+
+        assertThat(lido.getSetor()).isNull();
+        assertThat(lido.getConfianca()).isNull();
+        assertThat(lido.getDataClassificacao()).isNull();
+        assertThat(lido.getVersaoModelo()).isNull();
+        assertThat(lido.getMotivo()).isNull();
+        assertThat(lido.getProbabilidades()).isEmpty();
+    }
+
+    @Test
+    void naoRespondeAntesDeAbrir() throws IOException {
+        CachePersistente cache = novo();
+        ChaveConteudo chave = ChaveConteudo.de("texto");
+
+        cache.armazenar(chave, resultado(SetorEmail.TI, "m"));
+
+        assertThat(cache.obter(chave)).isNull();
+    }
+
+    @Test
+    void armazenaEObtemNaMesmaVersao() throws IOException {
+        CachePersistente cache = aberto(VERSAO);
+        ChaveConteudo chave = ChaveConteudo.de("Segue a fatura de outubro");
+        ResultadoClassificacao resultado = resultado(SetorEmail.FINANCEIRO, "Classificado pelo modelo");
+
+        assertThat(cache.obter(chave)).isNull();
+        cache.armazenar(chave, resultado);
+
+        assertIgual(cache.obter(chave), resultado);
+        assertThat(cache.obter(ChaveConteudo.de("outro texto"))).isNull();
+        assertThat(cache.getEstatisticas())
+                .containsEntry("entradas", 1)
+                .containsEntry("acertos", 1L)
+                .containsEntry("falhas", 2L);
+    }
+
+    @Test
+    void primeiroResultadoGravadoPrevalece() throws IOException {
+        CachePersistente cache = aberto(VERSAO);
+        ChaveConteudo chave = ChaveConteudo.de("texto repetido");
+
+        cache.armazenar(chave, resultado(SetorEmail.TI, "primeiro"));
+        cache.armazenar(chave, resultado(SetorEmail.RH, "segundo"));
+
+        assertThat(cache.obter(chave).getMotivo()).isEqualTo("primeiro");
+        assertThat(cache.getEstatisticas()).containsEntry("entradas", 1);
+    }
+
+    @Test
+    void resultadosSobrevivemAReabertura() throws IOException {
+        CachePersistente cache = aberto(VERSAO);
+        List<ChaveConteudo> chaves = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ChaveConteudo chave = ChaveConteudo.de("e-mail número " + i);
+            chaves.add(chave);
+            cache.armazenar(chave, resultado(SetorEmail.values()[i % SetorEmail.values().length], "motivo " + i));
+        }
+        cache.close();
+        abertos.remove(cache);
+
+        CachePersistente reaberto = aberto(VERSAO);
+
+        assertThat(reaberto.getEstatisticas()).containsEntry("entradas", 5000);
+        for (int i = 0; i < chaves.size(); i++) {
+            ResultadoClassificacao lido = reaberto.obter(chaves.get(i));
+            assertThat(lido).as("chave %d", i).isNotNull();
+            assertThat(lido.getMotivo()).isEqualTo("motivo " + i);
+        }
+    }
+
+    @Test
+    void outraVersaoDoModeloNaoEnxergaOsResultados() throws IOException {
+        CachePersistente cache = aberto(VERSAO);
+        ChaveConteudo chave = ChaveConteudo.de("texto");
+        cache.armazenar(chave, resultado(SetorEmail.TI, "m"));
+
+        cache.atualizarVersaoModelo("HuggingFace-PyTorch-INT8:modelo-teste");
+        assertThat(cache.obter(chave)).isNull();
+
+        cache.atualizarVersaoModelo(VERSAO);
+        assertThat(cache.obter(chave)).isNotNull();
+    }
+
+    @Test
+    void registroCorrompidoNaoEDevolvido() throws IOException {
+        CachePersistente cache = aberto(VERSAO);
+        ChaveConteudo chave = ChaveConteudo.de("texto que será corrompido");
+        cache.armazenar(chave, resultado(SetorEmail.COMPRAS, "motivo original"));
+        cache.close();
+        abertos.remove(cache);
+
+        // Troca um byte do conteúdo do primeiro registro (depois do cabeçalho de 36 bytes)
+        try (FileChannel canal = FileChannel.open(segmentos().get(0), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer byteLido = ByteBuffer.allocate(1);
+            canal.read(byteLido, 40);
+            canal.write(ByteBuffer.wrap(new byte[] { (byte) (byteLido.get(0) ^ 0x5A) }), 40);
+        }
+
+        CachePersistente reaberto = aberto(VERSAO);
+        assertThat(reaberto.obter(chave)).isNull();
+    }
+
+    @Test
+    void diretorioTemUsoExclusivo() throws IOException {
+        aberto(VERSAO);
+
+        assertThatThrownBy(this::novo)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("em uso");
+    }
+
+    @Test
+    void compactacaoApagaSegmentosSemResultadosDaVersaoAtual() throws Exception {
+        CachePersistente cache = aberto(VERSAO);
+        // Mais de um segmento de 1 MB: só os anteriores ao ativo são compactados
+        String motivo = "x".repeat(400);
+        int i = 0;
+        while (segmentos().size() < 3) {
+            cache.armazenar(ChaveConteudo.de("antigo " + i++), resultado(SetorEmail.VENDAS, motivo));
+        }
+        int segmentosAntes = segmentos().size();
+
+        cache.atualizarVersaoModelo("HuggingFace-PyTorch-FP32:modelo-novo");
+        ChaveConteudo nova = ChaveConteudo.de("resultado da versão nova");
+        cache.armazenar(nova, resultado(SetorEmail.TI, "novo"));
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((Long) cache.getEstatisticas().get("compactacoes") == 0L) {
+            assertThat(System.nanoTime()).isLessThan(limite);
+            Thread.sleep(50);
+        }
+
+        assertThat(segmentos().size()).isLessThan(segmentosAntes);
+        assertThat(cache.obter(nova)).isNotNull();
+    }
+
+    private CachePersistente novo() throws IOException {
+        PropriedadesModelo.CacheClassificacoes.Persistente configuracao =
+                new PropriedadesModelo.CacheClassificacoes.Persistente();
+        configuracao.setHabilitado(true);
+        configuracao.setDiretorio(diretorio.toString());
+        configuracao.setTamanhoSegmentoMb(1);
+        configuracao.setTamanhoMaximoMb(64);
+        configuracao.setLimiarCompactacao(0.5);
+        configuracao.setIntervaloCompactacaoSegundos(1);
+        CachePersistente cache = new CachePersistente(configuracao);
+        abertos.add(cache);
+        return cache;
+    }
+
+    private CachePersistente aberto(String versao) throws IOException {
+        CachePersistente cache = novo();
+        cache.abrir(versao);
+        return cache;
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(arquivo -> arquivo.getFileName().toString().startsWith("segmento-"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static ResultadoClassificacao resultado(SetorEmail setor, String motivo) {
+        ResultadoClassificacao resultado = new ResultadoClassificacao(setor, 0.83, motivo);
+        double[] probabilidades = new double[SetorEmail.values().length];
+        probabilidades[setor.ordinal()] = 0.83;
+        probabilidades[(setor.ordinal() + 1) % probabilidades.length] = 0.17;
+        resultado.setProbabilidades(probabilidades);
+        resultado.setVersaoModelo(VERSAO);
+        return resultado;
+    }
+
+    private static void assertIgual(ResultadoClassificacao lido, ResultadoClassificacao esperado) {
+        assertThat(lido).isNotNull();
+        assertThat(lido.getSetor()).isEqualTo(esperado.getSetor());
+        assertThat(lido.getConfianca()).isEqualTo(esperado.getConfianca());
+        assertThat(lido.getMotivo()).isEqualTo(esperado.getMotivo());
+        assertThat(lido.getVersaoModelo()).isEqualTo(esperado.getVersaoModelo());
+        assertThat(lido.getProbabilidades()).containsExactly(esperado.getProbabilidades());
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.techcorp.ai.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChaveConteudoTest {
+
+    private static final long SEMENTE = 0x9747b28cL;
+
+    @Test
+    void equivaleAoMurmurHash3DoTextoNormalizadoCaractereACaractere() {
+        Random aleatorio = new Random(20240611L);
+        String alfabeto = "abcXYZ çãéÉİΣς\t09€😀";
+        for (int comprimento = 0; comprimento <= 40; comprimento++) {
+            StringBuilder texto = new StringBuilder();
+            for (int i = 0; i < comprimento; i++) {
+                texto.append(alfabeto.charAt(aleatorio.nextInt(alfabeto.length())));
+            }
+            String normalizado = normalizar(texto);
+
+            ChaveConteudo chave = ChaveConteudo.de(texto);
+            long[] esperado = murmur3(unidadesUtf16(normalizado));
+
+            assertThat(chave.getAlto()).as("'%s'", texto).isEqualTo(esperado[0]);
+            assertThat(chave.getBaixo()).isEqualTo(esperado[1]);
+            assertThat(chave.getComprimento()).isEqualTo(normalizado.length());
+        }
+    }
+
+    @Test
+    void ignoraMaiusculasEEspacosNasPontas() {
+        ChaveConteudo chave = ChaveConteudo.de("  Fatura de Outubro\n");
+
+        assertThat(chave).isEqualTo(ChaveConteudo.de("fatura de outubro"));
+        assertThat(chave.hashCode()).isEqualTo(ChaveConteudo.de("fatura de outubro").hashCode());
+        assertThat(chave).isNotEqualTo(ChaveConteudo.de("fatura de  outubro"));
+        assertThat(ChaveConteudo.de("   ")).isEqualTo(ChaveConteudo.de(""));
+    }
+
+    @Test
+    void modoDeVerificacaoComparaTambemOTexto() {
+        ChaveConteudo verificada = ChaveConteudo.de(" Pedido 42 ", true);
+
+        assertThat(verificada).isEqualTo(ChaveConteudo.de("pedido 42", true));
+        assertThat(verificada.hashCode()).isEqualTo(ChaveConteudo.de("pedido 42", true).hashCode());
+        assertThat(verificada).isNotEqualTo(ChaveConteudo.de("pedido 43", true));
+        assertThat(verificada.getPesoEstimado()).isGreaterThan(ChaveConteudo.de("pedido 42").getPesoEstimado());
+    }
+
+    @Test
+    void chaveSemTextoNaoEquivaleAChaveVerificada() {
+        ChaveConteudo verificada = ChaveConteudo.de("pedido 42", true);
+        ChaveConteudo semTexto = ChaveConteudo.de("pedido 42");
+
+        assertThat(verificada).isNotEqualTo(semTexto);
+        assertThat(semTexto).isNotEqualTo(verificada);
+    }
+
+    @Test
+    void verificacaoGuardaOTextoNormalizadoComoAImpressao() {
+        // String.toLowerCase() transformaria o 'İ' em dois caracteres
+        ChaveConteudo verificada = ChaveConteudo.de("İ", true);
+
+        assertThat(verificada.getComprimento()).isEqualTo(1);
+        assertThat(verificada.getPesoEstimado()).isEqualTo(ChaveConteudo.de("i", true).getPesoEstimado());
+        assertThat(verificada).isEqualTo(ChaveConteudo.de("İ", true));
+    }
+
+    @Test
+    void representacaoTextualTem128Bits() {
+        assertThat(ChaveConteudo.de("fatura").toString()).matches("[0-9a-f]{32}");
+    }
+
+    // Minúsculas caractere a caractere, sem os caracteres até ' ' nas pontas
+    private static String normalizar(CharSequence texto) {
+        StringBuilder normalizado = new StringBuilder();
+        for (int i = 0; i < texto.length(); i++) {
+            normalizado.append(Character.toLowerCase(texto.charAt(i)));
+        }
+        int inicio = 0;
+        int fim = normalizado.length();
+        while (inicio < fim && normalizado.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && normalizado.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        return normalizado.substring(inicio, fim);
+    }
+
+    // Unidades UTF-16 em little endian, sem substituir surrogates isolados como getBytes() faria
+    private static byte[] unidadesUtf16(String texto) {
+        ByteBuffer bytes = ByteBuffer.allocate(texto.length() * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < texto.length(); i++) {
+            bytes.putChar(texto.charAt(i));
+        }
+        return bytes.array();
+    }
+
+    /**
+     * MurmurHash3 x64 128 de referência, sobre bytes
+     */
+    private static long[] murmur3(byte[] dados) {
+        long c1 = 0x87c37b91114253d5L;
+        long c2 = 0x4cf5ad432745937fL;
+        long h1 = SEMENTE;
+        long h2 = SEMENTE;
+        ByteBuffer buffer = ByteBuffer.wrap(dados).order(ByteOrder.LITTLE_ENDIAN);
+
+        int blocos = dados.length / 16;
+        for (int i = 0; i < blocos; i++) {
+            long k1 = buffer.getLong(i * 16);
+            long k2 = buffer.getLong(i * 16 + 8);
+
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int cauda = blocos * 16;
+        int restante = dados.length - cauda;
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = restante - 1; i >= 8; i--) {
+            k2 ^= (dados[cauda + i] & 0xffL) << ((i - 8) * 8);
+        }
+        for (int i = Math.min(restante, 8) - 1; i >= 0; i--) {
+            k1 ^= (dados[cauda + i] & 0xffL) << (i * 8);
+        }
+        if (restante > 8) {
+            h2 ^= Long.rotateLeft(k2 * c2, 33) * c1;
+        }
+        if (restante > 0) {
+            h1 ^= Long.rotateLeft(k1 * c1, 31) * c2;
+        }
+
+        h1 ^= dados.length;
+        h2 ^= dados.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] { h1, h2 };
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
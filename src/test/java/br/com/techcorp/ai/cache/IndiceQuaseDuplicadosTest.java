@@ -0,0 +1,142 @@
+package br.com.techcorp.ai.cache;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndiceQuaseDuplicadosTest {
+
+    // similaridadeMinima 0.9 admite até 6 bits de diferença
+    private static final int DISTANCIA_MAXIMA = 6;
+
+    @Test
+    void encontraImpressoesDentroDaDistanciaMaxima() {
+        IndiceQuaseDuplicados indice = indice(0.9, 1000);
+        Random aleatorio = new Random(20240611L);
+        long[] impressoes = new long[200];
+        ResultadoClassificacao[] resultados = new ResultadoClassificacao[impressoes.length];
+        for (int i = 0; i < impressoes.length; i++) {
+            impressoes[i] = aleatorio.nextLong();
+            resultados[i] = resultado(SetorEmail.values()[i % SetorEmail.values().length]);
+            indice.armazenar(impressoes[i], resultados[i]);
+        }
+
+        for (int i = 0; i < impressoes.length; i++) {
+            int bits = aleatorio.nextInt(DISTANCIA_MAXIMA + 1);
+            long consulta = inverterBits(aleatorio, impressoes[i], bits);
+            assertThat(indice.buscar(consulta)).as("%d bits", bits).isSameAs(resultados[i]);
+        }
+    }
+
+    @Test
+    void ignoraImpressoesAlemDaDistanciaMaxima() {
+        IndiceQuaseDuplicados indice = indice(0.9, 1000);
+        Random aleatorio = new Random(7L);
+        long impressao = aleatorio.nextLong();
+        indice.armazenar(impressao, resultado(SetorEmail.FINANCEIRO));
+
+        for (int i = 0; i < 100; i++) {
+            long consulta = inverterBits(aleatorio, impressao, DISTANCIA_MAXIMA + 1 + aleatorio.nextInt(8));
+            assertThat(indice.buscar(consulta)).isNull();
+        }
+    }
+
+    @Test
+    void prefereOCandidatoMaisProximo() {
+        IndiceQuaseDuplicados indice = indice(0.9, 1000);
+        ResultadoClassificacao distante = resultado(SetorEmail.RH);
+        ResultadoClassificacao proximo = resultado(SetorEmail.TI);
+        long consulta = 0x0123_4567_89ab_cdefL;
+
+        indice.armazenar(consulta ^ 0b111L, distante);
+        indice.armazenar(consulta ^ 0b1L, proximo);
+
+        assertThat(indice.buscar(consulta)).isSameAs(proximo);
+    }
+
+    @Test
+    void entradasMaisAntigasSaemDoAnel() {
+        IndiceQuaseDuplicados indice = indice(0.9, 2);
+        ResultadoClassificacao segundo = resultado(SetorEmail.VENDAS);
+        ResultadoClassificacao terceiro = resultado(SetorEmail.COMPRAS);
+
+        indice.armazenar(0x1111_1111_1111_1111L, resultado(SetorEmail.RH));
+        indice.armazenar(0x2222_2222_2222_2222L, segundo);
+        indice.armazenar(0x4444_4444_4444_4444L, terceiro);
+
+        assertThat(indice.buscar(0x1111_1111_1111_1111L)).isNull();
+        assertThat(indice.buscar(0x2222_2222_2222_2222L)).isSameAs(segundo);
+        assertThat(indice.buscar(0x4444_4444_4444_4444L)).isSameAs(terceiro);
+    }
+
+    @Test
+    void novaVersaoDoModeloDescartaOIndice() {
+        IndiceQuaseDuplicados indice = indice(0.9, 100);
+        indice.atualizarVersaoModelo("v1");
+        indice.armazenar(42L, resultado(SetorEmail.JURIDICO));
+
+        indice.atualizarVersaoModelo("v1");
+        assertThat(indice.buscar(42L)).isNotNull();
+
+        indice.atualizarVersaoModelo("v2");
+        assertThat(indice.buscar(42L)).isNull();
+        assertThat(indice.getEstatisticas()).containsEntry("versaoModelo", "v2");
+    }
+
+    @Test
+    void textosCurtosNaoSaoComparaveis() {
+        PropriedadesModelo.QuaseDuplicados configuracao = configuracao(0.9, 100);
+        configuracao.setMinimoPalavras(4);
+        IndiceQuaseDuplicados indice = new IndiceQuaseDuplicados(configuracao);
+
+        assertThat(indice.isComparavel("segue a fatura")).isFalse();
+        assertThat(indice.isComparavel("segue a fatura anexa")).isTrue();
+        assertThat(indice.getEstatisticas()).containsEntry("textosCurtos", 1L);
+    }
+
+    @Test
+    void derivaADistanciaEAsBandasDaSimilaridade() {
+        assertThat(indice(0.9, 10).getEstatisticas())
+                .containsEntry("distanciaMaximaBits", 6)
+                .containsEntry("bandas", 7);
+        assertThat(indice(1.0, 10).getEstatisticas())
+                .containsEntry("distanciaMaximaBits", 0)
+                .containsEntry("bandas", 1);
+        assertThat(indice(0.5, 10).getEstatisticas()).containsEntry("bandas", 16);
+    }
+
+    @Test
+    void recusaSimilaridadeForaDoIntervalo() {
+        assertThatThrownBy(() -> indice(0.0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> indice(1.1, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long inverterBits(Random aleatorio, long impressao, int bits) {
+        long mascara = 0L;
+        while (Long.bitCount(mascara) < bits) {
+            mascara |= 1L << aleatorio.nextInt(64);
+        }
+        return impressao ^ mascara;
+    }
+
+    private static IndiceQuaseDuplicados indice(double similaridadeMinima, int capacidade) {
+        return new IndiceQuaseDuplicados(configuracao(similaridadeMinima, capacidade));
+    }
+
+    private static PropriedadesModelo.QuaseDuplicados configuracao(double similaridadeMinima, int capacidade) {
+        PropriedadesModelo.QuaseDuplicados configuracao = new PropriedadesModelo.QuaseDuplicados();
+        configuracao.setSimilaridadeMinima(similaridadeMinima);
+        configuracao.setCapacidade(capacidade);
+        return configuracao;
+    }
+
+    private static ResultadoClassificacao resultado(SetorEmail setor) {
+        return new ResultadoClassificacao(setor, 0.9, "teste");
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AgregacaoJanelasTest {
+
+    @Test
+    void semJanelasOResultadoEZero() {
+        AgregacaoJanelas agregacao = new AgregacaoJanelas();
+
+        assertThat(agregacao.resultado()).containsOnly(0.0);
+        assertThat(agregacao.getConfianca()).isZero();
+        assertThat(agregacao.getJanelas()).isZero();
+    }
+
+    @Test
+    void janelasDecisivasPesamMaisQueAsEspalhadas() {
+        AgregacaoJanelas agregacao = new AgregacaoJanelas();
+        agregacao.adicionar(scores(SetorEmail.TI, 0.8, SetorEmail.RH, 0.2));
+        agregacao.adicionar(scores(SetorEmail.RH, 0.2, SetorEmail.TI, 0.1));
+
+        double[] resultado = agregacao.resultado();
+
+        // Pesos 0.8 e 0.2: TI = (0.8*0.8 + 0.2*0.1) / 1.0, RH = (0.8*0.2 + 0.2*0.2) / 1.0
+        assertThat(resultado[SetorEmail.TI.ordinal()]).isCloseTo(0.66, within(1e-9));
+        assertThat(resultado[SetorEmail.RH.ordinal()]).isCloseTo(0.20, within(1e-9));
+        assertThat(agregacao.getConfianca()).isCloseTo(0.66, within(1e-9));
+        assertThat(agregacao.getJanelas()).isEqualTo(2);
+    }
+
+    @Test
+    void janelasSemScoreNaoDiluemAsDemais() {
+        AgregacaoJanelas agregacao = new AgregacaoJanelas();
+        agregacao.adicionar(scores(SetorEmail.JURIDICO, 0.9, SetorEmail.TI, 0.1));
+        agregacao.adicionar(ScoresSetores.novoVetor());
+        agregacao.adicionar(ScoresSetores.novoVetor());
+
+        assertThat(agregacao.resultado()[SetorEmail.JURIDICO.ordinal()]).isCloseTo(0.9, within(1e-9));
+        assertThat(agregacao.getJanelas()).isEqualTo(3);
+    }
+
+    private static double[] scores(SetorEmail primeiro, double scorePrimeiro, SetorEmail segundo,
+            double scoreSegundo) {
+        double[] scores = ScoresSetores.novoVetor();
+        scores[primeiro.ordinal()] = scorePrimeiro;
+        scores[segundo.ordinal()] = scoreSegundo;
+        return scores;
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.impl.ClassificadorHuggingFaceReal.EstadoModelo;
+import br.com.techcorp.ai.impl.ClassificadorHuggingFaceRealTest.FornecedorFalso;
+import br.com.techcorp.ai.impl.ClassificadorHuggingFaceRealTest.MotorFalso;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferencia;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferenciaDjl;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.cli.ComparacaoPrecisao;
+import br.com.techcorp.cli.TreinamentoLinear;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CicloVidaModeloTest {
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private ClassificadorHuggingFaceReal classificador;
+    private CicloVidaModelo cicloVida;
+
+    @AfterEach
+    void encerrar() {
+        if (cicloVida != null) {
+            cicloVida.stop();
+        }
+        if (classificador != null) {
+            classificador.encerrar();
+        }
+    }
+
+    @Test
+    void aquecimentoComInferenciaNaoRegistraMetricas() throws InterruptedException {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        aquecer(propriedades(), new FornecedorFalso(motor));
+
+        assertThat(motor.inferencias.get()).isPositive();
+        assertSemMedicoes();
+    }
+
+    @Test
+    void aquecimentoComPontuacaoSemanticaNaoRegistraMetricas() throws InterruptedException {
+        PropriedadesModelo propriedades = propriedades();
+        propriedades.setDiretorio("diretorio-inexistente");
+        aquecer(propriedades, new FornecedorMotorInferenciaDjl());
+
+        assertThat(classificador.getInfoModelo()).containsEntry("inferenciaReal", false);
+        assertSemMedicoes();
+    }
+
+    @Test
+    void saudeForaDeServicoAteOModeloFicarPronto() throws InterruptedException {
+        classificador = new ClassificadorHuggingFaceReal(propriedades(), new MetricasClassificacao(registro),
+                List.of(new FornecedorFalso(new MotorFalso(SetorEmail.TI))));
+        cicloVida = novoCicloVida(propriedades(), new MockEnvironment());
+
+        assertThat(cicloVida.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(cicloVida.health().getDetails()).containsEntry("estado", EstadoModelo.CARREGANDO);
+
+        iniciar();
+
+        assertThat(cicloVida.isRunning()).isTrue();
+        assertThat(cicloVida.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(cicloVida.health().getDetails()).containsEntry("estado", EstadoModelo.PRONTO);
+    }
+
+    @Test
+    void falhaNoCarregamentoDeixaASaudeDown() {
+        classificador = new ClassificadorHuggingFaceReal(propriedades(), new MetricasClassificacao(registro),
+                List.of()) {
+            @Override
+            public EstadoModelo getEstado() {
+                return EstadoModelo.FALHOU;
+            }
+        };
+        cicloVida = novoCicloVida(propriedades(), new MockEnvironment());
+
+        assertThat(cicloVida.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(cicloVida.health().getDetails()).containsEntry("estado", EstadoModelo.FALHOU);
+    }
+
+    @Test
+    void comparacaoDePrecisaoETreinoLinearNaoCarregamOModelo() {
+        classificador = new ClassificadorHuggingFaceReal(propriedades(), new MetricasClassificacao(registro),
+                List.of());
+
+        assertThat(novoCicloVida(propriedades(), new MockEnvironment()).isAutoStartup()).isTrue();
+        assertThat(novoCicloVida(propriedades(),
+                new MockEnvironment().withProperty(ComparacaoPrecisao.OPCAO_COMPARAR, "")).isAutoStartup())
+                .isFalse();
+        assertThat(novoCicloVida(propriedades(),
+                new MockEnvironment().withProperty(TreinamentoLinear.OPCAO_TREINAR, "")).isAutoStartup())
+                .isFalse();
+    }
+
+    @Test
+    void pararEncerraOCarregamento() throws InterruptedException {
+        aquecer(propriedades(), new FornecedorFalso(new MotorFalso(SetorEmail.TI)));
+
+        cicloVida.stop();
+
+        assertThat(cicloVida.isRunning()).isFalse();
+    }
+
+    private void aquecer(PropriedadesModelo propriedades, FornecedorMotorInferencia fornecedor)
+            throws InterruptedException {
+        classificador = new ClassificadorHuggingFaceReal(propriedades, new MetricasClassificacao(registro),
+                List.of(fornecedor));
+        cicloVida = novoCicloVida(propriedades, new MockEnvironment());
+        iniciar();
+    }
+
+    private void iniciar() throws InterruptedException {
+        cicloVida.start();
+        long limite = System.currentTimeMillis() + 10_000;
+        while (classificador.getEstado() != EstadoModelo.PRONTO && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(classificador.getEstado()).isEqualTo(EstadoModelo.PRONTO);
+    }
+
+    private CicloVidaModelo novoCicloVida(PropriedadesModelo propriedades, MockEnvironment ambiente) {
+        return new CicloVidaModelo(classificador, new ClassificadorBaseadoEmRegras(),
+                new ObjectMapper().findAndRegisterModules(), propriedades, ambiente);
+    }
+
+    private static PropriedadesModelo propriedades() {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+        propriedades.getJanelas().setHabilitada(false);
+        propriedades.getAquecimento().setIteracoes(5);
+        return propriedades;
+    }
+
+    private void assertSemMedicoes() {
+        assertThat(registro.find("classificacao.etapa").timers()).isNotEmpty()
+                .allSatisfy(timer -> assertThat(timer.count()).as(descrever(timer)).isZero());
+        assertThat(registro.get("classificacao.janelas").summary().count()).isZero();
+        assertThat(registro.get("classificacao.duracao").timer().count()).isZero();
+    }
+
+    private static String descrever(Timer timer) {
+        return timer.getId().getTag("etapa");
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.cache.ChaveConteudo;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClassificacoesEmAndamentoTest {
+
+    private static final ChaveConteudo CHAVE = ChaveConteudo.de("fatura de outubro em anexo");
+
+    private final ClassificacoesEmAndamento emAndamento =
+            new ClassificacoesEmAndamento(new MetricasClassificacao(new SimpleMeterRegistry()));
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void encerrar() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void requisicoesSimultaneasRecebemOResultadoDeUmaUnicaClassificacao() throws Exception {
+        ClassificacaoBloqueada classificacao = new ClassificacaoBloqueada(resultado(SetorEmail.FINANCEIRO));
+
+        Future<ResultadoClassificacao> lider = threads.submit(() -> emAndamento.executar(CHAVE, classificacao));
+        classificacao.aguardarInicio();
+        List<Future<ResultadoClassificacao>> seguidoras = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            seguidoras.add(threads.submit(() -> emAndamento.executar(CHAVE, classificacao)));
+        }
+        aguardar(() -> coalescidas() == 3);
+        classificacao.liberar();
+
+        ResultadoClassificacao esperado = lider.get(5, TimeUnit.SECONDS);
+        for (Future<ResultadoClassificacao> seguidora : seguidoras) {
+            assertThat(seguidora.get(5, TimeUnit.SECONDS)).isSameAs(esperado);
+        }
+        assertThat(classificacao.execucoes.get()).isEqualTo(1);
+        assertThat(emAndamento.getEstatisticas()).containsEntry("emAndamento", 0);
+    }
+
+    @Test
+    void quemEsperaRecebeAMesmaExcecaoDeQuemClassifica() throws Exception {
+        CountDownLatch inicio = new CountDownLatch(1);
+        CountDownLatch liberacao = new CountDownLatch(1);
+        Supplier<ResultadoClassificacao> falha = () -> {
+            inicio.countDown();
+            aguardarSemInterrupcao(liberacao);
+            throw new IllegalArgumentException("texto inválido");
+        };
+
+        Future<ResultadoClassificacao> lider = threads.submit(() -> emAndamento.executar(CHAVE, falha));
+        assertThat(inicio.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ResultadoClassificacao> seguidora = threads.submit(() -> emAndamento.executar(CHAVE, falha));
+        aguardar(() -> coalescidas() == 1);
+        liberacao.countDown();
+
+        assertThatThrownBy(() -> lider.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> seguidora.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fallbackDeQuemFoiInterrompidoNaoEhEntregueAQuemEspera() throws Exception {
+        ResultadoClassificacao fallback = resultado(SetorEmail.ATENDIMENTO);
+        ResultadoClassificacao doModelo = resultado(SetorEmail.FINANCEIRO);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        Supplier<ResultadoClassificacao> classificacao = () -> {
+            if (execucoes.incrementAndGet() > 1) {
+                return doModelo;
+            }
+            inicio.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return doModelo;
+            } catch (InterruptedException e) {
+                // Como o ClassificadorHuggingFaceReal: mantém a interrupção e devolve o fallback
+                Thread.currentThread().interrupt();
+                return fallback;
+            }
+        };
+
+        Future<ResultadoClassificacao> lider = threads.submit(() -> emAndamento.executar(CHAVE, classificacao));
+        assertThat(inicio.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ResultadoClassificacao> seguidora = threads.submit(() -> emAndamento.executar(CHAVE, classificacao));
+        aguardar(() -> coalescidas() == 1);
+        lider.cancel(true);
+
+        assertThat(seguidora.get(5, TimeUnit.SECONDS)).isSameAs(doModelo);
+        assertThat(execucoes.get()).isEqualTo(2);
+        assertThat(emAndamento.getEstatisticas()).containsEntry("executadas", 2L);
+    }
+
+    @Test
+    void interromperQuemEsperaNaoAfetaOsDemais() throws Exception {
+        ClassificacaoBloqueada classificacao = new ClassificacaoBloqueada(resultado(SetorEmail.TI));
+
+        Future<ResultadoClassificacao> lider = threads.submit(() -> emAndamento.executar(CHAVE, classificacao));
+        classificacao.aguardarInicio();
+        CountDownLatch interrompida = new CountDownLatch(1);
+        Future<?> cancelada = threads.submit(() -> {
+            try {
+                emAndamento.executar(CHAVE, classificacao);
+            } catch (InterruptedException e) {
+                interrompida.countDown();
+            }
+            return null;
+        });
+        Future<ResultadoClassificacao> mantida = threads.submit(() -> emAndamento.executar(CHAVE, classificacao));
+        aguardar(() -> coalescidas() == 2);
+
+        cancelada.cancel(true);
+        assertThat(interrompida.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emAndamento.getEstatisticas()).containsEntry("emAndamento", 1);
+
+        classificacao.liberar();
+        ResultadoClassificacao esperado = lider.get(5, TimeUnit.SECONDS);
+        assertThat(mantida.get(5, TimeUnit.SECONDS)).isSameAs(esperado);
+        assertThat(classificacao.execucoes.get()).isEqualTo(1);
+    }
+
+    @Test
+    void chavesDiferentesClassificamSeparadamente() throws Exception {
+        AtomicInteger execucoes = new AtomicInteger();
+        Supplier<ResultadoClassificacao> classificacao = () -> {
+            execucoes.incrementAndGet();
+            return resultado(SetorEmail.RH);
+        };
+
+        emAndamento.executar(ChaveConteudo.de("primeiro texto"), classificacao);
+        emAndamento.executar(ChaveConteudo.de("segundo texto"), classificacao);
+        emAndamento.executar(ChaveConteudo.de("primeiro texto"), classificacao);
+
+        assertThat(execucoes.get()).isEqualTo(3);
+        assertThat(coalescidas()).isZero();
+    }
+
+    private long coalescidas() {
+        return (Long) emAndamento.getEstatisticas().get("coalescidas");
+    }
+
+    private static ResultadoClassificacao resultado(SetorEmail setor) {
+        return new ResultadoClassificacao(setor, 0.9, "teste");
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(limite);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void aguardarSemInterrupcao(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Classificação que só termina depois de liberar()
+     */
+    private static final class ClassificacaoBloqueada implements Supplier<ResultadoClassificacao> {
+
+        private final ResultadoClassificacao resultado;
+        private final AtomicInteger execucoes = new AtomicInteger();
+        private final CountDownLatch inicio = new CountDownLatch(1);
+        private final CountDownLatch liberacao = new CountDownLatch(1);
+
+        private ClassificacaoBloqueada(ResultadoClassificacao resultado) {
+            this.resultado = resultado;
+        }
+
+        void aguardarInicio() throws InterruptedException {
+            assertThat(inicio.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void liberar() {
+            liberacao.countDown();
+        }
+
+        @Override
+        public ResultadoClassificacao get() {
+            execucoes.incrementAndGet();
+            inicio.countDown();
+            aguardarSemInterrupcao(liberacao);
+            return resultado;
+        }
+    }
+}
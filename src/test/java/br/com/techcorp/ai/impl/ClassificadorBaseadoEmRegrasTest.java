@@ -0,0 +1,47 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.ScoresSetores;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ClassificadorBaseadoEmRegrasTest {
+
+    private final ClassificadorBaseadoEmRegras classificador = new ClassificadorBaseadoEmRegras();
+
+    @Test
+    void setorEOMaiorScoreDoVetorDeProbabilidades() {
+        List<String> textos = List.of(
+                "Segue o boleto para pagamento da fatura de outubro",
+                "O sistema está com erro e não consigo acessar",
+                "Envio meu currículo para a vaga de analista",
+                "Gostaria de uma cotação e proposta de preço para 100 unidades");
+
+        for (String texto : textos) {
+            ResultadoClassificacao resultado = classificador.classificarTexto(texto);
+            double[] probabilidades = resultado.getProbabilidades();
+
+            assertThat(probabilidades).as(texto).hasSize(SetorEmail.values().length);
+            assertThat(ScoresSetores.soma(probabilidades)).isCloseTo(1.0, within(1e-9));
+            assertThat(ScoresSetores.melhorSetor(probabilidades)).isEqualTo(resultado.getSetor());
+        }
+    }
+
+    @Test
+    void scoresZeradosNaoGeramProbabilidades() {
+        assertThat(classificador.converterScoresParaProbabilidades(ScoresSetores.novoVetor())).isEmpty();
+    }
+
+    @Test
+    void textoSemPalavrasChaveFicaComOAtendimento() {
+        ResultadoClassificacao resultado = classificador.classificarTexto("xyzzy plugh");
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.ATENDIMENTO);
+        assertThat(resultado.getProbabilidadesSetores()).isEmpty();
+    }
+}
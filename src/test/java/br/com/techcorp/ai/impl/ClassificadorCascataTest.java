@@ -0,0 +1,462 @@
+package br.com.techcorp.ai.impl;
+
+import br.com.techcorp.ai.admissao.ControleAdmissao;
+import br.com.techcorp.ai.admissao.DisjuntorModelo;
+import br.com.techcorp.ai.admissao.DisjuntorModelo.Estado;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.config.PropriedadesAdmissao;
+import br.com.techcorp.config.PropriedadesCascata;
+import br.com.techcorp.config.PropriedadesLinear;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesPrazo;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ClassificadorCascataTest {
+
+    private static final String TEXTO = "Segue o boleto para pagamento da fatura de outubro";
+    private static final long TEMPO_ABERTO_MS = 200;
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private final MetricasClassificacao metricas = new MetricasClassificacao(registro);
+
+    private final PropriedadesCascata propriedadesCascata = new PropriedadesCascata();
+    private final PropriedadesAdmissao propriedadesAdmissao = new PropriedadesAdmissao();
+    private final PropriedadesPrazo propriedadesPrazo = new PropriedadesPrazo();
+
+    private final ClassificadorBaseadoEmRegras regras = new ClassificadorBaseadoEmRegras();
+    private final ModeloFalso modelo = new ModeloFalso(metricas);
+    private final LinearFalso linear = new LinearFalso(regras);
+    private ThreadPoolExecutor executorModelo;
+    private ControleAdmissao controleAdmissao;
+
+    @BeforeEach
+    void configurar() {
+        // Regras nunca suficientes: tudo segue para o modelo, salvo quando o teste muda
+        propriedadesCascata.setConfiancaMinima(1.1);
+        propriedadesPrazo.getDisjuntor().setTimeoutsParaAbrir(1);
+        propriedadesPrazo.getDisjuntor().setTempoAbertoMs(60_000);
+        propriedadesAdmissao.setAdaptativo(false);
+        propriedadesAdmissao.setLimiteInicial(1);
+        propriedadesAdmissao.setTamanhoFila(0);
+        executorModelo = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @AfterEach
+    void encerrar() {
+        executorModelo.shutdownNow();
+    }
+
+    @Test
+    void regrasSuficientesNaoConsultamOsOutrosNiveis() {
+        propriedadesCascata.setConfiancaMinima(0.0);
+        propriedadesCascata.setMargemMinima(0.0);
+        linear.confianca = 0.99;
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.FINANCEIRO);
+        assertThat(linear.chamadas.get()).isZero();
+        assertThat(modelo.chamadas.get()).isZero();
+        assertThat(nivel("regras")).isEqualTo(1);
+        assertThat(registro.get("classificacao.duracao").timer().count()).isEqualTo(1);
+        assertThat(cascata.getEstatisticas()).containsEntry("resolvidosPorRegras", 1L);
+    }
+
+    @Test
+    void linearAcimaDaConfiancaMinimaResolveSemOModelo() {
+        linear.disponivel = true;
+        linear.confianca = 0.8;
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(resultado.getVersaoModelo()).isEqualTo(LinearFalso.VERSAO);
+        assertThat(modelo.chamadas.get()).isZero();
+        assertThat(nivel("linear")).isEqualTo(1);
+        assertThat(cascata.getEstatisticas()).containsEntry("resolvidosPorLinear", 1L);
+    }
+
+    @Test
+    void linearAbaixoDaConfiancaMinimaSegueParaOModelo() {
+        linear.disponivel = true;
+        linear.confianca = 0.5;
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(modelo.isResultadoDoModelo(resultado)).isTrue();
+        assertThat(linear.chamadas.get()).isEqualTo(1);
+        assertThat(nivel("modelo")).isEqualTo(1);
+        assertThat(nivel("linear")).isZero();
+    }
+
+    @Test
+    void linearSemPesosNaoEConsultado() {
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(modelo.isResultadoDoModelo(resultado)).isTrue();
+        assertThat(linear.chamadas.get()).isZero();
+        assertThat(registro.get("classificacao.admissao").tag("resultado", "admitida").counter().count())
+                .isEqualTo(1);
+        assertThat(cascata.getEstatisticas()).containsEntry("encaminhadosAoModelo", 1L);
+    }
+
+    @Test
+    void cascataDesabilitadaVaiDiretoAoModelo() {
+        propriedadesCascata.setHabilitada(false);
+        propriedadesCascata.setConfiancaMinima(0.0);
+        propriedadesCascata.setMargemMinima(0.0);
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        assertThat(modelo.isResultadoDoModelo(cascata.classificarTexto(TEXTO))).isTrue();
+        assertThat(nivel("regras")).isZero();
+    }
+
+    @Test
+    void disjuntorAbertoDesviaParaAsRegras() {
+        DisjuntorModelo disjuntor = new DisjuntorModelo(propriedadesPrazo);
+        disjuntor.registrarTimeout();
+        ClassificadorCascata cascata = cascata(disjuntor);
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.FINANCEIRO);
+        assertThat(resultado.getVersaoModelo()).endsWith(":disjuntor-aberto");
+        assertThat(resultado.getMotivo()).contains("modelo desviado");
+        assertThat(modelo.chamadas.get()).isZero();
+        assertThat(registro.get("classificacao.disjuntor.desviadas").counter().count()).isEqualTo(1);
+        assertThat(nivel("regras")).isEqualTo(1);
+        assertThat(cascata.getEstatisticas()).containsEntry("desviadosPeloDisjuntor", 1L);
+    }
+
+    @Test
+    void semPrazoOModeloRespondeNaThreadDeQuemChama() {
+        propriedadesPrazo.setHabilitado(false);
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(modelo.isResultadoDoModelo(resultado)).isTrue();
+        assertThat(modelo.threads).containsExactly(Thread.currentThread().getName());
+        assertThat(executorModelo.getCompletedTaskCount()).isZero();
+        assertThat(cascata.getEstatisticas()).containsEntry("prazoPadraoMs", 0L);
+    }
+
+    @Test
+    void prazoEsgotadoFicaComAsRegras() {
+        propriedadesPrazo.setPadraoMs(20);
+        modelo.demoraMs = 500;
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.FINANCEIRO);
+        assertThat(resultado.getVersaoModelo()).endsWith(":prazo-esgotado");
+        assertThat(resultado.getMotivo()).contains("prazo de 20 ms esgotado");
+        assertThat(registro.get("classificacao.prazo.esgotado").counter().count()).isEqualTo(1);
+        assertThat(registro.get("classificacao.duracao").timer().count()).isEqualTo(1);
+        assertThat(cascata.getEstatisticas()).containsEntry("prazosEsgotados", 1L);
+    }
+
+    @Test
+    void semPrazoIgnoraAdmissaoEDisjuntor() {
+        DisjuntorModelo disjuntor = new DisjuntorModelo(propriedadesPrazo);
+        disjuntor.registrarTimeout();
+        ClassificadorCascata cascata = cascata(disjuntor);
+        ocuparAdmissao();
+
+        ResultadoClassificacao resultado = cascata.semPrazo().classificarTexto(TEXTO);
+
+        assertThat(modelo.isResultadoDoModelo(resultado)).isTrue();
+        assertThat(nivel("modelo")).isEqualTo(1);
+    }
+
+    @Test
+    void margemEADiferencaEntreAsDuasMaioresProbabilidades() {
+        assertThat(ClassificadorCascata.margem(new double[] { 0.1, 0.6, 0.3 })).isCloseTo(0.3, within(1e-9));
+        assertThat(ClassificadorCascata.margem(new double[] { 0.5, 0.5 })).isZero();
+        assertThat(ClassificadorCascata.margem(new double[] { 0.0, 0.0 })).isZero();
+        assertThat(ClassificadorCascata.margem(null)).isZero();
+    }
+
+    @Test
+    void prazoCurtoPedidoPeloClienteNaoAbreODisjuntor() {
+        propriedadesPrazo.setMinimoMs(10);
+        modelo.demoraMs = 500;
+        DisjuntorModelo disjuntor = new DisjuntorModelo(propriedadesPrazo);
+        ClassificadorCascata cascata = cascata(disjuntor);
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO, 1);
+
+        assertThat(resultado.getVersaoModelo()).endsWith(":prazo-esgotado");
+        assertThat(registro.get("classificacao.prazo.esgotado").counter().count()).isEqualTo(1);
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+    }
+
+    @Test
+    void prazoPadraoEsgotadoContaComoTimeoutDoModelo() {
+        propriedadesPrazo.setPadraoMs(20);
+        modelo.demoraMs = 500;
+        DisjuntorModelo disjuntor = new DisjuntorModelo(propriedadesPrazo);
+        ClassificadorCascata cascata = cascata(disjuntor);
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(resultado.getVersaoModelo()).endsWith(":prazo-esgotado");
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.ABERTO);
+    }
+
+    @Test
+    void prazoAbaixoDoMinimoEElevadoAoMinimo() {
+        propriedadesPrazo.setMinimoMs(2000);
+        modelo.demoraMs = 50;
+        ClassificadorCascata cascata = cascata(new DisjuntorModelo(propriedadesPrazo));
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO, 1);
+
+        assertThat(modelo.isResultadoDoModelo(resultado)).isTrue();
+        assertThat(registro.get("classificacao.prazo.esgotado").counter().count()).isZero();
+    }
+
+    @Test
+    void respostaDoModeloNoPrazoFechaODisjuntorSemiaberto() throws InterruptedException {
+        DisjuntorModelo disjuntor = semiaberto();
+
+        ResultadoClassificacao resultado = cascata(disjuntor).classificarTexto(TEXTO);
+
+        assertThat(modelo.isResultadoDoModelo(resultado)).isTrue();
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+    }
+
+    @Test
+    void semiabertoSemPrazoRegistraARespostaDoModelo() throws InterruptedException {
+        propriedadesPrazo.setHabilitado(false);
+        DisjuntorModelo disjuntor = semiaberto();
+
+        cascata(disjuntor).classificarTexto(TEXTO);
+
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.FECHADO);
+    }
+
+    @Test
+    void semiabertoSemPrazoLiberaOTesteQuandoOModeloNaoResponde() throws InterruptedException {
+        propriedadesPrazo.setHabilitado(false);
+        modelo.semResposta = true;
+        DisjuntorModelo disjuntor = semiaberto();
+
+        cascata(disjuntor).classificarTexto(TEXTO);
+
+        assertTesteLiberado(disjuntor);
+    }
+
+    @Test
+    void semiabertoSemPrazoLiberaOTesteQuandoOModeloFalha() throws InterruptedException {
+        propriedadesPrazo.setHabilitado(false);
+        modelo.erro = new IllegalStateException("falha simulada");
+        DisjuntorModelo disjuntor = semiaberto();
+        ClassificadorCascata cascata = cascata(disjuntor);
+
+        assertThatThrownBy(() -> cascata.classificarTexto(TEXTO)).isSameAs(modelo.erro);
+        assertTesteLiberado(disjuntor);
+    }
+
+    @Test
+    void semiabertoSemPrazoLiberaOTesteNaoAdmitido() throws InterruptedException {
+        propriedadesPrazo.setHabilitado(false);
+        DisjuntorModelo disjuntor = semiaberto();
+        ClassificadorCascata cascata = cascata(disjuntor);
+        ocuparAdmissao();
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(resultado.getVersaoModelo()).endsWith(":sobrecarga");
+        assertTesteLiberado(disjuntor);
+    }
+
+    @Test
+    void semiabertoLiberaOTesteNaoAdmitido() throws InterruptedException {
+        DisjuntorModelo disjuntor = semiaberto();
+        ClassificadorCascata cascata = cascata(disjuntor);
+        ocuparAdmissao();
+
+        ResultadoClassificacao resultado = cascata.classificarTexto(TEXTO);
+
+        assertThat(resultado.getVersaoModelo()).endsWith(":sobrecarga");
+        assertTesteLiberado(disjuntor);
+    }
+
+    @Test
+    void semiabertoLiberaOTesteRecusadoPeloExecutor() throws InterruptedException {
+        executorModelo.shutdownNow();
+        executorModelo = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        CountDownLatch liberar = new CountDownLatch(1);
+        executorModelo.execute(() -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        DisjuntorModelo disjuntor = semiaberto();
+
+        ResultadoClassificacao resultado = cascata(disjuntor).classificarTexto(TEXTO);
+        liberar.countDown();
+
+        assertThat(resultado.getVersaoModelo()).endsWith(":sobrecarga");
+        assertTesteLiberado(disjuntor);
+    }
+
+    @Test
+    void semiabertoLiberaOTesteQuandoOModeloFalha() throws InterruptedException {
+        modelo.erro = new IllegalStateException("falha simulada");
+        DisjuntorModelo disjuntor = semiaberto();
+        ClassificadorCascata cascata = cascata(disjuntor);
+
+        assertThatThrownBy(() -> cascata.classificarTexto(TEXTO)).isSameAs(modelo.erro);
+        assertTesteLiberado(disjuntor);
+    }
+
+    @Test
+    void semiabertoLiberaOTesteComPrazoCurtoDoCliente() throws InterruptedException {
+        propriedadesPrazo.setMinimoMs(10);
+        modelo.demoraMs = 500;
+        DisjuntorModelo disjuntor = semiaberto();
+
+        ResultadoClassificacao resultado = cascata(disjuntor).classificarTexto(TEXTO, 1);
+
+        assertThat(resultado.getVersaoModelo()).endsWith(":prazo-esgotado");
+        assertTesteLiberado(disjuntor);
+    }
+
+    private ClassificadorCascata cascata(DisjuntorModelo disjuntor) {
+        PropriedadesLinear propriedadesLinear = new PropriedadesLinear();
+        controleAdmissao = new ControleAdmissao(propriedadesAdmissao, metricas);
+        return new ClassificadorCascata(regras, linear, modelo,
+                propriedadesCascata, propriedadesLinear, controleAdmissao, propriedadesPrazo, disjuntor,
+                executorModelo, metricas);
+    }
+
+    private double nivel(String nivel) {
+        return registro.get("classificacao.cascata").tag("nivel", nivel).counter().count();
+    }
+
+    /**
+     * Disjuntor aberto há mais de tempoAbertoMs: a próxima classificação é o teste
+     */
+    private DisjuntorModelo semiaberto() throws InterruptedException {
+        propriedadesPrazo.getDisjuntor().setTempoAbertoMs(TEMPO_ABERTO_MS);
+        DisjuntorModelo disjuntor = new DisjuntorModelo(propriedadesPrazo);
+        disjuntor.registrarTimeout();
+        Thread.sleep(TEMPO_ABERTO_MS + 20);
+        return disjuntor;
+    }
+
+    /**
+     * Ainda SEMIABERTO e com o teste disponível para a próxima classificação,
+     * sem esperar outro tempoAbertoMs
+     */
+    private static void assertTesteLiberado(DisjuntorModelo disjuntor) {
+        assertThat(disjuntor.getEstado()).isEqualTo(Estado.SEMIABERTO);
+        assertThat(disjuntor.permite()).isTrue();
+    }
+
+    /**
+     * Limite fixo de uma vaga, sem fila, ocupada pelo próprio teste
+     */
+    private void ocuparAdmissao() {
+        assertThat(controleAdmissao.admitir()).isNotNull();
+    }
+
+    /**
+     * Modelo que responde JURIDICO depois de demoraMs, ou lança o erro configurado
+     */
+    private static final class ModeloFalso extends ClassificadorHuggingFaceReal {
+
+        private static final String VERSAO = "Falso-v1";
+
+        private final AtomicInteger chamadas = new AtomicInteger();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private volatile long demoraMs;
+        private volatile RuntimeException erro;
+        private volatile boolean semResposta;
+
+        private ModeloFalso(MetricasClassificacao metricas) {
+            super(new PropriedadesModelo(), metricas, List.of());
+        }
+
+        @Override
+        public ResultadoClassificacao classificarTexto(String texto) {
+            chamadas.incrementAndGet();
+            threads.add(Thread.currentThread().getName());
+            if (demoraMs > 0) {
+                try {
+                    Thread.sleep(demoraMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (erro != null) {
+                throw erro;
+            }
+            ResultadoClassificacao resultado = new ResultadoClassificacao(SetorEmail.JURIDICO, 0.9, "Modelo falso");
+            resultado.setVersaoModelo(semResposta ? "Fallback" : VERSAO);
+            return resultado;
+        }
+
+        @Override
+        boolean isResultadoDoModelo(ResultadoClassificacao resultado) {
+            return VERSAO.equals(resultado.getVersaoModelo());
+        }
+    }
+
+    /**
+     * Classificador linear com pesos simulados: MARKETING com a confiança configurada
+     */
+    private static final class LinearFalso extends ClassificadorLinear {
+
+        private static final String VERSAO = "Linear-Falso";
+
+        private final AtomicInteger chamadas = new AtomicInteger();
+        private volatile boolean disponivel;
+        private volatile double confianca;
+
+        private LinearFalso(ClassificadorBaseadoEmRegras regras) {
+            super(new PropriedadesLinear(), regras);
+        }
+
+        @Override
+        public ResultadoClassificacao classificarTexto(String texto) {
+            chamadas.incrementAndGet();
+            ResultadoClassificacao resultado = new ResultadoClassificacao(SetorEmail.MARKETING, confianca,
+                    "Linear falso");
+            resultado.setVersaoModelo(VERSAO);
+            return resultado;
+        }
+
+        @Override
+        public boolean isDisponivel() {
+            return disponivel;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package br.com.techcorp.ai.impl;
+
+import ai.djl.translate.TranslateException;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferencia;
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferenciaDjl;
+import br.com.techcorp.ai.inferencia.MotorInferencia;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ClassificadorHuggingFaceRealTest {
+
+    private static final String TEXTO_FINANCEIRO = "Segue o boleto para pagamento da fatura de outubro";
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private ClassificadorHuggingFaceReal classificador;
+
+    @AfterEach
+    void encerrar() {
+        Thread.interrupted();
+        if (classificador != null) {
+            classificador.encerrar();
+        }
+    }
+
+    @Test
+    void semDiretorioDoModeloUsaAPontuacaoSemantica() {
+        PropriedadesModelo propriedades = propriedades();
+        propriedades.setDiretorio("diretorio-inexistente");
+        classificador = carregar(propriedades, new FornecedorMotorInferenciaDjl());
+
+        ResultadoClassificacao resultado = classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(classificador.isModeloCarregado()).isTrue();
+        assertThat(classificador.getInfoModelo()).containsEntry("inferenciaReal", false);
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.FINANCEIRO);
+        assertThat(classificador.isResultadoDoModelo(resultado)).isFalse();
+    }
+
+    @Test
+    void semOModeloDaEngineDjlUsaAPontuacaoSemantica() throws Exception {
+        // Só o tokenizer.json e o config.json: a engine não tem o que carregar
+        PropriedadesModelo propriedades = propriedades();
+        propriedades.setDiretorio(diretorioModeloFalso().toString());
+        classificador = carregar(propriedades, new FornecedorMotorInferenciaDjl());
+
+        ResultadoClassificacao resultado = classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(classificador.getInfoModelo()).containsEntry("inferenciaReal", false);
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.FINANCEIRO);
+        assertThat(classificador.isResultadoDoModelo(resultado)).isFalse();
+    }
+
+    @Test
+    void comOMotorCarregadoOResultadoVemDoModeloEVaiParaOCache() {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        classificador = carregar(propriedades(), new FornecedorFalso(motor));
+
+        ResultadoClassificacao resultado = classificador.classificarTexto(TEXTO_FINANCEIRO);
+        ResultadoClassificacao repetido = classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.JURIDICO);
+        assertThat(resultado.getConfianca()).isEqualTo(0.9);
+        assertThat(classificador.isResultadoDoModelo(resultado)).isTrue();
+        assertThat(repetido.getSetor()).isEqualTo(SetorEmail.JURIDICO);
+        assertThat(motor.inferencias.get()).isEqualTo(1);
+        assertThat(registro.get("classificacao.duracao").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void erroDoMotorUsaOFallbackPorPalavrasChave() {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        motor.erro = new TranslateException("falha simulada");
+        classificador = carregar(propriedades(), new FornecedorFalso(motor));
+
+        ResultadoClassificacao resultado = classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.FINANCEIRO);
+        assertThat(resultado.getMotivo()).startsWith("Fallback");
+        assertThat(classificador.isResultadoDoModelo(resultado)).isFalse();
+        assertThat(registro.get("classificacao.duracao").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void classificacaoInterrompidaNaoRegistraMetricasNemVaiParaOCache() {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        motor.erro = new TranslateException("Interrompido aguardando predictor", new InterruptedException());
+        classificador = carregar(propriedades(), new FornecedorFalso(motor));
+
+        ResultadoClassificacao resultado = classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(classificador.isResultadoDoModelo(resultado)).isFalse();
+        assertThat(registro.get("classificacao.duracao").timer().count()).isZero();
+        assertThat(registro.get("classificacao.fallback").counter().count()).isZero();
+
+        motor.erro = null;
+        assertThat(classificador.isResultadoDoModelo(classificador.classificarTexto(TEXTO_FINANCEIRO))).isTrue();
+    }
+
+    @Test
+    void inferenciaRegistraAsEtapasDoCaminhoDoModelo() {
+        classificador = carregar(propriedades(), new FornecedorFalso(new MotorFalso(SetorEmail.TI)));
+
+        classificador.classificarTexto(TEXTO_FINANCEIRO);
+        classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(etapa("cache")).isEqualTo(2);
+        assertThat(etapa("tokenizacao")).isEqualTo(1);
+        assertThat(etapa("inferencia")).isEqualTo(1);
+        assertThat(etapa("normalizacao")).isZero();
+        assertThat(etapa("pontuacao")).isZero();
+        assertThat(registro.get("classificacao.cache").tag("resultado", "acerto").counter().count()).isEqualTo(1);
+        assertThat(registro.get("classificacao.cache").tag("resultado", "falha").counter().count()).isEqualTo(1);
+        assertThat(registro.get("classificacao.setor").tag("setor", "TI").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void pontuacaoSemanticaRegistraNormalizacaoEPontuacao() {
+        PropriedadesModelo propriedades = propriedades();
+        propriedades.setDiretorio("diretorio-inexistente");
+        classificador = carregar(propriedades, new FornecedorMotorInferenciaDjl());
+
+        classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(etapa("normalizacao")).isEqualTo(1);
+        assertThat(etapa("pontuacao")).isEqualTo(1);
+        assertThat(etapa("inferencia")).isZero();
+        assertThat(registro.get("classificacao.janelas").summary().count()).isEqualTo(1);
+        assertThat(registro.get("classificacao.setor").tag("setor", "FINANCEIRO").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fallbackEContado() {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        motor.erro = new TranslateException("falha simulada");
+        classificador = carregar(propriedades(), new FornecedorFalso(motor));
+
+        classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(registro.get("classificacao.fallback").counter().count()).isEqualTo(1);
+        assertThat(etapa("inferencia")).isZero();
+    }
+
+    @Test
+    void janelaConfianteDispensaAsDemais() {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        motor.janelas = 6;
+        classificador = carregar(propriedadesComJanelas(), new FornecedorFalso(motor));
+
+        ResultadoClassificacao resultado = classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.JURIDICO);
+        assertThat(resultado.getMotivo()).contains("Analisadas 1 de 6 janelas");
+        assertThat(motor.lotes).containsExactly(1);
+        assertThat(registro.get("classificacao.janelas.puladas").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void janelasIncertasSeguemEmLotesAteOFim() {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        motor.janelas = 6;
+        motor.confianca = 0.5;
+        classificador = carregar(propriedadesComJanelas(), new FornecedorFalso(motor));
+
+        ResultadoClassificacao resultado = classificador.classificarTexto(TEXTO_FINANCEIRO);
+
+        assertThat(resultado.getSetor()).isEqualTo(SetorEmail.JURIDICO);
+        assertThat(resultado.getConfianca()).isCloseTo(0.5, within(1e-9));
+        assertThat(resultado.getMotivo()).contains("Analisadas 6 de 6 janelas");
+        assertThat(motor.lotes).containsExactly(1, 2, 2, 1);
+        assertThat(motor.janelasInferidas.get()).isEqualTo(6);
+        assertThat(registro.get("classificacao.janelas.puladas").counter().count()).isZero();
+    }
+
+    @Test
+    void limiteDeJanelasValeParaOTokenizador() {
+        MotorFalso motor = new MotorFalso(SetorEmail.JURIDICO);
+        motor.janelas = 20;
+        motor.confianca = 0.5;
+        PropriedadesModelo propriedades = propriedadesComJanelas();
+        propriedades.getJanelas().setMaximoJanelas(3);
+        classificador = carregar(propriedades, new FornecedorFalso(motor));
+
+        assertThat(classificador.classificarTexto(TEXTO_FINANCEIRO).getMotivo()).contains("Analisadas 3 de 3 janelas");
+        assertThat(motor.janelasInferidas.get()).isEqualTo(3);
+    }
+
+    private long etapa(String nome) {
+        return registro.get("classificacao.etapa").tag("etapa", nome).timer().count();
+    }
+
+    private ClassificadorHuggingFaceReal carregar(PropriedadesModelo propriedades,
+            FornecedorMotorInferencia fornecedor) {
+        ClassificadorHuggingFaceReal novo = new ClassificadorHuggingFaceReal(propriedades,
+                new MetricasClassificacao(registro), List.of(fornecedor));
+        novo.carregarModelo();
+        return novo;
+    }
+
+    private static PropriedadesModelo propriedades() {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+        propriedades.getJanelas().setHabilitada(false);
+        return propriedades;
+    }
+
+    // Micro-lotes desligados: os lotes chegam ao motor como a classificação os forma
+    private static PropriedadesModelo propriedadesComJanelas() {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+        propriedades.getMicroLotes().setHabilitado(false);
+        propriedades.getJanelas().setJanelasPorLote(2);
+        return propriedades;
+    }
+
+    private static Path diretorioModeloFalso() throws URISyntaxException {
+        return Path.of(ClassificadorHuggingFaceRealTest.class.getResource("/modelo-falso/tokenizer.json").toURI())
+                .getParent();
+    }
+
+    /**
+     * Fornece sempre o mesmo motor, com o nome da engine configurada
+     */
+    record FornecedorFalso(MotorInferencia motor) implements FornecedorMotorInferencia {
+
+        @Override
+        public String getNome() {
+            return FornecedorMotorInferenciaDjl.NOME;
+        }
+
+        @Override
+        public MotorInferencia carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao) {
+            return motor;
+        }
+    }
+
+    /**
+     * Motor que atribui 0.9 (ou a confiança configurada) ao setor informado
+     * para qualquer texto, dividido no número de janelas configurado
+     */
+    static final class MotorFalso implements MotorInferencia {
+
+        private final SetorEmail setor;
+        final AtomicInteger inferencias = new AtomicInteger();
+        final AtomicInteger janelasInferidas = new AtomicInteger();
+        final List<Integer> lotes = new CopyOnWriteArrayList<>();
+        private volatile TranslateException erro;
+        private volatile double confianca = 0.9;
+        private volatile int janelas = 1;
+
+        MotorFalso(SetorEmail setor) {
+            this.setor = setor;
+        }
+
+        @Override
+        public double[][] classificarLote(long[][] textos) throws TranslateException {
+            if (erro != null) {
+                throw erro;
+            }
+            inferencias.incrementAndGet();
+            janelasInferidas.addAndGet(textos.length);
+            lotes.add(textos.length);
+            double[][] probabilidades = new double[textos.length][SetorEmail.values().length];
+            for (double[] probabilidadesTexto : probabilidades) {
+                Arrays.fill(probabilidadesTexto, (1.0 - confianca) / (SetorEmail.values().length - 1));
+                probabilidadesTexto[setor.ordinal()] = confianca;
+            }
+            return probabilidades;
+        }
+
+        @Override
+        public long[] tokenizar(String texto) {
+            return new long[] { 1, texto.length(), 2 };
+        }
+
+        @Override
+        public long[][] tokenizarJanelas(String texto, int maximoJanelas, int sobreposicao) {
+            long[][] resultado = new long[Math.min(janelas, maximoJanelas)][];
+            Arrays.fill(resultado, tokenizar(texto));
+            return resultado;
+        }
+
+        @Override
+        public String getEngine() {
+            return "Falso";
+        }
+
+        @Override
+        public PrecisaoNumerica getPrecisaoNumerica() {
+            return PrecisaoNumerica.FP32;
+        }
+
+        @Override
+        public int getTamanhoPool() {
+            return 1;
+        }
+
+        @Override
+        public int getPredictorsDisponiveis() {
+            return 1;
+        }
+
+        @Override
+        public Map<String, Object> getEstatisticasTokenizador() {
+            return Map.of();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
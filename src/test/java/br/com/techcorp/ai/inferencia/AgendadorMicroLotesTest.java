@@ -0,0 +1,249 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.translate.TranslateException;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgendadorMicroLotesTest {
+
+    private AgendadorMicroLotes agendador;
+
+    @AfterEach
+    void encerrar() {
+        if (agendador != null) {
+            agendador.close();
+        }
+    }
+
+    @Test
+    void completaCadaPedidoComOResultadoDoSeuTexto() throws Exception {
+        MotorFalso motor = new MotorFalso(1);
+        agendador = new AgendadorMicroLotes(motor, configuracao(8, 2000));
+
+        List<CompletableFuture<double[]>> futuros = new ArrayList<>();
+        for (long i = 0; i < 20; i++) {
+            futuros.add(agendador.submeter(new long[] { i }));
+        }
+
+        for (int i = 0; i < futuros.size(); i++) {
+            assertThat(futuros.get(i).get(5, TimeUnit.SECONDS)).containsExactly((double) i);
+        }
+    }
+
+    @Test
+    void agrupaPedidosEnquantoOPredictorEstaOcupado() throws Exception {
+        MotorFalso motor = new MotorFalso(1);
+        motor.bloquear();
+        agendador = new AgendadorMicroLotes(motor, configuracao(8, 1000));
+
+        CompletableFuture<double[]> primeiro = agendador.submeter(new long[] { 0 });
+        motor.aguardarInicio();
+        List<CompletableFuture<double[]>> seguintes = new ArrayList<>();
+        for (long i = 1; i <= 8; i++) {
+            seguintes.add(agendador.submeter(new long[] { i }));
+        }
+        motor.liberar();
+
+        primeiro.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<double[]> futuro : seguintes) {
+            futuro.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(motor.tamanhosLote).containsExactly(1, 8);
+    }
+
+    @Test
+    void propagaOErroDoMotorATodosOsPedidosDoLote() {
+        MotorFalso motor = new MotorFalso(1);
+        motor.falhar = true;
+        agendador = new AgendadorMicroLotes(motor, configuracao(4, 1000));
+
+        CompletableFuture<double[]> futuro = agendador.submeter(new long[] { 1 });
+
+        assertThatThrownBy(() -> futuro.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TranslateException.class);
+    }
+
+    @Test
+    void encerrarFalhaOsPedidosQueAguardamUmaVaga() throws Exception {
+        MotorFalso motor = new MotorFalso(1);
+        motor.bloquear();
+        agendador = new AgendadorMicroLotes(motor, configuracao(1, 500));
+
+        CompletableFuture<double[]> emExecucao = agendador.submeter(new long[] { 0 });
+        motor.aguardarInicio();
+        CompletableFuture<double[]> naFila = agendador.submeter(new long[] { 1 });
+        CompletableFuture<double[]> outroNaFila = agendador.submeter(new long[] { 2 });
+
+        agendador.close();
+
+        assertThatThrownBy(() -> naFila.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> outroNaFila.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+
+        motor.liberar();
+        assertThat(emExecucao.get(5, TimeUnit.SECONDS)).containsExactly(0.0);
+    }
+
+    @Test
+    void encerrarFalhaOsPedidosJaRetiradosDaFilaParaOLote() {
+        MotorFalso motor = new MotorFalso(1);
+        // Espera longa: o despachante fica montando o lote com o pedido já retirado da fila
+        agendador = new AgendadorMicroLotes(motor, configuracao(8, 10_000_000));
+
+        CompletableFuture<double[]> futuro = agendador.submeter(new long[] { 1 });
+        aguardarFilaVazia();
+
+        agendador.close();
+
+        assertThatThrownBy(() -> futuro.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(motor.tamanhosLote).isEmpty();
+    }
+
+    @Test
+    void recusaPedidosDepoisDeEncerrado() {
+        agendador = new AgendadorMicroLotes(new MotorFalso(1), configuracao(4, 1000));
+        agendador.close();
+
+        CompletableFuture<double[]> futuro = agendador.submeter(new long[] { 1 });
+
+        assertThat(futuro).isCompletedExceptionally();
+    }
+
+    @Test
+    void pedidosCanceladosNaoChegamAoMotor() throws Exception {
+        MotorFalso motor = new MotorFalso(1);
+        motor.bloquear();
+        agendador = new AgendadorMicroLotes(motor, configuracao(8, 1000));
+
+        CompletableFuture<double[]> primeiro = agendador.submeter(new long[] { 0 });
+        motor.aguardarInicio();
+        CompletableFuture<double[]> cancelado = agendador.submeter(new long[] { 1 });
+        CompletableFuture<double[]> mantido = agendador.submeter(new long[] { 2 });
+        cancelado.cancel(true);
+        motor.liberar();
+
+        primeiro.get(5, TimeUnit.SECONDS);
+        assertThat(mantido.get(5, TimeUnit.SECONDS)).containsExactly(2.0);
+        assertThat(motor.textosClassificados).containsExactlyInAnyOrder(0L, 2L);
+    }
+
+    private void aguardarFilaVazia() {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (((Number) agendador.getEstatisticas().get("pedidosNaFila")).intValue() > 0) {
+            assertThat(System.nanoTime()).isLessThan(limite);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static PropriedadesModelo.MicroLotes configuracao(int tamanhoMaximo, long esperaMaximaMicros) {
+        PropriedadesModelo.MicroLotes configuracao = new PropriedadesModelo.MicroLotes();
+        configuracao.setTamanhoMaximo(tamanhoMaximo);
+        configuracao.setEsperaMinimaMicros(Math.min(100, esperaMaximaMicros));
+        configuracao.setEsperaMaximaMicros(esperaMaximaMicros);
+        configuracao.setLatenciaAlvoMs(10_000);
+        configuracao.setCapacidadeFila(100);
+        return configuracao;
+    }
+
+    /**
+     * Motor que devolve o primeiro token de cada texto como única probabilidade
+     */
+    private static final class MotorFalso implements MotorInferencia {
+
+        private final int tamanhoPool;
+        private final List<Integer> tamanhosLote = new CopyOnWriteArrayList<>();
+        private final List<Long> textosClassificados = new CopyOnWriteArrayList<>();
+        private final CountDownLatch inicio = new CountDownLatch(1);
+        private volatile CountDownLatch bloqueio = new CountDownLatch(0);
+        private volatile boolean falhar;
+
+        private MotorFalso(int tamanhoPool) {
+            this.tamanhoPool = tamanhoPool;
+        }
+
+        void bloquear() {
+            bloqueio = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            bloqueio.countDown();
+        }
+
+        void aguardarInicio() throws InterruptedException {
+            assertThat(inicio.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Override
+        public double[][] classificarLote(long[][] textos) throws TranslateException {
+            inicio.countDown();
+            try {
+                bloqueio.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TranslateException(e);
+            }
+            if (falhar) {
+                throw new TranslateException("falha simulada");
+            }
+            tamanhosLote.add(textos.length);
+            double[][] resultados = new double[textos.length][];
+            for (int i = 0; i < textos.length; i++) {
+                textosClassificados.add(textos[i][0]);
+                resultados[i] = new double[] { textos[i][0] };
+            }
+            return resultados;
+        }
+
+        @Override
+        public String getEngine() {
+            return "Falso";
+        }
+
+        @Override
+        public PrecisaoNumerica getPrecisaoNumerica() {
+            return PrecisaoNumerica.FP32;
+        }
+
+        @Override
+        public long[] tokenizar(String texto) {
+            return new long[] { texto.length() };
+        }
+
+        @Override
+        public int getTamanhoPool() {
+            return tamanhoPool;
+        }
+
+        @Override
+        public int getPredictorsDisponiveis() {
+            return tamanhoPool;
+        }
+
+        @Override
+        public Map<String, Object> getEstatisticasTokenizador() {
+            return Map.of();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.techcorp.ai.inferencia;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ArtefatosModeloTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void exigeODiretorioEOTokenizer() throws Exception {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+        propriedades.setDiretorio(diretorio.resolve("inexistente").toString());
+        assertThatThrownBy(() -> ArtefatosModelo.diretorio(propriedades))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Diretório do modelo não encontrado");
+
+        propriedades.setDiretorio(diretorio.toString());
+        assertThatThrownBy(() -> ArtefatosModelo.diretorio(propriedades))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("tokenizer.json");
+
+        Files.writeString(diretorio.resolve("tokenizer.json"), "{}");
+        assertThat(ArtefatosModelo.diretorio(propriedades)).isEqualTo(diretorio);
+    }
+
+    @Test
+    void escolheOArquivoDaPrecisaoSemAExtensao() throws Exception {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+        propriedades.setArquivo("modelo.pt");
+        propriedades.setArquivoInt8("modelo_int8");
+        Files.createFile(diretorio.resolve("modelo.pt"));
+
+        assertThat(ArtefatosModelo.arquivoModelo(propriedades, PrecisaoNumerica.FP32, diretorio, ".pt", null))
+                .isEqualTo("modelo");
+        assertThatThrownBy(() -> ArtefatosModelo.arquivoModelo(propriedades, PrecisaoNumerica.INT8, diretorio,
+                ".pt", null))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("INT8");
+
+        Files.createFile(diretorio.resolve("modelo_int8.pt"));
+        assertThat(ArtefatosModelo.arquivoModelo(propriedades, PrecisaoNumerica.INT8, diretorio, ".pt", null))
+                .isEqualTo("modelo_int8");
+    }
+
+    @Test
+    void semArquivoConfiguradoUsaOPadraoDaEngine() throws Exception {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+
+        assertThat(ArtefatosModelo.arquivoModelo(propriedades, PrecisaoNumerica.FP32, diretorio, ".pt", null))
+                .isNull();
+        Files.createFile(diretorio.resolve("model.onnx"));
+        assertThat(ArtefatosModelo.arquivoModelo(propriedades, PrecisaoNumerica.FP32, diretorio, ".onnx", "model"))
+                .isEqualTo("model");
+    }
+
+    @Test
+    void associaOsRotulosDoConfigAosSetores() throws Exception {
+        int[] ordinais = ArtefatosModelo.lerRotulos(TokenizadorModeloTest.diretorioModeloFalso());
+
+        assertThat(ordinais).containsExactly(SetorEmail.FINANCEIRO.ordinal(), SetorEmail.TI.ordinal(), -1,
+                SetorEmail.VENDAS.ordinal());
+    }
+
+    @Test
+    void semConfigAsSaidasSeguemAOrdemDoEnum() throws Exception {
+        int[] ordinais = ArtefatosModelo.lerRotulos(diretorio);
+
+        assertThat(ordinais).hasSize(SetorEmail.values().length);
+        for (int i = 0; i < ordinais.length; i++) {
+            assertThat(ordinais[i]).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void converteAsProbabilidadesIgnorandoRotulosSemSetor() {
+        int[] ordinais = { SetorEmail.FINANCEIRO.ordinal(), SetorEmail.TI.ordinal(), -1 };
+
+        double[] probabilidades = ArtefatosModelo.converterParaSetores(new float[] { 0.5f, 0.3f, 0.2f, 0.9f },
+                ordinais);
+
+        assertThat(probabilidades).hasSize(SetorEmail.values().length);
+        assertThat(probabilidades[SetorEmail.FINANCEIRO.ordinal()]).isCloseTo(0.5, within(1e-6));
+        assertThat(probabilidades[SetorEmail.TI.ordinal()]).isCloseTo(0.3, within(1e-6));
+        assertThat(probabilidades[SetorEmail.RH.ordinal()]).isZero();
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.techcorp.ai.inferencia;
+
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FornecedorMotorInferenciaTest {
+
+    @Test
+    void selecionaAEngineSemDiferenciarMaiusculas() {
+        FornecedorFalso pytorch = new FornecedorFalso("PyTorch");
+        FornecedorFalso onnx = new FornecedorFalso("OnnxRuntime");
+
+        assertThat(FornecedorMotorInferencia.selecionar(List.of(pytorch, onnx), "onnxruntime")).isSameAs(onnx);
+        assertThatThrownBy(() -> FornecedorMotorInferencia.selecionar(List.of(pytorch, onnx), "TensorFlow"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PyTorch, OnnxRuntime");
+    }
+
+    @Test
+    void semOModeloInt8CarregaOFp32() throws Exception {
+        FornecedorFalso fornecedor = new FornecedorFalso("PyTorch");
+        fornecedor.semInt8 = true;
+
+        FornecedorMotorInferencia.carregar(List.of(fornecedor), propriedades(PrecisaoNumerica.INT8));
+
+        assertThat(fornecedor.precisoesPedidas).containsExactly(PrecisaoNumerica.INT8, PrecisaoNumerica.FP32);
+    }
+
+    @Test
+    void comOModeloInt8NaoCarregaOFp32() throws Exception {
+        FornecedorFalso fornecedor = new FornecedorFalso("PyTorch");
+
+        FornecedorMotorInferencia.carregar(List.of(fornecedor), propriedades(PrecisaoNumerica.INT8));
+
+        assertThat(fornecedor.precisoesPedidas).containsExactly(PrecisaoNumerica.INT8);
+    }
+
+    @Test
+    void errosQueNaoSaoDeArquivoNaoCaemParaOFp32() {
+        FornecedorFalso fornecedor = new FornecedorFalso("PyTorch");
+        fornecedor.erroEngine = true;
+
+        assertThatThrownBy(() -> FornecedorMotorInferencia.carregar(List.of(fornecedor),
+                propriedades(PrecisaoNumerica.INT8)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(fornecedor.precisoesPedidas).containsExactly(PrecisaoNumerica.INT8);
+    }
+
+    private static PropriedadesModelo propriedades(PrecisaoNumerica precisao) {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+        propriedades.setEngine("pytorch");
+        propriedades.setPrecisaoNumerica(precisao);
+        return propriedades;
+    }
+
+    /**
+     * Registra as precisões pedidas; o motor devolvido nunca é usado
+     */
+    private static final class FornecedorFalso implements FornecedorMotorInferencia {
+
+        private final String nome;
+        private final List<PrecisaoNumerica> precisoesPedidas = new ArrayList<>();
+        private boolean semInt8;
+        private boolean erroEngine;
+
+        private FornecedorFalso(String nome) {
+            this.nome = nome;
+        }
+
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public MotorInferencia carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao)
+                throws IOException {
+            precisoesPedidas.add(precisao);
+            if (erroEngine) {
+                throw new IllegalStateException("engine indisponível");
+            }
+            if (semInt8 && precisao == PrecisaoNumerica.INT8) {
+                throw new IOException("Modelo INT8 não encontrado");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.techcorp.ai.inferencia;
+
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PoolPredictorsTest {
+
+    private final List<PredictorFalso> criados = new ArrayList<>();
+
+    @AfterEach
+    void limparInterrupcao() {
+        Thread.interrupted();
+    }
+
+    @Test
+    void criaOsPredictorsUmaUnicaVez() throws Exception {
+        PoolPredictors<PredictorFalso> pool = novoPool(3, 1000);
+
+        for (int i = 0; i < 10; i++) {
+            int usos = pool.executar(predictor -> ++predictor.usos);
+            assertThat(usos).isPositive();
+        }
+
+        assertThat(criados).hasSize(3);
+        assertThat(criados.stream().mapToInt(predictor -> predictor.usos).sum()).isEqualTo(10);
+        assertThat(pool.getTamanho()).isEqualTo(3);
+        assertThat(pool.getDisponiveis()).isEqualTo(3);
+    }
+
+    @Test
+    void poolEsgotadoFalhaAposOTimeout() throws Exception {
+        PoolPredictors<PredictorFalso> pool = novoPool(1, 50);
+        CountDownLatch emUso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> ocupante = CompletableFuture.runAsync(() -> {
+            try {
+                pool.executar(predictor -> {
+                    emUso.countDown();
+                    aguardar(liberar);
+                    return null;
+                });
+            } catch (TranslateException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(emUso.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> pool.executar(predictor -> "inalcançável"))
+                .isInstanceOf(TranslateException.class)
+                .hasMessage("Nenhum predictor livre após 50 ms");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(50);
+
+        liberar.countDown();
+        ocupante.get(5, TimeUnit.SECONDS);
+        assertThat(pool.getDisponiveis()).isEqualTo(1);
+        String resultado = pool.executar(predictor -> "livre");
+        assertThat(resultado).isEqualTo("livre");
+    }
+
+    @Test
+    void predictorVoltaAoPoolQuandoOUsoFalha() throws Exception {
+        PoolPredictors<PredictorFalso> pool = novoPool(1, 50);
+
+        assertThatThrownBy(() -> pool.executar(predictor -> {
+            throw new TranslateException("falha simulada");
+        })).isInstanceOf(TranslateException.class).hasMessage("falha simulada");
+        assertThatThrownBy(() -> pool.executar(predictor -> {
+            throw new IllegalStateException("erro da engine");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(pool.getDisponiveis()).isEqualTo(1);
+        PredictorFalso devolvido = pool.executar(predictor -> predictor);
+        assertThat(devolvido).isSameAs(criados.get(0));
+    }
+
+    @Test
+    void interrupcaoNaEsperaViraTranslateExceptionEPreservaOSinal() throws Exception {
+        PoolPredictors<PredictorFalso> pool = novoPool(1, 5000);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch emUso = new CountDownLatch(1);
+        CompletableFuture<Void> ocupante = CompletableFuture.runAsync(() -> {
+            try {
+                pool.executar(predictor -> {
+                    emUso.countDown();
+                    aguardar(liberar);
+                    return null;
+                });
+            } catch (TranslateException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(emUso.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread.currentThread().interrupt();
+        assertThatThrownBy(() -> pool.executar(predictor -> null))
+                .isInstanceOf(TranslateException.class)
+                .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(Thread.interrupted()).isTrue();
+
+        liberar.countDown();
+        ocupante.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void fecharFechaOsPredictorsDoPool() throws Exception {
+        PoolPredictors<PredictorFalso> pool = novoPool(2, 50);
+        criados.get(0).erroAoFechar = true;
+
+        pool.close();
+
+        assertThat(criados).allSatisfy(predictor -> assertThat(predictor.fechado).isTrue());
+        assertThat(pool.getDisponiveis()).isZero();
+    }
+
+    private PoolPredictors<PredictorFalso> novoPool(int tamanho, long timeoutMs) {
+        return new PoolPredictors<>(tamanho, timeoutMs, () -> {
+            PredictorFalso predictor = new PredictorFalso();
+            criados.add(predictor);
+            return predictor;
+        });
+    }
+
+    private static void aguardar(CountDownLatch sinal) {
+        try {
+            sinal.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PredictorFalso implements AutoCloseable {
+
+        private int usos;
+        private boolean fechado;
+        private boolean erroAoFechar;
+
+        @Override
+        public void close() throws Exception {
+            fechado = true;
+            if (erroAoFechar) {
+                throw new Exception("falha ao fechar");
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.techcorp.ai.inferencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Usa o tokenizer.json de src/test/resources/modelo-falso: vocabulário de
+ * palavras inteiras com [UNK] = 0, [CLS] = 1 e [SEP] = 2
+ */
+class TokenizadorModeloTest {
+
+    private static final long CLS = 1;
+    private static final long SEP = 2;
+    private static final long DESCONHECIDA = 0;
+
+    @Test
+    void acrescentaOsTokensEspeciaisEmTornoDoTexto() throws Exception {
+        try (TokenizadorModelo tokenizador = carregar(64, 1, 0)) {
+            assertThat(tokenizador.codificar("Segue a fatura de outubro"))
+                    .containsExactly(CLS, 7, 3, 4, 5, 6, SEP);
+            assertThat(tokenizador.codificar("")).containsExactly(CLS, SEP);
+        }
+    }
+
+    @Test
+    void tokenizaLinhaALinhaComoUmTextoSo() throws Exception {
+        try (TokenizadorModelo tokenizador = carregar(64, 1, 0)) {
+            assertThat(tokenizador.codificar("Prezado cliente,\n\nsegue o boleto\r\nAtenciosamente"))
+                    .containsExactly(CLS, 10, 11, 7, DESCONHECIDA, 12, 14, SEP);
+        }
+    }
+
+    @Test
+    void truncaEmTokensMantendoOSeparadorFinal() throws Exception {
+        try (TokenizadorModelo tokenizador = carregar(5, 1, 0)) {
+            assertThat(tokenizador.codificar("prezado cliente\nsegue a fatura de outubro"))
+                    .containsExactly(CLS, 10, 11, 7, SEP);
+            assertThat(tokenizador.getMaxTokens()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void linhasLongasSaoCortadasEntrePalavras() throws Exception {
+        String linha = "fatura ".repeat(1000);
+        try (TokenizadorModelo tokenizador = carregar(1100, 1, 16)) {
+            long[] ids = tokenizador.codificar(linha);
+
+            assertThat(ids).hasSize(1002);
+            for (int i = 1; i <= 1000; i++) {
+                assertThat(ids[i]).isEqualTo(4);
+            }
+        }
+    }
+
+    @Test
+    void reaproveitaOsIdsDeLinhasRepetidas() throws Exception {
+        try (TokenizadorModelo tokenizador = carregar(64, 1, 16)) {
+            long[] primeira = tokenizador.codificar("prezado cliente\nsegue a fatura");
+            long[] segunda = tokenizador.codificar("prezado cliente\nsegue o boleto");
+
+            assertThat(primeira).containsExactly(CLS, 10, 11, 7, 3, 4, SEP);
+            assertThat(segunda).containsExactly(CLS, 10, 11, 7, DESCONHECIDA, 12, SEP);
+            assertThat(tokenizador.getEstatisticas())
+                    .containsEntry("linhasEmCache", 3L)
+                    .containsEntry("taxaAcertoCacheLinhas", 0.25);
+        }
+        try (TokenizadorModelo semCache = carregar(64, 1, 0)) {
+            assertThat(semCache.getEstatisticas()).doesNotContainKey("linhasEmCache");
+        }
+    }
+
+    @Test
+    void janelasSobrepostasCobremOTextoAteOLimiteDeJanelas() throws Exception {
+        // Corpo de 4 tokens por janela (6 - [CLS] - [SEP]), sobreposição de 1: passo de 3
+        String texto = "prezado cliente segue a fatura de outubro em anexo atenciosamente";
+        try (TokenizadorModelo tokenizador = carregar(6, 1, 0)) {
+            long[][] janelas = tokenizador.codificarJanelas(texto, 5, 1);
+
+            assertThat(janelas).hasNumberOfRows(3);
+            assertThat(janelas[0]).containsExactly(CLS, 10, 11, 7, 3, SEP);
+            assertThat(janelas[1]).containsExactly(CLS, 3, 4, 5, 6, SEP);
+            assertThat(janelas[2]).containsExactly(CLS, 6, 8, 9, 14, SEP);
+            assertThat(janelas[0]).containsExactly(tokenizador.codificar(texto));
+
+            long[][] limitadas = tokenizador.codificarJanelas(texto, 2, 1);
+            assertThat(limitadas).hasNumberOfRows(2);
+            assertThat(limitadas[1]).containsExactly(janelas[1]);
+
+            assertThat(tokenizador.codificarJanelas("segue a fatura", 5, 1))
+                    .hasNumberOfRows(1)
+                    .satisfies(unica -> assertThat(unica[0]).containsExactly(CLS, 7, 3, 4, SEP));
+        }
+    }
+
+    @Test
+    void threadsCompartilhamOPoolDeInstancias() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try (TokenizadorModelo tokenizador = carregar(64, 2, 0)) {
+            List<Future<long[]>> resultados = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String texto = i % 2 == 0 ? "segue a fatura" : "pedido em anexo\nequipe financeiro";
+                resultados.add(threads.submit(() -> tokenizador.codificar(texto)));
+            }
+
+            for (int i = 0; i < resultados.size(); i++) {
+                long[] esperado = i % 2 == 0
+                        ? new long[] { CLS, 7, 3, 4, SEP }
+                        : new long[] { CLS, 13, 8, 9, 15, 16, SEP };
+                assertThat(resultados.get(i).get(5, TimeUnit.SECONDS)).containsExactly(esperado);
+            }
+            assertThat(tokenizador.getEstatisticas())
+                    .containsEntry("instancias", 2)
+                    .containsEntry("instanciasDisponiveis", 2);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    static Path diretorioModeloFalso() throws URISyntaxException {
+        return Path.of(TokenizadorModeloTest.class.getResource("/modelo-falso/tokenizer.json").toURI()).getParent();
+    }
+
+    private static TokenizadorModelo carregar(int maxTokens, int instancias, long tamanhoCache) throws Exception {
+        return TokenizadorModelo.carregar(diretorioModeloFalso().resolve("tokenizer.json"), maxTokens, instancias,
+                tamanhoCache);
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.techcorp.ai.linear;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExtratorCaracteristicasTest {
+
+    private final ExtratorCaracteristicas extrator = new ExtratorCaracteristicas(12, 3, 5);
+
+    @Test
+    void indicesDeterministicosDentroDasLinhasDePesos() {
+        int[] primeiro = extrair("Segue a fatura do mês de outubro");
+        int[] segundo = extrair("Segue a fatura do mês de outubro");
+
+        assertThat(primeiro).isNotEmpty().containsExactly(segundo);
+        assertThat(Arrays.stream(primeiro).min().getAsInt()).isNotNegative();
+        assertThat(Arrays.stream(primeiro).max().getAsInt()).isLessThan(extrator.getQuantidadeCaracteristicas());
+    }
+
+    @Test
+    void ignoraMaiusculasAcentosEPontuacao() {
+        assertThat(extrair("AÇÃO urgente: CONTRATO!")).containsExactly(extrair("acao urgente contrato"));
+    }
+
+    @Test
+    void numerosDiferentesDaoAsMesmasCaracteristicas() {
+        assertThat(extrair("pedido 123 de 45")).containsExactly(extrair("pedido 987 de 60"));
+    }
+
+    @Test
+    void palavrasDiferentesDaoCaracteristicasDiferentes() {
+        assertThat(extrair("boleto")).isNotEqualTo(extrair("contrato"));
+    }
+
+    @Test
+    void contaNGramasPalavrasEPares() {
+        // " abcd " (com marcadores) tem 3 trigramas, 3 de 4 e 3 de 5 caracteres; mais a palavra
+        assertThat(extrair("abcd")).hasSize(10);
+        // Duas palavras: cada uma com os seus n-gramas e a palavra, mais o par
+        assertThat(extrair("abcd abcd")).hasSize(21);
+    }
+
+    @Test
+    void paraQuandoODestinoEnche() {
+        int[] destino = new int[5];
+
+        int quantidade = extrator.extrair("um texto bem mais longo do que cinco características", destino);
+
+        assertThat(quantidade).isEqualTo(5);
+        assertThat(extrator.extrair(null, destino)).isZero();
+        assertThat(extrator.extrair("", destino)).isZero();
+    }
+
+    @Test
+    void recusaParametrosInvalidos() {
+        assertThatThrownBy(() -> new ExtratorCaracteristicas(ExtratorCaracteristicas.BITS_MINIMO - 1, 3, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExtratorCaracteristicas(12, 1, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExtratorCaracteristicas(12, 5, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExtratorCaracteristicas(12, 3, ExtratorCaracteristicas.NGRAMA_MAXIMO + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int[] extrair(String texto) {
+        int[] destino = new int[4096];
+        return Arrays.copyOf(destino, extrator.extrair(texto, destino));
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.techcorp.ai.linear;
+
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class PesosLinearTest {
+
+    private static final int SETORES = SetorEmail.values().length;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void gravarECarregarPreservamPesosECabecalho() throws IOException {
+        PesosLinear pesos = aleatorios(new ExtratorCaracteristicas(10, 3, 5), 7L);
+        pesos.setAcuracia(0.875f);
+        pesos.setExemplos(1234);
+        Path arquivo = diretorio.resolve("sub/pesos.bin");
+
+        pesos.gravar(arquivo);
+        PesosLinear carregados = PesosLinear.carregar(arquivo);
+
+        assertThat(Files.size(arquivo)).isEqualTo(32L + 4L * (SETORES + 1024L * SETORES));
+        assertThat(carregados.vieses).containsExactly(pesos.vieses);
+        assertThat(carregados.pesos).containsExactly(pesos.pesos);
+        assertThat(carregados.getAcuracia()).isEqualTo(0.875f);
+        assertThat(carregados.getExemplos()).isEqualTo(1234);
+        assertThat(carregados.getExtrator().getBits()).isEqualTo(10);
+        assertThat(carregados.getExtrator().getNGramaMinimo()).isEqualTo(3);
+        assertThat(carregados.getExtrator().getNGramaMaximo()).isEqualTo(5);
+        assertThat(carregados.getTamanhoBytes()).isEqualTo(4L * (SETORES + 1024L * SETORES));
+    }
+
+    @Test
+    void cabecalhoEmLittleEndian() throws IOException {
+        Path arquivo = diretorio.resolve("pesos.bin");
+        new PesosLinear(new ExtratorCaracteristicas(12, 2, 4)).gravar(arquivo);
+
+        ByteBuffer cabecalho = ByteBuffer.wrap(Files.readAllBytes(arquivo)).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magica = new byte[4];
+        cabecalho.get(magica);
+
+        assertThat(new String(magica, StandardCharsets.US_ASCII)).isEqualTo("LIN1");
+        assertThat(cabecalho.getInt()).isEqualTo(1);
+        assertThat(cabecalho.getInt()).isEqualTo(12);
+        assertThat(cabecalho.getInt()).isEqualTo(SETORES);
+        assertThat(cabecalho.getInt()).isEqualTo(2);
+        assertThat(cabecalho.getInt()).isEqualTo(4);
+    }
+
+    @Test
+    void gravarSubstituiOArquivoSemDeixarTemporario() throws IOException {
+        Path arquivo = diretorio.resolve("pesos.bin");
+        aleatorios(new ExtratorCaracteristicas(10, 3, 5), 1L).gravar(arquivo);
+        PesosLinear novos = aleatorios(new ExtratorCaracteristicas(10, 3, 5), 2L);
+
+        novos.gravar(arquivo);
+
+        assertThat(PesosLinear.carregar(arquivo).pesos).containsExactly(novos.pesos);
+        try (var arquivos = Files.list(diretorio)) {
+            assertThat(arquivos).containsExactly(arquivo);
+        }
+    }
+
+    @Test
+    void recusaArquivoQueNaoEDePesos() throws IOException {
+        Path arquivo = diretorio.resolve("outro.bin");
+        Files.write(arquivo, new byte[64]);
+
+        assertThatThrownBy(() -> PesosLinear.carregar(arquivo))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Não é um arquivo de pesos");
+    }
+
+    @Test
+    void recusaArquivoTruncado() throws IOException {
+        Path arquivo = diretorio.resolve("pesos.bin");
+        new PesosLinear(new ExtratorCaracteristicas(10, 3, 5)).gravar(arquivo);
+        byte[] bytes = Files.readAllBytes(arquivo);
+
+        Files.write(arquivo, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThatThrownBy(() -> PesosLinear.carregar(arquivo))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("bytes, esperados");
+
+        Files.write(arquivo, Arrays.copyOf(bytes, 16));
+        assertThatThrownBy(() -> PesosLinear.carregar(arquivo))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncado");
+    }
+
+    @Test
+    void recusaVersaoSetoresECabecalhoInvalidos() throws IOException {
+        Path arquivo = diretorio.resolve("pesos.bin");
+        new PesosLinear(new ExtratorCaracteristicas(10, 3, 5)).gravar(arquivo);
+        byte[] original = Files.readAllBytes(arquivo);
+
+        Files.write(arquivo, comInteiro(original, 4, 2));
+        assertThatThrownBy(() -> PesosLinear.carregar(arquivo)).hasMessageContaining("Versão");
+
+        Files.write(arquivo, comInteiro(original, 12, SETORES + 1));
+        assertThatThrownBy(() -> PesosLinear.carregar(arquivo)).hasMessageContaining("setores");
+
+        Files.write(arquivo, comInteiro(original, 8, 30));
+        assertThatThrownBy(() -> PesosLinear.carregar(arquivo))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Cabeçalho de pesos inválido");
+    }
+
+    @Test
+    void pontuarSomaAsLinhasNaEscalaDaQuantidadeMaisOsVieses() {
+        PesosLinear pesos = new PesosLinear(new ExtratorCaracteristicas(10, 3, 5));
+        pesos.vieses[SetorEmail.TI.ordinal()] = 0.5f;
+        pesos.pesos[3 * SETORES + SetorEmail.TI.ordinal()] = 2f;
+        pesos.pesos[8 * SETORES + SetorEmail.TI.ordinal()] = 1f;
+        pesos.pesos[8 * SETORES + SetorEmail.RH.ordinal()] = -1f;
+
+        double[] logits = new double[SETORES];
+        pesos.pontuar(new int[] { 3, 8, 3, 8, 99 }, 4, logits);
+
+        assertThat(logits[SetorEmail.TI.ordinal()]).isCloseTo(6.0 / 2.0 + 0.5, within(1e-9));
+        assertThat(logits[SetorEmail.RH.ordinal()]).isCloseTo(-2.0 / 2.0, within(1e-9));
+        assertThat(logits[SetorEmail.VENDAS.ordinal()]).isZero();
+
+        pesos.pontuar(new int[0], 0, logits);
+        assertThat(logits[SetorEmail.TI.ordinal()]).isEqualTo(0.5);
+    }
+
+    @Test
+    void probabilidadesSomamUmMesmoComLogitsGrandes() {
+        double[] logits = new double[SETORES];
+        logits[0] = 1000.0;
+        logits[1] = 999.0;
+
+        PesosLinear.probabilidades(logits);
+
+        assertThat(Arrays.stream(logits).sum()).isCloseTo(1.0, within(1e-12));
+        assertThat(logits[0] / logits[1]).isCloseTo(Math.E, within(1e-9));
+        assertThat(Arrays.stream(logits).noneMatch(Double::isNaN)).isTrue();
+    }
+
+    private static PesosLinear aleatorios(ExtratorCaracteristicas extrator, long semente) {
+        Random aleatorio = new Random(semente);
+        PesosLinear pesos = new PesosLinear(extrator);
+        for (int i = 0; i < pesos.vieses.length; i++) {
+            pesos.vieses[i] = (float) aleatorio.nextGaussian();
+        }
+        for (int i = 0; i < pesos.pesos.length; i++) {
+            pesos.pesos[i] = (float) aleatorio.nextGaussian();
+        }
+        return pesos;
+    }
+
+    private static byte[] comInteiro(byte[] original, int posicao, int valor) {
+        byte[] bytes = original.clone();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(posicao, valor);
+        return bytes;
+    }
+}
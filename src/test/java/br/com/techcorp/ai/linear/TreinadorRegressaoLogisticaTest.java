@@ -0,0 +1,62 @@
+package br.com.techcorp.ai.linear;
+
+import br.com.techcorp.ai.linear.TreinadorRegressaoLogistica.Exemplo;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TreinadorRegressaoLogisticaTest {
+
+    private final ExtratorCaracteristicas extrator = new ExtratorCaracteristicas(12, 3, 5);
+
+    @Test
+    void aprendeUmConjuntoSeparavelEDeterministico() {
+        List<Exemplo> exemplos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            exemplos.add(exemplo("segue o boleto da fatura vencida " + i, SetorEmail.FINANCEIRO));
+            exemplos.add(exemplo("o servidor caiu e o sistema não abre " + i, SetorEmail.TI));
+            exemplos.add(exemplo("envio meu currículo para a vaga de estágio " + i, SetorEmail.RH));
+        }
+        TreinadorRegressaoLogistica treinador = new TreinadorRegressaoLogistica(20, 0.5, 1e-6);
+
+        PesosLinear modelo = treinador.treinar(extrator, exemplos);
+
+        assertThat(TreinadorRegressaoLogistica.acuracia(modelo, exemplos)).isEqualTo(1.0);
+        assertThat(modelo.getExemplos()).isEqualTo(exemplos.size());
+        assertThat(treinador.treinar(extrator, exemplos).pesos).containsExactly(modelo.pesos);
+
+        double[] logits = new double[SetorEmail.values().length];
+        int[] indices = exemplo("a fatura do boleto", SetorEmail.FINANCEIRO).indices();
+        modelo.pontuar(indices, indices.length, logits);
+        PesosLinear.probabilidades(logits);
+        assertThat(logits[SetorEmail.FINANCEIRO.ordinal()]).isGreaterThan(0.5);
+    }
+
+    @Test
+    void acuraciaDeConjuntoVazioEZero() {
+        PesosLinear modelo = new PesosLinear(extrator);
+
+        assertThat(TreinadorRegressaoLogistica.acuracia(modelo, List.of())).isZero();
+    }
+
+    @Test
+    void recusaParametrosInvalidos() {
+        assertThatThrownBy(() -> new TreinadorRegressaoLogistica(0, 0.5, 0.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TreinadorRegressaoLogistica(5, 0.0, 0.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TreinadorRegressaoLogistica(5, 0.5, -1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Exemplo exemplo(String texto, SetorEmail setor) {
+        int[] destino = new int[1024];
+        return new Exemplo(Arrays.copyOf(destino, extrator.extrair(texto, destino)), setor);
+    }
+}
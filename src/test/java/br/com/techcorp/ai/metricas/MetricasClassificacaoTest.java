@@ -0,0 +1,119 @@
+package br.com.techcorp.ai.metricas;
+
+import br.com.techcorp.ai.metricas.MetricasClassificacao.DecisaoAdmissao;
+import br.com.techcorp.ai.metricas.MetricasClassificacao.Etapa;
+import br.com.techcorp.ai.metricas.MetricasClassificacao.NivelCascata;
+import br.com.techcorp.models.SetorEmail;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricasClassificacaoTest {
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private final MetricasClassificacao metricas = new MetricasClassificacao(registro);
+
+    @Test
+    void registraTodosOsMedidoresNoConstrutor() {
+        for (Etapa etapa : Etapa.values()) {
+            assertThat(registro.find("classificacao.etapa").tag("etapa", etapa.name().toLowerCase(Locale.ROOT))
+                    .timer()).isNotNull();
+        }
+        for (SetorEmail setor : SetorEmail.values()) {
+            assertThat(registro.find("classificacao.setor").tag("setor", setor.name()).counter()).isNotNull();
+        }
+        assertThat(registro.find("classificacao.cascata").counters()).hasSize(NivelCascata.values().length);
+        assertThat(registro.find("classificacao.admissao").counters()).hasSize(DecisaoAdmissao.values().length);
+        assertThat(registro.get("classificacao.duracao").timer().count()).isZero();
+    }
+
+    @Test
+    void etapaEDuracaoMedemDesdeOInicio() {
+        long inicio = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5);
+
+        metricas.registrarEtapa(Etapa.TOKENIZACAO, inicio);
+        metricas.registrarDuracao(inicio);
+
+        assertThat(registro.get("classificacao.etapa").tag("etapa", "tokenizacao").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(5);
+        assertThat(registro.get("classificacao.etapa").tag("etapa", "inferencia").timer().count()).isZero();
+        assertThat(registro.get("classificacao.duracao").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void contadoresSeparamOsResultados() {
+        metricas.registrarCache(true);
+        metricas.registrarCache(false);
+        metricas.registrarCache(false);
+        metricas.registrarQuaseDuplicado(true);
+        metricas.registrarFallback();
+        metricas.registrarCoalescida();
+        metricas.registrarSetor(SetorEmail.TI);
+        metricas.registrarSetor(null);
+        metricas.registrarNivelCascata(NivelCascata.LINEAR);
+        metricas.registrarAdmissao(DecisaoAdmissao.REJEITADA);
+        metricas.registrarPrazoEsgotado();
+        metricas.registrarDesvioDisjuntor();
+
+        assertThat(contador("classificacao.cache", "resultado", "acerto")).isEqualTo(1);
+        assertThat(contador("classificacao.cache", "resultado", "falha")).isEqualTo(2);
+        assertThat(contador("classificacao.quase.duplicado", "resultado", "reaproveitado")).isEqualTo(1);
+        assertThat(contador("classificacao.quase.duplicado", "resultado", "novo")).isZero();
+        assertThat(registro.get("classificacao.fallback").counter().count()).isEqualTo(1);
+        assertThat(registro.get("classificacao.coalescidas").counter().count()).isEqualTo(1);
+        assertThat(contador("classificacao.setor", "setor", "TI")).isEqualTo(1);
+        assertThat(registro.get("classificacao.setor").counters())
+                .extracting(c -> c.count()).containsOnly(0.0, 1.0);
+        assertThat(contador("classificacao.cascata", "nivel", "linear")).isEqualTo(1);
+        assertThat(contador("classificacao.cascata", "nivel", "modelo")).isZero();
+        assertThat(contador("classificacao.admissao", "resultado", "rejeitada")).isEqualTo(1);
+        assertThat(registro.get("classificacao.prazo.esgotado").counter().count()).isEqualTo(1);
+        assertThat(registro.get("classificacao.disjuntor.desviadas").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void janelasDispensadasSaoContadas() {
+        metricas.registrarJanelas(1, 4);
+        metricas.registrarJanelas(2, 2);
+
+        assertThat(registro.get("classificacao.janelas").summary().count()).isEqualTo(2);
+        assertThat(registro.get("classificacao.janelas").summary().totalAmount()).isEqualTo(3);
+        assertThat(registro.get("classificacao.janelas.puladas").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void medidoresDaAdmissaoLeemOEstadoACadaColeta() {
+        AtomicInteger emUso = new AtomicInteger();
+        metricas.monitorarAdmissao(() -> 4, emUso::get, () -> 0);
+
+        emUso.set(3);
+
+        assertThat(registro.get("classificacao.admissao.limite").gauge().value()).isEqualTo(4);
+        assertThat(registro.get("classificacao.admissao.em.uso").gauge().value()).isEqualTo(3);
+        assertThat(registro.get("classificacao.admissao.fila").gauge().value()).isZero();
+    }
+
+    @Test
+    void registroSemFilhosDescartaAsMedicoes() {
+        // Mesmo registro usado por semRegistro()
+        CompositeMeterRegistry composto = new CompositeMeterRegistry();
+        MetricasClassificacao descartadas = new MetricasClassificacao(composto);
+
+        descartadas.registrarEtapa(Etapa.CACHE, MetricasClassificacao.inicio() - 1_000_000);
+        descartadas.registrarSetor(SetorEmail.RH);
+
+        assertThat(composto.get("classificacao.etapa").tag("etapa", "cache").timer().count()).isZero();
+        assertThat(composto.get("classificacao.setor").tag("setor", "RH").counter().count()).isZero();
+        assertThat(MetricasClassificacao.semRegistro()).isNotNull();
+    }
+
+    private double contador(String nome, String tag, String valor) {
+        return registro.get(nome).tag(tag, valor).counter().count();
+    }
+}
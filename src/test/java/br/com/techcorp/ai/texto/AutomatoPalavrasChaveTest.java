@@ -0,0 +1,148 @@
+package br.com.techcorp.ai.texto;
+
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * O autômato deve encontrar exatamente as palavras que String.contains
+ * encontraria, na mesma primeira posição de String.indexOf
+ */
+class AutomatoPalavrasChaveTest {
+
+    @Test
+    void encontraPalavrasSobrepostasEContidasEmOutras() {
+        AutomatoPalavrasChave automato = AutomatoPalavrasChave.construtor()
+                .adicionar("he", SetorEmail.TI, 1.0)
+                .adicionar("she", SetorEmail.TI, 1.0)
+                .adicionar("his", SetorEmail.RH, 1.0)
+                .adicionar("hers", SetorEmail.RH, 1.0)
+                .construir();
+
+        AutomatoPalavrasChave.Correspondencias correspondencias = automato.buscar("ushers");
+
+        assertThat(correspondencias.posicao(automato.indiceDe("she"))).isEqualTo(1);
+        assertThat(correspondencias.posicao(automato.indiceDe("he"))).isEqualTo(2);
+        assertThat(correspondencias.posicao(automato.indiceDe("hers"))).isEqualTo(2);
+        assertThat(correspondencias.contem(automato.indiceDe("his"))).isFalse();
+        assertThat(correspondencias.getQuantidade()).isEqualTo(3);
+    }
+
+    @Test
+    void guardaAPrimeiraOcorrenciaNaOrdemEmQueTerminaNoTexto() {
+        AutomatoPalavrasChave automato = AutomatoPalavrasChave.construtor()
+                .adicionar("fatura", SetorEmail.FINANCEIRO, 2.0)
+                .adicionar("boleto", SetorEmail.FINANCEIRO, 1.5)
+                .construir();
+
+        AutomatoPalavrasChave.Correspondencias correspondencias =
+                automato.buscar("segue o boleto da fatura; boleto anterior e fatura antiga");
+
+        int boleto = automato.indiceDe("boleto");
+        int fatura = automato.indiceDe("fatura");
+        assertThat(correspondencias.posicao(boleto)).isEqualTo(8);
+        assertThat(correspondencias.posicao(fatura)).isEqualTo(18);
+        assertThat(correspondencias.palavraEncontrada(0)).isEqualTo(boleto);
+        assertThat(correspondencias.palavraEncontrada(1)).isEqualTo(fatura);
+    }
+
+    @Test
+    void caracteresForaDoAlfabetoReiniciamABusca() {
+        AutomatoPalavrasChave automato = AutomatoPalavrasChave.construtor()
+                .adicionar("nota fiscal", SetorEmail.FINANCEIRO, 1.0)
+                .construir();
+
+        assertThat(automato.buscar("nota☃fiscal").getQuantidade()).isZero();
+        assertThat(automato.buscar("☃nota fiscal￿").posicao(0)).isEqualTo(1);
+        assertThat(automato.buscar("").getQuantidade()).isZero();
+    }
+
+    @Test
+    void mesmaPalavraEmVariosSetoresViraUmaUnicaPalavraComVariasEntradas() {
+        AutomatoPalavrasChave automato = AutomatoPalavrasChave.construtor()
+                .adicionar("contrato", SetorEmail.JURIDICO, 2.0)
+                .adicionar("pedido", SetorEmail.COMPRAS, 1.0)
+                .adicionar("contrato", SetorEmail.VENDAS, 0.5)
+                .adicionar("proposta", SetorEmail.VENDAS, 1.0)
+                .construir();
+
+        assertThat(automato.getQuantidadePalavras()).isEqualTo(3);
+        int contrato = automato.indiceDe("contrato");
+        assertThat(automato.palavra(contrato)).isEqualTo("contrato");
+        assertThat(automato.indiceDe("inexistente")).isEqualTo(-1);
+
+        int[] vendas = automato.entradasDoSetor(SetorEmail.VENDAS);
+        assertThat(vendas).hasSize(2);
+        assertThat(automato.palavraDaEntrada(vendas[0])).isEqualTo(contrato);
+        assertThat(automato.pesoDaEntrada(vendas[0])).isEqualTo(0.5);
+        assertThat(automato.palavra(automato.palavraDaEntrada(vendas[1]))).isEqualTo("proposta");
+        assertThat(automato.entradasDoSetor(SetorEmail.JURIDICO)).hasSize(1);
+        assertThat(automato.entradasDoSetor(SetorEmail.MARKETING)).isEmpty();
+        assertThat(automato.buscar("qualquer").contem(-1)).isFalse();
+    }
+
+    @Test
+    void recusaPalavraVazia() {
+        AutomatoPalavrasChave.Construtor construtor = AutomatoPalavrasChave.construtor();
+
+        assertThatThrownBy(() -> construtor.adicionar("", SetorEmail.TI, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> construtor.adicionar(null, SetorEmail.TI, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void equivaleAIndexOfEmTextosAleatorios() {
+        // Alfabeto pequeno para forçar prefixos e sufixos compartilhados
+        String alfabeto = "abcã ";
+        Random aleatorio = new Random(20240611L);
+
+        for (int rodada = 0; rodada < 200; rodada++) {
+            Set<String> palavras = new LinkedHashSet<>();
+            int quantidade = 1 + aleatorio.nextInt(12);
+            while (palavras.size() < quantidade) {
+                palavras.add(aleatorio(aleatorio, alfabeto, 1 + aleatorio.nextInt(5)));
+            }
+            AutomatoPalavrasChave.Construtor construtor = AutomatoPalavrasChave.construtor();
+            List<String> lista = new ArrayList<>(palavras);
+            for (int i = 0; i < lista.size(); i++) {
+                construtor.adicionar(lista.get(i), SetorEmail.values()[i % SetorEmail.values().length], 1.0);
+            }
+            AutomatoPalavrasChave automato = construtor.construir();
+
+            for (int t = 0; t < 20; t++) {
+                String texto = aleatorio(aleatorio, alfabeto + "xé", aleatorio.nextInt(60));
+                AutomatoPalavrasChave.Correspondencias correspondencias = automato.buscar(texto);
+                int encontradas = 0;
+                for (String palavra : lista) {
+                    int indice = automato.indiceDe(palavra);
+                    int esperada = texto.indexOf(palavra);
+                    assertThat(correspondencias.posicao(indice))
+                            .as("'%s' em '%s'", palavra, texto)
+                            .isEqualTo(esperada);
+                    assertThat(correspondencias.contem(indice)).isEqualTo(texto.contains(palavra));
+                    if (esperada >= 0) {
+                        encontradas++;
+                    }
+                }
+                assertThat(correspondencias.getQuantidade()).isEqualTo(encontradas);
+            }
+        }
+    }
+
+    private static String aleatorio(Random aleatorio, String alfabeto, int comprimento) {
+        StringBuilder texto = new StringBuilder(comprimento);
+        for (int i = 0; i < comprimento; i++) {
+            texto.append(alfabeto.charAt(aleatorio.nextInt(alfabeto.length())));
+        }
+        return texto.toString();
+    }
+}
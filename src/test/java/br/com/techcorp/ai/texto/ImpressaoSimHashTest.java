@@ -0,0 +1,75 @@
+package br.com.techcorp.ai.texto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImpressaoSimHashTest {
+
+    private static final String FATURA = "prezado cliente joao segue em anexo a fatura referente ao mes de outubro "
+            + "com vencimento no proximo dia util em caso de duvidas entre em contato com o nosso setor financeiro "
+            + "pelo telefone ou pelo portal do cliente atenciosamente equipe de cobranca";
+
+    @Test
+    void textosIguaisTemAMesmaImpressao() {
+        assertThat(ImpressaoSimHash.calcular(FATURA)).isEqualTo(ImpressaoSimHash.calcular(new StringBuilder(FATURA)));
+    }
+
+    @Test
+    void palavrasComDigitosSaoIgnoradas() {
+        String comNumeros = FATURA.replace("outubro", "outubro 2024 pedido 48213 valor r 1500")
+                .replace("telefone", "telefone 0800");
+        String semNumeros = FATURA.replace("outubro", "outubro pedido valor r");
+
+        assertThat(ImpressaoSimHash.calcular(comNumeros)).isEqualTo(ImpressaoSimHash.calcular(semNumeros));
+    }
+
+    @Test
+    void trocarUmNomeMudaPoucosBits() {
+        long original = ImpressaoSimHash.calcular(FATURA);
+        long outroNome = ImpressaoSimHash.calcular(FATURA.replace("joao", "mariana"));
+
+        assertThat(ImpressaoSimHash.distancia(original, outroNome)).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void textosDiferentesFicamDistantes() {
+        long fatura = ImpressaoSimHash.calcular(FATURA);
+        long candidatura = ImpressaoSimHash.calcular("ola gostaria de me candidatar a vaga de analista de sistemas "
+                + "anunciada no site da empresa envio meu curriculo em anexo e fico a disposicao para uma entrevista "
+                + "tenho experiencia com java e bancos de dados relacionais obrigado pela atencao");
+
+        assertThat(ImpressaoSimHash.distancia(fatura, candidatura)).isGreaterThan(16);
+    }
+
+    @Test
+    void paresDePalavrasSeparamAMesmaPalavraEmOutraOrdem() {
+        String[] palavras = FATURA.split(" ");
+        StringBuilder invertido = new StringBuilder();
+        for (int i = palavras.length - 1; i >= 0; i--) {
+            invertido.append(palavras[i]).append(i > 0 ? " " : "");
+        }
+
+        assertThat(ImpressaoSimHash.calcular(invertido)).isNotEqualTo(ImpressaoSimHash.calcular(FATURA));
+    }
+
+    @Test
+    void textoVazioOuSoComNumerosTemImpressaoZero() {
+        assertThat(ImpressaoSimHash.calcular("")).isZero();
+        assertThat(ImpressaoSimHash.calcular("123 456 7a8")).isZero();
+    }
+
+    @Test
+    void contaPalavrasSeparadasPorUmEspaco() {
+        assertThat(ImpressaoSimHash.contarPalavras("")).isZero();
+        assertThat(ImpressaoSimHash.contarPalavras("fatura")).isEqualTo(1);
+        assertThat(ImpressaoSimHash.contarPalavras("segue a fatura")).isEqualTo(3);
+    }
+
+    @Test
+    void distanciaEhAQuantidadeDeBitsDiferentes() {
+        assertThat(ImpressaoSimHash.distancia(0L, 0L)).isZero();
+        assertThat(ImpressaoSimHash.distancia(0L, -1L)).isEqualTo(64);
+        assertThat(ImpressaoSimHash.distancia(0b1010L, 0b0110L)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.techcorp.ai.texto;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A normalização por tabela deve produzir exatamente o mesmo texto que as
+ * versões originais com expressões regulares
+ */
+class NormalizadorTextoTest {
+
+    private static final int[] LIMITES = { 0, 1, 2, 3, 7, 16, 100, 512, Integer.MAX_VALUE };
+
+    private Locale localeOriginal;
+
+    @BeforeEach
+    void fixarLocale() {
+        localeOriginal = Locale.getDefault();
+        Locale.setDefault(Locale.ROOT);
+    }
+
+    @AfterEach
+    void restaurarLocale() {
+        Locale.setDefault(localeOriginal);
+    }
+
+    static List<String> textos() {
+        return List.of(
+                "",
+                "   ",
+                "Olá, preciso de AJUDA com o boleto nº 123!",
+                "Prezados,\n\nSegue em anexo a nota fiscal (NF-e 4.567/2024).\r\nAtt.",
+                "  espaços   no\tinício\te no fim  ",
+                "ÁÀÂÃÄ éèêë ÍÌÎÏ óòôõö ÚÙÛÜ Çç ñÑ ÿŸ",
+                "tabulação\u000Bvertical\fe quebra\u0085NEL",
+                "espaço\u00A0não\u00A0separável e\u2003em\u2003space",
+                "×÷ sinais dentro da faixa À-ÿ",
+                "İstanbul DİKKAT ıi",
+                "İİİİ",
+                "İaİbİcİ",
+                "ΣΊΣΥΦΟΣ ΟΔΟΣ σίσυφος",
+                "Привет, мир! Счёт №42",
+                "请帮我检查发票 123 的付款状态",
+                "مرحبا بالعالم ٣٤٥",
+                "שלום עולם",
+                "नमस्ते दुनिया",
+                "emoji 😀 no meio 👩\u200D💻 e 🇧🇷 bandeira",
+                "acento combinado: cafe\u0301 e nao\u0303",
+                "Straße ǅemal ﬁnal ŉ",
+                "Kelvin \u212A e Ångström \u212B",
+                "zero\u200Blargura\uFEFFbom",
+                "surrogate solto \uD800 e \uDC00 fim",
+                "123 456,78 R$ 9.999,00",
+                "!!!???...---___",
+                "a",
+                "Á");
+    }
+
+    @ParameterizedTest
+    @MethodSource("textos")
+    void normalizarParaRegrasIgualAVersaoOriginal(String texto) {
+        assertThat(NormalizadorTexto.normalizarParaRegras(texto))
+                .isEqualTo(NormalizadorTexto.normalizarParaRegrasLegado(texto));
+    }
+
+    @ParameterizedTest
+    @MethodSource("textos")
+    void prepararParaModeloIgualAVersaoOriginalEmVariosLimites(String texto) {
+        for (int limite : LIMITES) {
+            assertThat(NormalizadorTexto.prepararParaModelo(texto, limite))
+                    .as("limite %d", limite)
+                    .isEqualTo(NormalizadorTexto.prepararParaModeloLegado(texto, limite));
+        }
+    }
+
+    @Test
+    void corpusAleatorioIgualAVersaoOriginal() {
+        Random aleatorio = new Random(20240611L);
+        for (String texto : corpusAleatorio(aleatorio, 3000)) {
+            assertThat(NormalizadorTexto.normalizarParaRegras(texto))
+                    .as("texto %s", escapar(texto))
+                    .isEqualTo(NormalizadorTexto.normalizarParaRegrasLegado(texto));
+
+            int limite = LIMITES[aleatorio.nextInt(LIMITES.length)];
+            assertThat(NormalizadorTexto.prepararParaModelo(texto, limite))
+                    .as("limite %d, texto %s", limite, escapar(texto))
+                    .isEqualTo(NormalizadorTexto.prepararParaModeloLegado(texto, limite));
+        }
+    }
+
+    @Test
+    void textosMaioresQueOBufferDaThreadIguaisAVersaoOriginal() {
+        String texto = "Segue a FATURA nº 42 de Outubro. ".repeat(5000);
+        String comPonto = "İa".repeat(50_000);
+
+        for (String longo : List.of(texto, comPonto, texto + comPonto)) {
+            assertThat(NormalizadorTexto.normalizarParaRegras(longo))
+                    .isEqualTo(NormalizadorTexto.normalizarParaRegrasLegado(longo));
+            assertThat(NormalizadorTexto.prepararParaModelo(longo, Integer.MAX_VALUE))
+                    .isEqualTo(NormalizadorTexto.prepararParaModeloLegado(longo, Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void todoCaractereIsoladoIgualAVersaoOriginal() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            String texto = "a" + (char) c + "b";
+            assertThat(NormalizadorTexto.normalizarParaRegras(texto))
+                    .as("caractere U+%04X", c)
+                    .isEqualTo(NormalizadorTexto.normalizarParaRegrasLegado(texto));
+            assertThat(NormalizadorTexto.prepararParaModelo(texto, 3))
+                    .as("caractere U+%04X", c)
+                    .isEqualTo(NormalizadorTexto.prepararParaModeloLegado(texto, 3));
+        }
+    }
+
+    @Test
+    void localeTurcoUsaAVersaoOriginal() {
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        String texto = "DİKKAT: İade FATURA";
+
+        assertThat(NormalizadorTexto.normalizarParaRegras(texto))
+                .isEqualTo(NormalizadorTexto.normalizarParaRegrasLegado(texto));
+        assertThat(NormalizadorTexto.prepararParaModelo(texto, 10))
+                .isEqualTo(NormalizadorTexto.prepararParaModeloLegado(texto, 10));
+    }
+
+    @Test
+    void caractereParaRegrasSegueANormalizacao() {
+        assertThat(NormalizadorTexto.caractereParaRegras('Ã')).isEqualTo('a');
+        assertThat(NormalizadorTexto.caractereParaRegras('Ç')).isEqualTo('c');
+        assertThat(NormalizadorTexto.caractereParaRegras('7')).isEqualTo('7');
+        assertThat(NormalizadorTexto.caractereParaRegras('-')).isEqualTo((char) 0);
+        assertThat(NormalizadorTexto.caractereParaRegras('ж')).isEqualTo((char) 0);
+    }
+
+    /**
+     * Textos com trechos de vários alfabetos, espaços variados e caracteres
+     * quaisquer do BMP (inclusive surrogates soltos), de tamanhos variados
+     */
+    private static List<String> corpusAleatorio(Random aleatorio, int quantidade) {
+        String[] trechos = {
+                "fatura", "Pagamento", "ÇÃO", "ação", "İ", "ΣΟΣ", "Счёт", "发票", "مرحبا", "😀", "👩\u200D💻",
+                " ", "  ", "\t", "\n", "\r\n", "\u00A0", "\u2003", ".", ",", "!", "-", "123", "×", "÷", "ß", "\u212A"
+        };
+        List<String> corpus = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int partes = aleatorio.nextInt(i % 10 == 0 ? 400 : 40);
+            StringBuilder texto = new StringBuilder();
+            for (int p = 0; p < partes; p++) {
+                switch (aleatorio.nextInt(4)) {
+                    case 0 -> texto.append(trechos[aleatorio.nextInt(trechos.length)]);
+                    case 1 -> texto.append((char) (' ' + aleatorio.nextInt(95)));
+                    case 2 -> texto.append((char) (0xA0 + aleatorio.nextInt(0x180)));
+                    default -> texto.append((char) aleatorio.nextInt(Character.MAX_VALUE + 1));
+                }
+            }
+            corpus.add(texto.toString());
+        }
+        return corpus;
+    }
+
+    private static String escapar(String texto) {
+        StringBuilder escapado = new StringBuilder();
+        texto.chars().forEach(c -> escapado.append(c < 0x80 && c >= ' ' ? String.valueOf((char) c)
+                : String.format("\\u%04X", c)));
+        return escapado.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.techcorp.ai.vizinhos;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeapVizinhosTest {
+
+    @Test
+    void heapDevolveOsNosEmOrdemCrescenteDeChave() {
+        HeapVizinhos heap = new HeapVizinhos(1);
+        float[] chaves = { 0.5f, -1f, 0.9f, 0.1f, 0.1f, 2f, -0.3f };
+        for (int i = 0; i < chaves.length; i++) {
+            heap.adicionar(i, chaves[i]);
+        }
+
+        float anterior = Float.NEGATIVE_INFINITY;
+        int removidos = 0;
+        while (!heap.vazio()) {
+            assertThat(heap.topoChave()).isGreaterThanOrEqualTo(anterior);
+            assertThat(chaves[heap.topoNo()]).isEqualTo(heap.topoChave());
+            anterior = heap.topoChave();
+            heap.removerTopo();
+            removidos++;
+        }
+        assertThat(removidos).isEqualTo(chaves.length);
+    }
+
+    @Test
+    void limparEsvaziaOHeapParaReutilizacao() {
+        HeapVizinhos heap = new HeapVizinhos(4);
+        heap.adicionar(1, 0.5f);
+        heap.adicionar(2, 0.2f);
+
+        heap.limpar();
+        heap.adicionar(3, 0.7f);
+
+        assertThat(heap.tamanho()).isEqualTo(1);
+        assertThat(heap.topoNo()).isEqualTo(3);
+    }
+}
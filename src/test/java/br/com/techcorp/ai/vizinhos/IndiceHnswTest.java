@@ -0,0 +1,230 @@
+package br.com.techcorp.ai.vizinhos;
+
+import br.com.techcorp.config.PropriedadesVizinhos;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class IndiceHnswTest {
+
+    private static final int DIMENSAO = 24;
+    private static final float TOLERANCIA = 1e-4f;
+    private static final SetorEmail[] SETORES = SetorEmail.values();
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void recuperaQuaseTodosOsVizinhosExatos() throws IOException {
+        Random aleatorio = new Random(20240611L);
+        float[][] exemplos = vetores(aleatorio, 2000);
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 8)) {
+            for (int i = 0; i < exemplos.length; i++) {
+                assertThat(indice.adicionar(exemplos[i].clone(), SETORES[i % SETORES.length])).isEqualTo(i);
+            }
+
+            int k = 10;
+            int acertos = 0;
+            int consultas = 100;
+            for (int c = 0; c < consultas; c++) {
+                float[] consulta = vetor(aleatorio);
+                IndiceHnsw.Vizinho[] vizinhos = indice.buscar(consulta, k);
+
+                assertThat(vizinhos).hasSize(k);
+                for (int i = 1; i < vizinhos.length; i++) {
+                    assertThat(vizinhos[i].similaridade()).isLessThanOrEqualTo(vizinhos[i - 1].similaridade());
+                }
+                Set<Integer> exatos = new HashSet<>();
+                IntStream.range(0, exemplos.length).boxed()
+                        .sorted(Comparator.comparingDouble(i -> -similaridade(consulta, exemplos[i])))
+                        .limit(k)
+                        .forEach(exatos::add);
+                for (IndiceHnsw.Vizinho vizinho : vizinhos) {
+                    assertThat(vizinho.setor()).isEqualTo(SETORES[vizinho.id() % SETORES.length]);
+                    assertThat(vizinho.similaridade())
+                            .isCloseTo((float) similaridade(consulta, exemplos[vizinho.id()]), within(TOLERANCIA));
+                    if (exatos.contains(vizinho.id())) {
+                        acertos++;
+                    }
+                }
+            }
+            assertThat((double) acertos / (consultas * k)).isGreaterThanOrEqualTo(0.9);
+        }
+    }
+
+    @Test
+    void cadaExemploEhOProprioVizinhoMaisProximo() throws IOException {
+        Random aleatorio = new Random(3L);
+        float[][] exemplos = vetores(aleatorio, 300);
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 4)) {
+            for (int i = 0; i < exemplos.length; i++) {
+                indice.adicionar(exemplos[i].clone(), SetorEmail.TI);
+            }
+
+            for (int i = 0; i < exemplos.length; i++) {
+                IndiceHnsw.Vizinho[] vizinhos = indice.buscar(exemplos[i], 1);
+                assertThat(vizinhos[0].id()).isEqualTo(i);
+                assertThat(vizinhos[0].similaridade()).isCloseTo(1.0f, within(TOLERANCIA));
+            }
+        }
+    }
+
+    @Test
+    void reabrirPreservaVetoresGrafoEResultados() throws IOException {
+        Random aleatorio = new Random(11L);
+        float[][] exemplos = vetores(aleatorio, 500);
+        float[] consulta = vetor(aleatorio);
+        IndiceHnsw.Vizinho[] antes;
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 8)) {
+            for (int i = 0; i < exemplos.length; i++) {
+                indice.adicionar(exemplos[i].clone(), SETORES[i % SETORES.length]);
+            }
+            antes = indice.buscar(consulta, 5);
+        }
+
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 8)) {
+            assertThat(indice.getQuantidade()).isEqualTo(exemplos.length);
+            assertThat(indice.vetor(42)).containsExactly(exemplos[42], within(TOLERANCIA));
+            assertThat(indice.buscar(consulta, 5)).containsExactly(antes);
+
+            assertThat(indice.adicionar(consulta.clone(), SetorEmail.RH)).isEqualTo(exemplos.length);
+            assertThat(indice.buscar(consulta, 1)[0].setor()).isEqualTo(SetorEmail.RH);
+        }
+    }
+
+    @Test
+    void outroCodificadorRecriaOIndice() throws IOException {
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 4)) {
+            indice.adicionar(vetor(new Random(1L)), SetorEmail.VENDAS);
+        }
+
+        try (IndiceHnsw indice = abrir("e5-small", DIMENSAO, 4)) {
+            assertThat(indice.getQuantidade()).isZero();
+        }
+        try (IndiceHnsw indice = abrir("e5-small", 8, 4)) {
+            assertThat(indice.getQuantidade()).isZero();
+            assertThat(indice.getDimensao()).isEqualTo(8);
+        }
+    }
+
+    @Test
+    void normalizaOsVetoresAdicionados() throws IOException {
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 4)) {
+            float[] vetor = new float[DIMENSAO];
+            vetor[0] = 3f;
+            vetor[1] = 4f;
+            int id = indice.adicionar(vetor, SetorEmail.MARKETING);
+
+            assertThat(indice.vetor(id)[0]).isCloseTo(0.6f, within(TOLERANCIA));
+            assertThat(indice.vetor(id)[1]).isCloseTo(0.8f, within(TOLERANCIA));
+        }
+    }
+
+    @Test
+    void indiceVazioOuFechadoNaoDevolveVizinhos() throws IOException {
+        IndiceHnsw indice = abrir("hash-24", DIMENSAO, 4);
+        float[] consulta = vetor(new Random(5L));
+        assertThat(indice.buscar(consulta, 3)).isEmpty();
+
+        indice.adicionar(consulta.clone(), SetorEmail.OPERACOES);
+        assertThat(indice.buscar(consulta, 3)).hasSize(1);
+        assertThat(indice.buscar(consulta, 0)).isEmpty();
+
+        indice.close();
+        assertThat(indice.buscar(consulta, 3)).isEmpty();
+        assertThatThrownBy(() -> indice.adicionar(consulta.clone(), SetorEmail.OPERACOES))
+                .isInstanceOf(IOException.class);
+        indice.close();
+    }
+
+    @Test
+    void recusaDimensaoDiferenteEMMenorQueDois() throws IOException {
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 4)) {
+            assertThatThrownBy(() -> indice.adicionar(new float[DIMENSAO + 1], SetorEmail.TI))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> abrir("hash-24", DIMENSAO, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void diretorioEhDeUsoExclusivo() throws IOException {
+        try (IndiceHnsw indice = abrir("hash-24", DIMENSAO, 4)) {
+            assertThatThrownBy(() -> abrir("hash-24", DIMENSAO, 4))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("em uso");
+        }
+        abrir("hash-24", DIMENSAO, 4).close();
+    }
+
+    private IndiceHnsw abrir(String codificador, int dimensao, int m) throws IOException {
+        PropriedadesVizinhos propriedades = new PropriedadesVizinhos();
+        propriedades.setDiretorio(diretorio.toString());
+        propriedades.setTamanhoSegmentoMb(1);
+        propriedades.getHnsw().setM(m);
+        propriedades.getHnsw().setEfConstrucao(64);
+        propriedades.getHnsw().setEfBusca(48);
+        return IndiceHnsw.abrir(propriedades, new CodificadorFalso(codificador, dimensao));
+    }
+
+    private static float[][] vetores(Random aleatorio, int quantidade) {
+        float[][] vetores = new float[quantidade][];
+        for (int i = 0; i < quantidade; i++) {
+            vetores[i] = vetor(aleatorio);
+        }
+        return vetores;
+    }
+
+    private static float[] vetor(Random aleatorio) {
+        float[] vetor = new float[DIMENSAO];
+        for (int i = 0; i < DIMENSAO; i++) {
+            vetor[i] = (float) aleatorio.nextGaussian();
+        }
+        ProdutoEscalar.normalizar(vetor);
+        return vetor;
+    }
+
+    private static double similaridade(float[] a, float[] b) {
+        double soma = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            soma += a[i] * b[i];
+        }
+        return soma;
+    }
+
+    /**
+     * Só o nome e a dimensão importam para o índice
+     */
+    private record CodificadorFalso(String nome, int dimensao) implements CodificadorEmbeddings {
+
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public int getDimensao() {
+            return dimensao;
+        }
+
+        @Override
+        public float[] codificar(String texto) {
+            float[] vetor = new float[dimensao];
+            Arrays.fill(vetor, 1f);
+            return vetor;
+        }
+    }
+}
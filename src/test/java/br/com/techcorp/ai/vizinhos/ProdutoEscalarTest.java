@@ -0,0 +1,57 @@
+package br.com.techcorp.ai.vizinhos;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ProdutoEscalarTest {
+
+    @Test
+    void calculaOProdutoEscalarEmQualquerDimensaoEPosicao() {
+        Random aleatorio = new Random(20240611L);
+        for (int dimensao : new int[] { 1, 3, 4, 7, 16, 33, 384 }) {
+            float[] consulta = aleatorios(aleatorio, dimensao);
+            float[] gravado = aleatorios(aleatorio, dimensao);
+            int posicao = 12;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(posicao + dimensao * Float.BYTES + 8)
+                    .order(ProdutoEscalar.ORDEM);
+            for (int i = 0; i < dimensao; i++) {
+                buffer.putFloat(posicao + i * Float.BYTES, gravado[i]);
+            }
+
+            double esperado = 0.0;
+            for (int i = 0; i < dimensao; i++) {
+                esperado += (double) consulta[i] * gravado[i];
+            }
+            float tolerancia = 1e-4f * dimensao;
+            assertThat(ProdutoEscalar.calcular(consulta, buffer, posicao))
+                    .as("dimensão %d", dimensao)
+                    .isCloseTo((float) esperado, within(tolerancia));
+            assertThat(ProdutoEscalar.calcularEscalar(consulta, buffer, posicao))
+                    .isCloseTo((float) esperado, within(tolerancia));
+        }
+    }
+
+    @Test
+    void normalizarDeixaONormaUmEPreservaVetorNulo() {
+        float[] vetor = { 3f, 0f, 4f };
+        ProdutoEscalar.normalizar(vetor);
+        assertThat(vetor).containsExactly(new float[] { 0.6f, 0f, 0.8f }, within(1e-6f));
+
+        float[] nulo = new float[4];
+        ProdutoEscalar.normalizar(nulo);
+        assertThat(nulo).containsOnly(0f);
+    }
+
+    private static float[] aleatorios(Random aleatorio, int dimensao) {
+        float[] vetor = new float[dimensao];
+        for (int i = 0; i < dimensao; i++) {
+            vetor[i] = (float) aleatorio.nextGaussian();
+        }
+        return vetor;
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.techcorp.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArquivoMapeadoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void blocosJsonlComecamNoInicioDeUmaLinha() throws Exception {
+        StringBuilder conteudo = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            conteudo.append("{\"assunto\":\"Pedido ").append(i).append("\"}\n");
+        }
+        Path arquivo = gravar("emails.jsonl", conteudo.toString());
+
+        try (ArquivoMapeado mapeado = new ArquivoMapeado(arquivo)) {
+            List<ArquivoMapeado.Bloco> blocos = mapeado.dividir(100, FormatoEntrada.JSONL);
+
+            assertThat(blocos).hasSizeGreaterThan(1);
+            assertContiguos(blocos, mapeado.getTamanho());
+            List<String> linhas = new ArrayList<>();
+            for (ArquivoMapeado.Bloco bloco : blocos) {
+                String texto = ler(mapeado, bloco);
+                assertThat(texto).startsWith("{").endsWith("\n");
+                linhas.addAll(texto.lines().toList());
+            }
+            assertThat(linhas).hasSize(200).startsWith("{\"assunto\":\"Pedido 0\"}");
+        }
+    }
+
+    @Test
+    void blocosMboxComecamNumaLinhaFrom() throws Exception {
+        StringBuilder conteudo = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            conteudo.append("From remetente").append(i).append("@techcorp.com.br Mon Jan  1 00:00:00 2024\n")
+                    .append("Subject: Mensagem ").append(i).append("\n\n")
+                    .append("Corpo com a palavra From no meio da linha\n\n");
+        }
+        Path arquivo = gravar("caixa.mbox", conteudo.toString());
+
+        try (ArquivoMapeado mapeado = new ArquivoMapeado(arquivo)) {
+            List<ArquivoMapeado.Bloco> blocos = mapeado.dividir(150, FormatoEntrada.MBOX);
+
+            assertThat(blocos).hasSizeGreaterThan(1);
+            assertContiguos(blocos, mapeado.getTamanho());
+            for (ArquivoMapeado.Bloco bloco : blocos) {
+                assertThat(ler(mapeado, bloco)).startsWith("From remetente");
+            }
+        }
+    }
+
+    @Test
+    void separadorEntreJanelasDeBuscaNaoSePerde() throws Exception {
+        // Um único registro mbox maior que a janela de busca de 64 KB, seguido de outro
+        String primeiro = "From a@techcorp.com.br\nSubject: grande\n\n" + "x".repeat(64 * 1024 - 3) + "\n";
+        String segundo = "From b@techcorp.com.br\nSubject: pequeno\n\ncorpo\n";
+        Path arquivo = gravar("grande.mbox", primeiro + segundo);
+
+        try (ArquivoMapeado mapeado = new ArquivoMapeado(arquivo)) {
+            List<ArquivoMapeado.Bloco> blocos = mapeado.dividir(10, FormatoEntrada.MBOX);
+
+            assertThat(blocos).extracting(ArquivoMapeado.Bloco::tamanho)
+                    .containsExactly((long) primeiro.length(), (long) segundo.length());
+        }
+    }
+
+    @Test
+    void semSeparadorOArquivoInteiroFicaNumBloco() throws Exception {
+        Path arquivo = gravar("unico.jsonl", "{\"assunto\":\"sem quebra de linha no fim\"}");
+
+        try (ArquivoMapeado mapeado = new ArquivoMapeado(arquivo)) {
+            assertThat(mapeado.dividir(4, FormatoEntrada.JSONL))
+                    .containsExactly(new ArquivoMapeado.Bloco(0, 0, mapeado.getTamanho()));
+        }
+    }
+
+    @Test
+    void arquivoVazioNaoTemBlocos() throws Exception {
+        try (ArquivoMapeado mapeado = new ArquivoMapeado(gravar("vazio.jsonl", ""))) {
+            assertThat(mapeado.dividir(1024, FormatoEntrada.JSONL)).isEmpty();
+        }
+    }
+
+    @Test
+    void formatoVemDaOpcaoOuDaExtensao() {
+        assertThat(FormatoEntrada.resolver(null, Path.of("caixa.MBOX"))).isEqualTo(FormatoEntrada.MBOX);
+        assertThat(FormatoEntrada.resolver(" ", Path.of("entrada.mbx"))).isEqualTo(FormatoEntrada.MBOX);
+        assertThat(FormatoEntrada.resolver(null, Path.of("emails.txt"))).isEqualTo(FormatoEntrada.JSONL);
+        assertThat(FormatoEntrada.resolver("mbox", Path.of("emails.jsonl"))).isEqualTo(FormatoEntrada.MBOX);
+    }
+
+    private Path gravar(String nome, String conteudo) throws Exception {
+        return Files.writeString(diretorio.resolve(nome), conteudo, StandardCharsets.UTF_8);
+    }
+
+    private static String ler(ArquivoMapeado mapeado, ArquivoMapeado.Bloco bloco) throws Exception {
+        MappedByteBuffer buffer = mapeado.mapear(bloco);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void assertContiguos(List<ArquivoMapeado.Bloco> blocos, long tamanho) {
+        long esperado = 0;
+        for (int i = 0; i < blocos.size(); i++) {
+            assertThat(blocos.get(i).numero()).isEqualTo(i);
+            assertThat(blocos.get(i).inicio()).isEqualTo(esperado);
+            esperado += blocos.get(i).tamanho();
+        }
+        assertThat(esperado).isEqualTo(tamanho);
+    }
+}
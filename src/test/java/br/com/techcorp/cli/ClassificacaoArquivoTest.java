@@ -0,0 +1,103 @@
+package br.com.techcorp.cli;
+
+import br.com.techcorp.ai.impl.ClassificadorBaseadoEmRegras;
+import br.com.techcorp.ai.metricas.MetricasClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassificacaoArquivoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void classificaUmJsonlMantendoAOrdemDasLinhas() throws Exception {
+        StringBuilder conteudo = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            String assunto = i % 2 == 0 ? "Boleto da fatura " + i : "Servidor fora do ar " + i;
+            conteudo.append("{\"assunto\":\"").append(assunto).append("\",\"corpo\":\"\"}\n");
+        }
+        conteudo.append("\n{linha inválida}\n");
+        Path entrada = Files.writeString(diretorio.resolve("emails.jsonl"), conteudo);
+        Path saida = diretorio.resolve("saida.jsonl");
+
+        ClassificacaoArquivo classificacao = executar("--classificar-arquivo=" + entrada, "--saida=" + saida,
+                "--classificador=regras", "--threads=4");
+
+        List<JsonNode> resultados = lerSaida(saida);
+        assertThat(classificacao.getExitCode()).isZero();
+        assertThat(resultados).hasSize(501);
+        for (int i = 0; i < 500; i++) {
+            SetorEmail esperado = i % 2 == 0 ? SetorEmail.FINANCEIRO : SetorEmail.TI;
+            assertThat(resultados.get(i).get("setor").asText()).as("linha %d", i).isEqualTo(esperado.name());
+        }
+        assertThat(resultados.get(500).get("setor").isNull()).isTrue();
+        assertThat(resultados.get(500).get("motivo").asText()).contains("formato inválido");
+    }
+
+    @Test
+    void classificaUmMbox() throws Exception {
+        Path entrada = Files.writeString(diretorio.resolve("caixa.mbox"), """
+                From a@cliente.com Mon Jan  1 00:00:00 2024
+                Subject: Boleto da fatura
+
+                Segue o pagamento.
+
+                From b@cliente.com Mon Jan  1 00:00:00 2024
+                Subject: Servidor fora do ar
+
+                O sistema caiu.
+                """);
+
+        ClassificacaoArquivo classificacao = executar("--classificar-arquivo=" + entrada, "--classificador=regras");
+
+        List<JsonNode> resultados = lerSaida(Path.of(entrada + ".classificado.jsonl"));
+        assertThat(classificacao.getExitCode()).isZero();
+        assertThat(resultados).extracting(resultado -> resultado.get("setor").asText())
+                .containsExactly(SetorEmail.FINANCEIRO.name(), SetorEmail.TI.name());
+    }
+
+    @Test
+    void arquivoInexistenteEClassificadorDesconhecidoSaemComErro() throws Exception {
+        Path entrada = Files.writeString(diretorio.resolve("emails.jsonl"), "{}\n");
+
+        assertThat(executar("--classificar-arquivo=" + diretorio.resolve("inexistente.jsonl"),
+                "--classificador=regras").getExitCode()).isEqualTo(1);
+        assertThat(executar("--classificar-arquivo=" + entrada, "--classificador=outro").getExitCode())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void detectaAOpcaoNosArgumentos() {
+        assertThat(ClassificacaoArquivo.solicitada(new String[] { "--classificar-arquivo=x.jsonl" })).isTrue();
+        assertThat(ClassificacaoArquivo.solicitada(new String[] { "--server.port=8080" })).isFalse();
+    }
+
+    private ClassificacaoArquivo executar(String... args) {
+        ClassificacaoArquivo classificacao = new ClassificacaoArquivo(null, null, new ClassificadorBaseadoEmRegras(),
+                null, null, objectMapper, MetricasClassificacao.semRegistro());
+        classificacao.run(new DefaultApplicationArguments(args));
+        return classificacao;
+    }
+
+    private List<JsonNode> lerSaida(Path saida) throws Exception {
+        List<JsonNode> resultados = new ArrayList<>();
+        for (String linha : Files.readAllLines(saida)) {
+            resultados.add(objectMapper.readTree(linha));
+        }
+        return resultados;
+    }
+}
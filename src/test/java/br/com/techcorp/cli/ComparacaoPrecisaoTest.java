@@ -0,0 +1,188 @@
+package br.com.techcorp.cli;
+
+import br.com.techcorp.ai.inferencia.FornecedorMotorInferencia;
+import br.com.techcorp.ai.inferencia.MotorInferencia;
+import br.com.techcorp.config.PropriedadesModelo;
+import br.com.techcorp.config.PropriedadesModelo.PrecisaoNumerica;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComparacaoPrecisaoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void comparaAcuraciaEConcordanciaDasDuasPrecisoes() throws Exception {
+        Path rotulados = Files.writeString(diretorio.resolve("rotulados.jsonl"), """
+                {"assunto": "TI", "corpo": "servidor fora do ar", "setor": "TI"}
+
+                {"assunto": "RH", "corpo": "férias", "setor": "rh"}
+                {"assunto": "FINANCEIRO", "corpo": "boleto", "setor": "FINANCEIRO"}
+                {"assunto": "VENDAS", "corpo": "proposta", "setor": "VENDAS"}
+                """);
+        FornecedorFalso fornecedor = new FornecedorFalso();
+
+        ComparacaoPrecisao comparacao = new ComparacaoPrecisao(List.of(fornecedor), propriedades(),
+                new ObjectMapper());
+        String saida = executar(comparacao, "--comparar-precisao=" + rotulados, "--repeticoes=2");
+
+        assertThat(comparacao.getExitCode()).isZero();
+        assertThat(fornecedor.precisoesCarregadas).containsExactly(PrecisaoNumerica.FP32, PrecisaoNumerica.INT8);
+        assertThat(fornecedor.motores).allSatisfy(motor -> {
+            assertThat(motor.fechado).isTrue();
+            // Uma passada de predição e duas medidas
+            assertThat(motor.inferencias).isEqualTo(4 * 3);
+        });
+        assertThat(saida).contains("4 e-mails rotulados, 2 repetições")
+                .containsPattern("FP32 +\\| +100,0%|FP32 +\\| +100\\.0%")
+                .containsPattern("INT8 +\\| +25,0%|INT8 +\\| +25\\.0%")
+                .containsPattern("Concordância FP32/INT8: 25[,.]0%");
+    }
+
+    @Test
+    void semArquivoUsaOConjuntoIncluido() throws Exception {
+        ComparacaoPrecisao comparacao = new ComparacaoPrecisao(List.of(new FornecedorFalso()), propriedades(),
+                new ObjectMapper());
+
+        String saida = executar(comparacao, "--comparar-precisao", "--repeticoes=1");
+
+        assertThat(comparacao.getExitCode()).isZero();
+        assertThat(saida).contains("45 e-mails rotulados");
+    }
+
+    @Test
+    void arquivoSemExemplosSaiComErro() throws Exception {
+        Path vazio = Files.writeString(diretorio.resolve("vazio.jsonl"), "\n");
+        ComparacaoPrecisao comparacao = new ComparacaoPrecisao(List.of(new FornecedorFalso()), propriedades(),
+                new ObjectMapper());
+
+        executar(comparacao, "--comparar-precisao=" + vazio);
+
+        assertThat(comparacao.getExitCode()).isEqualTo(1);
+        assertThat(ComparacaoPrecisao.solicitada(new String[] { "--comparar-precisao" })).isTrue();
+        assertThat(ComparacaoPrecisao.solicitada(new String[] { "--classificar-arquivo=x" })).isFalse();
+    }
+
+    private static String executar(ComparacaoPrecisao comparacao, String... args) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(saida, true, StandardCharsets.UTF_8));
+        try {
+            comparacao.run(new DefaultApplicationArguments(args));
+        } finally {
+            System.setOut(original);
+        }
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static PropriedadesModelo propriedades() {
+        PropriedadesModelo propriedades = new PropriedadesModelo();
+        propriedades.setEngine("Falso");
+        return propriedades;
+    }
+
+    /**
+     * Carrega um MotorPorAssunto na precisão pedida
+     */
+    private static final class FornecedorFalso implements FornecedorMotorInferencia {
+
+        private final List<PrecisaoNumerica> precisoesCarregadas = new ArrayList<>();
+        private final List<MotorPorAssunto> motores = new ArrayList<>();
+
+        @Override
+        public String getNome() {
+            return "Falso";
+        }
+
+        @Override
+        public MotorInferencia carregar(PropriedadesModelo propriedades, PrecisaoNumerica precisao) {
+            precisoesCarregadas.add(precisao);
+            MotorPorAssunto motor = new MotorPorAssunto(precisao);
+            motores.add(motor);
+            return motor;
+        }
+    }
+
+    /**
+     * No FP32 acerta o setor escrito no assunto (ou responde ATENDIMENTO); no INT8 responde sempre FINANCEIRO
+     */
+    private static final class MotorPorAssunto implements MotorInferencia {
+
+        private final PrecisaoNumerica precisao;
+        private int inferencias;
+        private boolean fechado;
+
+        private MotorPorAssunto(PrecisaoNumerica precisao) {
+            this.precisao = precisao;
+        }
+
+        @Override
+        public long[] tokenizar(String texto) {
+            String assunto = texto.split("\\s+")[0];
+            for (SetorEmail setor : SetorEmail.values()) {
+                if (setor.name().equals(assunto)) {
+                    return new long[] { setor.ordinal() };
+                }
+            }
+            return new long[] { SetorEmail.ATENDIMENTO.ordinal() };
+        }
+
+        @Override
+        public double[][] classificarLote(long[][] textos) {
+            double[][] probabilidades = new double[textos.length][SetorEmail.values().length];
+            for (int i = 0; i < textos.length; i++) {
+                inferencias++;
+                int setor = precisao == PrecisaoNumerica.FP32 ? (int) textos[i][0] : SetorEmail.FINANCEIRO.ordinal();
+                Arrays.fill(probabilidades[i], 0.01);
+                probabilidades[i][setor] = 0.9;
+            }
+            return probabilidades;
+        }
+
+        @Override
+        public String getEngine() {
+            return "Falso";
+        }
+
+        @Override
+        public PrecisaoNumerica getPrecisaoNumerica() {
+            return precisao;
+        }
+
+        @Override
+        public int getTamanhoPool() {
+            return 1;
+        }
+
+        @Override
+        public int getPredictorsDisponiveis() {
+            return 1;
+        }
+
+        @Override
+        public Map<String, Object> getEstatisticasTokenizador() {
+            return Map.of();
+        }
+
+        @Override
+        public void close() {
+            fechado = true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.techcorp.cli;
+
+import br.com.techcorp.models.Email;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeitorMboxTest {
+
+    @Test
+    void leCabecalhosECorpo() {
+        Email email = LeitorMbox.paraEmail("""
+                From cliente@empresa.com Mon Jan  1 00:00:00 2024\r
+                From: Cliente <cliente@empresa.com>\r
+                To: financeiro@techcorp.com.br\r
+                Subject: Boleto\r
+                  de outubro\r
+                X-Outro: ignorado\r
+                \r
+                Segue o boleto.\r
+                >From uma linha escapada\r
+                """);
+
+        assertThat(email.getRemetente()).isEqualTo("Cliente <cliente@empresa.com>");
+        assertThat(email.getDestinatario()).isEqualTo("financeiro@techcorp.com.br");
+        assertThat(email.getAssunto()).isEqualTo("Boleto de outubro");
+        assertThat(email.getCorpo()).isEqualTo("Segue o boleto.\nFrom uma linha escapada");
+    }
+
+    @Test
+    void mensagemSemCorpoTemCorpoVazio() {
+        Email email = LeitorMbox.paraEmail("From x\nSubject: Só assunto\n");
+
+        assertThat(email.getAssunto()).isEqualTo("Só assunto");
+        assertThat(email.getCorpo()).isEmpty();
+    }
+
+    @Test
+    void decodificaPalavrasCodificadas() {
+        assertThat(LeitorMbox.decodificarCabecalho("=?UTF-8?B?UmVlbWJvbHNv?= =?UTF-8?Q?_de_f=C3=A9rias?="))
+                .isEqualTo("Reembolso de férias");
+        assertThat(LeitorMbox.decodificarCabecalho("=?ISO-8859-1?Q?Promo=E7=E3o?= hoje"))
+                .isEqualTo("Promoção hoje");
+        assertThat(LeitorMbox.decodificarCabecalho("Texto simples")).isEqualTo("Texto simples");
+        assertThat(LeitorMbox.decodificarCabecalho("=?charset-inexistente?B?eA==?="))
+                .isEqualTo("=?charset-inexistente?B?eA==?=");
+    }
+}
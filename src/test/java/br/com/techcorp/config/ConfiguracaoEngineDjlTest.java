@@ -0,0 +1,66 @@
+package br.com.techcorp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConfiguracaoEngineDjlTest {
+
+    private static final List<String> PROPRIEDADES = List.of(ConfiguracaoEngineDjl.OFFLINE,
+            ConfiguracaoEngineDjl.THREADS, ConfiguracaoEngineDjl.THREADS_INTEROP);
+
+    private final Map<String, String> originais = new HashMap<>();
+
+    @BeforeEach
+    void guardarPropriedades() {
+        for (String propriedade : PROPRIEDADES) {
+            originais.put(propriedade, System.getProperty(propriedade));
+            System.clearProperty(propriedade);
+        }
+    }
+
+    @AfterEach
+    void restaurarPropriedades() {
+        for (String propriedade : PROPRIEDADES) {
+            String original = originais.get(propriedade);
+            if (original == null) {
+                System.clearProperty(propriedade);
+            } else {
+                System.setProperty(propriedade, original);
+            }
+        }
+    }
+
+    @Test
+    void defineAsPropriedadesDaDjlAPartirDeAiModelo() {
+        aplicar(new MockEnvironment().withProperty("ai.modelo.threads-por-predictor", "3"));
+
+        assertThat(System.getProperty(ConfiguracaoEngineDjl.OFFLINE)).isEqualTo("true");
+        assertThat(System.getProperty(ConfiguracaoEngineDjl.THREADS)).isEqualTo("3");
+        assertThat(System.getProperty(ConfiguracaoEngineDjl.THREADS_INTEROP)).isEqualTo("1");
+    }
+
+    @Test
+    void mantemOsValoresPassadosNaLinhaDeComando() {
+        System.setProperty(ConfiguracaoEngineDjl.THREADS, "8");
+
+        aplicar(new MockEnvironment()
+                .withProperty("ai.modelo.threadsPorPredictor", "2")
+                .withProperty("ai.modelo.offline", "false"));
+
+        assertThat(System.getProperty(ConfiguracaoEngineDjl.THREADS)).isEqualTo("8");
+        assertThat(System.getProperty(ConfiguracaoEngineDjl.OFFLINE)).isNull();
+    }
+
+    private static void aplicar(MockEnvironment ambiente) {
+        new ConfiguracaoEngineDjl().postProcessEnvironment(ambiente, new SpringApplication());
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.techcorp.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailTest {
+
+    @Test
+    void assuntoFicaNumaLinhaPropria() {
+        assertThat(new Email(null, null, "Fatura de outubro", "Segue o boleto.").getTextoParaClassificacao())
+                .isEqualTo("Fatura de outubro\nSegue o boleto.");
+    }
+
+    @Test
+    void partesAusentesNaoDeixamSeparador() {
+        assertThat(new Email(null, null, "Só assunto", null).getTextoParaClassificacao()).isEqualTo("Só assunto");
+        assertThat(new Email(null, null, "  ", "Só corpo").getTextoParaClassificacao()).isEqualTo("Só corpo");
+        assertThat(new Email().getTextoParaClassificacao()).isEmpty();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.techcorp.models;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultadoClassificacaoTest {
+
+    @Test
+    void mapaDeProbabilidadesSegueAOrdemDosSetores() {
+        ResultadoClassificacao resultado = new ResultadoClassificacao(SetorEmail.VENDAS, 0.7, "teste");
+        double[] probabilidades = new double[SetorEmail.values().length];
+        probabilidades[SetorEmail.VENDAS.ordinal()] = 0.7;
+        probabilidades[SetorEmail.MARKETING.ordinal()] = 0.3;
+        resultado.setProbabilidades(probabilidades);
+
+        Map<String, Double> mapa = resultado.getProbabilidadesSetores();
+
+        assertThat(mapa.keySet()).containsExactly(nomesDosSetores());
+        assertThat(mapa).containsEntry("VENDAS", 0.7).containsEntry("MARKETING", 0.3).containsEntry("RH", 0.0);
+        assertThat(resultado.getProbabilidade(SetorEmail.MARKETING)).isEqualTo(0.3);
+    }
+
+    @Test
+    void mapaInformadoSubstituiOVetor() {
+        ResultadoClassificacao resultado = new ResultadoClassificacao(SetorEmail.TI, 0.9, "teste");
+        resultado.setProbabilidades(new double[SetorEmail.values().length]);
+
+        resultado.setProbabilidadesSetores(Map.of("TI", 0.9));
+
+        assertThat(resultado.getProbabilidades()).isNull();
+        assertThat(resultado.getProbabilidade(SetorEmail.TI)).isEqualTo(0.9);
+        assertThat(resultado.getProbabilidade(SetorEmail.RH)).isZero();
+    }
+
+    @Test
+    void semProbabilidadesOSetorTemProbabilidadeZero() {
+        ResultadoClassificacao resultado = new ResultadoClassificacao(SetorEmail.TI, 0.9, "teste");
+
+        assertThat(resultado.getProbabilidadesSetores()).isNull();
+        assertThat(resultado.getProbabilidade(SetorEmail.TI)).isZero();
+    }
+
+    @Test
+    void jsonTrazSoOMapaPorNomeDeSetor() throws Exception {
+        ResultadoClassificacao resultado = new ResultadoClassificacao(SetorEmail.VENDAS, 0.7, "teste");
+        double[] probabilidades = new double[SetorEmail.values().length];
+        probabilidades[SetorEmail.VENDAS.ordinal()] = 0.7;
+        resultado.setProbabilidades(probabilidades);
+
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(resultado);
+
+        assertThat(json.has("probabilidades")).isFalse();
+        assertThat(json.get("probabilidadesSetores").get("VENDAS").asDouble()).isEqualTo(0.7);
+        assertThat(json.get("probabilidadesSetores").size()).isEqualTo(SetorEmail.values().length);
+    }
+
+    private static String[] nomesDosSetores() {
+        SetorEmail[] setores = SetorEmail.values();
+        String[] nomes = new String[setores.length];
+        for (int i = 0; i < setores.length; i++) {
+            nomes[i] = setores[i].name();
+        }
+        return nomes;
+    }
+}
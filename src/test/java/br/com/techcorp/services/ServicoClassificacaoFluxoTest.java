@@ -0,0 +1,147 @@
+package br.com.techcorp.services;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.ai.impl.ClassificadorBaseadoEmRegras;
+import br.com.techcorp.config.PropriedadesLote;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.SetorEmail;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServicoClassificacaoFluxoTest {
+
+    private static final String FLUXO = """
+            {"assunto": "Fatura de outubro", "corpo": "Segue o boleto para pagamento"}
+
+            não é json
+            {"assunto": "Currículo", "corpo": "Envio meu currículo para a vaga"}
+            """;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+    private final CountDownLatch liberarExecutor = new CountDownLatch(1);
+
+    @AfterEach
+    void encerrar() {
+        liberarExecutor.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void umResultadoPorLinhaNaOrdemDaEntrada() {
+        List<ResultadoClassificacao> resultados = classificar(FLUXO);
+
+        assertThat(resultados).hasSize(3);
+        assertThat(resultados.get(0).getSetor()).isEqualTo(SetorEmail.FINANCEIRO);
+        assertThat(resultados.get(1).getMotivo()).isEqualTo("Linha 3 não classificada: JSON inválido");
+        assertThat(resultados.get(2).getSetor()).isEqualTo(SetorEmail.RH);
+    }
+
+    @Test
+    void executorSaturadoRecusaSoALinhaSemInterromperOFluxo() {
+        // Uma tarefa ocupa a thread e outra a fila: toda linha nova é recusada
+        executor.execute(this::aguardarLiberacao);
+        executor.execute(this::aguardarLiberacao);
+
+        List<ResultadoClassificacao> resultados = classificar(FLUXO);
+
+        assertThat(resultados).hasSize(3);
+        assertThat(resultados).allSatisfy(resultado -> {
+            assertThat(resultado.getSetor()).isNull();
+            assertThat(resultado.getMotivo()).contains("executor de lotes saturado");
+        });
+        assertThat(resultados.get(1).getMotivo()).startsWith("Linha 3 ");
+    }
+
+    @Test
+    void noMaximoConcorrenciaFluxoLinhasEmClassificacao() {
+        ThreadPoolExecutor executorAmplo = new ThreadPoolExecutor(8, 8, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100));
+        ClassificadorLento classificador = new ClassificadorLento();
+        StringBuilder fluxo = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            fluxo.append("{\"assunto\": \"e-mail ").append(i).append("\"}\n");
+        }
+
+        try {
+            List<ResultadoClassificacao> resultados = classificar(fluxo.toString(), classificador, executorAmplo, 3);
+
+            assertThat(resultados).hasSize(30);
+            for (int i = 0; i < resultados.size(); i++) {
+                assertThat(resultados.get(i).getMotivo()).isEqualTo("e-mail " + i);
+            }
+            assertThat(classificador.maximoSimultaneas.get()).isBetween(1, 3);
+        } finally {
+            executorAmplo.shutdownNow();
+        }
+    }
+
+    private List<ResultadoClassificacao> classificar(String fluxo) {
+        return classificar(fluxo, new ClassificadorBaseadoEmRegras(), executor, 1);
+    }
+
+    private static List<ResultadoClassificacao> classificar(String fluxo, ClassificadorEmails classificador,
+            ThreadPoolExecutor executor, int concorrencia) {
+        PropriedadesLote propriedades = new PropriedadesLote();
+        propriedades.setConcorrenciaFluxo(concorrencia);
+        ServicoClassificacaoFluxo servico = new ServicoClassificacaoFluxo(classificador, new ObjectMapper(),
+                executor, propriedades);
+        return servico.classificar(new ByteArrayInputStream(fluxo.getBytes(StandardCharsets.UTF_8)))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private void aguardarLiberacao() {
+        try {
+            liberarExecutor.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Demora alguns milissegundos por e-mail e registra o pico de classificações simultâneas
+     */
+    private static final class ClassificadorLento implements ClassificadorEmails {
+
+        private final AtomicInteger simultaneas = new AtomicInteger();
+        private final AtomicInteger maximoSimultaneas = new AtomicInteger();
+
+        @Override
+        public ResultadoClassificacao classificar(Email email) {
+            maximoSimultaneas.accumulateAndGet(simultaneas.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                simultaneas.decrementAndGet();
+            }
+            return classificarTexto(email.getAssunto());
+        }
+
+        @Override
+        public ResultadoClassificacao classificarTexto(String texto) {
+            return new ResultadoClassificacao(SetorEmail.ATENDIMENTO, 0.5, texto);
+        }
+
+        @Override
+        public double getPrecisao() {
+            return 0.5;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.techcorp.services;
+
+import br.com.techcorp.ai.ClassificadorEmails;
+import br.com.techcorp.models.Email;
+import br.com.techcorp.models.ResultadoClassificacao;
+import br.com.techcorp.models.ResultadoItemLote;
+import br.com.techcorp.models.SetorEmail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServicoClassificacaoLoteTest {
+
+    private final ClassificadorAssunto classificador = new ClassificadorAssunto();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+    private final CountDownLatch liberarExecutor = new CountDownLatch(1);
+
+    @AfterEach
+    void encerrar() {
+        liberarExecutor.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void resultadosNaOrdemDaEntradaClassificadosNoExecutor() throws Exception {
+        List<Email> emails = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            emails.add(new Email("a@x.com", "b@x.com", "assunto " + i, "corpo"));
+        }
+
+        List<ResultadoItemLote> resultados = new ServicoClassificacaoLote(classificador, executor)
+                .classificar(emails).get(10, TimeUnit.SECONDS);
+
+        assertThat(resultados).hasSize(200);
+        for (int i = 0; i < resultados.size(); i++) {
+            assertThat(resultados.get(i).getIndice()).isEqualTo(i);
+            assertThat(resultados.get(i).isSucesso()).isTrue();
+            assertThat(resultados.get(i).getClassificacao().getMotivo()).isEqualTo("assunto " + i);
+        }
+        assertThat(classificador.threads).isNotEmpty().doesNotContain(Thread.currentThread().getName());
+    }
+
+    @Test
+    void errosFicamNoProprioItem() throws Exception {
+        List<Email> emails = new ArrayList<>();
+        emails.add(new Email("a@x.com", "b@x.com", "fatura", "corpo"));
+        emails.add(new Email("a@x.com", "b@x.com", " ", null));
+        emails.add(null);
+        emails.add(new Email("a@x.com", "b@x.com", "falha", "corpo"));
+
+        List<ResultadoItemLote> resultados = new ServicoClassificacaoLote(classificador, executor)
+                .classificar(emails).get(10, TimeUnit.SECONDS);
+
+        assertThat(resultados).extracting(ResultadoItemLote::isSucesso).containsExactly(true, false, false, false);
+        assertThat(resultados.get(1).getMensagem()).isEqualTo("Assunto ou corpo do e-mail é obrigatório");
+        assertThat(resultados.get(2).getMensagem()).isEqualTo("Assunto ou corpo do e-mail é obrigatório");
+        assertThat(resultados.get(3).getMensagem()).isEqualTo("Erro na classificação: falha simulada");
+    }
+
+    @Test
+    void loteVazioNaoUsaOExecutor() throws Exception {
+        assertThat(new ServicoClassificacaoLote(classificador, executor).classificar(List.of()).get()).isEmpty();
+        assertThat(executor.getTaskCount()).isZero();
+    }
+
+    @Test
+    void comParteDasThreadsOcupadasAsTarefasAceitasClassificamOLoteInteiro() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            executor.execute(this::aguardarLiberacao);
+        }
+        List<Email> emails = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            emails.add(new Email("a@x.com", "b@x.com", "assunto " + i, "corpo"));
+        }
+
+        List<ResultadoItemLote> resultados = new ServicoClassificacaoLote(classificador, executor)
+                .classificar(emails).get(10, TimeUnit.SECONDS);
+
+        assertThat(resultados).hasSize(20).allMatch(ResultadoItemLote::isSucesso);
+        assertThat(classificador.threads).hasSize(1);
+    }
+
+    @Test
+    void executorSemThreadLivreRecusaOLote() {
+        for (int i = 0; i < 4; i++) {
+            executor.execute(this::aguardarLiberacao);
+        }
+        ServicoClassificacaoLote servico = new ServicoClassificacaoLote(classificador, executor);
+        List<Email> emails = List.of(new Email("a@x.com", "b@x.com", "fatura", "corpo"));
+
+        assertThatThrownBy(() -> servico.classificar(emails)).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private void aguardarLiberacao() {
+        try {
+            liberarExecutor.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Devolve o assunto no motivo e registra as threads que classificaram
+     */
+    private static final class ClassificadorAssunto implements ClassificadorEmails {
+
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public ResultadoClassificacao classificar(Email email) {
+            if ("falha".equals(email.getAssunto())) {
+                throw new IllegalStateException("falha simulada");
+            }
+            threads.add(Thread.currentThread().getName());
+            return classificarTexto(email.getAssunto());
+        }
+
+        @Override
+        public ResultadoClassificacao classificarTexto(String texto) {
+            return new ResultadoClassificacao(SetorEmail.ATENDIMENTO, 0.5, texto);
+        }
+
+        @Override
+        public double getPrecisao() {
+            return 0.5;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.techcorp.ai.vizinhos;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Produto escalar com a Vector API
+ *
+ * Compilada só no perfil vetorial (mvn -Pvetorial package), para o build
+ * padrão não depender do módulo incubador. O ProdutoEscalar a instancia
+ * por reflexão quando ela está no classpath e o módulo
+ * jdk.incubator.vector está no boot layer.
+ */
+final class ProdutoEscalarVetorial implements ProdutoEscalar.Calculo {
+
+    private static final VectorSpecies<Float> ESPECIE = FloatVector.SPECIES_PREFERRED;
+
+    ProdutoEscalarVetorial() {
+    }
+
+    @Override
+    public float calcular(float[] consulta, ByteBuffer vetores, int posicao) {
+        int dimensao = consulta.length;
+        int largura = ESPECIE.length();
+        int limite = ESPECIE.loopBound(dimensao);
+
+        FloatVector acumulador = FloatVector.zero(ESPECIE);
+        int i = 0;
+        for (; i < limite; i += largura) {
+            FloatVector a = FloatVector.fromArray(ESPECIE, consulta, i);
+            FloatVector b = FloatVector.fromByteBuffer(ESPECIE, vetores, posicao + i * Float.BYTES,
+                    ProdutoEscalar.ORDEM);
+            acumulador = a.fma(b, acumulador);
+        }
+
+        float soma = acumulador.reduceLanes(VectorOperators.ADD);
+        for (; i < dimensao; i++) {
+            soma += consulta[i] * vetores.getFloat(posicao + i * Float.BYTES);
+        }
+        return soma;
+    }
+
+    @Override
+    public String descricao() {
+        return "Vector API (" + ESPECIE.vectorBitSize() + " bits)";
+    }
+}